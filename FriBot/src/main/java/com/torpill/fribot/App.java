@@ -12,6 +12,7 @@ import org.json.JSONObject;
 import com.torpill.fribot.api.weather.WeatherAPI;
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.bot.DiscordBotBuilder;
+import com.torpill.fribot.commands.Command;
 import com.torpill.fribot.commands.fun.ByeBroCommand;
 import com.torpill.fribot.commands.fun.ClydeCommand;
 import com.torpill.fribot.commands.fun.ComputerCommand;
@@ -21,6 +22,7 @@ import com.torpill.fribot.commands.fun.TVCommand;
 import com.torpill.fribot.commands.game.RightPriceCommand;
 import com.torpill.fribot.commands.tutorial.TutorialTorpill40Command;
 import com.torpill.fribot.commands.utility.WeatherCommand;
+import com.torpill.fribot.limits.RateLimiter;
 import com.torpill.fribot.listeners.NitroListener;
 import com.torpill.fribot.threads.RightPriceThread;
 import com.torpill.fribot.threads.WeatherThread;
@@ -59,17 +61,6 @@ public class App {
 
 	private static DiscordBot BOT;
 
-	static {
-
-		App.CONFIG = App.readConfig();
-		if (App.CONFIG == null) {
-
-			App.LOGGER.warn("Le fichier de configuration est vide, FriBot ne peut pas démarrer.");
-			App.createConfig();
-			System.exit(0);
-		}
-	}
-
 	private static void createConfig() {
 
 		try {
@@ -97,6 +88,14 @@ public class App {
 
 	public static void main(final String[] args) {
 
+		App.CONFIG = App.readConfig();
+		if (App.CONFIG == null) {
+
+			App.LOGGER.warn("Le fichier de configuration est vide, FriBot ne peut pas démarrer.");
+			App.createConfig();
+			System.exit(0);
+		}
+
 		final DiscordBotBuilder botBuilder = new DiscordBotBuilder();
 		App.CONFIG.keySet().forEach(key -> {
 
@@ -122,6 +121,65 @@ public class App {
 				botBuilder.setDevRole(JSON.getString(App.CONFIG, key));
 				break;
 
+			case "workers":
+				final JSONObject workers = JSON.getJSONObject(App.CONFIG, key);
+				if (workers == null) botBuilder.setWorkers(JSON.getInt(App.CONFIG, key));
+				else workers.keySet().forEach(cost -> botBuilder.setWorkers(Command.Cost.valueOf(cost.toUpperCase()), JSON.getInt(workers, cost)));
+				break;
+
+			case "timeouts":
+				final JSONObject timeouts = JSON.getJSONObject(App.CONFIG, key);
+				timeouts.keySet().forEach(cost -> botBuilder.setTimeout(Command.Cost.valueOf(cost.toUpperCase()), JSON.getDouble(timeouts, cost)));
+				break;
+
+			case "admission":
+				final JSONObject admission = JSON.getJSONObject(App.CONFIG, key);
+				admission.keySet().forEach(cost -> {
+
+					final JSONObject codel = JSON.getJSONObject(admission, cost);
+					botBuilder.setAdmission(Command.Cost.valueOf(cost.toUpperCase()), JSON.getDouble(codel, "target"), JSON.getDouble(codel, "interval"));
+				});
+				break;
+
+			case "weights":
+				final JSONObject weights = JSON.getJSONObject(App.CONFIG, key);
+				weights.keySet().forEach(server -> botBuilder.setWeight(Long.parseLong(server), JSON.getInt(weights, server)));
+				break;
+
+			case "drain":
+				botBuilder.setDrainTimeout(JSON.getDouble(App.CONFIG, key));
+				break;
+
+			case "identity":
+				botBuilder.setIdentityRefresh(JSON.getDouble(App.CONFIG, key));
+				break;
+
+			case "watchdog":
+				final JSONObject watchdog = JSON.getJSONObject(App.CONFIG, key);
+				botBuilder.setWatchdog(JSON.getDouble(watchdog, "slow"), JSON.getInt(watchdog, "strikes"), JSON.getDouble(watchdog, "quarantine"));
+				break;
+
+			case "queue":
+				botBuilder.setQueueSize(JSON.getInt(App.CONFIG, key));
+				break;
+
+			case "threads":
+				botBuilder.setVirtualThreads(JSON.getString(App.CONFIG, key).equalsIgnoreCase("virtual"));
+				break;
+
+			case "rateLimits":
+				final JSONObject rateLimits = JSON.getJSONObject(App.CONFIG, key);
+				rateLimits.keySet().forEach(category -> {
+
+					final JSONObject scopes = JSON.getJSONObject(rateLimits, category);
+					scopes.keySet().forEach(scope -> {
+
+						final JSONObject limit = JSON.getJSONObject(scopes, scope);
+						botBuilder.setRateLimit(Command.Category.valueOf(category.toUpperCase()), RateLimiter.Scope.valueOf(scope.toUpperCase()), JSON.getInt(limit, "capacity"), JSON.getDouble(limit, "period"));
+					});
+				});
+				break;
+
 			case "src":
 				App.SRC = JSON.getString(App.CONFIG, key);
 				break;
@@ -160,6 +218,7 @@ public class App {
 
 			// @formatter:on
 
+			Runtime.getRuntime().addShutdownHook(new Thread(App::shutdown, "Shutdown"));
 			App.LOGGER.info("FriBot est prêt !");
 
 		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
@@ -168,6 +227,22 @@ public class App {
 		}
 	}
 
+	/**
+	 *
+	 * Arrêt du programme : drainage du bot, suppression des fichiers temporaires
+	 * restants et écriture des journaux.
+	 *
+	 */
+	private static void shutdown() {
+
+		App.LOGGER.info("Arrêt de FriBot...");
+		App.BOT.shutdown();
+		final int deleted = App.TEMP.deleteAllInstances();
+		if (deleted > 0) App.LOGGER.info(deleted + " fichiers temporaires orphelins supprimés.");
+		App.LOGGER.info("FriBot est arrêté.");
+		LogManager.shutdown();
+	}
+
 	/**
 	 *
 	 * Retourne le bot de l'application.
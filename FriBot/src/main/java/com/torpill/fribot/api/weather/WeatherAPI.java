@@ -1,18 +1,27 @@
 package com.torpill.fribot.api.weather;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import com.torpill.fribot.App;
 import com.torpill.fribot.api.APIException;
+import com.torpill.fribot.limits.Bulkhead;
+import com.torpill.fribot.limits.BulkheadException;
+import com.torpill.fribot.limits.Dependency;
+import com.torpill.fribot.limits.Workload;
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
 import com.torpill.fribot.util.JSON;
 
 /**
@@ -26,6 +35,8 @@ import com.torpill.fribot.util.JSON;
 
 public class WeatherAPI {
 
+	private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
 	private String appID;
 	private final String baseURL = "http://api.openweathermap.org/data/2.5";
 
@@ -41,62 +52,82 @@ public class WeatherAPI {
 		this.appID = appID;
 	}
 
-	private JSONObject getForecastJSON(final String city) {
+	private CompletableFuture<JSONObject> getForecastJSON(final String city, final Deadline deadline) {
 
 		if (this.appID == null) {
 
 			App.LOGGER.error(APIException.NO_KEY);
-			throw new APIException(APIException.NO_KEY);
+			return CompletableFuture.failedFuture(new APIException(APIException.NO_KEY));
 		}
 
+		final HttpRequest request;
 		try {
 
-			final URL url = new URL(this.baseURL + "/forecast?q=" + city + "&units=metric&lang=fr&appid=" + this.appID);
-			final HttpURLConnection con = (HttpURLConnection) url.openConnection();
-			con.setRequestMethod("GET");
+			final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(this.baseURL + "/forecast?q=" + URLEncoder.encode(city, StandardCharsets.UTF_8) + "&units=metric&lang=fr&appid=" + this.appID)).GET();
+			builder.timeout(Duration.ofMillis(Dependency.WEATHER.BULKHEAD.getCallTimeout(deadline)));
+			request = builder.build();
+
+		} catch (final IllegalArgumentException e) {
+
+			App.LOGGER.error(APIException.BAD_URL);
+			return CompletableFuture.failedFuture(new APIException(APIException.BAD_URL));
+		}
+
+		return Workload.WEATHER.LIMIT.acquireAsync(deadline).thenCompose(permit -> {
 
-			final InputStream response = con.getInputStream();
-			final BufferedReader reader = new BufferedReader(new InputStreamReader(response));
+			final Bulkhead.Permit slot;
+			try {
 
-			final StringBuilder builder = new StringBuilder();
+				slot = Dependency.WEATHER.BULKHEAD.enter();
 
-			String line;
-			while ((line = reader.readLine()) != null) {
+			} catch (final RuntimeException e) {
 
-				builder.append(line + "\n");
+				permit.close();
+				throw e;
 			}
 
-			reader.close();
-			con.disconnect();
+			return WeatherAPI.CLIENT.sendAsync(request, BodyHandlers.ofString()).whenComplete((response, error) -> {
 
-			return new JSONObject(builder.toString());
+				slot.close();
+				permit.close();
+			});
 
-		} catch (final MalformedURLException e) {
+		}).handle((response, error) -> {
 
-			App.LOGGER.error(APIException.BAD_URL);
-			throw new APIException(APIException.BAD_URL);
+			final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			if (cause instanceof BulkheadException || cause instanceof DeadlineException) throw (RuntimeException) cause;
+			if (cause instanceof HttpTimeoutException || cause != null && cause.getCause() instanceof HttpTimeoutException) throw Dependency.WEATHER.BULKHEAD.timedOut(deadline);
+			if (cause != null || response.statusCode() != 200) {
 
-		} catch (final IOException e) {
+				App.LOGGER.error(APIException.NO_CONNECTION);
+				return null;
+			}
 
-			App.LOGGER.error(APIException.NO_CONNECTION);
-			return null;
-		}
+			return new JSONObject(response.body());
+		});
 	}
 
 	/**
 	 *
-	 * Récupérer les prévisions sur 5 jours d'une ville.
+	 * Récupérer les prévisions sur 5 jours d'une ville, sans bloquer le thread
+	 * appelant pendant la requête. La requête est bornée par l'échéance de
+	 * l'exécution en cours.
 	 *
 	 * @param cityName
 	 *            : nom de la ville dont on veut récupérer les prévisions.
-	 * @return prévisons météo de la ville
+	 * @return prévisons météo de la ville à venir
 	 *
 	 * @see com.torpill.fribot.api.weather.WeatherCity
 	 * @see com.torpill.fribot.api.weather.Weather
 	 */
-	public WeatherCity getForecast(final String cityName) {
+	public CompletableFuture<WeatherCity> getForecast(final String cityName) {
+
+		final Deadline deadline = Deadline.current();
+		return deadline.bound(this.getForecastJSON(cityName, deadline).thenApply(this::parseForecast));
+	}
+
+	private WeatherCity parseForecast(final JSONObject forecast) {
 
-		final JSONObject forecast = this.getForecastJSON(cityName);
 		if (forecast == null) return null;
 
 		final JSONObject city = JSON.getJSONObject(forecast, "city");
@@ -0,0 +1,242 @@
+package com.torpill.fribot.bot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ *
+ * Cette classe représente un cache des décisions d'accès aux commandes, par
+ * serveur, utilisateur et commande. Une décision n'est évaluée qu'une fois,
+ * puis réutilisée jusqu'à ce qu'un évènement Discord modifie les rôles ou les
+ * permissions concernés : l'utilisateur, tout le serveur ou tout le cache sont
+ * alors oubliés.<br />
+ * Le cache est borné : lorsqu'un nouveau membre dépasse la capacité, les
+ * membres utilisés le moins récemment sont oubliés, par un seul thread à la
+ * fois et jamais lors d'une décision déjà connue. Une décision connue ne coûte
+ * qu'une recherche dans une table concurrente, sans verrou.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.bot.PermissionPolicy
+ * @see com.torpill.fribot.listeners.PermissionListener
+ *
+ */
+
+public class AccessCache {
+
+	/**
+	 *
+	 * Nombre de membres gardés par défaut.
+	 */
+	public static final int DEFAULT_CAPACITY = 10_000;
+
+	private final Map<Member, Decisions> members = new ConcurrentHashMap<>();
+	private final int capacity;
+	private final ReentrantLock eviction = new ReentrantLock();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 *
+	 * Constructeur de la classe <code>AccessCache</code>.
+	 *
+	 * @see com.torpill.fribot.bot.AccessCache#DEFAULT_CAPACITY
+	 */
+	public AccessCache() {
+
+		this(AccessCache.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 *
+	 * Constructeur de la classe <code>AccessCache</code>.
+	 *
+	 * @param capacity
+	 *            : nombre maximum de membres dont les décisions sont gardées.
+	 */
+	public AccessCache(final int capacity) {
+
+		this.capacity = Math.max(1, capacity);
+	}
+
+	private Decisions decisions(final long server, final long user) {
+
+		final Member member = new Member(server, user);
+		final Decisions decisions = this.members.get(member);
+		if (decisions != null) {
+
+			decisions.used = System.nanoTime();
+			return decisions;
+		}
+
+		final Decisions created = this.members.computeIfAbsent(member, m -> new Decisions());
+		created.used = System.nanoTime();
+		if (this.members.size() > this.capacity) this.evict();
+		return created;
+	}
+
+	private void evict() {
+
+		if (!this.eviction.tryLock()) return;
+		try {
+
+			final int excess = this.members.size() - (this.capacity - this.capacity / 10);
+			if (excess <= 0) return;
+
+			final List<Map.Entry<Member, Decisions>> entries = new ArrayList<>(this.members.entrySet());
+			final long[] used = new long[entries.size()];
+			final Integer[] order = new Integer[entries.size()];
+			for (int i = 0; i < order.length; i++) {
+
+				used[i] = entries.get(i).getValue().used;
+				order[i] = i;
+			}
+
+			Arrays.sort(order, Comparator.comparingLong(i -> used[i]));
+			for (int i = 0; i < Math.min(excess, order.length); i++) {
+
+				final Map.Entry<Member, Decisions> entry = entries.get(order[i]);
+				this.members.remove(entry.getKey(), entry.getValue());
+			}
+
+		} finally {
+
+			this.eviction.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer la décision d'accès d'un utilisateur à une commande, en
+	 * l'évaluant si elle n'est pas connue.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 * @param user
+	 *            : ID de l'utilisateur.
+	 * @param command
+	 *            : nom de la commande.
+	 * @param evaluate
+	 *            : évaluation complète de la décision.
+	 * @return booléen, <code>true</code> si l'utilisateur peut exécuter la
+	 *         commande
+	 */
+	public boolean isAllowed(final long server, final long user, final String command, final BooleanSupplier evaluate) {
+
+		final Decisions decisions = this.decisions(server, user);
+		final Boolean decision = decisions.get(command);
+		if (decision != null) {
+
+			this.hits.incrementAndGet();
+			return decision;
+		}
+
+		this.misses.incrementAndGet();
+		final boolean allowed = evaluate.getAsBoolean();
+		decisions.put(command, allowed);
+		return allowed;
+	}
+
+	/**
+	 *
+	 * Oublier les décisions d'un utilisateur sur un serveur.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 * @param user
+	 *            : ID de l'utilisateur.
+	 */
+	public void invalidate(final long server, final long user) {
+
+		this.members.remove(new Member(server, user));
+	}
+
+	/**
+	 *
+	 * Oublier les décisions de tous les utilisateurs d'un serveur.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 */
+	public void invalidate(final long server) {
+
+		this.members.keySet().removeIf(member -> member.server() == server);
+	}
+
+	/**
+	 *
+	 * Oublier toutes les décisions.
+	 */
+	public void clear() {
+
+		this.members.clear();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de membres dont les décisions sont gardées.
+	 *
+	 * @return nombre de membres
+	 */
+	public int size() {
+
+		return this.members.size();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de décisions réutilisées depuis le démarrage.
+	 *
+	 * @return nombre de décisions
+	 */
+	public long getHits() {
+
+		return this.hits.get();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de décisions évaluées depuis le démarrage.
+	 *
+	 * @return nombre de décisions
+	 */
+	public long getMisses() {
+
+		return this.misses.get();
+	}
+
+	/**
+	 *
+	 * Cette classe représente un membre d'un serveur, clé du cache.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 * @param user
+	 *            : ID de l'utilisateur.
+	 */
+	private record Member(long server, long user) {
+	}
+
+	/**
+	 *
+	 * Cette classe représente les décisions d'un membre et la date de leur
+	 * dernière utilisation.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	private static class Decisions extends ConcurrentHashMap<String, Boolean> {
+
+		private static final long serialVersionUID = 1L;
+
+		private volatile long used;
+	}
+}
@@ -5,11 +5,19 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -25,7 +33,19 @@ import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.App;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.limits.AdaptiveLimit;
+import com.torpill.fribot.limits.Bulkhead;
+import com.torpill.fribot.limits.Dependency;
+import com.torpill.fribot.limits.RateLimiter;
+import com.torpill.fribot.limits.Workload;
+import com.torpill.fribot.listeners.MessageFilter;
+import com.torpill.fribot.threads.BotExecutor;
+import com.torpill.fribot.threads.BotTask;
 import com.torpill.fribot.threads.BotThread;
+import com.torpill.fribot.threads.SingleFlight;
+import com.torpill.fribot.threads.Watchdog;
+import com.torpill.fribot.util.Deadline;
 
 /**
  *
@@ -39,13 +59,40 @@ import com.torpill.fribot.threads.BotThread;
 
 public class DiscordBot {
 
+	private static final long SHUTDOWN_GRACE = 2_000L;
+
 	private final String prefix;
 	private final Map<String, Command> commands;
 	private final Map<Command.Category, List<Command>> categories;
-	private final Map<Class<? extends BotThread>, BotThread> threads;
+	private final Map<Class<?>, BotThread<?>> threads;
+	private final Map<String, PermissionPolicy> policies;
 	private final Color color;
 	private final String role, devrole;
 	private DiscordApi api;
+	private BotExecutor executor;
+	private RateLimiter rateLimiter;
+	private Map<Command.Cost, Long> timeouts = Collections.emptyMap();
+	private final SingleFlight singleFlight = new SingleFlight();
+	private final AccessCache access = new AccessCache();
+	private Watchdog watchdog;
+	private final Map<CompletableFuture<?>, Deadline> inFlight = new ConcurrentHashMap<>();
+	private long drainTimeout = 20_000L;
+	private volatile boolean draining = false;
+	private volatile Identity identity;
+	private volatile MessageFilter filter;
+	private final Map<Long, MemberIndex> members = new ConcurrentHashMap<>();
+
+	private static final Pattern USER_MENTION = Pattern.compile("^<@!?([0-9]{1,})>$");
+	private static final Pattern USER_ID = Pattern.compile("^[0-9]{1,}$");
+	private static final Pattern DISCRIMINATED_NAME = Pattern.compile("^.{1,}#[0-9]{4}$");
+	private static final int MAX_CANDIDATES = 10;
+	private long identityRefresh = 3_600_000L;
+	private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+
+		final Thread thread = new Thread(runnable, "Identité");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	/**
 	 *
@@ -69,6 +116,7 @@ public class DiscordBot {
 		this.commands = new HashMap<>();
 		this.categories = new HashMap<>();
 		this.threads = new HashMap<>();
+		this.policies = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -91,6 +139,112 @@ public class DiscordBot {
 		App.LOGGER.debug("Commande {} (\u001B[4m\u001B[91m{}\u001B[96m.class\u001B[0m) ajoutée dans {}.", command.getName(), command.getClass().getSimpleName(), command.getCategory());
 
 		category.add(command);
+		this.policies.put(command.getName(), new PermissionPolicy(command, this.role, this.devrole));
+	}
+
+	/**
+	 *
+	 * Oublier les rôles résolus d'un serveur dans les règles d'accès des
+	 * commandes, lorsque les rôles du serveur changent.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 *
+	 * @see com.torpill.fribot.bot.PermissionPolicy
+	 */
+	public void invalidatePolicies(final long server) {
+
+		this.policies.values().forEach(policy -> policy.invalidate(server));
+		this.access.invalidate(server);
+	}
+
+	/**
+	 *
+	 * Oublier les décisions d'accès d'un utilisateur sur un serveur, lorsque ses
+	 * rôles changent ou qu'il quitte le serveur.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 * @param user
+	 *            : ID de l'utilisateur.
+	 *
+	 * @see com.torpill.fribot.bot.AccessCache
+	 */
+	public void invalidateAccess(final long server, final long user) {
+
+		this.access.invalidate(server, user);
+	}
+
+	/**
+	 *
+	 * Récupérer l'index des membres d'un serveur, en le construisant s'il n'existe
+	 * pas encore.
+	 *
+	 * @param server
+	 *            : serveur des membres.
+	 * @return index des membres
+	 *
+	 * @see com.torpill.fribot.bot.MemberIndex
+	 */
+	public MemberIndex getMemberIndex(final Server server) {
+
+		return this.members.computeIfAbsent(server.getId(), id -> {
+
+			final MemberIndex index = new MemberIndex();
+			for (final User member : server.getMembers()) index.put(member.getId(), member.getDisplayName(server), member.getName(), member.getDiscriminatedName());
+			return index;
+		});
+	}
+
+	/**
+	 *
+	 * Mettre à jour un membre dans l'index des membres d'un serveur, lorsqu'il
+	 * arrive sur le serveur ou change de nom. Rien n'est fait si l'index du
+	 * serveur n'est pas encore construit.
+	 *
+	 * @param server
+	 *            : serveur du membre.
+	 * @param member
+	 *            : membre à mettre à jour.
+	 *
+	 * @see com.torpill.fribot.bot.MemberIndex
+	 */
+	public void indexMember(final Server server, final User member) {
+
+		final MemberIndex index = this.members.get(server.getId());
+		if (index != null) index.put(member.getId(), member.getDisplayName(server), member.getName(), member.getDiscriminatedName());
+	}
+
+	/**
+	 *
+	 * Retirer un membre de l'index des membres d'un serveur, lorsqu'il quitte le
+	 * serveur.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 * @param member
+	 *            : ID du membre.
+	 *
+	 * @see com.torpill.fribot.bot.MemberIndex
+	 */
+	public void unindexMember(final long server, final long member) {
+
+		final MemberIndex index = this.members.get(server);
+		if (index != null) index.remove(member);
+	}
+
+	/**
+	 *
+	 * Oublier l'index des membres d'un serveur, lorsque le bot quitte le serveur.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 *
+	 * @see com.torpill.fribot.bot.MemberIndex
+	 */
+	public void invalidateMembers(final long server) {
+
+		this.members.remove(server);
 	}
 
 	/**
@@ -102,27 +256,324 @@ public class DiscordBot {
 	 *
 	 * @see com.torpill.fribot.threads.BotThread
 	 */
-	public void addThread(final BotThread thread) {
+	public void addThread(final BotThread<?> thread) {
 
 		this.threads.put(thread.getClass(), thread);
 	}
 
 	/**
 	 *
-	 * Relier l'API Javacord avec le bot.
+	 * Relier l'API Javacord avec le bot. L'identité du bot est résolue une
+	 * première fois, puis rafraîchie périodiquement en arrière-plan. Le filtre
+	 * rapide des messages est construit à ce moment, une fois l'ID du bot connu.
 	 *
 	 * @param api
 	 *            : API Javacord.
 	 * @return this
 	 *
 	 * @see org.javacord.api.DiscordApi
+	 * @see com.torpill.fribot.bot.DiscordBot#refreshIdentity()
 	 */
 	public DiscordBot api(final DiscordApi api) {
 
 		this.api = api;
+		this.refreshIdentity().join();
+		this.filter = new MessageFilter(this.prefix, api.getYourself().getId());
+		this.refresher.scheduleAtFixedRate(this::refreshIdentity, this.identityRefresh, this.identityRefresh, TimeUnit.MILLISECONDS);
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer la période de rafraîchissement de l'identité du bot.
+	 *
+	 * @param identityRefresh
+	 *            : période en millisecondes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.bot.Identity
+	 */
+	public DiscordBot identityRefresh(final long identityRefresh) {
+
+		this.identityRefresh = Math.max(1L, identityRefresh);
+		return this;
+	}
+
+	/**
+	 *
+	 * Résoudre à nouveau l'identité du bot : son propriétaire, son utilisateur et
+	 * ses rôles configurés. En cas d'échec, l'instantané précédent est conservé.
+	 *
+	 * @return identité à venir
+	 *
+	 * @see com.torpill.fribot.bot.Identity
+	 */
+	public CompletableFuture<Identity> refreshIdentity() {
+
+		return this.api.getOwner().thenApply(owner -> this.identity = new Identity(owner, this.api.getYourself(), this.role, this.devrole)).exceptionally(e -> {
+
+			App.LOGGER.error("Impossible de résoudre le propriétaire du bot : ", e);
+			if (this.identity == null) this.identity = new Identity(null, this.api.getYourself(), this.role, this.devrole);
+			return this.identity;
+		});
+	}
+
+	/**
+	 *
+	 * Récupérer l'identité actuelle du bot.
+	 *
+	 * @return identité
+	 *
+	 * @see com.torpill.fribot.bot.Identity
+	 */
+	public Identity getIdentity() {
+
+		return this.identity;
+	}
+
+	/**
+	 *
+	 * Relier le moteur d'exécution des threads avec le bot.
+	 *
+	 * @param executor
+	 *            : moteur d'exécution.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.threads.BotExecutor
+	 */
+	public DiscordBot executor(final BotExecutor executor) {
+
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 *
+	 * Récupérer le moteur d'exécution des threads du bot.
+	 *
+	 * @return moteur d'exécution
+	 *
+	 * @see com.torpill.fribot.threads.BotExecutor
+	 */
+	public BotExecutor getExecutor() {
+
+		return this.executor;
+	}
+
+	/**
+	 *
+	 * Relier le limiteur de débit des commandes avec le bot.
+	 *
+	 * @param rateLimiter
+	 *            : limiteur de débit.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.limits.RateLimiter
+	 */
+	public DiscordBot rateLimiter(final RateLimiter rateLimiter) {
+
+		this.rateLimiter = rateLimiter;
+		return this;
+	}
+
+	/**
+	 *
+	 * Récupérer le limiteur de débit des commandes du bot.
+	 *
+	 * @return limiteur de débit
+	 *
+	 * @see com.torpill.fribot.limits.RateLimiter
+	 */
+	public RateLimiter getRateLimiter() {
+
+		return this.rateLimiter;
+	}
+
+	/**
+	 *
+	 * Relier les durées maximales d'exécution des commandes avec le bot.
+	 *
+	 * @param timeouts
+	 *            : durées maximales en millisecondes par classe de coût, les
+	 *            classes absentes utilisent leur valeur par défaut.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 */
+	public DiscordBot timeouts(final Map<Command.Cost, Long> timeouts) {
+
+		this.timeouts = timeouts;
+		return this;
+	}
+
+	/**
+	 *
+	 * Récupérer la durée maximale d'exécution d'une commande d'une classe de coût.
+	 *
+	 * @param cost
+	 *            : classe de coût.
+	 * @return durée maximale en millisecondes
+	 *
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 */
+	public long getTimeoutFor(final Command.Cost cost) {
+
+		return this.timeouts.getOrDefault(cost, cost.TIMEOUT * 1000L);
+	}
+
+	/**
+	 *
+	 * Récupérer le gestionnaire des calculs partagés entre commandes identiques.
+	 *
+	 * @return gestionnaire des calculs partagés
+	 *
+	 * @see com.torpill.fribot.threads.SingleFlight
+	 * @see com.torpill.fribot.commands.SharedCommand
+	 */
+	public SingleFlight getSingleFlight() {
+
+		return this.singleFlight;
+	}
+
+	/**
+	 *
+	 * Récupérer le cache des décisions d'accès aux commandes.
+	 *
+	 * @return cache des décisions
+	 *
+	 * @see com.torpill.fribot.bot.AccessCache
+	 */
+	public AccessCache getAccessCache() {
+
+		return this.access;
+	}
+
+	/**
+	 *
+	 * Relier le surveillant des commandes avec le bot.
+	 *
+	 * @param watchdog
+	 *            : surveillant des commandes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.threads.Watchdog
+	 */
+	public DiscordBot watchdog(final Watchdog watchdog) {
+
+		this.watchdog = watchdog;
 		return this;
 	}
 
+	/**
+	 *
+	 * Récupérer le surveillant des commandes du bot.
+	 *
+	 * @return surveillant des commandes
+	 *
+	 * @see com.torpill.fribot.threads.Watchdog
+	 */
+	public Watchdog getWatchdog() {
+
+		return this.watchdog;
+	}
+
+	/**
+	 *
+	 * Configurer la durée laissée aux commandes en cours pour se terminer lors de
+	 * l'arrêt du bot.
+	 *
+	 * @param drainTimeout
+	 *            : durée en millisecondes.
+	 * @return this
+	 */
+	public DiscordBot drainTimeout(final long drainTimeout) {
+
+		this.drainTimeout = drainTimeout;
+		return this;
+	}
+
+	/**
+	 *
+	 * Suivre une commande en cours d'exécution, afin de pouvoir l'attendre ou
+	 * l'annuler lors de l'arrêt du bot.
+	 *
+	 * @param command
+	 *            : résultat à venir de la commande.
+	 * @param deadline
+	 *            : échéance de la commande.
+	 *
+	 * @see com.torpill.fribot.util.Deadline
+	 */
+	public void track(final CompletableFuture<?> command, final Deadline deadline) {
+
+		this.inFlight.put(command, deadline);
+		command.whenComplete((result, error) -> this.inFlight.remove(command));
+	}
+
+	/**
+	 *
+	 * Savoir si le bot est en cours d'arrêt et n'accepte plus de commandes.
+	 *
+	 * @return booléen
+	 */
+	public boolean isDraining() {
+
+		return this.draining;
+	}
+
+	/**
+	 *
+	 * Arrêter le bot proprement. Les nouvelles commandes sont refusées, les
+	 * commandes et threads en cours disposent de la durée de drainage pour se
+	 * terminer, puis ceux qui restent sont annulés.
+	 *
+	 * @see com.torpill.fribot.bot.DiscordBot#drainTimeout(long)
+	 */
+	public void shutdown() {
+
+		this.draining = true;
+		final Deadline budget = Deadline.in(this.drainTimeout, TimeUnit.MILLISECONDS);
+		App.LOGGER.info("Arrêt en cours : " + this.inFlight.size() + " commandes en cours, " + this.executor.getActiveWorkers() + " travailleurs actifs, " + this.executor.getQueueDepth() + " en attente.");
+
+		this.executor.shutdown();
+		try {
+
+			final boolean threads = this.executor.awaitTermination(budget.remainingMillis());
+			CompletableFuture.allOf(this.inFlight.keySet().toArray(new CompletableFuture<?>[0])).get(budget.remainingMillis(), TimeUnit.MILLISECONDS);
+			if (threads) App.LOGGER.info("Toutes les commandes en cours sont terminées.");
+
+		} catch (final TimeoutException | ExecutionException e) {
+
+			App.LOGGER.debug("Drainage incomplet : " + e.getClass().getSimpleName());
+
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+		}
+
+		this.inFlight.keySet().removeIf(CompletableFuture::isDone);
+		if (!this.inFlight.isEmpty() || this.executor.getActiveWorkers() > 0) {
+
+			App.LOGGER.warn("Durée de drainage écoulée : annulation de " + this.inFlight.size() + " commandes et interruption de " + this.executor.getActiveWorkers() + " travailleurs.");
+		}
+		this.inFlight.values().forEach(Deadline::cancel);
+		final int dropped = this.executor.shutdownNow();
+		if (dropped > 0) App.LOGGER.warn(dropped + " threads en attente abandonnés.");
+
+		try {
+
+			this.executor.awaitTermination(DiscordBot.SHUTDOWN_GRACE);
+
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+		}
+
+		this.watchdog.shutdown();
+		this.refresher.shutdownNow();
+		if (this.api != null) this.api.disconnect();
+	}
+
 	/**
 	 *
 	 * Récupérer le préfix du bot.
@@ -167,7 +618,7 @@ public class DiscordBot {
 	 */
 	public Role getUserRole(final Server server) {
 
-		final Optional<Role> role = server.getRoleById(this.role);
+		final Optional<Role> role = server.getRoleById(this.identity.getUserRole());
 		return role.isPresent() ? role.get() : null;
 	}
 
@@ -182,7 +633,7 @@ public class DiscordBot {
 	 */
 	public Role getDevRole(final Server server) {
 
-		final Optional<Role> devrole = server.getRoleById(this.devrole);
+		final Optional<Role> devrole = server.getRoleById(this.identity.getDevRole());
 		return devrole.isPresent() ? devrole.get() : null;
 	}
 
@@ -196,16 +647,21 @@ public class DiscordBot {
 	 */
 	public User owner() {
 
-		try {
-
-			return this.api.getOwner().get();
-
-		} catch (InterruptedException | ExecutionException e) {
+		return this.identity.getOwner();
+	}
 
-			App.LOGGER.error("ERREUR: ", e);
-		}
+	/**
+	 *
+	 * Récupérer le filtre rapide des messages.
+	 *
+	 * @return filtre des messages, <code>null</code> tant que le bot n'est pas
+	 *         connecté
+	 *
+	 * @see com.torpill.fribot.listeners.MessageFilter
+	 */
+	public MessageFilter getMessageFilter() {
 
-		return null;
+		return this.filter;
 	}
 
 	/**
@@ -218,7 +674,7 @@ public class DiscordBot {
 	 */
 	public User bot() {
 
-		return this.api.getYourself();
+		return this.identity.getSelf();
 	}
 
 	/**
@@ -235,80 +691,81 @@ public class DiscordBot {
 	 *            : serveur dans lequel est exécutée la commande.
 	 * @param commandName
 	 *            : nom de la commande exécutée.
-	 * @param args
-	 *            : arguments passés à la commande.
-	 * @return code d'erreur
+	 * @param content
+	 *            : contenu du message, dont sont découpés les arguments.
+	 * @return code d'erreur à venir
 	 *
 	 * @see org.javacord.api.entity.user.User
 	 * @see org.javacord.api.entity.channel.TextChannel
 	 * @see org.javacord.api.entity.message.Message
 	 * @see org.javacord.api.entity.server.Server
-	 * @see com.torpill.fribot.commands.Command
+	 * @see com.torpill.fribot.commands.Command#executeAsync(DiscordBot,
+	 *      ParsedArguments, CommandContext)
 	 */
-	public int execute(final User user, final TextChannel channel, final Message message, final Server server, final String commandName, final String... args) {
+	public CompletionStage<Integer> execute(final User user, final TextChannel channel, final Message message, final Server server, final String commandName, final String content) {
 
 		final Command command = this.commands.get(commandName);
 
-		if (command == null) return -1;
+		if (command == null) return CompletableFuture.completedFuture(-1);
 		if (command.deleteCommandUsage()) {
 
 			message.delete();
 		}
+		final CommandContext context = new CommandContext(this, user, channel, message, server);
 		if (!this.isOwner(user)) {
 
-			if (command.isPrivate()) return -2;
-
-			if (this.onBlacklist(user, commandName, server) == 1) return -2;
-			else if (this.onWhitelist(user, commandName, server) == 0) return -2;
-			else if (!this.isAdmin(user, server)) {
-
-				if (this.onRoleBlacklist(user, commandName, server) == 1) return -2;
-				else if (this.onRoleWhitelist(user, commandName, server) == 0) return -2;
-				else if (this.canUse(user, commandName, server) == 0) return -2;
-			}
+			if (command.isPrivate()) return CompletableFuture.completedFuture(-2);
+			if (!this.access.isAllowed(server.getId(), user.getId(), commandName, () -> this.isAllowed(context, commandName))) return CompletableFuture.completedFuture(-2);
 		}
 
-		return command.execute(this, command.parseArguments(args), user, channel, server);
+		if (this.watchdog.isQuarantined(commandName)) return CompletableFuture.completedFuture(-3);
+
+		return command.executeAsync(this, command.parseArguments(content, this.prefix.length(), context), context);
 	}
 
 	/**
 	 *
 	 * Démarrer un thread connu du bot.
 	 *
+	 * @param <P>
+	 *            : type des paramètres du thread.
 	 * @param thread
 	 *            : class du thread à démarrer.
-	 * @param args
-	 *            : arguments passés au thread.
+	 * @param params
+	 *            : paramètres passés au thread.
 	 * @return code d'erreur
 	 *
 	 * @see com.torpill.fribot.threads.BotThread
+	 * @see com.torpill.fribot.threads.BotTask
+	 * @see com.torpill.fribot.threads.BotExecutor
 	 */
-	public int startThread(final Class<? extends BotThread> thread, final Object... args) {
-
-		BotThread target = null;
-		try {
-
-			target = this.threads.get(thread).clone();
-
-		} catch (final CloneNotSupportedException e) {
-
-			e.printStackTrace();
-		}
+	@SuppressWarnings("unchecked")
+	public <P extends BotThread.Params> int startThread(final Class<? extends BotThread<P>> thread, final P params) {
 
+		final BotThread<P> target = (BotThread<P>) this.threads.get(thread);
 		if (target == null) return -1;
 
-		App.LOGGER.debug("BotThread '" + target.getName() + "' trouvé, préparation de l'éxecution.");
+		App.LOGGER.debug("Démarrage de '" + target.getName() + "'.");
+		if (!this.executor.execute(new BotTask<>(target, params))) return 3;
 
-		final int response = target.setArgs(args);
-		if (response == 0) {
+		return 0;
+	}
 
-			final Thread thr = new Thread(target);
-			thr.setName(target.getName());
-			App.LOGGER.debug("Démarrage de '" + thr.getName() + "'.");
-			thr.start();
-		}
+	/**
+	 *
+	 * Générer l'embed par défaut du bot, sans utilisateur.
+	 *
+	 * @param title
+	 *            : titre de l'embed.
+	 * @param description
+	 *            : description de l'embed.
+	 * @return embed par défaut
+	 *
+	 * @see org.javacord.api.entity.message.embed.EmbedBuilder
+	 */
+	public EmbedBuilder defaultEmbedBuilder(final String title, final String description) {
 
-		return response;
+		return this.defaultEmbedBuilder(title, description, (User) null);
 	}
 
 	/**
@@ -337,7 +794,7 @@ public class DiscordBot {
 			embed.setDescription(description);
 		}
 		embed.setColor(this.color);
-		embed.setThumbnail(this.api.getYourself().getAvatar());
+		embed.setThumbnail(this.identity.getSelf().getAvatar());
 		if (user != null) {
 
 			embed.setFooter("En réponse à " + user.getDiscriminatedName(), user.getAvatar());
@@ -345,6 +802,39 @@ public class DiscordBot {
 		return embed;
 	}
 
+	/**
+	 *
+	 * Générer l'embed par défaut du bot en réponse à l'utilisateur d'une
+	 * commande, avec les avatars mémorisés par son contexte.
+	 *
+	 * @param title
+	 *            : titre de l'embed.
+	 * @param description
+	 *            : description de l'embed.
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @return embed par défaut
+	 *
+	 * @see org.javacord.api.entity.message.embed.EmbedBuilder
+	 * @see com.torpill.fribot.commands.CommandContext
+	 */
+	public EmbedBuilder defaultEmbedBuilder(final String title, final String description, final CommandContext context) {
+
+		final EmbedBuilder embed = new EmbedBuilder();
+		if (title != null) {
+
+			embed.setTitle(title);
+		}
+		if (description != null) {
+
+			embed.setDescription(description);
+		}
+		embed.setColor(this.color);
+		embed.setThumbnail(context.getBotAvatar());
+		embed.setFooter("En réponse à " + context.getUser().getDiscriminatedName(), context.getUserAvatar());
+		return embed;
+	}
+
 	/**
 	 *
 	 * Renvoyer le message d'aide d'une commande.
@@ -414,6 +904,40 @@ public class DiscordBot {
 		return command == null ? null : command.getCategory().NAME;
 	}
 
+	/**
+	 *
+	 * Renvoyer la catégorie d'une commande.
+	 *
+	 * @param commandName
+	 *            : nom de la commande.
+	 * @return catégorie
+	 *
+	 * @see com.torpill.fribot.commands.Command
+	 * @see com.torpill.fribot.commands.Command.Category
+	 */
+	public Command.Category categoryOf(final String commandName) {
+
+		final Command command = this.commands.get(commandName);
+		return command == null ? null : command.getCategory();
+	}
+
+	/**
+	 *
+	 * Renvoyer la classe de coût d'une commande.
+	 *
+	 * @param commandName
+	 *            : nom de la commande.
+	 * @return classe de coût
+	 *
+	 * @see com.torpill.fribot.commands.Command
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 */
+	public Command.Cost getCostFor(final String commandName) {
+
+		final Command command = this.commands.get(commandName);
+		return command == null ? null : command.getCost();
+	}
+
 	/**
 	 *
 	 * Récupérer les commandes dans une catégorie particulière.
@@ -442,7 +966,34 @@ public class DiscordBot {
 	 */
 	public boolean is(final User user) {
 
-		return this.api.getYourself() == user;
+		return this.identity.getSelf().getId() == user.getId();
+	}
+
+	/**
+	 *
+	 * Évaluer complètement l'accès d'un utilisateur à une commande : listes
+	 * d'utilisateurs, puis, hors administrateurs, listes de rôles et
+	 * permissions.
+	 *
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @param commandName
+	 *            : nom de la commande.
+	 * @return booléen
+	 *
+	 * @see com.torpill.fribot.bot.AccessCache
+	 */
+	private boolean isAllowed(final CommandContext context, final String commandName) {
+
+		final User user = context.getUser();
+		final Server server = context.getServer();
+		if (this.onBlacklist(user, commandName, server) == 1) return false;
+		else if (this.onWhitelist(user, commandName, server) == 0) return false;
+		else if (context.isAdmin()) return true;
+
+		if (this.onRoleBlacklist(user, commandName, server) == 1) return false;
+		else if (this.onRoleWhitelist(user, commandName, server) == 0) return false;
+		return this.canUse(context, commandName) != 0;
 	}
 
 	/**
@@ -484,7 +1035,8 @@ public class DiscordBot {
 	 */
 	public boolean isOwner(final User user) {
 
-		if (user.getId() == this.owner().getId()) {
+		final User owner = this.owner();
+		if (owner != null && user.getId() == owner.getId()) {
 
 			App.LOGGER.debug(user.getDiscriminatedName() + " est le propriétaire du bot.");
 			return true;
@@ -497,45 +1049,22 @@ public class DiscordBot {
 	 *
 	 * Vérifier si un utilisateur à les permissions pour exécuter une commande.
 	 *
-	 * @param user
-	 *            : utilisateur voulant exécuter la commande.
+	 * @param context
+	 *            : contexte de l'exécution.
 	 * @param commandName
 	 *            : commande à exécuter.
-	 * @param server
-	 *            : serveur sur lequel l'utilisateur veut exécuter la commande.
 	 * @return code d'exécution
 	 *
-	 * @see org.javacord.api.entity.user.User
-	 * @see org.javacord.api.entity.server.Server
+	 * @see com.torpill.fribot.commands.CommandContext
 	 * @see org.javacord.api.entity.permission.PermissionType
 	 * @see com.torpill.fribot.commands.Command
 	 */
-	public int canUse(final User user, final String commandName, final Server server) {
-
-		final Command command = this.commands.get(commandName);
-		final List<PermissionType> needed = command.permissionNeeded();
-		final Collection<PermissionType> userPermissions = server.getAllowedPermissions(user);
-		if (needed != null) {
-
-			for (final PermissionType permission : needed) {
-
-				if (!userPermissions.contains(permission)) {
-
-					App.LOGGER.debug(user.getDiscriminatedName() + " n'a pas toute les permissions requises.");
-					return 0;
-				}
-			}
-
-			App.LOGGER.debug(user.getDiscriminatedName() + " a pas toute les permissions requises.");
-			return 1;
-
-		} else {
+	public int canUse(final CommandContext context, final String commandName) {
 
-			App.LOGGER.debug("Pas de permission requise.");
-			return -1;
-		}
+		return this.policies.get(commandName).canUse(context);
 	}
 
+
 	/**
 	 *
 	 * Savoir si un utilisateur est sur la liste noire d'une commande.
@@ -554,29 +1083,10 @@ public class DiscordBot {
 	 */
 	public int onBlacklist(final User user, final String commandName, final Server server) {
 
-		final Command command = this.commands.get(commandName);
-		final List<User> blackListedUsers = command.blackListedUsers(this, server);
-		if (blackListedUsers != null) {
-
-			for (final User blackListedUser : blackListedUsers) {
-
-				if (blackListedUser != null && user.getId() == blackListedUser.getId()) {
-
-					App.LOGGER.debug(user.getDiscriminatedName() + " est sur la liste noire.");
-					return 1;
-				}
-			}
-
-			App.LOGGER.debug(user.getDiscriminatedName() + " n'est sur la liste noire.");
-			return 0;
-
-		} else {
-
-			App.LOGGER.debug("Pas de liste noire.");
-			return -1;
-		}
+		return this.policies.get(commandName).onBlacklist(user);
 	}
 
+
 	/**
 	 *
 	 * Savoir si un utilisateur est sur la liste blanche d'une commande.
@@ -595,29 +1105,10 @@ public class DiscordBot {
 	 */
 	public int onWhitelist(final User user, final String commandName, final Server server) {
 
-		final Command command = this.commands.get(commandName);
-		final List<User> whiteListedUsers = command.whiteListedUsers(this, server);
-		if (whiteListedUsers != null) {
-
-			for (final User whiteListedUser : whiteListedUsers) {
-
-				if (whiteListedUser != null && user.getId() == whiteListedUser.getId()) {
-
-					App.LOGGER.debug(user.getDiscriminatedName() + " est sur la liste blanche.");
-					return 1;
-				}
-			}
-
-			App.LOGGER.debug(user.getDiscriminatedName() + " n'est pas sur la liste blanche.");
-			return 0;
-
-		} else {
-
-			App.LOGGER.debug("Pas de liste blanche.");
-			return -1;
-		}
+		return this.policies.get(commandName).onWhitelist(user);
 	}
 
+
 	/**
 	 *
 	 * Savoir si un utilisateur possède un role sur la liste noire d'une commande.
@@ -637,30 +1128,10 @@ public class DiscordBot {
 	 */
 	public int onRoleBlacklist(final User user, final String commandName, final Server server) {
 
-		final Command command = this.commands.get(commandName);
-		final List<Role> userRoles = server.getRoles(user);
-		final List<Role> blackListedRoles = command.blackListedRoles(this, server);
-		if (blackListedRoles != null) {
-
-			for (final Role blackListedRole : blackListedRoles) {
-
-				if (blackListedRole != null && userRoles.contains(blackListedRole)) {
-
-					App.LOGGER.debug(user.getDiscriminatedName() + " a un role sur la liste noire.");
-					return 1;
-				}
-			}
-
-			App.LOGGER.debug(user.getDiscriminatedName() + " n'a pas de role sur la liste noire.");
-			return 0;
-
-		} else {
-
-			App.LOGGER.debug("Pas de liste noire pour les roles.");
-			return -1;
-		}
+		return this.policies.get(commandName).onRoleBlacklist(user, server);
 	}
 
+
 	/**
 	 *
 	 * Savoir si un utilisateur possède un role sur la liste blanche d'une commande.
@@ -680,30 +1151,10 @@ public class DiscordBot {
 	 */
 	public int onRoleWhitelist(final User user, final String commandName, final Server server) {
 
-		final Command command = this.commands.get(commandName);
-		final List<Role> userRoles = server.getRoles(user);
-		final List<Role> whiteListedRoles = command.whiteListedRoles(this, server);
-		if (whiteListedRoles != null) {
-
-			for (final Role whiteListedRole : whiteListedRoles) {
-
-				if (whiteListedRole != null && userRoles.contains(whiteListedRole)) {
-
-					App.LOGGER.debug(user.getDiscriminatedName() + " a un role sur la liste blanche.");
-					return 1;
-				}
-			}
-
-			App.LOGGER.debug(user.getDiscriminatedName() + " n'a pas de role sur la liste blanche.");
-			return 0;
-
-		} else {
-
-			App.LOGGER.debug("Pas de liste blanche pour les roles.");
-			return -1;
-		}
+		return this.policies.get(commandName).onRoleWhitelist(user, server);
 	}
 
+
 	/**
 	 *
 	 * Savoir si une commande est privée.
@@ -757,122 +1208,6 @@ public class DiscordBot {
 		return server.getRoles();
 	}
 
-	/**
-	 *
-	 * Récupérer les rôles, dont les IDs ont été passés en arguments, du serveur
-	 * passé en argument.
-	 *
-	 * @param server
-	 *            : serveur dont on veut récupérer les rôles.
-	 * @param roles
-	 *            : IDs des rôles que l'on veut récupérer.
-	 * @return liste des rôles
-	 *
-	 * @see org.javacord.api.entity.permission.Role
-	 * @see org.javacord.api.entity.server.Server
-	 */
-	public List<Role> roles(final Server server, final String... roles) {
-
-		final List<Role> list = new ArrayList<>();
-		for (String roleId : roles) {
-
-			if (roleId.equals("user-role")) roleId = this.getUserRoleID();
-			if (roleId.equals("dev-role")) roleId = this.getDevRoleID();
-			server.getRoleById(roleId).ifPresent(role -> {
-
-				list.add(role);
-			});
-		}
-		return list;
-	}
-
-	/**
-	 *
-	 * Récupérer les rôles, dont les IDs ont été passés en arguments, du serveur
-	 * passé en argument.
-	 *
-	 * @param server
-	 *            : serveur dont on veut récupérer les rôles.
-	 * @param roles
-	 *            : IDs des rôles que l'on veut récupérer.
-	 * @return liste des rôles
-	 *
-	 * @see org.javacord.api.entity.permission.Role
-	 * @see org.javacord.api.entity.server.Server
-	 */
-	public List<Role> rolesList(final Server server, final List<String> roles) {
-
-		if (roles == null) return null;
-		final List<Role> list = new ArrayList<>();
-		for (String roleId : roles) {
-
-			if (roleId.equals("user-role")) roleId = this.getUserRoleID();
-			if (roleId.equals("dev-role")) roleId = this.getDevRoleID();
-			server.getRoleById(roleId).ifPresent(role -> {
-
-				list.add(role);
-			});
-		}
-		return list;
-	}
-
-	/**
-	 *
-	 * Récupérer les utilisateurs dont les IDs ont été passés en arguments.
-	 *
-	 * @param users
-	 *            : IDs des utilisateurs que l'on veut récupérer.
-	 * @return liste des utilisateurs
-	 *
-	 * @see org.javacord.api.entity.user.User
-	 * @see org.javacord.api.entity.server.Server
-	 */
-	public List<User> users(final String... users) {
-
-		final List<User> list = new ArrayList<>();
-		for (final String userId : users) {
-
-			try {
-
-				list.add(this.api.getUserById(userId).get());
-
-			} catch (InterruptedException | ExecutionException e) {
-
-				App.LOGGER.error("ERREUR: ", e);
-			}
-		}
-		return list;
-	}
-
-	/**
-	 *
-	 * Récupérer les utilisateurs dont les IDs ont été passés en arguments.
-	 *
-	 * @param users
-	 *            : IDs des utilisateurs que l'on veut récupérer.
-	 * @return liste des utilisateurs
-	 *
-	 * @see org.javacord.api.entity.user.User
-	 * @see org.javacord.api.entity.server.Server
-	 */
-	public List<User> usersList(final List<String> users) {
-
-		if (users == null) return null;
-		final List<User> list = new ArrayList<>();
-		for (final String userId : users) {
-
-			try {
-
-				list.add(this.api.getUserById(userId).get());
-
-			} catch (InterruptedException | ExecutionException e) {
-
-				App.LOGGER.error("ERREUR: ", e);
-			}
-		}
-		return list;
-	}
-
 	/**
 	 *
 	 * Récupérer la date de création du bot.
@@ -881,7 +1216,7 @@ public class DiscordBot {
 	 */
 	public String getCreationDate() {
 
-		return this.api.getYourself().getCreationTimestamp().toString();
+		return this.identity.getSelf().getCreationTimestamp().toString();
 	}
 
 	/**
@@ -892,7 +1227,7 @@ public class DiscordBot {
 	 */
 	public String getName() {
 
-		return this.api.getYourself().getDiscriminatedName();
+		return this.identity.getSelf().getDiscriminatedName();
 	}
 
 	/**
@@ -944,13 +1279,18 @@ public class DiscordBot {
 	 */
 	public BufferedImage getAvatar(final User user) {
 
-		try {
+		final Bulkhead bulkhead = Dependency.AVATAR.BULKHEAD;
+		try (AdaptiveLimit.Permit permit = Workload.AVATAR.LIMIT.acquire(); Bulkhead.Permit slot = bulkhead.enter()) {
 
-			return user.getAvatar().asBufferedImage().get();
+			return user.getAvatar().asBufferedImage().get(bulkhead.getCallTimeout(Deadline.current()), TimeUnit.MILLISECONDS);
 
 		} catch (InterruptedException | ExecutionException e) {
 
 			App.LOGGER.error("ERREUR: ", e);
+
+		} catch (final TimeoutException e) {
+
+			throw bulkhead.timedOut(Deadline.current());
 		}
 
 		return new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
@@ -1041,19 +1381,20 @@ public class DiscordBot {
 	 */
 	public User getUser(final Server server, final TextChannel channel, final User user, final String member) {
 
-		if (member.matches("^<@!?[0-9]{1,}>$")) {
+		final Matcher mention = DiscordBot.USER_MENTION.matcher(member);
+		if (mention.matches()) {
 
-			final User user0 = this.getUserFromMention(member);
+			final User user0 = this.getUserFromID(server, mention.group(1));
 			if (user0 == null) channel.sendMessage(this.defaultEmbedBuilder("Membre inconnu :", "La mention passée en paramètre n'existe pas.", user).addField("Mention :", member));
 			return user0;
 
-		} else if (member.matches("^[0-9]{1,}$")) {
+		} else if (DiscordBot.USER_ID.matcher(member).matches()) {
 
-			final User user0 = this.getUserFromID(member);
+			final User user0 = this.getUserFromID(server, member);
 			if (user0 == null) channel.sendMessage(this.defaultEmbedBuilder("Membre inconnu :", "L'ID passé en paramètre n'existe pas.", user).addField("ID :", member));
 			return user0;
 
-		} else if (member.matches("^.{1,}#[0-9]{4}$")) {
+		} else if (DiscordBot.DISCRIMINATED_NAME.matcher(member).matches()) {
 
 			final User user0 = this.getUserFromDiscriminatedName(server, member);
 			if (user0 == null) channel.sendMessage(this.defaultEmbedBuilder("Membre inconnu :", "Le pseudo passé en paramètre n'existe pas.", user).addField("Pseudo :", member));
@@ -1063,29 +1404,31 @@ public class DiscordBot {
 
 			final List<User> displayUsers = this.getUsersFromDisplayName(server, member);
 			if (displayUsers.size() == 1) return displayUsers.get(0);
-			final boolean flag = displayUsers.size() > 1;
 			final List<User> nameUsers = this.getUserFromName(server, member);
 			if (nameUsers.size() == 1) return nameUsers.get(0);
-			else if (nameUsers.size() == 0) {
-
-				if (flag) {
-
-					final EmbedBuilder embed = this.defaultEmbedBuilder("Plusieurs membres possibles :", "Le pseudo passé en paramètre correspond à plusieurs membres du serveur. Réessaies avec un membre ci-dessous.", user);
-					for (final User user0 : displayUsers) embed.addInlineField(user0.getDisplayName(server) + " :", user0.getDiscriminatedName());
-					channel.sendMessage(embed);
-
-				} else channel.sendMessage(this.defaultEmbedBuilder("Membre inconnu :", "Le pseudo passé en paramètre n'existe pas.", user).addField("Pseudo :", member));
+			else if (nameUsers.size() > 1) this.sendCandidates(server, channel, user, nameUsers);
+			else if (displayUsers.size() > 1) this.sendCandidates(server, channel, user, displayUsers);
+			else {
 
-			} else {
+				final MemberIndex index = this.getMemberIndex(server);
+				final List<User> prefixUsers = this.getMembers(server, index.findByPrefix(member, 2));
+				if (prefixUsers.size() == 1) return prefixUsers.get(0);
 
-				final EmbedBuilder embed = this.defaultEmbedBuilder("Plusieurs membres possibles :", "Le pseudo passé en paramètre correspond à plusieurs membres du serveur. Réessaies avec un membre ci-dessous.", user);
-				for (final User user0 : nameUsers) embed.addInlineField(user0.getDisplayName(server) + " :", user0.getDiscriminatedName());
-				channel.sendMessage(embed);
+				final List<User> candidates = this.getMembers(server, index.search(member, DiscordBot.MAX_CANDIDATES));
+				if (candidates.isEmpty()) channel.sendMessage(this.defaultEmbedBuilder("Membre inconnu :", "Le pseudo passé en paramètre n'existe pas.", user).addField("Pseudo :", member));
+				else this.sendCandidates(server, channel, user, candidates);
 			}
 			return null;
 		}
 	}
 
+	private void sendCandidates(final Server server, final TextChannel channel, final User user, final List<User> candidates) {
+
+		final EmbedBuilder embed = this.defaultEmbedBuilder("Plusieurs membres possibles :", "Le pseudo passé en paramètre correspond à plusieurs membres du serveur. Réessaies avec un membre ci-dessous.", user);
+		for (final User user0 : candidates) embed.addInlineField(user0.getDisplayName(server) + " :", user0.getDiscriminatedName());
+		channel.sendMessage(embed);
+	}
+
 	/**
 	 *
 	 * Récupérer un utilisateur depuis une mention.
@@ -1109,6 +1452,34 @@ public class DiscordBot {
 		}
 	}
 
+	/**
+	 *
+	 * Récupérer un utilisateur depuis un ID, parmi les membres du serveur d'abord.
+	 *
+	 * @param server
+	 *            : serveur sur lequel on cherche l'utilisateur
+	 * @param id
+	 *            : ID de l'utilisateur
+	 * @return utilisateur correspondant
+	 *
+	 * @see org.javacord.api.entity.user.User
+	 * @see org.javacord.api.entity.server.Server
+	 */
+	public User getUserFromID(final Server server, final String id) {
+
+		try {
+
+			final Optional<User> optUser = server.getMemberById(Long.parseLong(id));
+			if (optUser.isPresent()) return optUser.get();
+
+		} catch (final NumberFormatException e) {
+
+			return null;
+		}
+
+		return this.getUserFromID(id);
+	}
+
 	/**
 	 *
 	 * Récupérer un utilisateur depuis un ID.
@@ -1147,10 +1518,7 @@ public class DiscordBot {
 	 */
 	public List<User> getUserFromName(final Server server, final String name) {
 
-		final Collection<User> colUsers = server.getMembersByNameIgnoreCase(name);
-		final List<User> users = new ArrayList<>(colUsers);
-
-		return users;
+		return this.getMembers(server, this.getMemberIndex(server).findByName(name));
 	}
 
 	/**
@@ -1168,11 +1536,9 @@ public class DiscordBot {
 	 */
 	public User getUserFromDiscriminatedName(final Server server, final String discriminatedName) {
 
-		final Optional<User> optUser = server.getMemberByDiscriminatedNameIgnoreCase(discriminatedName);
-
-		if (optUser.isPresent()) return optUser.get();
+		final List<User> users = this.getMembers(server, this.getMemberIndex(server).findByDiscriminatedName(discriminatedName));
 
-		return null;
+		return users.isEmpty() ? null : users.get(0);
 	}
 
 	/**
@@ -1190,8 +1556,18 @@ public class DiscordBot {
 	 */
 	public List<User> getUsersFromDisplayName(final Server server, final String name) {
 
-		final Collection<User> colUsers = server.getMembersByDisplayNameIgnoreCase(name);
-		final List<User> users = new ArrayList<>(colUsers);
+		return this.getMembers(server, this.getMemberIndex(server).findByDisplayName(name));
+	}
+
+	private List<User> getMembers(final Server server, final long[] ids) {
+
+		final List<User> users = new ArrayList<>(ids.length);
+		for (final long id : ids) {
+
+			final Optional<User> optUser = server.getMemberById(id);
+			if (optUser.isPresent()) users.add(optUser.get());
+			else this.unindexMember(server.getId(), id);
+		}
 
 		return users;
 	}
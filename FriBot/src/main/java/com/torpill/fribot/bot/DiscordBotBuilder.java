@@ -4,7 +4,10 @@ import java.awt.Color;
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.javacord.api.DiscordApi;
 import org.javacord.api.DiscordApiBuilder;
@@ -23,12 +26,19 @@ import com.torpill.fribot.commands.utility.MemberArgsCommand;
 import com.torpill.fribot.commands.utility.NoneArgsCommand;
 import com.torpill.fribot.commands.utility.QuoteArgsCommand;
 import com.torpill.fribot.commands.utility.RawArgsCommand;
+import com.torpill.fribot.commands.utility.StatsCommand;
 import com.torpill.fribot.commands.utility.TypeCommand;
+import com.torpill.fribot.limits.CoDel;
+import com.torpill.fribot.limits.RateLimiter;
 import com.torpill.fribot.listeners.BotListener;
 import com.torpill.fribot.listeners.CommandListener;
+import com.torpill.fribot.listeners.MemberListener;
+import com.torpill.fribot.listeners.PermissionListener;
+import com.torpill.fribot.threads.BotExecutor;
 import com.torpill.fribot.threads.BotThread;
 import com.torpill.fribot.threads.CommandThread;
 import com.torpill.fribot.threads.HelpThread;
+import com.torpill.fribot.threads.Watchdog;
 import com.torpill.fribot.util.FileUtils;
 
 /**
@@ -45,9 +55,21 @@ public class DiscordBotBuilder {
 	private String prefix = "?:";
 	private Color color = Color.WHITE;
 	private String role = null, devrole = null;
+	private int queueSize = 256;
+	private boolean virtualThreads = false;
 	private final List<Class<? extends BotListener>> listeners;
 	private final List<Class<? extends Command>> commands;
-	private final List<Class<? extends BotThread>> threads;
+	private final List<Class<? extends BotThread<?>>> threads;
+	private final Map<Command.Cost, Integer> workers;
+	private final RateLimiter rateLimiter;
+	private final Map<Command.Cost, Long> timeouts;
+	private final Map<Command.Cost, CoDel> admission;
+	private final Map<Long, Integer> weights;
+	private long drainTimeout = 20_000L;
+	private long identityRefresh = 3_600_000L;
+	private double slowRatio = 0.5;
+	private int strikes = 3;
+	private long quarantine = 600_000L;
 
 	/**
 	 *
@@ -59,6 +81,11 @@ public class DiscordBotBuilder {
 		this.listeners = new ArrayList<>();
 		this.commands = new ArrayList<>();
 		this.threads = new ArrayList<>();
+		this.workers = new EnumMap<>(Command.Cost.class);
+		this.rateLimiter = new RateLimiter();
+		this.timeouts = new EnumMap<>(Command.Cost.class);
+		this.admission = new EnumMap<>(Command.Cost.class);
+		this.weights = new HashMap<>();
 	}
 
 	/**
@@ -80,11 +107,13 @@ public class DiscordBotBuilder {
 	public DiscordBot build() throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
 
 		final DiscordApiBuilder builder = new DiscordApiBuilder().setToken(this.token);
-		final DiscordBot bot = new DiscordBot(this.prefix, this.color, this.role, this.devrole);
+		final DiscordBot bot = new DiscordBot(this.prefix, this.color, this.role, this.devrole).executor(new BotExecutor(this.workers, this.queueSize, this.admission, this.weights, this.virtualThreads)).rateLimiter(this.rateLimiter).timeouts(this.timeouts).drainTimeout(this.drainTimeout).identityRefresh(this.identityRefresh).watchdog(new Watchdog(this.slowRatio, this.strikes, this.quarantine));
 
 		// @formatter:off
 
 		this.addListener(CommandListener.class)
+			.addListener(PermissionListener.class)
+			.addListener(MemberListener.class)
 			.addCommand(HelpCommand.class)
 			.addCommand(InfoCommand.class)
 			.addCommand(NoneArgsCommand.class)
@@ -95,6 +124,7 @@ public class DiscordBotBuilder {
 			.addCommand(TypeCommand.class)
 			.addCommand(DevRoleCommand.class)
 			.addCommand(ImageCommand.class)
+			.addCommand(StatsCommand.class)
 			.addThread(CommandThread.class)
 			.addThread(HelpThread.class);
 
@@ -107,10 +137,10 @@ public class DiscordBotBuilder {
 
 		for (final Class<? extends Command> command : this.commands) {
 
-			bot.addCommand(command.newInstance());
+			bot.addCommand(command.getDeclaredConstructor().newInstance());
 		}
 
-		for (final Class<? extends BotThread> thread : this.threads) {
+		for (final Class<? extends BotThread<?>> thread : this.threads) {
 
 			bot.addThread(thread.getConstructor(DiscordBot.class).newInstance(bot));
 		}
@@ -207,6 +237,226 @@ public class DiscordBotBuilder {
 		return this;
 	}
 
+	/**
+	 *
+	 * Configurer le nombre maximum de travailleurs de la voie d'exécution d'une
+	 * classe de coût.
+	 *
+	 * @param cost
+	 *            : classe de coût.
+	 * @param workers
+	 *            : nombre de travailleurs.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.threads.BotExecutor
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 */
+	public DiscordBotBuilder setWorkers(final Command.Cost cost, final int workers) {
+
+		this.workers.put(cost, workers);
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer le nombre total de travailleurs, réparti entre les voies
+	 * d'exécution au prorata de leurs valeurs par défaut, chaque voie gardant au
+	 * moins un travailleur. C'est le sens de la forme numérique de
+	 * <code>"workers"</code>, qui dimensionnait l'unique pool de travailleurs
+	 * avant la séparation en voies.
+	 *
+	 * @param workers
+	 *            : nombre total de travailleurs.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.bot.DiscordBotBuilder#setWorkers(Command.Cost, int)
+	 */
+	public DiscordBotBuilder setWorkers(final int workers) {
+
+		int defaults = 0;
+		for (final Command.Cost cost : Command.Cost.values()) defaults += cost.WORKERS;
+		for (final Command.Cost cost : Command.Cost.values()) this.workers.put(cost, Math.max(1, Math.round((float) workers * cost.WORKERS / defaults)));
+
+		App.LOGGER.info("{} travailleurs répartis entre les voies d'exécution : {}.", workers, this.workers);
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer la taille de la file d'attente de chaque voie d'exécution.
+	 *
+	 * @param queueSize
+	 *            : nombre maximum de threads en attente.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.threads.BotExecutor
+	 */
+	public DiscordBotBuilder setQueueSize(final int queueSize) {
+
+		this.queueSize = queueSize;
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer l'exécution des threads du bot sur des threads virtuels.
+	 *
+	 * @param virtualThreads
+	 *            : utiliser des threads virtuels.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.threads.BotExecutor
+	 */
+	public DiscordBotBuilder setVirtualThreads(final boolean virtualThreads) {
+
+		this.virtualThreads = virtualThreads;
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer une limite de débit des commandes.
+	 *
+	 * @param category
+	 *            : catégorie de commande limitée.
+	 * @param scope
+	 *            : portée de la limite.
+	 * @param capacity
+	 *            : nombre de commandes autorisées par période, 0 pour désactiver
+	 *            la limite.
+	 * @param period
+	 *            : période en secondes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.limits.RateLimiter
+	 */
+	public DiscordBotBuilder setRateLimit(final Command.Category category, final RateLimiter.Scope scope, final int capacity, final double period) {
+
+		this.rateLimiter.setLimit(category, scope, capacity, (long) (period * 1000L));
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer la durée maximale d'exécution des commandes d'une classe de
+	 * coût. Passée cette durée, la commande est annulée.
+	 *
+	 * @param cost
+	 *            : classe de coût.
+	 * @param timeout
+	 *            : durée maximale en secondes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.util.Deadline
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 */
+	public DiscordBotBuilder setTimeout(final Command.Cost cost, final double timeout) {
+
+		this.timeouts.put(cost, (long) (timeout * 1000L));
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer le contrôle d'admission d'une voie d'exécution. Lorsque l'attente
+	 * des threads d'une voie reste au-dessus de la cible pendant tout un
+	 * intervalle, les nouveaux threads sont délestés.
+	 *
+	 * @param cost
+	 *            : classe de coût de la voie.
+	 * @param target
+	 *            : temps d'attente cible en secondes.
+	 * @param interval
+	 *            : intervalle en secondes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.limits.CoDel
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 */
+	public DiscordBotBuilder setAdmission(final Command.Cost cost, final double target, final double interval) {
+
+		this.admission.put(cost, new CoDel((long) (target * 1000L), (long) (interval * 1000L)));
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer le poids d'un serveur dans le partage des voies d'exécution. Un
+	 * serveur de poids 2 reçoit deux fois plus de temps de calcul qu'un serveur de
+	 * poids 1 lorsque les voies sont saturées.
+	 *
+	 * @param serverId
+	 *            : ID du serveur.
+	 * @param weight
+	 *            : poids du serveur.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.threads.FairQueue
+	 */
+	public DiscordBotBuilder setWeight(final long serverId, final int weight) {
+
+		this.weights.put(serverId, weight);
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer la durée laissée aux commandes en cours pour se terminer lors de
+	 * l'arrêt du bot.
+	 *
+	 * @param drainTimeout
+	 *            : durée en secondes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.bot.DiscordBot#shutdown()
+	 */
+	public DiscordBotBuilder setDrainTimeout(final double drainTimeout) {
+
+		this.drainTimeout = (long) (drainTimeout * 1000L);
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer la période de rafraîchissement de l'identité du bot :
+	 * propriétaire, utilisateur du bot et rôles configurés.
+	 *
+	 * @param identityRefresh
+	 *            : période en secondes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.bot.Identity
+	 */
+	public DiscordBotBuilder setIdentityRefresh(final double identityRefresh) {
+
+		this.identityRefresh = (long) (identityRefresh * 1000L);
+		return this;
+	}
+
+	/**
+	 *
+	 * Configurer la surveillance des commandes.
+	 *
+	 * @param slowRatio
+	 *            : fraction de la durée maximale d'exécution au-delà de laquelle
+	 *            une commande est signalée comme lente.
+	 * @param strikes
+	 *            : nombre de dépassements consécutifs de la durée maximale avant
+	 *            la mise en quarantaine d'une commande.
+	 * @param quarantine
+	 *            : durée de la quarantaine en secondes.
+	 * @return this
+	 *
+	 * @see com.torpill.fribot.threads.Watchdog
+	 */
+	public DiscordBotBuilder setWatchdog(final double slowRatio, final int strikes, final double quarantine) {
+
+		this.slowRatio = slowRatio;
+		this.strikes = strikes;
+		this.quarantine = (long) (quarantine * 1000L);
+		return this;
+	}
+
 	/**
 	 *
 	 * Ajouter un écouteur au bot.<br />
@@ -259,7 +509,7 @@ public class DiscordBotBuilder {
 	 * @see com.torpill.fribot.threads.BotThread
 	 * @see com.torpill.fribot.bot.DiscordBot
 	 */
-	public DiscordBotBuilder addThread(final Class<? extends BotThread> thread) {
+	public DiscordBotBuilder addThread(final Class<? extends BotThread<?>> thread) {
 
 		this.threads.add(thread);
 		return this;
@@ -0,0 +1,104 @@
+package com.torpill.fribot.bot;
+
+import org.javacord.api.entity.user.User;
+
+/**
+ *
+ * Cette classe représente un instantané de l'identité du bot : son
+ * propriétaire, son propre utilisateur et les IDs des rôles configurés. Il est
+ * résolu à la connexion puis remplacé périodiquement en arrière-plan, de sorte
+ * que l'exécution d'une commande n'attende jamais l'API Discord pour le
+ * connaître.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.bot.DiscordBot#refreshIdentity()
+ *
+ */
+
+public class Identity {
+
+	private final User owner, self;
+	private final long userRole, devRole;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>Identity</code>.
+	 *
+	 * @param owner
+	 *            : propriétaire du bot.
+	 * @param self
+	 *            : utilisateur du bot.
+	 * @param userRole
+	 *            : ID du rôle utilisateur.
+	 * @param devRole
+	 *            : ID du rôle développeur.
+	 */
+	public Identity(final User owner, final User self, final String userRole, final String devRole) {
+
+		this.owner = owner;
+		this.self = self;
+		this.userRole = Identity.id(userRole);
+		this.devRole = Identity.id(devRole);
+	}
+
+	private static long id(final String id) {
+
+		try {
+
+			return id == null ? 0L : Long.parseLong(id);
+
+		} catch (final NumberFormatException e) {
+
+			return 0L;
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer le propriétaire du bot.
+	 *
+	 * @return propriétaire
+	 *
+	 * @see org.javacord.api.entity.user.User
+	 */
+	public User getOwner() {
+
+		return this.owner;
+	}
+
+	/**
+	 *
+	 * Récupérer l'utilisateur du bot.
+	 *
+	 * @return bot
+	 *
+	 * @see org.javacord.api.entity.user.User
+	 */
+	public User getSelf() {
+
+		return this.self;
+	}
+
+	/**
+	 *
+	 * Récupérer l'ID du rôle utilisateur.
+	 *
+	 * @return ID du rôle, 0 s'il n'est pas configuré
+	 */
+	public long getUserRole() {
+
+		return this.userRole;
+	}
+
+	/**
+	 *
+	 * Récupérer l'ID du rôle développeur.
+	 *
+	 * @return ID du rôle, 0 s'il n'est pas configuré
+	 */
+	public long getDevRole() {
+
+		return this.devRole;
+	}
+}
@@ -0,0 +1,363 @@
+package com.torpill.fribot.bot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ *
+ * Cette classe représente l'index des membres d'un serveur : les noms visibles,
+ * pseudos et pseudos avec discriminant, sans tenir compte de la casse, y sont
+ * associés aux IDs des membres. L'index est construit une fois puis tenu à jour
+ * par les arrivées, départs et changements de nom des membres, de sorte qu'un
+ * membre soit retrouvé sans parcourir tout le serveur.<br />
+ * Les noms visibles et pseudos sont aussi indexés par ordre alphabétique et par
+ * trigrammes, pour retrouver les membres dont le nom commence par un texte ou
+ * lui ressemble, classés du plus au moins proche.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.bot.DiscordBot#getUser(org.javacord.api.entity.server.Server,
+ *      org.javacord.api.entity.channel.TextChannel,
+ *      org.javacord.api.entity.user.User, String)
+ * @see com.torpill.fribot.listeners.MemberListener
+ *
+ */
+
+public class MemberIndex {
+
+	private final Map<String, Set<Long>> displayNames = new HashMap<>();
+	private final Map<String, Set<Long>> names = new HashMap<>();
+	private final Map<String, Set<Long>> discriminatedNames = new HashMap<>();
+	private final Map<Long, String[]> members = new HashMap<>();
+	private final NavigableMap<String, Set<Long>> sorted = new TreeMap<>();
+	private final Map<String, Postings> trigrams = new HashMap<>();
+	private final Map<Long, Integer> slots = new HashMap<>();
+	private long[] slotIds = new long[16];
+	private String[][] slotKeys = new String[16][];
+	private int[] slotSizes = new int[16];
+	private int[] counts = new int[16];
+	private int[] touched = new int[16];
+	private int[] free = new int[16];
+	private int freeCount = 0, slotCount = 0;
+
+	/**
+	 *
+	 * Ressemblance minimale entre un texte et le nom d'un membre, en proportion de
+	 * trigrammes communs, pour que le membre soit proposé.
+	 */
+	public static final double MIN_SIMILARITY = 0.3;
+
+	private static String normalize(final String name) {
+
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	private static void link(final Map<String, Set<Long>> map, final String key, final long member) {
+
+		map.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(member);
+	}
+
+	private static void unlink(final Map<String, Set<Long>> map, final String key, final long member) {
+
+		final Set<Long> ids = map.get(key);
+		if (ids != null && ids.remove(member) && ids.isEmpty()) map.remove(key);
+	}
+
+	private static long[] find(final Map<String, Set<Long>> map, final String name) {
+
+		final Set<Long> ids = map.get(MemberIndex.normalize(name));
+		if (ids == null) return new long[0];
+
+		final long[] found = new long[ids.size()];
+		int i = 0;
+		for (final long id : ids) found[i++] = id;
+		return found;
+	}
+
+	private static Set<String> trigrams(final String name) {
+
+		final String padded = "  " + name + " ";
+		final Set<String> trigrams = new HashSet<>();
+		for (int i = 0; i + 3 <= padded.length(); i++) trigrams.add(padded.substring(i, i + 3));
+		return trigrams;
+	}
+
+	private static Set<String> trigrams(final String[] keys) {
+
+		final Set<String> trigrams = MemberIndex.trigrams(keys[0]);
+		trigrams.addAll(MemberIndex.trigrams(keys[1]));
+		return trigrams;
+	}
+
+	private int allocate(final long member, final String[] keys, final int size) {
+
+		final int slot;
+		if (this.freeCount > 0) slot = this.free[--this.freeCount];
+		else {
+
+			slot = this.slotCount++;
+			if (slot == this.slotIds.length) {
+
+				final int capacity = slot * 2;
+				this.slotIds = Arrays.copyOf(this.slotIds, capacity);
+				this.slotKeys = Arrays.copyOf(this.slotKeys, capacity);
+				this.slotSizes = Arrays.copyOf(this.slotSizes, capacity);
+				this.counts = Arrays.copyOf(this.counts, capacity);
+				this.touched = Arrays.copyOf(this.touched, capacity);
+				this.free = Arrays.copyOf(this.free, capacity);
+			}
+		}
+		this.slotIds[slot] = member;
+		this.slotKeys[slot] = keys;
+		this.slotSizes[slot] = size;
+		this.slots.put(member, slot);
+		return slot;
+	}
+
+	private static double prefixScore(final String key, final String name) {
+
+		return name.startsWith(key) ? 1.0 + (double) key.length() / name.length() : 0.0;
+	}
+
+	/**
+	 *
+	 * Ajouter un membre à l'index, ou remplacer ses noms s'il y est déjà.
+	 *
+	 * @param member
+	 *            : ID du membre.
+	 * @param displayName
+	 *            : nom visible du membre sur le serveur.
+	 * @param name
+	 *            : pseudo du membre.
+	 * @param discriminatedName
+	 *            : pseudo du membre avec son discriminant.
+	 */
+	public synchronized void put(final long member, final String displayName, final String name, final String discriminatedName) {
+
+		this.remove(member);
+
+		final String[] keys = {
+				MemberIndex.normalize(displayName), MemberIndex.normalize(name), MemberIndex.normalize(discriminatedName)
+		};
+		MemberIndex.link(this.displayNames, keys[0], member);
+		MemberIndex.link(this.names, keys[1], member);
+		MemberIndex.link(this.discriminatedNames, keys[2], member);
+		MemberIndex.link(this.sorted, keys[0], member);
+		MemberIndex.link(this.sorted, keys[1], member);
+		final Set<String> trigrams = MemberIndex.trigrams(keys);
+		final int slot = this.allocate(member, keys, trigrams.size());
+		for (final String trigram : trigrams) this.trigrams.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+		this.members.put(member, keys);
+	}
+
+	/**
+	 *
+	 * Retirer un membre de l'index.
+	 *
+	 * @param member
+	 *            : ID du membre.
+	 */
+	public synchronized void remove(final long member) {
+
+		final String[] keys = this.members.remove(member);
+		if (keys == null) return;
+
+		MemberIndex.unlink(this.displayNames, keys[0], member);
+		MemberIndex.unlink(this.names, keys[1], member);
+		MemberIndex.unlink(this.discriminatedNames, keys[2], member);
+		MemberIndex.unlink(this.sorted, keys[0], member);
+		MemberIndex.unlink(this.sorted, keys[1], member);
+		final int slot = this.slots.remove(member);
+		for (final String trigram : MemberIndex.trigrams(keys)) {
+
+			final Postings postings = this.trigrams.get(trigram);
+			if (postings != null && postings.remove(slot) && postings.size == 0) this.trigrams.remove(trigram);
+		}
+		this.slotKeys[slot] = null;
+		this.free[this.freeCount++] = slot;
+	}
+
+	/**
+	 *
+	 * Récupérer les membres ayant un nom visible, sans tenir compte de la casse.
+	 *
+	 * @param displayName
+	 *            : nom visible recherché.
+	 * @return IDs des membres
+	 */
+	public synchronized long[] findByDisplayName(final String displayName) {
+
+		return MemberIndex.find(this.displayNames, displayName);
+	}
+
+	/**
+	 *
+	 * Récupérer les membres ayant un pseudo, sans tenir compte de la casse.
+	 *
+	 * @param name
+	 *            : pseudo recherché.
+	 * @return IDs des membres
+	 */
+	public synchronized long[] findByName(final String name) {
+
+		return MemberIndex.find(this.names, name);
+	}
+
+	/**
+	 *
+	 * Récupérer les membres ayant un pseudo avec discriminant, sans tenir compte
+	 * de la casse.
+	 *
+	 * @param discriminatedName
+	 *            : pseudo avec discriminant recherché.
+	 * @return IDs des membres
+	 */
+	public synchronized long[] findByDiscriminatedName(final String discriminatedName) {
+
+		return MemberIndex.find(this.discriminatedNames, discriminatedName);
+	}
+
+	/**
+	 *
+	 * Récupérer les membres dont le nom visible ou le pseudo commence par un
+	 * texte, sans tenir compte de la casse, par ordre alphabétique.
+	 *
+	 * @param prefix
+	 *            : début du nom recherché.
+	 * @param limit
+	 *            : nombre maximal de membres.
+	 * @return IDs des membres
+	 */
+	public synchronized long[] findByPrefix(final String prefix, final int limit) {
+
+		final String key = MemberIndex.normalize(prefix);
+		final Set<Long> found = new LinkedHashSet<>();
+		if (key.isEmpty()) return new long[0];
+
+		for (final Map.Entry<String, Set<Long>> entry : this.sorted.tailMap(key, true).entrySet()) {
+
+			if (found.size() >= limit || !entry.getKey().startsWith(key)) break;
+			found.addAll(entry.getValue());
+		}
+
+		final long[] ids = new long[Math.min(found.size(), limit)];
+		int i = 0;
+		for (final long id : found) {
+
+			if (i == ids.length) break;
+			ids[i++] = id;
+		}
+		return ids;
+	}
+
+	/**
+	 *
+	 * Rechercher les membres dont le nom visible ou le pseudo commence par un
+	 * texte ou lui ressemble, sans tenir compte de la casse. Les membres dont le
+	 * nom commence par le texte sont classés en premier, puis les autres selon la
+	 * proportion de trigrammes qu'ils partagent avec le texte.
+	 *
+	 * @param query
+	 *            : texte recherché.
+	 * @param limit
+	 *            : nombre maximal de membres.
+	 * @return IDs des membres, du plus au moins proche
+	 *
+	 * @see com.torpill.fribot.bot.MemberIndex#MIN_SIMILARITY
+	 */
+	public synchronized long[] search(final String query, final int limit) {
+
+		final String key = MemberIndex.normalize(query);
+		if (key.isEmpty() || limit <= 0) return new long[0];
+
+		final Set<String> trigrams = MemberIndex.trigrams(key);
+		int touchedCount = 0;
+		for (final String trigram : trigrams) {
+
+			final Postings postings = this.trigrams.get(trigram);
+			if (postings == null) continue;
+			for (int i = 0; i < postings.size; i++) {
+
+				final int slot = postings.slots[i];
+				if (this.counts[slot]++ == 0) this.touched[touchedCount++] = slot;
+			}
+		}
+
+		final int[] best = new int[limit];
+		final double[] scores = new double[limit];
+		int found = 0;
+		for (int i = 0; i < touchedCount; i++) {
+
+			final int slot = this.touched[i];
+			final String[] keys = this.slotKeys[slot];
+			final int count = this.counts[slot];
+			this.counts[slot] = 0;
+			double score = count + 1 >= trigrams.size() ? Math.max(MemberIndex.prefixScore(key, keys[0]), MemberIndex.prefixScore(key, keys[1])) : 0.0;
+			if (score == 0.0) score = 2.0 * count / (trigrams.size() + this.slotSizes[slot]);
+			if (score < MemberIndex.MIN_SIMILARITY) continue;
+
+			int j = found < limit ? found++ : limit;
+			while (j > 0 && (scores[j - 1] < score || scores[j - 1] == score && this.slotKeys[best[j - 1]][0].compareTo(keys[0]) > 0)) {
+
+				if (j < limit) {
+
+					best[j] = best[j - 1];
+					scores[j] = scores[j - 1];
+				}
+				j--;
+			}
+			if (j < limit) {
+
+				best[j] = slot;
+				scores[j] = score;
+			}
+		}
+
+		final long[] ids = new long[found];
+		for (int i = 0; i < found; i++) ids[i] = this.slotIds[best[i]];
+		return ids;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de membres indexés.
+	 *
+	 * @return nombre de membres
+	 */
+	public synchronized int size() {
+
+		return this.members.size();
+	}
+
+	private static class Postings {
+
+		private int[] slots = new int[4];
+		private int size = 0;
+
+		private void add(final int slot) {
+
+			if (this.size == this.slots.length) this.slots = Arrays.copyOf(this.slots, this.size * 2);
+			this.slots[this.size++] = slot;
+		}
+
+		private boolean remove(final int slot) {
+
+			for (int i = 0; i < this.size; i++) {
+
+				if (this.slots[i] == slot) {
+
+					this.slots[i] = this.slots[--this.size];
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package com.torpill.fribot.bot;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.entity.permission.Role;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+
+import com.torpill.fribot.App;
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+
+/**
+ *
+ * Cette classe représente les règles d'accès d'une commande, compilées une
+ * seule fois : les listes d'utilisateurs deviennent des tableaux triés d'IDs,
+ * les permissions requises un masque, et les rôles sont résolus une fois par
+ * serveur. Une vérification n'effectue donc ni appel à l'API Discord ni
+ * allocation.<br />
+ * Les IDs invalides sont ignorés et signalés au chargement de la commande.<br />
+ * Les rôles résolus d'un serveur doivent être oubliés lorsque ses rôles
+ * changent.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.Command
+ * @see com.torpill.fribot.listeners.PermissionListener
+ *
+ */
+
+public class PermissionPolicy {
+
+	private static final Role[] NO_ROLES = new Role[0];
+
+	private final long[] usersWhiteList, usersBlackList;
+	private final long[] rolesWhiteList, rolesBlackList;
+	private final int permissions;
+	private final boolean restricted;
+	private final Map<Long, Role[][]> servers = new ConcurrentHashMap<>();
+
+	/**
+	 *
+	 * Constructeur de la classe <code>PermissionPolicy</code>.
+	 *
+	 * @param command
+	 *            : commande dont on compile les règles.
+	 * @param userRole
+	 *            : ID du rôle utilisateur du bot.
+	 * @param devRole
+	 *            : ID du rôle développeur du bot.
+	 *
+	 * @see com.torpill.fribot.commands.Command
+	 */
+	public PermissionPolicy(final Command command, final String userRole, final String devRole) {
+
+		this.usersWhiteList = PermissionPolicy.ids(command, command.usersWhiteList(), userRole, devRole);
+		this.usersBlackList = PermissionPolicy.ids(command, command.usersBlackList(), userRole, devRole);
+		this.rolesWhiteList = PermissionPolicy.ids(command, command.rolesWhiteList(), userRole, devRole);
+		this.rolesBlackList = PermissionPolicy.ids(command, command.rolesBlackList(), userRole, devRole);
+
+		final List<PermissionType> needed = command.permissionNeeded();
+		int permissions = 0;
+		if (needed != null) for (final PermissionType permission : needed) permissions |= permission.getValue();
+		this.permissions = permissions;
+		this.restricted = needed != null;
+	}
+
+	private static long[] ids(final Command command, final List<String> list, final String userRole, final String devRole) {
+
+		if (list == null) return null;
+
+		final long[] ids = new long[list.size()];
+		int size = 0;
+		for (String id : list) {
+
+			if (id.equals("user-role")) id = userRole;
+			if (id.equals("dev-role")) id = devRole;
+			try {
+
+				if (id != null) ids[size++] = Long.parseLong(id);
+
+			} catch (final NumberFormatException e) {
+
+				App.LOGGER.warn("ID '" + id + "' invalide ignoré dans les règles d'accès de la commande " + command.getName() + ".");
+			}
+		}
+
+		final long[] sorted = Arrays.copyOf(ids, size);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	private Role[][] roles(final Server server) {
+
+		return this.servers.computeIfAbsent(server.getId(), id -> new Role[][] { this.resolve(server, this.rolesWhiteList), this.resolve(server, this.rolesBlackList) });
+	}
+
+	private Role[] resolve(final Server server, final long[] ids) {
+
+		if (ids == null) return null;
+		if (ids.length == 0) return PermissionPolicy.NO_ROLES;
+
+		return Arrays.stream(ids).mapToObj(server::getRoleById).flatMap(role -> role.stream()).toArray(Role[]::new);
+	}
+
+	private static int contains(final long[] ids, final long id) {
+
+		if (ids == null) return -1;
+		return Arrays.binarySearch(ids, id) >= 0 ? 1 : 0;
+	}
+
+	private static int hasAny(final Role[] roles, final User user) {
+
+		if (roles == null) return -1;
+		for (final Role role : roles) {
+
+			if (role.hasUser(user)) return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 *
+	 * Savoir si un utilisateur est sur la liste noire de la commande.
+	 *
+	 * @param user
+	 *            : utilisateur voulant exécuter la commande.
+	 * @return code d'exécution : -1 sans liste noire, 1 si l'utilisateur y est, 0
+	 *         sinon
+	 */
+	public int onBlacklist(final User user) {
+
+		return PermissionPolicy.contains(this.usersBlackList, user.getId());
+	}
+
+	/**
+	 *
+	 * Savoir si un utilisateur est sur la liste blanche de la commande.
+	 *
+	 * @param user
+	 *            : utilisateur voulant exécuter la commande.
+	 * @return code d'exécution : -1 sans liste blanche, 1 si l'utilisateur y est,
+	 *         0 sinon
+	 */
+	public int onWhitelist(final User user) {
+
+		return PermissionPolicy.contains(this.usersWhiteList, user.getId());
+	}
+
+	/**
+	 *
+	 * Savoir si un utilisateur possède un rôle sur la liste noire de la commande.
+	 *
+	 * @param user
+	 *            : utilisateur voulant exécuter la commande.
+	 * @param server
+	 *            : serveur sur lequel l'utilisateur veut exécuter la commande.
+	 * @return code d'exécution : -1 sans liste noire, 1 si l'utilisateur a un
+	 *         rôle de la liste, 0 sinon
+	 */
+	public int onRoleBlacklist(final User user, final Server server) {
+
+		if (this.rolesBlackList == null) return -1;
+		return PermissionPolicy.hasAny(this.roles(server)[1], user);
+	}
+
+	/**
+	 *
+	 * Savoir si un utilisateur possède un rôle sur la liste blanche de la
+	 * commande.
+	 *
+	 * @param user
+	 *            : utilisateur voulant exécuter la commande.
+	 * @param server
+	 *            : serveur sur lequel l'utilisateur veut exécuter la commande.
+	 * @return code d'exécution : -1 sans liste blanche, 1 si l'utilisateur a un
+	 *         rôle de la liste, 0 sinon
+	 */
+	public int onRoleWhitelist(final User user, final Server server) {
+
+		if (this.rolesWhiteList == null) return -1;
+		return PermissionPolicy.hasAny(this.roles(server)[0], user);
+	}
+
+	/**
+	 *
+	 * Savoir si un utilisateur a les permissions requises par la commande.
+	 *
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @return code d'exécution : -1 sans permission requise, 1 si l'utilisateur
+	 *         les a toutes, 0 sinon
+	 *
+	 * @see com.torpill.fribot.commands.CommandContext
+	 */
+	public int canUse(final CommandContext context) {
+
+		if (!this.restricted) return -1;
+		return (context.getPermissions().getAllowedBitmask() & this.permissions) == this.permissions ? 1 : 0;
+	}
+
+	/**
+	 *
+	 * Oublier les rôles résolus d'un serveur.
+	 *
+	 * @param server
+	 *            : ID du serveur.
+	 */
+	public void invalidate(final long server) {
+
+		this.servers.remove(server);
+	}
+}
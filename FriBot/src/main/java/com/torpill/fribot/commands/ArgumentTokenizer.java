@@ -0,0 +1,205 @@
+package com.torpill.fribot.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Cette classe représente le découpage des arguments d'une commande,
+ * directement depuis le contenu du message. Les arguments sont lus en une seule
+ * passe, sans découper ni recopier le message au préalable : un argument
+ * n'est recopié qu'une fois, lorsqu'il est extrait.<br />
+ * Les espaces et les retours à la ligne séparent les arguments, le premier
+ * étant le nom de la commande.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.Command.ArgumentType
+ *
+ */
+
+public class ArgumentTokenizer {
+
+	private final String source;
+	private final int start, name, end;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>ArgumentTokenizer</code>.
+	 *
+	 * @param source
+	 *            : contenu du message.
+	 * @param start
+	 *            : position du nom de la commande dans le message, après le
+	 *            préfix.
+	 */
+	public ArgumentTokenizer(final String source, final int start) {
+
+		this.source = source;
+		this.start = start;
+
+		int name = start;
+		while (name < source.length() && !ArgumentTokenizer.isSeparator(source.charAt(name))) name++;
+		this.name = name;
+
+		int end = source.length();
+		while (end > name && ArgumentTokenizer.isSeparator(source.charAt(end - 1))) end--;
+		this.end = end;
+	}
+
+	private static boolean isSeparator(final char chr) {
+
+		return chr == ' ' || chr == '\n';
+	}
+
+	private int first() {
+
+		return this.name + 1;
+	}
+
+	/**
+	 *
+	 * Découper les arguments au format nul : seul le nom de la commande est
+	 * gardé.
+	 *
+	 * @return arguments
+	 */
+	public String[] none() {
+
+		return new String[] {
+				this.source.substring(this.start, this.name)
+		};
+	}
+
+	/**
+	 *
+	 * Découper les arguments au format classique : chaque séparateur termine un
+	 * argument, même vide.
+	 *
+	 * @return arguments
+	 */
+	public String[] raw() {
+
+		if (this.first() > this.end) return new String[0];
+
+		final List<String> raw = new ArrayList<>();
+		int from = this.first();
+		for (int i = from; i < this.end; i++) {
+
+			if (ArgumentTokenizer.isSeparator(this.source.charAt(i))) {
+
+				raw.add(this.source.substring(from, i));
+				from = i + 1;
+			}
+		}
+		raw.add(this.source.substring(from, this.end));
+
+		return raw.toArray(new String[raw.size()]);
+	}
+
+	private char at(final int i) {
+
+		if (i < this.first() || i >= this.end) return ' ';
+		final char chr = this.source.charAt(i);
+		return chr == '\n' ? ' ' : chr;
+	}
+
+	/**
+	 *
+	 * Découper les arguments au format guillemet : un argument entre guillemets
+	 * garde ses espaces, et <code>\"</code> permet d'écrire un guillemet.
+	 *
+	 * @return arguments
+	 */
+	public String[] quote() {
+
+		final StringBuilder buffer = new StringBuilder(Math.max(0, this.end - this.first()));
+		int[] starts = new int[8];
+		int count = 0;
+		int quotes = 0;
+		for (int j = this.first(); j < this.end; j++) {
+
+			final char chr = this.at(j);
+			final char prev = this.at(j - 1);
+			final char beforePrev = this.at(j - 2);
+			final char next = this.at(j + 1);
+			final boolean in = quotes % 2 != 0;
+
+			if (prev != '\\' && chr == '\"') {
+
+				if (quotes++ % 2 == 0) starts = ArgumentTokenizer.push(starts, count++, buffer.length());
+
+			} else {
+
+				if (!in && (beforePrev != '\\' && prev == '\"' || chr == ' ') && next != ' ' && next != '\"') starts = ArgumentTokenizer.push(starts, count++, buffer.length());
+				if (!(chr == '\\' || !in && chr == ' ')) {
+
+					if (count == 0) starts = ArgumentTokenizer.push(starts, count++, buffer.length());
+					buffer.append(chr);
+				}
+			}
+		}
+
+		final String[] quote = new String[count];
+		for (int i = 0; i < count; i++) {
+
+			quote[i] = buffer.substring(starts[i], i + 1 < count ? starts[i + 1] : buffer.length());
+		}
+
+		return quote;
+	}
+
+	private static int[] push(final int[] starts, final int count, final int start) {
+
+		final int[] grown = count == starts.length ? Arrays.copyOf(starts, count * 2) : starts;
+		grown[count] = start;
+		return grown;
+	}
+
+	/**
+	 *
+	 * Découper les arguments au format clé / valeur : un argument commençant par
+	 * <code>--</code> ouvre un groupe, les autres sont ajoutés au groupe courant.
+	 * Les arguments placés avant le premier groupe appartiennent au groupe
+	 * <code>%</code>.
+	 *
+	 * @return clés et valeurs, alternées
+	 */
+	public String[] key() {
+
+		final Map<String, StringBuilder> builders = new HashMap<>();
+		StringBuilder current = new StringBuilder();
+		builders.put("%", current);
+		if (this.first() <= this.end) {
+
+			int from = this.first();
+			for (int i = from; i <= this.end; i++) {
+
+				if (i < this.end && !ArgumentTokenizer.isSeparator(this.source.charAt(i))) continue;
+
+				if (this.source.startsWith("--", from) && from + 2 <= i) {
+
+					builders.put(this.source.substring(from + 2, i), current = new StringBuilder());
+
+				} else {
+
+					current.append(this.source, from, i).append(' ');
+				}
+				from = i + 1;
+			}
+		}
+
+		final String[] key = new String[builders.size() * 2];
+		int i = 0;
+		for (final Map.Entry<String, StringBuilder> entry : builders.entrySet()) {
+
+			key[i++] = entry.getKey();
+			key[i++] = entry.getValue().toString().trim();
+		}
+
+		return key;
+	}
+}
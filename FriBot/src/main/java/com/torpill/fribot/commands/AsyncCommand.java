@@ -0,0 +1,66 @@
+package com.torpill.fribot.commands;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import com.torpill.fribot.bot.DiscordBot;
+
+/**
+ *
+ * Cette classe représente une commande asynchrone. Une telle commande ne
+ * bloque pas le thread qui l'exécute en attendant une réponse réseau : elle
+ * renvoie immédiatement une étape de calcul qui sera complétée par son code
+ * d'erreur.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.Command
+ * @see java.util.concurrent.CompletionStage
+ *
+ */
+
+public abstract class AsyncCommand extends Command {
+
+	/**
+	 *
+	 * Constructeur de la classe <code>AsyncCommand</code>.
+	 *
+	 * @param name
+	 *            : nom de la commande.
+	 * @param argumentType
+	 *            : type d'argument de la commande.
+	 * @param category
+	 *            : catégorie de la commande.
+	 *
+	 * @see com.torpill.fribot.commands.Command.ArgumentType
+	 * @see com.torpill.fribot.commands.Command.Category
+	 */
+	protected AsyncCommand(final String name, final ArgumentType argumentType, final Category category) {
+
+		super(name, argumentType, category);
+	}
+
+	@Override
+	public abstract CompletionStage<Integer> executeAsync(final DiscordBot bot, final ParsedArguments args, final CommandContext context);
+
+	/**
+	 *
+	 * Exécuter la commande en attendant la fin de son exécution asynchrone.
+	 *
+	 * @see com.torpill.fribot.commands.AsyncCommand#executeAsync(DiscordBot,
+	 *      ParsedArguments, CommandContext)
+	 */
+	@Override
+	public final int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		try {
+
+			return this.executeAsync(bot, args, context).toCompletableFuture().join();
+
+		} catch (final CompletionException e) {
+
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+}
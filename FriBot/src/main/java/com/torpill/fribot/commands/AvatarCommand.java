@@ -0,0 +1,130 @@
+package com.torpill.fribot.commands;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.javacord.api.entity.message.MessageBuilder;
+import org.javacord.api.entity.user.User;
+
+import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.limits.AdaptiveLimit;
+import com.torpill.fribot.limits.Workload;
+
+/**
+ *
+ * Cette classe représente une commande générant une image à partir de
+ * l'avatar d'un membre. Sans argument, la commande cible l'auteur du message.
+ * Le rendu est partagé entre les exécutions simultanées ciblant le même avatar
+ * et soumis à la limite de concurrence du traitement d'image.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.SharedCommand
+ *
+ */
+
+public abstract class AvatarCommand extends SharedCommand<AvatarCommand.Render> {
+
+	/**
+	 *
+	 * Constructeur de la classe <code>AvatarCommand</code>.
+	 *
+	 * @param name
+	 *            : nom de la commande.
+	 * @param argumentType
+	 *            : type d'argument de la commande.
+	 * @param category
+	 *            : catégorie de la commande.
+	 *
+	 * @see com.torpill.fribot.commands.Command.ArgumentType
+	 * @see com.torpill.fribot.commands.Command.Category
+	 */
+	protected AvatarCommand(final String name, final ArgumentType argumentType, final Category category) {
+
+		super(name, argumentType, category);
+	}
+
+	/**
+	 *
+	 * Générer l'image à partir de l'avatar du membre ciblé.
+	 *
+	 * @param bot
+	 *            : bot Discord a demandant l'exécution de la commande.
+	 * @param target
+	 *            : membre ciblé.
+	 * @param avatar
+	 *            : avatar du membre ciblé.
+	 * @return image générée
+	 */
+	protected abstract BufferedImage render(final DiscordBot bot, final User target, final BufferedImage avatar);
+
+	/**
+	 *
+	 * Récupérer le texte accompagnant l'image.
+	 *
+	 * @return texte, <code>null</code> pour envoyer l'image seule
+	 */
+	protected String caption() {
+
+		return null;
+	}
+
+	/**
+	 *
+	 * Récupérer le membre ciblé par la commande.
+	 *
+	 * @param bot
+	 *            : bot Discord a demandant l'exécution de la commande.
+	 * @param args
+	 *            : arguments passés lors de l'appel de la commande.
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @return membre ciblé
+	 */
+	protected User target(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		User target = null;
+		if (args.size() > 0) target = args.getMember(0);
+		return target == null ? context.getUser() : target;
+	}
+
+	@Override
+	protected String key(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		final User target = this.target(bot, args, context);
+		return target.getIdAsString() + ":" + target.getName() + ":" + target.getAvatar().getUrl();
+	}
+
+	@Override
+	protected CompletionStage<Render> compute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		final User target = this.target(bot, args, context);
+		final BufferedImage avatar = bot.getAvatar(target);
+		try (AdaptiveLimit.Permit permit = Workload.IMAGE.LIMIT.acquire()) {
+
+			return CompletableFuture.completedFuture(new Render(target, this.render(bot, target, avatar)));
+		}
+	}
+
+	@Override
+	protected CompletionStage<Integer> deliver(final Render result, final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		final MessageBuilder builder = new MessageBuilder();
+		if (this.caption() != null) builder.append(this.caption());
+
+		return builder.addAttachment(result.image(), Long.toHexString(context.getUser().getId()) + "-" + Long.toHexString(result.target().getId()) + ".png").send(context.getChannel()).thenApply(message -> 0);
+	}
+
+	/**
+	 *
+	 * Rendu d'une commande d'avatar.
+	 *
+	 * @param target
+	 *            : membre ciblé.
+	 * @param image
+	 *            : image générée.
+	 */
+	public record Render(User target, BufferedImage image) {
+	}
+}
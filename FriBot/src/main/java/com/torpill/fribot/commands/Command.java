@@ -1,14 +1,10 @@
 package com.torpill.fribot.commands;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
-import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.permission.PermissionType;
-import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
@@ -93,76 +89,70 @@ public abstract class Command {
 
 	/**
 	 *
-	 * Récupérer les rôles sur la liste blanche de la commande.
+	 * Récupérer la classe de coût de la commande, qui détermine la voie
+	 * d'exécution sur laquelle elle est placée.
 	 *
-	 * @param bot
-	 *            : bot Discord récupérant les informations.
-	 * @param server
-	 *            : serveur sur lequel on cherche les informations.
-	 * @return liste de rôles
+	 * @return classe de coût
 	 *
-	 * @see org.javacord.api.entity.permission.Role
-	 * @see org.javacord.api.entity.server.Server
-	 * @see com.torpill.fribot.bot.DiscordBot
+	 * @see com.torpill.fribot.commands.Command.Cost
 	 */
-	public List<Role> whiteListedRoles(final DiscordBot bot, final Server server) {
+	public Cost getCost() {
+
+		return Cost.LIGHT;
+	}
+
+	/**
+	 *
+	 * Récupérer les IDs des rôles sur la liste blanche de la commande. Les
+	 * alias <code>user-role</code> et <code>dev-role</code> désignent les rôles
+	 * utilisateur et développeur du bot.
+	 *
+	 * @return IDs des rôles, <code>null</code> pour ne pas avoir de liste blanche
+	 *
+	 * @see com.torpill.fribot.bot.PermissionPolicy
+	 */
+	public List<String> rolesWhiteList() {
 
 		return null;
 	}
 
 	/**
 	 *
-	 * Récupérer les rôles sur la liste noire de la commande.
+	 * Récupérer les IDs des rôles sur la liste noire de la commande. Les
+	 * alias <code>user-role</code> et <code>dev-role</code> désignent les rôles
+	 * utilisateur et développeur du bot.
 	 *
-	 * @param bot
-	 *            : bot Discord récupérant les informations.
-	 * @param server
-	 *            : serveur sur lequel on cherche les informations.
-	 * @return liste de rôles
+	 * @return IDs des rôles, <code>null</code> pour ne pas avoir de liste noire
 	 *
-	 * @see org.javacord.api.entity.permission.Role
-	 * @see org.javacord.api.entity.server.Server
-	 * @see com.torpill.fribot.bot.DiscordBot
+	 * @see com.torpill.fribot.bot.PermissionPolicy
 	 */
-	public List<Role> blackListedRoles(final DiscordBot bot, final Server server) {
+	public List<String> rolesBlackList() {
 
 		return null;
 	}
 
 	/**
 	 *
-	 * Récupérer les utilisateurs sur la liste blanche de la commande.
+	 * Récupérer les IDs des utilisateurs sur la liste blanche de la commande.
 	 *
-	 * @param bot
-	 *            : bot Discord récupérant les informations.
-	 * @param server
-	 *            : serveur sur lequel on cherche les informations.
-	 * @return liste d'utilisateurs
+	 * @return IDs des utilisateurs, <code>null</code> pour ne pas avoir de liste blanche
 	 *
-	 * @see org.javacord.api.entity.user.User
-	 * @see org.javacord.api.entity.server.Server
-	 * @see com.torpill.fribot.bot.DiscordBot
+	 * @see com.torpill.fribot.bot.PermissionPolicy
 	 */
-	public List<User> whiteListedUsers(final DiscordBot bot, final Server server) {
+	public List<String> usersWhiteList() {
 
 		return null;
 	}
 
 	/**
 	 *
-	 * Récupérer les utilisateurs sur la liste noire de la commande.
+	 * Récupérer les IDs des utilisateurs sur la liste noire de la commande.
 	 *
-	 * @param bot
-	 *            : bot Discord récupérant les informations.
-	 * @param server
-	 *            : serveur sur lequel on cherche les informations.
-	 * @return liste d'utilisateurs
+	 * @return IDs des utilisateurs, <code>null</code> pour ne pas avoir de liste noire
 	 *
-	 * @see org.javacord.api.entity.user.User
-	 * @see org.javacord.api.entity.server.Server
-	 * @see com.torpill.fribot.bot.DiscordBot
+	 * @see com.torpill.fribot.bot.PermissionPolicy
 	 */
-	public List<User> blackListedUsers(final DiscordBot bot, final Server server) {
+	public List<String> usersBlackList() {
 
 		return null;
 	}
@@ -175,20 +165,43 @@ public abstract class Command {
 	 *            : bot Discord a demandant l'exécution de la commande.
 	 * @param args
 	 *            : arguments passés lors de l'appel de la commande.
-	 * @param user
-	 *            : utilisateur utilisant la commande.
-	 * @param channel
-	 *            : salon dans lequel est exécutée la commande.
-	 * @param server
-	 *            : serveur dans lequel est exécutée la commande.
+	 * @param context
+	 *            : contexte de l'exécution.
 	 * @return code d'erreur
 	 *
-	 * @see org.javacord.api.entity.user.User
-	 * @see org.javacord.api.entity.channel.TextChannel
-	 * @see org.javacord.api.entity.server.Server
+	 * @see com.torpill.fribot.commands.CommandContext
 	 * @see com.torpill.fribot.bot.DiscordBot
 	 */
-	public abstract int execute(final DiscordBot bot, final String args[], final User user, final TextChannel channel, final Server server);
+	public abstract int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context);
+
+	/**
+	 *
+	 * Exécuter la commande de manière asynchrone. Par défaut, la commande est
+	 * exécutée de manière synchrone et son code d'erreur est renvoyé dans une
+	 * étape de calcul déjà complétée.
+	 *
+	 * @param bot
+	 *            : bot Discord a demandant l'exécution de la commande.
+	 * @param args
+	 *            : arguments passés lors de l'appel de la commande.
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @return code d'erreur à venir
+	 *
+	 * @see com.torpill.fribot.commands.AsyncCommand
+	 * @see java.util.concurrent.CompletionStage
+	 */
+	public CompletionStage<Integer> executeAsync(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		try {
+
+			return CompletableFuture.completedFuture(this.execute(bot, args, context));
+
+		} catch (final RuntimeException e) {
+
+			return CompletableFuture.failedFuture(e);
+		}
+	}
 
 	/**
 	 *
@@ -209,15 +222,22 @@ public abstract class Command {
 
 	/**
 	 *
-	 * Convertir les arguments au format demandé par la commande.
+	 * Découper les arguments d'un message au format demandé par la commande.
 	 *
-	 * @param args
-	 *            : arguments en entrée.
+	 * @param content
+	 *            : contenu du message.
+	 * @param start
+	 *            : position du nom de la commande dans le message, après le
+	 *            préfix.
+	 * @param context
+	 *            : contexte de l'exécution.
 	 * @return arguments convertis
+	 *
+	 * @see com.torpill.fribot.commands.ParsedArguments
 	 */
-	public String[] parseArguments(final String[] args) {
+	public ParsedArguments parseArguments(final String content, final int start, final CommandContext context) {
 
-		return this.argumentType.parseArguments(args);
+		return new ParsedArguments(this.argumentType, this.argumentType.parseArguments(content, start), context);
 	}
 
 	/**
@@ -304,183 +324,108 @@ public abstract class Command {
 
 		/**
 		 *
-		 * Convertir les arguments au format du type d'argument.
+		 * Découper les arguments d'un message au format du type d'argument.
 		 *
-		 * @param args
-		 *            : arguments en entrée.
+		 * @param content
+		 *            : contenu du message.
+		 * @param start
+		 *            : position du nom de la commande dans le message, après le
+		 *            préfix.
 		 * @return arguments convertis
+		 *
+		 * @see com.torpill.fribot.commands.ArgumentTokenizer
 		 */
-		public String[] parseArguments(final String[] args) {
+		public String[] parseArguments(final String content, final int start) {
 
+			final ArgumentTokenizer tokenizer = new ArgumentTokenizer(content, start);
 			switch (this) {
 
 			case KEY:
-				return this.keyParse(args);
+				return tokenizer.key();
 
 			case NONE:
-				return this.noneParse(args);
+				return tokenizer.none();
 
 			case QUOTE:
-				return this.quoteParse(args);
+				return tokenizer.quote();
 
 			case RAW:
-				return this.rawParse(args);
+				return tokenizer.raw();
 			}
 
-			return args;
-		}
-
-		/**
-		 *
-		 * Convertir les arguments au format nul.
-		 *
-		 * @param args
-		 *            : arguments en entrée.
-		 * @return arguments convertis
-		 */
-		private String[] noneParse(final String args[]) {
-
-			final String[] none = {
-					args[0]
-			};
-
-			return none;
+			return tokenizer.raw();
 		}
+	}
 
-		/**
-		 *
-		 * Convertir les arguments au format classique.
-		 *
-		 * @param args
-		 *            : arguments en entrée.
-		 * @return arguments convertis
-		 */
-		private String[] rawParse(final String args[]) {
-
-			final String[] raw = new String[args.length - 1];
-			for (int i = 0; i < raw.length; i++) {
-
-				raw[i] = args[i + 1];
-			}
-
-			return raw;
-		}
-
-		/**
-		 *
-		 * Convertir les arguments au format guillemet.
-		 *
-		 * @param args
-		 *            : arguments en entrée.
-		 * @return arguments convertis
-		 */
-		private String[] quoteParse(final String args[]) {
-
-			final StringBuilder builder = new StringBuilder();
-			for (int i = 1; i < args.length; i++) {
-
-				builder.append(args[i] + (i == args.length - 1 ? "" : " "));
-			}
-			final String quoted = builder.toString();
-			final List<StringBuilder> builders = new ArrayList<>();
-			final char[] chrs = quoted.toCharArray();
-			for (int j = 0, i = 0; j < chrs.length; j++) {
-
-				final char chr = chrs[j];
-				final char prev = j == 0 ? ' ' : chrs[j - 1];
-				final char beforePrev = j <= 1 ? ' ' : chrs[j - 2];
-				final char next = j == chrs.length - 1 ? ' ' : chrs[j + 1];
-				final boolean in = i % 2 != 0;
-
-				if (prev != '\\' && chr == '\"') {
-
-					if (i++ % 2 == 0) builders.add(0, new StringBuilder());
-
-				} else {
-
-					if (!in && (beforePrev != '\\' && prev == '\"' || chr == ' ') && next != ' ' && next != '\"') builders.add(0, new StringBuilder());
-					if (!(chr == '\\' || !in && chr == ' ')) {
-
-						if (builders.isEmpty()) builders.add(new StringBuilder());
-						builders.get(0).append(chr);
-					}
-				}
-			}
+	/**
+	 *
+	 * Cette classe énumératrice représente les différentes catégories de commande.
+	 *
+	 * @author torpill40
+	 *
+	 */
 
-			final String[] quote = new String[builders.size()];
-			for (int i = 0; i < quote.length; i++) {
+	public enum Category {
 
-				quote[i] = builders.get(builders.size() - 1 - i).toString();
-			}
+		UTILITY("utilitaire", "Commandes utiles aux membres du serveur"), GAME("jeu", "Commandes permettant de jouer à un jeu"), MODERATION("modération", "Commandes permettant de modérer un serveur"), FUN("fun", "Commandes qui permettent de s'amuser un peu"), TUTORIAL("tutoriel", "Commandes issues du tutoriel");
 
-			return quote;
-		}
+		public final String NAME;
+		public final String DESCRIPTION;
 
 		/**
 		 *
-		 * Convertir les arguments au format clé / valeur.
+		 * Constructeur de la classe énumératrice <code>Category</code>.
 		 *
-		 * @param args
-		 *            : arguments en entrée.
-		 * @return arguments convertis
+		 * @param name
+		 *            : nom de la catégorie.
+		 * @param description
+		 *            : description de la catégorie.
 		 */
-		private String[] keyParse(final String args[]) {
-
-			final Map<String, StringBuilder> builders = new HashMap<>();
-			String currentKey = "%";
-			builders.put(currentKey, new StringBuilder());
-			for (final String arg : this.rawParse(args)) {
-
-				if (arg.startsWith("--")) {
-
-					builders.put(currentKey = arg.substring(2, arg.length()), new StringBuilder());
-
-				} else {
-
-					builders.get(currentKey).append(arg + " ");
-				}
-			}
-
-			final String[] key = new String[builders.size() * 2];
-			int i = 0;
-			for (final String builderKey : builders.keySet()) {
-
-				key[i++] = builderKey;
-				key[i++] = builders.get(builderKey).toString().trim();
-			}
+		private Category(final String name, final String description) {
 
-			return key;
+			this.NAME = name;
+			this.DESCRIPTION = description;
 		}
 	}
 
 	/**
 	 *
-	 * Cette classe énumératrice représente les différentes catégories de commande.
+	 * Cette classe énumératrice représente les différentes classes de coût de
+	 * commande. Chaque classe de coût possède sa propre voie d'exécution, avec sa
+	 * propre limite de travailleurs.
 	 *
 	 * @author torpill40
 	 *
 	 */
 
-	public enum Category {
+	public enum Cost {
 
-		UTILITY("utilitaire", "Commandes utiles aux membres du serveur"), GAME("jeu", "Commandes permettant de jouer à un jeu"), MODERATION("modération", "Commandes permettant de modérer un serveur"), FUN("fun", "Commandes qui permettent de s'amuser un peu"), TUTORIAL("tutoriel", "Commandes issues du tutoriel");
+		LIGHT("léger", "Commandes textuelles rapides", 16, 10), NETWORK("réseau", "Commandes attendant un service externe", 8, 15), RENDER("rendu", "Commandes de traitement d'image", Runtime.getRuntime().availableProcessors(), 30), MEDIA("média", "Commandes de montage vidéo", 2, 90), INTERACTIVE("interactif", "Utilitaires et jeux attendant les réactions des membres", 64, 120);
 
 		public final String NAME;
 		public final String DESCRIPTION;
+		public final int WORKERS;
+		public final int TIMEOUT;
 
 		/**
 		 *
-		 * Constructeur de la classe énumératrice <code>Category</code>.
+		 * Constructeur de la classe énumératrice <code>Cost</code>.
 		 *
 		 * @param name
-		 *            : nom de la catégorie.
+		 *            : nom de la classe de coût.
 		 * @param description
-		 *            : description de la catégorie.
+		 *            : description de la classe de coût.
+		 * @param workers
+		 *            : nombre de travailleurs par défaut de la voie d'exécution.
+		 * @param timeout
+		 *            : durée maximale d'exécution par défaut, en secondes.
 		 */
-		private Category(final String name, final String description) {
+		private Cost(final String name, final String description, final int workers, final int timeout) {
 
 			this.NAME = name;
 			this.DESCRIPTION = description;
+			this.WORKERS = workers;
+			this.TIMEOUT = timeout;
 		}
 	}
 }
@@ -0,0 +1,240 @@
+package com.torpill.fribot.commands;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.javacord.api.entity.Icon;
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.message.embed.EmbedBuilder;
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.entity.permission.Permissions;
+import org.javacord.api.entity.permission.Role;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+
+import com.torpill.fribot.bot.DiscordBot;
+
+/**
+ *
+ * Cette classe représente le contexte d'une exécution de commande : qui
+ * l'exécute, où, et depuis quel message. Il est créé une fois par exécution et
+ * mémorise les données résolues à la première demande (rôles, permissions,
+ * avatars, membres désignés en argument), pour que ni la vérification des
+ * accès ni la commande ne les récupèrent plusieurs fois.<br />
+ * Un contexte n'est utilisé que par une exécution à la fois.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.Command#execute(DiscordBot,
+ *      ParsedArguments, CommandContext)
+ *
+ */
+
+public class CommandContext {
+
+	private final DiscordBot bot;
+	private final User user;
+	private final TextChannel channel;
+	private final Message message;
+	private final Server server;
+
+	private List<Role> roles = null;
+	private Permissions permissions = null;
+	private Boolean admin = null;
+	private Icon botAvatar = null, userAvatar = null;
+	private Map<String, User> members = null;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>CommandContext</code>.
+	 *
+	 * @param bot
+	 *            : bot Discord exécutant la commande.
+	 * @param user
+	 *            : utilisateur de la commande.
+	 * @param channel
+	 *            : salon dans lequel est exécutée la commande.
+	 * @param message
+	 *            : message contenant la commande, <code>null</code> si la
+	 *            commande n'est pas exécutée depuis un message.
+	 * @param server
+	 *            : serveur dans lequel est exécutée la commande.
+	 */
+	public CommandContext(final DiscordBot bot, final User user, final TextChannel channel, final Message message, final Server server) {
+
+		this.bot = bot;
+		this.user = user;
+		this.channel = channel;
+		this.message = message;
+		this.server = server;
+	}
+
+	/**
+	 *
+	 * Récupérer le bot Discord exécutant la commande.
+	 *
+	 * @return bot
+	 */
+	public DiscordBot getBot() {
+
+		return this.bot;
+	}
+
+	/**
+	 *
+	 * Récupérer l'utilisateur de la commande.
+	 *
+	 * @return utilisateur
+	 */
+	public User getUser() {
+
+		return this.user;
+	}
+
+	/**
+	 *
+	 * Récupérer le salon dans lequel est exécutée la commande.
+	 *
+	 * @return salon
+	 */
+	public TextChannel getChannel() {
+
+		return this.channel;
+	}
+
+	/**
+	 *
+	 * Récupérer le message contenant la commande.
+	 *
+	 * @return message, <code>null</code> si la commande n'est pas exécutée depuis
+	 *         un message
+	 */
+	public Message getMessage() {
+
+		return this.message;
+	}
+
+	/**
+	 *
+	 * Récupérer le serveur dans lequel est exécutée la commande.
+	 *
+	 * @return serveur
+	 */
+	public Server getServer() {
+
+		return this.server;
+	}
+
+	/**
+	 *
+	 * Récupérer le préfix du bot.
+	 *
+	 * @return préfix
+	 */
+	public String getPrefix() {
+
+		return this.bot.getPrefix();
+	}
+
+	/**
+	 *
+	 * Récupérer les rôles de l'utilisateur sur le serveur.
+	 *
+	 * @return liste des rôles
+	 */
+	public synchronized List<Role> getRoles() {
+
+		if (this.roles == null) this.roles = this.server.getRoles(this.user);
+		return this.roles;
+	}
+
+	/**
+	 *
+	 * Récupérer les permissions de l'utilisateur sur le serveur.
+	 *
+	 * @return permissions
+	 */
+	public synchronized Permissions getPermissions() {
+
+		if (this.permissions == null) this.permissions = this.server.getPermissions(this.user);
+		return this.permissions;
+	}
+
+	/**
+	 *
+	 * Savoir si l'utilisateur est un administrateur du serveur. Le propriétaire
+	 * du serveur en est toujours un.
+	 *
+	 * @return booléen
+	 */
+	public synchronized boolean isAdmin() {
+
+		if (this.admin == null) this.admin = this.server.isOwner(this.user) || (this.getPermissions().getAllowedBitmask() & PermissionType.ADMINISTRATOR.getValue()) != 0;
+		return this.admin;
+	}
+
+	/**
+	 *
+	 * Récupérer l'avatar du bot.
+	 *
+	 * @return avatar
+	 */
+	public synchronized Icon getBotAvatar() {
+
+		if (this.botAvatar == null) this.botAvatar = this.bot.bot().getAvatar();
+		return this.botAvatar;
+	}
+
+	/**
+	 *
+	 * Récupérer l'avatar de l'utilisateur.
+	 *
+	 * @return avatar
+	 */
+	public synchronized Icon getUserAvatar() {
+
+		if (this.userAvatar == null) this.userAvatar = this.user.getAvatar();
+		return this.userAvatar;
+	}
+
+	/**
+	 *
+	 * Récupérer un membre depuis une de ses caractéristiques. Un même argument
+	 * n'est résolu qu'une fois, et un message d'erreur n'est envoyé qu'une fois
+	 * s'il ne désigne aucun membre.
+	 *
+	 * @param member
+	 *            : caractéristique du membre.
+	 * @return utilisateur correspondant, <code>null</code> s'il n'existe pas ou
+	 *         n'est pas unique
+	 *
+	 * @see com.torpill.fribot.bot.DiscordBot#getUser(Server, TextChannel, User,
+	 *      String)
+	 */
+	public synchronized User getMember(final String member) {
+
+		if (this.members == null) this.members = new HashMap<>();
+		if (!this.members.containsKey(member)) this.members.put(member, this.bot.getUser(this.server, this.channel, this.user, member));
+		return this.members.get(member);
+	}
+
+	/**
+	 *
+	 * Générer l'embed par défaut du bot en réponse à l'utilisateur.
+	 *
+	 * @param title
+	 *            : titre de l'embed.
+	 * @param description
+	 *            : description de l'embed.
+	 * @return embed par défaut
+	 *
+	 * @see com.torpill.fribot.bot.DiscordBot#defaultEmbedBuilder(String, String,
+	 *      CommandContext)
+	 */
+	public EmbedBuilder embed(final String title, final String description) {
+
+		return this.bot.defaultEmbedBuilder(title, description, this);
+	}
+}
@@ -0,0 +1,566 @@
+package com.torpill.fribot.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.javacord.api.entity.user.User;
+
+/**
+ *
+ * Cette classe représente un texte de commande JSON compilé. Le texte est
+ * découpé une seule fois, au chargement de la commande, en un arbre de noeuds :
+ * textes, arguments, évaluations et variables. Un rendu ne fait alors qu'un
+ * passage sur ces noeuds, en ajoutant leurs valeurs à un même
+ * <code>StringBuilder</code>.<br />
+ * Les paramètres <code>$[...]$</code> sont évalués en premier, puis
+ * <code>${...}$</code>, puis <code>$(...)$</code> : un paramètre peut contenir
+ * des paramètres de niveau inférieur, remplacés avant qu'il ne soit lui-même
+ * interprété.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.JSONCommand
+ *
+ */
+
+public class JSONTemplate {
+
+	private static final String OPENERS = "[{(";
+	private static final String CLOSERS = "]})";
+
+	private static volatile ScriptEngineFactory factory = null;
+
+	private final Node[] nodes;
+
+	private JSONTemplate(final List<Node> nodes) {
+
+		this.nodes = nodes.toArray(new Node[nodes.size()]);
+	}
+
+	/**
+	 *
+	 * Compiler un texte de commande JSON.
+	 *
+	 * @param text
+	 *            : texte à compiler.
+	 * @param name
+	 *            : nom de la commande.
+	 * @param type
+	 *            : type d'argument de la commande.
+	 * @return texte compilé
+	 */
+	public static JSONTemplate compile(final String text, final String name, final Command.ArgumentType type) {
+
+		return new JSONTemplate(JSONTemplate.parse(text, 0, text.length(), JSONTemplate.OPENERS.length() - 1, name, type));
+	}
+
+	/**
+	 *
+	 * Ajouter le rendu du texte à un <code>StringBuilder</code>.
+	 *
+	 * @param builder
+	 *            : destination du rendu.
+	 * @param prefix
+	 *            : préfix du bot.
+	 * @param args
+	 *            : arguments de la commande, <code>null</code> s'il n'y en a pas.
+	 * @param user
+	 *            : utilisateur de la commande.
+	 * @throws ScriptException
+	 *             si une évaluation échoue.
+	 * @throws NullPointerException
+	 *             si un argument sans valeur par défaut n'existe pas.
+	 * @throws NumberFormatException
+	 *             si une évaluation ne donne pas un nombre.
+	 */
+	public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) throws ScriptException {
+
+		for (final Node node : this.nodes) node.render(builder, prefix, args, user);
+	}
+
+	/**
+	 *
+	 * Récupérer le rendu du texte.
+	 *
+	 * @param prefix
+	 *            : préfix du bot.
+	 * @param args
+	 *            : arguments de la commande, <code>null</code> s'il n'y en a pas.
+	 * @param user
+	 *            : utilisateur de la commande.
+	 * @return rendu du texte
+	 * @throws ScriptException
+	 *             si une évaluation échoue.
+	 *
+	 * @see com.torpill.fribot.commands.JSONTemplate#render(StringBuilder, String,
+	 *      ParsedArguments, User)
+	 */
+	public String render(final String prefix, final ParsedArguments args, final User user) throws ScriptException {
+
+		final StringBuilder builder = new StringBuilder();
+		this.render(builder, prefix, args, user);
+		return builder.toString();
+	}
+
+	private static List<Node> parse(final String text, final int from, final int to, final int maxLevel, final String name, final Command.ArgumentType type) {
+
+		final List<Node> nodes = new ArrayList<>();
+		final StringBuilder literal = new StringBuilder();
+		int i = from;
+		while (i < to) {
+
+			final char chr = text.charAt(i);
+			if (chr == '$' && i + 1 < to) {
+
+				final int level = JSONTemplate.OPENERS.indexOf(text.charAt(i + 1));
+				final int end = level >= 0 && level <= maxLevel ? JSONTemplate.end(text, i, level) : -1;
+				if (end != -1 && end <= to) {
+
+					if (literal.length() > 0) nodes.add(new Literal(literal.toString()));
+					literal.setLength(0);
+					nodes.add(JSONTemplate.parameter(text, i, end, level, name, type));
+					i = end;
+					continue;
+				}
+			}
+			literal.append(chr);
+			i++;
+		}
+		if (literal.length() > 0) nodes.add(new Literal(literal.toString()));
+
+		return nodes;
+	}
+
+	private static int end(final String text, final int start, final int level) {
+
+		final char closer = JSONTemplate.CLOSERS.charAt(level);
+		int j = start + 2;
+		while (j < text.length()) {
+
+			final char chr = text.charAt(j);
+			if (chr == '\n' || chr == '\r') return -1;
+			if (chr == '$') {
+
+				final int inner = j + 1 < text.length() ? JSONTemplate.OPENERS.indexOf(text.charAt(j + 1)) : -1;
+				final int end = inner >= 0 && inner < level ? JSONTemplate.end(text, j, inner) : -1;
+				if (end != -1) {
+
+					j = end;
+					continue;
+				}
+				return j - 1 > start + 2 && text.charAt(j - 1) == closer ? j + 1 : -1;
+			}
+			j++;
+		}
+
+		return -1;
+	}
+
+	private static Node parameter(final String text, final int start, final int end, final int level, final String name, final Command.ArgumentType type) {
+
+		final String parameter = text.substring(start, end);
+		final List<Node> inner = level > 0 ? JSONTemplate.parse(text, start + 2, end - 2, level - 1, name, type) : null;
+		if (inner == null || inner.size() == 1 && inner.get(0) instanceof Literal) return JSONTemplate.parameter(parameter.substring(2, parameter.length() - 2), parameter, name, type);
+
+		return new Nested(inner, level, name, type);
+	}
+
+	private static Node parameter(final String res, final String parameter, final String name, final Command.ArgumentType type) {
+
+		if (res.contains(":")) {
+
+			final String[] pipe = res.split("\\|");
+			final String defaultVal = res.contains("|") ? pipe.length > 1 ? pipe[1] : "" : null;
+			final String[] parts = pipe.length > 0 ? pipe[0].split(":") : new String[0];
+			if (parts.length > 0) {
+
+				switch (parts[0]) {
+
+				case "arg":
+					if (parts.length < 2) return new Missing(defaultVal);
+					if (type == Command.ArgumentType.RAW || type == Command.ArgumentType.QUOTE) return new Positional(new Index(parts[1]), parts.length == 2 ? null : new Index(parts[2]), defaultVal);
+					else if (type == Command.ArgumentType.KEY) return new Keyed(parts[1], defaultVal);
+					else return new Missing(null);
+
+				case "eval":
+					if (parts.length < 2) return new Missing(defaultVal);
+					return new Eval(parts[1], defaultVal);
+				}
+			}
+		}
+		switch (res) {
+
+		case "bot.prefix":
+			return new Variable(Variable.Kind.PREFIX);
+
+		case "cmd.name":
+			return new Literal(name);
+
+		case "user.mention":
+			return new Variable(Variable.Kind.MENTION);
+
+		default:
+			return new Literal(parameter);
+		}
+	}
+
+	private static ScriptEngine engine() {
+
+		if (JSONTemplate.factory == null) {
+
+			final ScriptEngine engine = new ScriptEngineManager().getEngineByName("js");
+			if (engine == null) throw new NullPointerException("Aucun moteur JavaScript disponible.");
+			JSONTemplate.factory = engine.getFactory();
+		}
+
+		return JSONTemplate.factory.getScriptEngine();
+	}
+
+	private static String orDefault(final String defaultVal) {
+
+		if (defaultVal == null) throw new NullPointerException();
+		return defaultVal;
+	}
+
+	private interface Node {
+
+		void render(StringBuilder builder, String prefix, ParsedArguments args, User user) throws ScriptException;
+	}
+
+	private static class Literal implements Node {
+
+		private final String text;
+
+		private Literal(final String text) {
+
+			this.text = text;
+		}
+
+		@Override
+		public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) {
+
+			builder.append(this.text);
+		}
+	}
+
+	private static class Variable implements Node {
+
+		private enum Kind {
+			PREFIX, MENTION
+		}
+
+		private final Kind kind;
+
+		private Variable(final Kind kind) {
+
+			this.kind = kind;
+		}
+
+		@Override
+		public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) {
+
+			builder.append(this.kind == Kind.PREFIX ? prefix : user.getMentionTag());
+		}
+	}
+
+	private static class Index {
+
+		private static final Pattern CONSTANT = Pattern.compile("^(0|-?[1-9][0-9]{0,8})$");
+
+		private final String expression;
+		private final boolean last;
+		private final int constant;
+
+		private Index(final String expression) {
+
+			this.expression = expression;
+			this.last = expression.equals("*");
+			this.constant = Index.CONSTANT.matcher(expression).matches() ? Integer.parseInt(expression) : Integer.MIN_VALUE;
+		}
+
+		private int resolve(final ParsedArguments args) throws ScriptException {
+
+			if (this.last) return args.size() - 1;
+			if (this.constant != Integer.MIN_VALUE) return this.constant;
+			return (int) JSONTemplate.engine().eval(this.expression.replace("*", args.size() - 1 + ""));
+		}
+	}
+
+	private static class Positional implements Node {
+
+		private final Index start, end;
+		private final String defaultVal;
+
+		private Positional(final Index start, final Index end, final String defaultVal) {
+
+			this.start = start;
+			this.end = end;
+			this.defaultVal = defaultVal;
+		}
+
+		@Override
+		public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) throws ScriptException {
+
+			try {
+
+				final int start = this.start.resolve(args);
+				builder.append(this.end == null ? args.get(start) : args.join(start, this.end.resolve(args)));
+
+			} catch (final IndexOutOfBoundsException e) {
+
+				builder.append(JSONTemplate.orDefault(this.defaultVal));
+			}
+		}
+	}
+
+	private static class Keyed implements Node {
+
+		private final String key;
+		private final String defaultVal;
+
+		private Keyed(final String key, final String defaultVal) {
+
+			this.key = key;
+			this.defaultVal = defaultVal;
+		}
+
+		@Override
+		public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) {
+
+			final String value = args.get(this.key);
+			builder.append(value != null ? value : JSONTemplate.orDefault(this.defaultVal));
+		}
+	}
+
+	private static class Missing implements Node {
+
+		private final String defaultVal;
+
+		private Missing(final String defaultVal) {
+
+			this.defaultVal = defaultVal;
+		}
+
+		@Override
+		public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) {
+
+			builder.append(JSONTemplate.orDefault(this.defaultVal));
+		}
+	}
+
+	private static class Eval implements Node {
+
+		private final String script;
+		private final String defaultVal;
+
+		private Eval(final String script, final String defaultVal) {
+
+			this.script = script;
+			this.defaultVal = defaultVal;
+		}
+
+		@Override
+		public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) throws ScriptException {
+
+			Eval.render(builder, this.script, this.defaultVal);
+		}
+
+		private static void render(final StringBuilder builder, final String script, final String defaultVal) throws ScriptException {
+
+			try {
+
+				final Object calc = JSONTemplate.engine().eval(script);
+				if (calc instanceof Integer) builder.append((double) (int) calc);
+				else if (calc instanceof Double) builder.append((double) calc);
+				else throw new NumberFormatException();
+
+			} catch (final IndexOutOfBoundsException e) {
+
+				builder.append(JSONTemplate.orDefault(defaultVal));
+			}
+		}
+	}
+
+	private static class Segment {
+
+		private final Node[] nodes;
+		private final String constant;
+		private final Index index;
+
+		private Segment(final List<Node> nodes) {
+
+			final boolean constant = nodes.stream().allMatch(node -> node instanceof Literal);
+			this.nodes = nodes.toArray(new Node[nodes.size()]);
+			this.constant = constant ? nodes.isEmpty() ? "" : ((Literal) nodes.get(0)).text : null;
+			this.index = constant ? new Index(this.constant) : null;
+		}
+
+		private String render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user, final String separators) throws ScriptException {
+
+			if (this.constant != null) return this.constant;
+
+			final int mark = builder.length();
+			for (final Node node : this.nodes) node.render(builder, prefix, args, user);
+			for (int i = mark; i < builder.length(); i++) {
+
+				if (separators.indexOf(builder.charAt(i)) >= 0) {
+
+					builder.setLength(mark);
+					return null;
+				}
+			}
+
+			final String value = builder.substring(mark);
+			builder.setLength(mark);
+			return value;
+		}
+
+		private int index(final String value, final ParsedArguments args) throws ScriptException {
+
+			return (this.index != null ? this.index : new Index(value)).resolve(args);
+		}
+	}
+
+	private static class Nested implements Node {
+
+		private static final String PARTS = "$\n\r:|";
+		private static final String DEFAULT = "$\n\r|";
+
+		private enum Kind {
+			ARG, EVAL
+		}
+
+		private final Node[] inner;
+		private final int level;
+		private final String name;
+		private final Command.ArgumentType type;
+		private final Kind kind;
+		private final Segment first, second, defaultVal;
+		private final boolean more;
+
+		private Nested(final List<Node> inner, final int level, final String name, final Command.ArgumentType type) {
+
+			this.inner = inner.toArray(new Node[inner.size()]);
+			this.level = level;
+			this.name = name;
+			this.type = type;
+
+			final List<Segment> parts = new ArrayList<>();
+			final StringBuilder literal = new StringBuilder();
+			List<Node> segment = new ArrayList<>();
+			Segment defaultVal = null;
+			boolean simple = true;
+			int pipes = 0;
+			for (final Node node : inner) {
+
+				if (!(node instanceof Literal)) {
+
+					if (pipes == 2) simple = false;
+					else {
+
+						Nested.flush(segment, literal);
+						segment.add(node);
+					}
+					continue;
+				}
+
+				for (final char chr : ((Literal) node).text.toCharArray()) {
+
+					if (chr == '$') simple = false;
+					else if (pipes == 2) continue;
+					else if (chr == ':' && pipes == 0 || chr == '|') {
+
+						Nested.flush(segment, literal);
+						if (pipes == 0) parts.add(new Segment(segment));
+						else defaultVal = new Segment(segment);
+						segment = new ArrayList<>();
+						if (chr == '|') pipes++;
+
+					} else literal.append(chr);
+				}
+			}
+			Nested.flush(segment, literal);
+			if (pipes == 0) parts.add(new Segment(segment));
+			else if (pipes == 1) defaultVal = new Segment(segment);
+
+			final String head = parts.get(0).constant;
+			boolean more = false;
+			for (int i = 3; i < parts.size(); i++) {
+
+				if (parts.get(i).constant == null) simple = false;
+				else if (!parts.get(i).constant.isEmpty()) more = true;
+			}
+
+			this.kind = !simple || parts.size() < 2 ? null : "arg".equals(head) ? Kind.ARG : "eval".equals(head) ? Kind.EVAL : null;
+			this.first = parts.size() > 1 ? parts.get(1) : null;
+			this.second = parts.size() > 2 ? parts.get(2) : null;
+			this.defaultVal = defaultVal;
+			this.more = more;
+		}
+
+		private static void flush(final List<Node> segment, final StringBuilder literal) {
+
+			if (literal.length() > 0) segment.add(new Literal(literal.toString()));
+			literal.setLength(0);
+		}
+
+		@Override
+		public void render(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) throws ScriptException {
+
+			if (this.kind == null) {
+
+				this.reparse(builder, prefix, args, user);
+				return;
+			}
+
+			final String first = this.first.render(builder, prefix, args, user, Nested.PARTS);
+			final String second = this.second == null ? "" : this.second.render(builder, prefix, args, user, Nested.PARTS);
+			final String defaultVal = this.defaultVal == null ? null : this.defaultVal.render(builder, prefix, args, user, Nested.DEFAULT);
+			if (first == null || second == null || this.defaultVal != null && defaultVal == null) {
+
+				this.reparse(builder, prefix, args, user);
+				return;
+			}
+
+			final int parts = this.more ? 4 : !second.isEmpty() ? 3 : !first.isEmpty() ? 2 : 1;
+			if (parts < 2) builder.append(JSONTemplate.orDefault(defaultVal));
+			else if (this.kind == Kind.EVAL) Eval.render(builder, first, defaultVal);
+			else if (this.type == Command.ArgumentType.RAW || this.type == Command.ArgumentType.QUOTE) {
+
+				try {
+
+					final int start = this.first.index(first, args);
+					builder.append(parts == 2 ? args.get(start) : args.join(start, this.second.index(second, args)));
+
+				} catch (final IndexOutOfBoundsException e) {
+
+					builder.append(JSONTemplate.orDefault(defaultVal));
+				}
+
+			} else if (this.type == Command.ArgumentType.KEY) {
+
+				final String value = args.get(first);
+				builder.append(value != null ? value : JSONTemplate.orDefault(defaultVal));
+
+			} else throw new NullPointerException();
+		}
+
+		private void reparse(final StringBuilder builder, final String prefix, final ParsedArguments args, final User user) throws ScriptException {
+
+			final int mark = builder.length();
+			for (final Node node : this.inner) node.render(builder, prefix, args, user);
+
+			final String res = builder.substring(mark);
+			builder.setLength(mark);
+			final String parameter = "$" + JSONTemplate.OPENERS.charAt(this.level) + res + JSONTemplate.CLOSERS.charAt(this.level) + "$";
+			if (res.isEmpty() || res.indexOf('$') >= 0 || res.indexOf('\n') >= 0 || res.indexOf('\r') >= 0) builder.append(parameter);
+			else JSONTemplate.parameter(res, parameter, this.name, this.type).render(builder, prefix, args, user);
+		}
+	}
+}
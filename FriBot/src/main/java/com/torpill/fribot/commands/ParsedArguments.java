@@ -0,0 +1,297 @@
+package com.torpill.fribot.commands;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.javacord.api.entity.user.User;
+
+/**
+ *
+ * Cette classe représente les arguments découpés d'une commande. Ils sont
+ * accessibles par position, et, pour le type d'argument clé / valeur, par nom
+ * de groupe en temps constant. Des accesseurs convertissent un argument en
+ * nombre ou en membre du serveur.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.Command.ArgumentType
+ * @see com.torpill.fribot.commands.ArgumentTokenizer
+ *
+ */
+
+public class ParsedArguments implements Iterable<String> {
+
+	private final String[] values;
+	private final Map<String, String> keys;
+	private final CommandContext context;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>ParsedArguments</code>.
+	 *
+	 * @param type
+	 *            : type d'argument de la commande.
+	 * @param values
+	 *            : arguments découpés, alternant noms de groupe et valeurs pour
+	 *            le type clé / valeur.
+	 * @param context
+	 *            : contexte de l'exécution, utilisé pour retrouver les membres.
+	 */
+	public ParsedArguments(final Command.ArgumentType type, final String[] values, final CommandContext context) {
+
+		this.values = values;
+		this.context = context;
+		if (type == Command.ArgumentType.KEY) {
+
+			this.keys = new HashMap<>();
+			for (int i = 0; i + 1 < values.length; i += 2) {
+
+				this.keys.put(values[i], values[i + 1]);
+			}
+
+		} else this.keys = Collections.emptyMap();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre d'arguments.
+	 *
+	 * @return nombre d'arguments
+	 */
+	public int size() {
+
+		return this.values.length;
+	}
+
+	/**
+	 *
+	 * Récupérer un argument par sa position.
+	 *
+	 * @param index
+	 *            : position de l'argument.
+	 * @return argument
+	 * @throws IndexOutOfBoundsException
+	 *             si l'argument n'existe pas.
+	 */
+	public String get(final int index) {
+
+		return this.values[index];
+	}
+
+	/**
+	 *
+	 * Récupérer la valeur d'un groupe, pour le type d'argument clé / valeur.
+	 *
+	 * @param key
+	 *            : nom du groupe, <code>%</code> pour le groupe par défaut.
+	 * @return valeur, <code>null</code> si le groupe est absent ou vide
+	 */
+	public String get(final String key) {
+
+		final String value = this.keys.get(key);
+		return value == null || value.isEmpty() ? null : value;
+	}
+
+	/**
+	 *
+	 * Récupérer la valeur d'un groupe, pour le type d'argument clé / valeur.
+	 *
+	 * @param key
+	 *            : nom du groupe, <code>%</code> pour le groupe par défaut.
+	 * @param defaultValue
+	 *            : valeur par défaut.
+	 * @return valeur, la valeur par défaut si le groupe est absent ou vide
+	 */
+	public String get(final String key, final String defaultValue) {
+
+		final String value = this.get(key);
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 *
+	 * Savoir si un groupe a une valeur, pour le type d'argument clé / valeur.
+	 *
+	 * @param key
+	 *            : nom du groupe.
+	 * @return booléen
+	 */
+	public boolean has(final String key) {
+
+		return this.get(key) != null;
+	}
+
+	/**
+	 *
+	 * Récupérer les noms des groupes, pour le type d'argument clé / valeur.
+	 *
+	 * @return noms des groupes
+	 */
+	public Set<String> keys() {
+
+		return Collections.unmodifiableSet(this.keys.keySet());
+	}
+
+	/**
+	 *
+	 * Récupérer un argument converti en entier.
+	 *
+	 * @param index
+	 *            : position de l'argument.
+	 * @param defaultValue
+	 *            : valeur par défaut.
+	 * @return entier, la valeur par défaut si l'argument est absent ou n'est pas
+	 *         un entier
+	 */
+	public int getInt(final int index, final int defaultValue) {
+
+		return index < this.values.length ? ParsedArguments.toInt(this.values[index], defaultValue) : defaultValue;
+	}
+
+	/**
+	 *
+	 * Récupérer la valeur d'un groupe convertie en entier.
+	 *
+	 * @param key
+	 *            : nom du groupe.
+	 * @param defaultValue
+	 *            : valeur par défaut.
+	 * @return entier, la valeur par défaut si le groupe est absent ou n'est pas
+	 *         un entier
+	 */
+	public int getInt(final String key, final int defaultValue) {
+
+		return ParsedArguments.toInt(this.get(key), defaultValue);
+	}
+
+	/**
+	 *
+	 * Récupérer un argument converti en nombre décimal.
+	 *
+	 * @param index
+	 *            : position de l'argument.
+	 * @param defaultValue
+	 *            : valeur par défaut.
+	 * @return nombre, la valeur par défaut si l'argument est absent ou n'est pas
+	 *         un nombre
+	 */
+	public double getDouble(final int index, final double defaultValue) {
+
+		return index < this.values.length ? ParsedArguments.toDouble(this.values[index], defaultValue) : defaultValue;
+	}
+
+	/**
+	 *
+	 * Récupérer la valeur d'un groupe convertie en nombre décimal.
+	 *
+	 * @param key
+	 *            : nom du groupe.
+	 * @param defaultValue
+	 *            : valeur par défaut.
+	 * @return nombre, la valeur par défaut si le groupe est absent ou n'est pas
+	 *         un nombre
+	 */
+	public double getDouble(final String key, final double defaultValue) {
+
+		return ParsedArguments.toDouble(this.get(key), defaultValue);
+	}
+
+	/**
+	 *
+	 * Récupérer le membre désigné par un argument. Un message d'erreur est envoyé
+	 * si l'argument ne désigne aucun membre.
+	 *
+	 * @param index
+	 *            : position de l'argument.
+	 * @return membre, <code>null</code> si l'argument est absent ou ne désigne
+	 *         aucun membre
+	 *
+	 * @see com.torpill.fribot.commands.CommandContext#getMember(String)
+	 */
+	public User getMember(final int index) {
+
+		return index < this.values.length ? this.context.getMember(this.values[index]) : null;
+	}
+
+	/**
+	 *
+	 * Récupérer le membre désigné par la valeur d'un groupe. Un message d'erreur
+	 * est envoyé si la valeur ne désigne aucun membre.
+	 *
+	 * @param key
+	 *            : nom du groupe.
+	 * @return membre, <code>null</code> si le groupe est absent ou ne désigne
+	 *         aucun membre
+	 *
+	 * @see com.torpill.fribot.commands.CommandContext#getMember(String)
+	 */
+	public User getMember(final String key) {
+
+		final String value = this.get(key);
+		return value == null ? null : this.context.getMember(value);
+	}
+
+	/**
+	 *
+	 * Joindre des arguments consécutifs, séparés par des espaces.
+	 *
+	 * @param start
+	 *            : position du premier argument.
+	 * @param end
+	 *            : position du dernier argument, incluse.
+	 * @return arguments joints
+	 * @throws IndexOutOfBoundsException
+	 *             si un argument n'existe pas.
+	 */
+	public String join(final int start, final int end) {
+
+		if (start > end) return "";
+		if (start < 0 || end >= this.values.length) throw new IndexOutOfBoundsException();
+		return String.join(" ", Arrays.asList(this.values).subList(start, end + 1));
+	}
+
+	/**
+	 *
+	 * Récupérer une copie des arguments.
+	 *
+	 * @return arguments
+	 */
+	public String[] toArray() {
+
+		return this.values.clone();
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+
+		return Arrays.asList(this.values).iterator();
+	}
+
+	private static int toInt(final String value, final int defaultValue) {
+
+		try {
+
+			return value == null ? defaultValue : Integer.parseInt(value.trim());
+
+		} catch (final NumberFormatException e) {
+
+			return defaultValue;
+		}
+	}
+
+	private static double toDouble(final String value, final double defaultValue) {
+
+		try {
+
+			return value == null ? defaultValue : Double.parseDouble(value.trim());
+
+		} catch (final NumberFormatException e) {
+
+			return defaultValue;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.torpill.fribot.commands;
+
+import java.util.concurrent.CompletionStage;
+
+import com.torpill.fribot.bot.DiscordBot;
+
+/**
+ *
+ * Cette classe représente une commande dont le calcul peut être partagé. La
+ * commande est séparée en deux étapes : un calcul, identifié par une clé de
+ * déduplication, puis une livraison du résultat dans le salon de chaque
+ * utilisateur. Les exécutions simultanées ayant la même clé partagent un seul
+ * calcul. Si ce calcul dépasse l'échéance de l'exécution qui l'a démarré, les
+ * autres exécutions le relancent tant que leur propre échéance le permet.
+ *
+ * @author torpill40
+ *
+ * @param <V>
+ *            : type du résultat du calcul.
+ *
+ * @see com.torpill.fribot.threads.SingleFlight
+ *
+ */
+
+public abstract class SharedCommand<V> extends AsyncCommand {
+
+	/**
+	 *
+	 * Constructeur de la classe <code>SharedCommand</code>.
+	 *
+	 * @param name
+	 *            : nom de la commande.
+	 * @param argumentType
+	 *            : type d'argument de la commande.
+	 * @param category
+	 *            : catégorie de la commande.
+	 *
+	 * @see com.torpill.fribot.commands.Command.ArgumentType
+	 * @see com.torpill.fribot.commands.Command.Category
+	 */
+	protected SharedCommand(final String name, final ArgumentType argumentType, final Category category) {
+
+		super(name, argumentType, category);
+	}
+
+	/**
+	 *
+	 * Récupérer la clé de déduplication du calcul. Deux exécutions ayant la même
+	 * clé doivent produire le même résultat.
+	 *
+	 * @param bot
+	 *            : bot Discord a demandant l'exécution de la commande.
+	 * @param args
+	 *            : arguments passés lors de l'appel de la commande.
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @return clé de déduplication, <code>null</code> pour ne pas partager le
+	 *         calcul
+	 */
+	protected abstract String key(final DiscordBot bot, final ParsedArguments args, final CommandContext context);
+
+	/**
+	 *
+	 * Calculer le résultat de la commande.
+	 *
+	 * @param bot
+	 *            : bot Discord a demandant l'exécution de la commande.
+	 * @param args
+	 *            : arguments passés lors de l'appel de la commande.
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @return résultat à venir
+	 */
+	protected abstract CompletionStage<V> compute(final DiscordBot bot, final ParsedArguments args, final CommandContext context);
+
+	/**
+	 *
+	 * Livrer le résultat du calcul à l'utilisateur.
+	 *
+	 * @param result
+	 *            : résultat du calcul.
+	 * @param bot
+	 *            : bot Discord a demandant l'exécution de la commande.
+	 * @param args
+	 *            : arguments passés lors de l'appel de la commande.
+	 * @param context
+	 *            : contexte de l'exécution.
+	 * @return code d'erreur à venir
+	 */
+	protected abstract CompletionStage<Integer> deliver(final V result, final DiscordBot bot, final ParsedArguments args, final CommandContext context);
+
+	@Override
+	public CompletionStage<Integer> executeAsync(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		final String key = this.key(bot, args, context);
+		final CompletionStage<V> result = key == null ? this.compute(bot, args, context) : bot.getSingleFlight().run(this.getName() + ":" + key, () -> this.compute(bot, args, context));
+
+		return result.thenCompose(value -> this.deliver(value, bot, args, context));
+	}
+}
@@ -3,22 +3,31 @@ package com.torpill.fribot.commands.fun;
 import java.io.IOException;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.imageio.ImageIO;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.App;
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
+import com.torpill.fribot.limits.AdaptiveLimit;
+import com.torpill.fribot.limits.Bulkhead;
+import com.torpill.fribot.limits.BulkheadException;
+import com.torpill.fribot.limits.Dependency;
+import com.torpill.fribot.limits.Workload;
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
 import com.torpill.fribot.util.ImageProcessor;
 
 import net.bramp.ffmpeg.FFmpeg;
 import net.bramp.ffmpeg.FFmpegExecutor;
 import net.bramp.ffmpeg.FFprobe;
+import net.bramp.ffmpeg.RunProcessFunction;
 import net.bramp.ffmpeg.builder.FFmpegBuilder;
 
 /**
@@ -54,6 +63,12 @@ public class ByeBroCommand extends Command {
 		return Command.defaultExampleForOneMemberArgument(this, prefix, user);
 	}
 
+	@Override
+	public Command.Cost getCost() {
+
+		return Command.Cost.MEDIA;
+	}
+
 	@Override
 	public boolean deleteCommandUsage() {
 
@@ -61,62 +76,89 @@ public class ByeBroCommand extends Command {
 	}
 
 	@Override
-	public List<Role> whiteListedRoles(final DiscordBot bot, final Server server) {
+	public List<String> rolesWhiteList() {
 
-		return bot.roles(server, "user-role");
+		return List.of("user-role");
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
-		if (args.length == 0) return 1;
+		if (args.size() == 0) return 1;
 
-		final User other = bot.getUser(server, channel, user, args[0]);
+		final User other = args.getMember(0);
 		if (other == null) return 2;
-		if (other.getId() == user.getId()) {
+		if (other.getId() == context.getUser().getId()) {
 
-			channel.sendMessage(user.getMentionTag() + ", tu ne peux pas te dire au revoir à toi même !");
+			context.getChannel().sendMessage(context.getUser().getMentionTag() + ", tu ne peux pas te dire au revoir à toi même !");
 			return 2;
 		}
 
 		final Random rand = new Random();
 		final long tempId = App.TEMP.createInstance();
-		App.TEMP.addFile(tempId, "pp1", Long.toHexString(user.getId()) + "-" + (rand.nextInt(8_999_999) + 1_000_000) + ".png");
+		App.TEMP.addFile(tempId, "pp1", Long.toHexString(context.getUser().getId()) + "-" + (rand.nextInt(8_999_999) + 1_000_000) + ".png");
 		App.TEMP.addFile(tempId, "pp2", Long.toHexString(other.getId()) + "-" + (rand.nextInt(8_999_999) + 1_000_000) + ".png");
-		App.TEMP.addFile(tempId, "vid", Long.toHexString(user.getId()) + "-" + Long.toHexString(other.getId()) + ".mp4");
+		App.TEMP.addFile(tempId, "vid", Long.toHexString(context.getUser().getId()) + "-" + Long.toHexString(other.getId()) + ".mp4");
 		try {
 
-			ImageIO.write(ImageProcessor.makeRoundedCorner(ImageProcessor.resize(bot.getAvatar(user), 210), 50), "PNG", App.TEMP.getTempFile(tempId, "pp1"));
+			ImageIO.write(ImageProcessor.makeRoundedCorner(ImageProcessor.resize(bot.getAvatar(context.getUser()), 210), 50), "PNG", App.TEMP.getTempFile(tempId, "pp1"));
 			ImageIO.write(ImageProcessor.makeRoundedCorner(ImageProcessor.resize(bot.getAvatar(other), 190), 50), "PNG", App.TEMP.getTempFile(tempId, "pp2"));
 
-			final FFmpeg ffmpeg = new FFmpeg(App.FFMPEG + "/ffmpeg");
+			final Deadline deadline = Deadline.current();
+			deadline.verify();
+
+			final Bulkhead bulkhead = Dependency.FFMPEG.BULKHEAD;
+			final Deadline call = Deadline.in(bulkhead.getCallTimeout(deadline), TimeUnit.MILLISECONDS);
+			final FFmpeg ffmpeg = new FFmpeg(App.FFMPEG + "/ffmpeg", arguments -> {
+
+				final Process process = new RunProcessFunction().run(arguments);
+				final Future<?> kill = deadline.onExpiry(process::destroyForcibly);
+				final Future<?> timeout = call.onExpiry(process::destroyForcibly);
+				process.onExit().thenRun(() -> {
+
+					kill.cancel(false);
+					timeout.cancel(false);
+				});
+				return process;
+			});
 			final FFprobe ffprobe = new FFprobe(App.FFMPEG + "/ffprobe");
 
 			//@formatter:off
 
-			new FFmpegExecutor(ffmpeg, ffprobe).createJob(new FFmpegBuilder()
-				.setInput(App.SRC + "/external/videos/salut-mon-pote.mp4")
-				.overrideOutputFiles(true)
-				.addInput(App.TEMP.getTempFilePath(tempId, "pp1"))
-				.addInput(App.TEMP.getTempFilePath(tempId, "pp2"))
-				.setComplexFilter("[0:v][1:v] overlay=enable='between(t,0,2.5)':x=280:y=40[bg0]; "
-								+ "[bg0][1:v] overlay=enable='between(t,2.5,4.78479)':x=280+sin((2.5-t)*2.75)*70:y=40[bg1]; "
-								+ "[bg1][1:v] overlay=enable='between(t,4.78479,9.35)':x=280:y=40[bg2]; "
-								+ "[bg2][2:v] overlay=enable='between(t,9.35,12)':x=200:y=25")
-				.addOutput(App.TEMP.getTempFilePath(tempId, "vid"))
-				.done(), progress -> {
-
-					if (progress.isEnd()) channel.sendMessage(App.TEMP.getTempFile(tempId, "vid")).thenRun(() -> App.TEMP.deleteAll(tempId));
-				})
-			.run();
+			try (AdaptiveLimit.Permit permit = Workload.FFMPEG.LIMIT.acquire(); Bulkhead.Permit slot = bulkhead.enter()) {
+
+				new FFmpegExecutor(ffmpeg, ffprobe).createJob(new FFmpegBuilder()
+					.setInput(App.SRC + "/external/videos/salut-mon-pote.mp4")
+					.overrideOutputFiles(true)
+					.addInput(App.TEMP.getTempFilePath(tempId, "pp1"))
+					.addInput(App.TEMP.getTempFilePath(tempId, "pp2"))
+					.setComplexFilter("[0:v][1:v] overlay=enable='between(t,0,2.5)':x=280:y=40[bg0]; "
+									+ "[bg0][1:v] overlay=enable='between(t,2.5,4.78479)':x=280+sin((2.5-t)*2.75)*70:y=40[bg1]; "
+									+ "[bg1][1:v] overlay=enable='between(t,4.78479,9.35)':x=280:y=40[bg2]; "
+									+ "[bg2][2:v] overlay=enable='between(t,9.35,12)':x=200:y=25")
+					.addOutput(App.TEMP.getTempFilePath(tempId, "vid"))
+					.done(), progress -> {
+
+						if (progress.isEnd()) context.getChannel().sendMessage(App.TEMP.getTempFile(tempId, "vid")).thenRun(() -> App.TEMP.deleteAll(tempId));
+					})
+				.run();
+
+			} catch (final RuntimeException e) {
+
+				if (call.isExpired() && !deadline.isExpired()) throw bulkhead.timedOut(deadline);
+				throw e;
+			}
 
 			//@formatter:on
 
 		} catch (final IOException | RuntimeException e) {
 
-			App.LOGGER.error("ERREUR: ", e);
-			channel.sendMessage("```Une erreur est survenue : " + e.getMessage() + "```");
 			App.TEMP.deleteAll(tempId);
+			if (e instanceof DeadlineException || Deadline.current().isExpired()) throw new DeadlineException();
+			if (e instanceof BulkheadException) throw (BulkheadException) e;
+
+			App.LOGGER.error("ERREUR: ", e);
+			context.getChannel().sendMessage("```Une erreur est survenue : " + e.getMessage() + "```");
 			return 2;
 		}
 
@@ -4,12 +4,10 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.image.BufferedImage;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.message.MessageBuilder;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.commands.AvatarCommand;
 import com.torpill.fribot.commands.Command;
 import com.torpill.fribot.util.FontLoader;
 import com.torpill.fribot.util.ImageLoader;
@@ -25,7 +23,7 @@ import com.torpill.fribot.util.ImageProcessor;
  *
  */
 
-public class ClydeCommand extends Command {
+public class ClydeCommand extends AvatarCommand {
 
 	/**
 	 *
@@ -49,6 +47,12 @@ public class ClydeCommand extends Command {
 		return prefix + this.getName() + "\n" + Command.defaultExampleForOneMemberArgument(this, prefix, user);
 	}
 
+	@Override
+	public Command.Cost getCost() {
+
+		return Command.Cost.RENDER;
+	}
+
 	@Override
 	public boolean deleteCommandUsage() {
 
@@ -56,26 +60,12 @@ public class ClydeCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
-
-		User user0 = null;
-		if (args.length > 0) user0 = bot.getUser(server, channel, user, args[0]);
-		if (user0 == null) user0 = user;
+	protected BufferedImage render(final DiscordBot bot, final User target, final BufferedImage avatar) {
 
-		final BufferedImage avatar = ImageProcessor.multiply(ImageProcessor.noise(bot.getAvatar(user0), 0.35F, 0F, 1F), 0F, 0.18F, 0.36F);
+		final BufferedImage filtered = ImageProcessor.multiply(ImageProcessor.noise(avatar, 0.35F, 0F, 1F), 0F, 0.18F, 0.36F);
 		final BufferedImage clyde = ImageLoader.loadImage("clyde.png");
 		final int maskX = 95, maskY = 102, maskWidth = 322, maskHeight = 322;
 		final Font font = FontLoader.loadFont("8-bit-madness-regular.ttf");
-		final BufferedImage res = ImageProcessor.write(ImageProcessor.applyMask(clyde, avatar, maskX, maskY, maskWidth, maskHeight), "clyde_clone_" + Math.abs(user0.getName().hashCode()) + "_a" + user0.getIdAsString(), 5, 510, font, new Color(53, 231, 83));
-
-		// @formatter:off
-
-		new MessageBuilder()
-			.addAttachment(res, Long.toHexString(user.getId()) + "-" + Long.toHexString(user0.getId()) + ".png")
-			.send(channel);
-
-		// @formatter:on
-
-		return 0;
+		return ImageProcessor.write(ImageProcessor.applyMask(clyde, filtered, maskX, maskY, maskWidth, maskHeight), "clyde_clone_" + Math.abs(target.getName().hashCode()) + "_a" + target.getIdAsString(), 5, 510, font, new Color(53, 231, 83));
 	}
 }
@@ -2,12 +2,10 @@ package com.torpill.fribot.commands.fun;
 
 import java.awt.image.BufferedImage;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.message.MessageBuilder;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.commands.AvatarCommand;
 import com.torpill.fribot.commands.Command;
 import com.torpill.fribot.util.ImageLoader;
 import com.torpill.fribot.util.ImageProcessor;
@@ -22,7 +20,7 @@ import com.torpill.fribot.util.ImageProcessor;
  *
  */
 
-public class ComputerCommand extends Command {
+public class ComputerCommand extends AvatarCommand {
 
 	/**
 	 *
@@ -46,6 +44,12 @@ public class ComputerCommand extends Command {
 		return prefix + this.getName() + "\n" + Command.defaultExampleForOneMemberArgument(this, prefix, user);
 	}
 
+	@Override
+	public Command.Cost getCost() {
+
+		return Command.Cost.RENDER;
+	}
+
 	@Override
 	public boolean deleteCommandUsage() {
 
@@ -53,29 +57,15 @@ public class ComputerCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
-
-		User user0 = null;
-		if (args.length > 0) user0 = bot.getUser(server, channel, user, args[0]);
-		if (user0 == null) user0 = user;
+	protected BufferedImage render(final DiscordBot bot, final User target, final BufferedImage avatar) {
 
-		final BufferedImage gray = ImageProcessor.multiply(ImageProcessor.noise(ImageProcessor.grayScale(bot.getAvatar(user0)), 0.15F, 0F, 1F), 0.75F, 0.75F, 0.75F);
+		final BufferedImage gray = ImageProcessor.multiply(ImageProcessor.noise(ImageProcessor.grayScale(avatar), 0.15F, 0F, 1F), 0.75F, 0.75F, 0.75F);
 		final BufferedImage redMask = ImageProcessor.createGaussianBlur(ImageProcessor.redMask(gray), 5, 2.5F);
 		final BufferedImage greenMask = ImageProcessor.greenMask(gray);
 		final BufferedImage blueMask = ImageProcessor.blueMask(gray);
-		final BufferedImage avatar = ImageProcessor.applyRGBMasks(redMask, -2, 0, greenMask, 2, -1, blueMask, 2, -1);
+		final BufferedImage glitched = ImageProcessor.applyRGBMasks(redMask, -2, 0, greenMask, 2, -1, blueMask, 2, -1);
 		final BufferedImage computer = ImageLoader.loadImage("computer.png");
 		final int maskX = 182, maskY = 85, maskWidth = 198, maskHeight = 198;
-		final BufferedImage res = ImageProcessor.applyMask(computer, avatar, maskX, maskY, maskWidth, maskHeight);
-
-		// @formatter:off
-
-		new MessageBuilder()
-			.addAttachment(res, Long.toHexString(user.getId()) + "-" + Long.toHexString(user0.getId()) + ".png")
-			.send(channel);
-
-		// @formatter:on
-
-		return 0;
+		return ImageProcessor.applyMask(computer, glitched, maskX, maskY, maskWidth, maskHeight);
 	}
 }
@@ -2,12 +2,10 @@ package com.torpill.fribot.commands.fun;
 
 import java.awt.image.BufferedImage;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.message.MessageBuilder;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.commands.AvatarCommand;
 import com.torpill.fribot.commands.Command;
 import com.torpill.fribot.util.ImageLoader;
 import com.torpill.fribot.util.ImageProcessor;
@@ -23,7 +21,7 @@ import com.vdurmont.emoji.EmojiParser;
  *
  */
 
-public class DogCommand extends Command {
+public class DogCommand extends AvatarCommand {
 
 	/**
 	 *
@@ -47,6 +45,12 @@ public class DogCommand extends Command {
 		return prefix + this.getName() + "\n" + Command.defaultExampleForOneMemberArgument(this, prefix, user);
 	}
 
+	@Override
+	public Command.Cost getCost() {
+
+		return Command.Cost.RENDER;
+	}
+
 	@Override
 	public boolean deleteCommandUsage() {
 
@@ -54,26 +58,16 @@ public class DogCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	protected String caption() {
 
-		User user0 = null;
-		if (args.length > 0) user0 = bot.getUser(server, channel, user, args[0]);
-		if (user0 == null) user0 = user;
+		return EmojiParser.parseToUnicode(":dog:");
+	}
+
+	@Override
+	protected BufferedImage render(final DiscordBot bot, final User target, final BufferedImage avatar) {
 
-		final BufferedImage avatar = bot.getAvatar(user0);
 		final BufferedImage dog = ImageLoader.loadImage("dog.png");
 		final int maskX = 119, maskY = 8, maskWidth = 104, maskHeight = 104;
-		final BufferedImage res = ImageProcessor.applyMask(dog, avatar, maskX, maskY, maskWidth, maskHeight);
-
-		// @formatter:off
-
-		new MessageBuilder()
-			.append(EmojiParser.parseToUnicode(":dog:"))
-			.addAttachment(res, Long.toHexString(user.getId()) + "-" + Long.toHexString(user0.getId()) + ".png")
-			.send(channel);
-
-		// @formatter:on
-
-		return 0;
+		return ImageProcessor.applyMask(dog, avatar, maskX, maskY, maskWidth, maskHeight);
 	}
 }
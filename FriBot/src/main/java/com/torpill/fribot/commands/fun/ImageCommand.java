@@ -1,14 +1,18 @@
 package com.torpill.fribot.commands.fun;
 
 import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletionStage;
 
-import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.MessageBuilder;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.commands.AsyncCommand;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
+import com.torpill.fribot.limits.AdaptiveLimit;
+import com.torpill.fribot.limits.Workload;
 import com.torpill.fribot.util.ImageProcessor;
 import com.torpill.fribot.util.math.Matrix4f;
 import com.torpill.fribot.util.math.Vector3f;
@@ -23,7 +27,7 @@ import com.torpill.fribot.util.math.Vector3f;
  *
  */
 
-public class ImageCommand extends Command {
+public class ImageCommand extends AsyncCommand {
 
 	/**
 	 *
@@ -41,6 +45,12 @@ public class ImageCommand extends Command {
 		return "Cette commande permet de tester les filtres d'images.";
 	}
 
+	@Override
+	public Command.Cost getCost() {
+
+		return Command.Cost.RENDER;
+	}
+
 	@Override
 	public boolean deleteCommandUsage() {
 
@@ -48,32 +58,36 @@ public class ImageCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public CompletionStage<Integer> executeAsync(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
 		User user0 = null;
-		if (args.length > 0) user0 = bot.getUser(server, channel, user, args[0]);
-		if (user0 == null) user0 = user;
+		if (args.size() > 0) user0 = args.getMember(0);
+		if (user0 == null) user0 = context.getUser();
 
 		final BufferedImage avatar = bot.getAvatar(user0);
 		final Vector3f translate = new Vector3f(0, 0, 1);
 		final Vector3f rotate = new Vector3f(0, 20, 0);
 		final Vector3f scale = new Vector3f(1, 1, 1);
 		final Matrix4f transform = Matrix4f.transform(translate, rotate, scale);
-		final BufferedImage res = ImageProcessor.projectImage(avatar, transform, 1);
+		final BufferedImage res;
+		try (AdaptiveLimit.Permit permit = Workload.IMAGE.LIMIT.acquire()) {
+
+			res = ImageProcessor.projectImage(avatar, transform, 1);
+		}
 
 		// @formatter:off
 
-		new MessageBuilder()
+		final String fileName = Long.toHexString(context.getUser().getId()) + "-" + Long.toHexString(user0.getId()) + ".png";
+		return new MessageBuilder()
 			.append("Avant :")
-			.addAttachment(avatar, Long.toHexString(user.getId()) + "-" + Long.toHexString(user0.getId()) + ".png")
-			.send(channel).join();
-		new MessageBuilder()
-			.append("Après :")
-			.addAttachment(res, Long.toHexString(user.getId()) + "-" + Long.toHexString(user0.getId()) + ".png")
-			.send(channel);
+			.addAttachment(avatar, fileName)
+			.send(context.getChannel())
+			.thenCompose(message -> new MessageBuilder()
+				.append("Après :")
+				.addAttachment(res, fileName)
+				.send(context.getChannel()))
+			.thenApply(message -> 0);
 
 		// @formatter:on
-
-		return 0;
 	}
 }
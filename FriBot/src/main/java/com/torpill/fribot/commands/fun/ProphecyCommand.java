@@ -4,15 +4,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.MessageBuilder;
 import org.javacord.api.entity.message.MessageDecoration;
-import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 import com.torpill.fribot.util.StringProcessor;
 
 /**
@@ -86,15 +85,15 @@ public class ProphecyCommand extends Command {
 	}
 
 	@Override
-	public List<Role> whiteListedRoles(final DiscordBot bot, final Server server) {
+	public List<String> rolesWhiteList() {
 
-		return bot.roles(server, "user-role");
+		return List.of("user-role");
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
-		if (args.length == 0) return 1;
+		if (args.size() == 0) return 1;
 
 		final StringBuilder builder = new StringBuilder();
 		for (final String arg : args) builder.append(StringProcessor.removeAccent(arg.toLowerCase()) + " ");
@@ -113,7 +112,7 @@ public class ProphecyCommand extends Command {
 			.append("Vous trouvez une pierre. Vous pouvez y lire ceci :")
 			.append(msg, MessageDecoration.CODE_LONG)
 			.append("Cela ressemble fortement à une prophétie.")
-			.send(channel);
+			.send(context.getChannel());
 
 		//@formatter:on
 
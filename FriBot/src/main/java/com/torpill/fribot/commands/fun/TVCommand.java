@@ -2,12 +2,10 @@ package com.torpill.fribot.commands.fun;
 
 import java.awt.image.BufferedImage;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.message.MessageBuilder;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.commands.AvatarCommand;
 import com.torpill.fribot.commands.Command;
 import com.torpill.fribot.util.ImageLoader;
 import com.torpill.fribot.util.ImageProcessor;
@@ -24,7 +22,7 @@ import com.torpill.fribot.util.math.Vector3f;
  *
  */
 
-public class TVCommand extends Command {
+public class TVCommand extends AvatarCommand {
 
 	/**
 	 *
@@ -48,6 +46,12 @@ public class TVCommand extends Command {
 		return prefix + this.getName() + "\n" + Command.defaultExampleForOneMemberArgument(this, prefix, user);
 	}
 
+	@Override
+	public Command.Cost getCost() {
+
+		return Command.Cost.RENDER;
+	}
+
 	@Override
 	public boolean deleteCommandUsage() {
 
@@ -55,13 +59,8 @@ public class TVCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
-
-		User user0 = null;
-		if (args.length > 0) user0 = bot.getUser(server, channel, user, args[0]);
-		if (user0 == null) user0 = user;
+	protected BufferedImage render(final DiscordBot bot, final User target, final BufferedImage avatar) {
 
-		final BufferedImage avatar = bot.getAvatar(user0);
 		final Vector3f translate = new Vector3f(0, -0.74F, 0.15F);
 		final Vector3f rotate = new Vector3f(0, -3, 0.5F);
 		final Vector3f scale = new Vector3f(1, 0.75F, 1);
@@ -69,16 +68,6 @@ public class TVCommand extends Command {
 		final BufferedImage projection = ImageProcessor.projectImage(avatar, transform, 1);
 		final BufferedImage tv = ImageLoader.loadImage("tv.png");
 		final int maskX = 99, maskY = 29, maskWidth = 260, maskHeight = 240;
-		final BufferedImage res = ImageProcessor.applyMask(tv, projection, maskX, maskY, maskWidth, maskHeight);
-
-		// @formatter:off
-
-		new MessageBuilder()
-			.addAttachment(res, Long.toHexString(user.getId()) + "-" + Long.toHexString(user0.getId()) + ".png")
-			.send(channel);
-
-		// @formatter:on
-
-		return 0;
+		return ImageProcessor.applyMask(tv, projection, maskX, maskY, maskWidth, maskHeight);
 	}
 }
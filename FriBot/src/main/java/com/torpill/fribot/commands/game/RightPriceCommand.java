@@ -3,13 +3,12 @@ package com.torpill.fribot.commands.game;
 import java.util.List;
 import java.util.Random;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 import com.torpill.fribot.threads.RightPriceThread;
 
 /**
@@ -53,16 +52,16 @@ public class RightPriceCommand extends Command {
 	}
 
 	@Override
-	public List<Role> whiteListedRoles(final DiscordBot bot, final Server server) {
+	public List<String> rolesWhiteList() {
 
-		return bot.roles(server, "user-role");
+		return List.of("user-role");
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
-		if (args.length > 1) return 1;
-		final String level = args.length > 0 ? args[0] : "normal";
+		if (args.size() > 1) return 1;
+		final String level = args.size() > 0 ? args.get(0) : "normal";
 		final Random rand = new Random();
 		final int min = rand.nextInt(40000) + 10000;
 		int max = min;
@@ -82,11 +81,11 @@ public class RightPriceCommand extends Command {
 			break;
 
 		default:
-			channel.sendMessage(user.getMentionTag() + ", `" + level + "` n'est pas un niveau de difficulté existant.");
+			context.getChannel().sendMessage(context.getUser().getMentionTag() + ", `" + level + "` n'est pas un niveau de difficulté existant.");
 			return 2;
 		}
 
-		bot.startThread(RightPriceThread.class, user, channel, rand.nextInt(max - min + 1) + min, min, max);
+		bot.startThread(RightPriceThread.class, new RightPriceThread.Params(context.getUser(), context.getChannel(), rand.nextInt(max - min + 1) + min, min, max));
 		return 0;
 	}
 }
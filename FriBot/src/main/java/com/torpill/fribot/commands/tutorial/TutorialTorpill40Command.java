@@ -2,13 +2,12 @@ package com.torpill.fribot.commands.tutorial;
 
 import java.util.List;
 
-import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
-import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 
 /**
  *
@@ -45,20 +44,20 @@ public class TutorialTorpill40Command extends Command {
 	}
 
 	@Override
-	public List<User> whiteListedUsers(final DiscordBot bot, final Server server) {
+	public List<String> usersWhiteList() {
 
-		return bot.users("392722513202774016");
+		return List.of("392722513202774016");
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
-		final Role role = bot.getDevRole(server);
+		final Role role = bot.getDevRole(context.getServer());
 
 		if (role != null) {
 
-			channel.sendMessage("Félicitations " + user.getMentionTag() + " ! Tu as terminé le tutoriel du débutant ! Tu reçois donc ton rôle " + role.getMentionTag() + " !");
-			server.addRoleToUser(user, role);
+			context.getChannel().sendMessage("Félicitations " + context.getUser().getMentionTag() + " ! Tu as terminé le tutoriel du débutant ! Tu reçois donc ton rôle " + role.getMentionTag() + " !");
+			context.getServer().addRoleToUser(context.getUser(), role);
 		}
 
 		return 0;
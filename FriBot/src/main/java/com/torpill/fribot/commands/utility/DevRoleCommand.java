@@ -1,12 +1,11 @@
 package com.torpill.fribot.commands.utility;
 
-import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
-import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 
 /**
  * 
@@ -43,12 +42,12 @@ public class DevRoleCommand extends Command {
 	}
 
 	@Override
-	public int execute(DiscordBot bot, String[] args, User user, TextChannel channel, Server server) {
+	public int execute(DiscordBot bot, ParsedArguments args, CommandContext context) {
 
-		Role devrole = bot.getDevRole(server);
+		Role devrole = bot.getDevRole(context.getServer());
 		if (devrole != null) {
 
-			server.addRoleToUser(user, devrole);
+			context.getServer().addRoleToUser(context.getUser(), devrole);
 		}
 
 		return 0;
@@ -4,11 +4,11 @@ import java.util.concurrent.ExecutionException;
 
 import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.embed.EmbedBuilder;
-import org.javacord.api.entity.server.Server;
-import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 import com.torpill.fribot.threads.HelpThread;
 
 /**
@@ -48,17 +48,17 @@ public class HelpCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
-		switch (args.length) {
+		switch (args.size()) {
 
 		case 0:
 			try {
 
-				final TextChannel dm = user.openPrivateChannel().get();
-				if (bot.startThread(HelpThread.class, user, dm) == 0) {
+				final TextChannel dm = context.getUser().openPrivateChannel().get();
+				if (bot.startThread(HelpThread.class, new HelpThread.Params(context.getUser(), dm)) == 0) {
 
-					channel.sendMessage("Utilitaire d'aide envoyé en MP " + user.getMentionTag());
+					context.getChannel().sendMessage("Utilitaire d'aide envoyé en MP " + context.getUser().getMentionTag());
 				}
 
 			} catch (InterruptedException | ExecutionException e) {
@@ -68,36 +68,36 @@ public class HelpCommand extends Command {
 			break;
 
 		case 1:
-			final String commandName = args[0];
+			final String commandName = args.get(0);
 			final String help = bot.getHelpFor(commandName);
-			final String example = bot.getExampleFor(commandName, user);
+			final String example = bot.getExampleFor(commandName, context.getUser());
 			final String type = bot.getTypeFor(commandName);
 			final String category = bot.getCategoryFor(commandName);
 
 			if (help == null) {
 
-				channel.sendMessage(user.getMentionTag() + ", la commande `" + commandName + "` n'existe pas : fais `" + bot.getPrefix() + "help` pour avoir la liste des commandes.");
+				context.getChannel().sendMessage(context.getUser().getMentionTag() + ", la commande `" + commandName + "` n'existe pas : fais `" + context.getPrefix() + "help` pour avoir la liste des commandes.");
 				return 2;
 			}
 
-			final EmbedBuilder embed = bot.defaultEmbedBuilder("Aide :", commandName + " :", user);
+			final EmbedBuilder embed = context.embed("Aide :", commandName + " :");
 			embed.addField("Description :", help);
 			if (example != null) embed.addField("Exemple :", example);
 			embed.addField("Catégorie :", category);
 			embed.addField("Type d'arguments :", type);
-			if (!bot.isOwner(user)) {
+			if (!bot.isOwner(context.getUser())) {
 
 				if (bot.isPrivate(commandName)) embed.addField("Commande privée :", "Seul le propriétaire du bot peut utiliser cette commande.");
-				else if (bot.onBlacklist(user, commandName, server) == 1) embed.addField("Liste noire :", "Tu es sur la liste noire, tu ne peux pas utiliser cette commande.");
-				else if (bot.onWhitelist(user, commandName, server) == 0) embed.addField("Liste blanche :", "Tu n'es pas sur la liste blanche, tu ne peux pas utiliser cette commande.");
-				else if (!bot.isAdmin(user, server)) {
+				else if (bot.onBlacklist(context.getUser(), commandName, context.getServer()) == 1) embed.addField("Liste noire :", "Tu es sur la liste noire, tu ne peux pas utiliser cette commande.");
+				else if (bot.onWhitelist(context.getUser(), commandName, context.getServer()) == 0) embed.addField("Liste blanche :", "Tu n'es pas sur la liste blanche, tu ne peux pas utiliser cette commande.");
+				else if (!context.isAdmin()) {
 
-					if (bot.onRoleBlacklist(user, commandName, server) == 1) embed.addField("Liste noire :", "Tu as un rôle sur la liste noire, tu ne peux pas utiliser cette commande.");
-					else if (bot.onRoleWhitelist(user, commandName, server) == 0) embed.addField("Liste blanche :", "Tu n'as aucun rôle sur la liste blanche, tu ne peux pas utiliser cette commande.");
-					else if (bot.canUse(user, commandName, server) == 0) embed.addField("Permissions :", "Tu n'as pas les permissions requises pour utiliser cette commande.");
+					if (bot.onRoleBlacklist(context.getUser(), commandName, context.getServer()) == 1) embed.addField("Liste noire :", "Tu as un rôle sur la liste noire, tu ne peux pas utiliser cette commande.");
+					else if (bot.onRoleWhitelist(context.getUser(), commandName, context.getServer()) == 0) embed.addField("Liste blanche :", "Tu n'as aucun rôle sur la liste blanche, tu ne peux pas utiliser cette commande.");
+					else if (bot.canUse(context, commandName) == 0) embed.addField("Permissions :", "Tu n'as pas les permissions requises pour utiliser cette commande.");
 				}
 			}
-			channel.sendMessage(embed);
+			context.getChannel().sendMessage(embed);
 			break;
 
 		default:
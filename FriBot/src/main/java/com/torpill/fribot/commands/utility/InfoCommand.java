@@ -1,13 +1,13 @@
 package com.torpill.fribot.commands.utility;
 
-import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.embed.EmbedBuilder;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.App;
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 
 /**
  *
@@ -45,17 +45,18 @@ public class InfoCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
-		final EmbedBuilder embed = bot.defaultEmbedBuilder("Informations :", bot.getName() + " :", user);
-		embed.addField("Propriétaire :", bot.owner().getDiscriminatedName(), true);
+		final User owner = bot.owner();
+		final EmbedBuilder embed = context.embed("Informations :", bot.getName() + " :");
+		embed.addField("Propriétaire :", owner == null ? "inconnu" : owner.getDiscriminatedName(), true);
 		embed.addField("Version :", App.VERSION, true);
-		embed.addField("Préfix :", bot.getPrefix(), true);
+		embed.addField("Préfix :", context.getPrefix(), true);
 		embed.addField("Date de création :", bot.getCreationDate(), false);
 		embed.addField("Couleur :", "RGB(" + bot.getColor().getRed() + ", " + bot.getColor().getGreen() + ", " + bot.getColor().getBlue() + ")", true);
 		embed.addField("Langage :", "Java", true);
 		embed.addField("Github :", App.GITHUB, false);
-		channel.sendMessage(embed);
+		context.getChannel().sendMessage(embed);
 
 		return 0;
 	}
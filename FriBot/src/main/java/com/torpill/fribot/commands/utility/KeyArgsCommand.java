@@ -1,11 +1,9 @@
 package com.torpill.fribot.commands.utility;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.server.Server;
-import org.javacord.api.entity.user.User;
-
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 
 /**
  * 
@@ -43,19 +41,19 @@ public class KeyArgsCommand extends Command {
 	}
 
 	@Override
-	public int execute(DiscordBot bot, String[] args, User user, TextChannel channel, Server server) {
+	public int execute(DiscordBot bot, ParsedArguments args, CommandContext context) {
 
 		StringBuilder builder = new StringBuilder();
-		for (int i = 0; i < args.length; i += 2) {
+		for (int i = 0; i < args.size(); i += 2) {
 
-			builder.append(args[i] + " :\n");
-			for (String arg : args[i + 1].split(" ")) {
+			builder.append(args.get(i) + " :\n");
+			for (String arg : args.get(i + 1).split(" ")) {
 
 				builder.append("- " + arg + "\n");
 			}
 		}
 
-		channel.sendMessage(builder.toString());
+		context.getChannel().sendMessage(builder.toString());
 
 		return 0;
 	}
@@ -1,11 +1,11 @@
 package com.torpill.fribot.commands.utility;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 
 /**
  *
@@ -42,15 +42,15 @@ public class MemberArgsCommand extends Command {
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
 		final StringBuilder builder = new StringBuilder();
-		for (int i = 0; i < args.length; i++) {
+		for (int i = 0; i < args.size(); i++) {
 
-			final User user0 = bot.getUser(server, channel, user, args[i]);
+			final User user0 = args.getMember(i);
 			if (user0 != null) builder.append(i + " : \n- " + user0.getDiscriminatedName() + "\n");
 		}
-		channel.sendMessage(builder.toString());
+		context.getChannel().sendMessage(builder.toString());
 
 		return 0;
 	}
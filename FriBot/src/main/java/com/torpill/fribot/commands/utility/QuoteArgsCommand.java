@@ -1,11 +1,9 @@
 package com.torpill.fribot.commands.utility;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.server.Server;
-import org.javacord.api.entity.user.User;
-
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 
 /**
  * 
@@ -42,15 +40,15 @@ public class QuoteArgsCommand extends Command {
 	}
 
 	@Override
-	public int execute(DiscordBot bot, String[] args, User user, TextChannel channel, Server server) {
+	public int execute(DiscordBot bot, ParsedArguments args, CommandContext context) {
 
 		StringBuilder builder = new StringBuilder();
-		for (int i = 0; i < args.length; i++) {
+		for (int i = 0; i < args.size(); i++) {
 
-			builder.append(i + " : \n- " + args[i] + "\n");
+			builder.append(i + " : \n- " + args.get(i) + "\n");
 		}
 
-		channel.sendMessage(builder.toString());
+		context.getChannel().sendMessage(builder.toString());
 
 		return 0;
 	}
@@ -0,0 +1,91 @@
+package com.torpill.fribot.commands.utility;
+
+import java.util.List;
+
+import org.javacord.api.entity.message.embed.EmbedBuilder;
+
+import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
+import com.torpill.fribot.limits.Bulkhead;
+import com.torpill.fribot.limits.Dependency;
+import com.torpill.fribot.limits.RateLimiter;
+import com.torpill.fribot.limits.Workload;
+import com.torpill.fribot.threads.BotExecutor;
+
+/**
+ *
+ * Cette classe représente une commande privée affichant l'état du moteur
+ * d'exécution du bot.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.Command
+ *
+ */
+
+public class StatsCommand extends Command {
+
+	/**
+	 *
+	 * Constructeur de la classe <code>StatsCommand</code>.
+	 *
+	 */
+	public StatsCommand() {
+
+		super("__stats", Command.ArgumentType.NONE, Command.Category.UTILITY);
+	}
+
+	@Override
+	public String getHelp() {
+
+		return "Affiche l'état du moteur d'exécution du bot.";
+	}
+
+	@Override
+	public boolean deleteCommandUsage() {
+
+		return false;
+	}
+
+	@Override
+	public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		final BotExecutor executor = bot.getExecutor();
+		final EmbedBuilder embed = context.embed("Statistiques :", "État du moteur d'exécution :");
+		embed.addField("Mode :", executor.isVirtual() ? "Threads virtuels" : "Threads système", false);
+		embed.addField("Travailleurs actifs :", executor.getActiveWorkers() + "", true);
+		embed.addField("En attente :", executor.getQueueDepth() + "", true);
+		embed.addField("Terminés :", executor.getCompleted() + "", true);
+		embed.addField("Rejetés :", executor.getRejected() + "", true);
+		embed.addField("Délestés :", executor.getShed() + "", true);
+		embed.addField("Salons ordonnancés :", executor.getSerialChannels() + "", true);
+		for (final Command.Cost cost : Command.Cost.values()) {
+
+			final BotExecutor.Lane lane = executor.getLane(cost);
+			embed.addField("Voie " + cost.NAME + " :", lane.getActiveWorkers() + " / " + lane.getWorkers() + " actifs, " + lane.getQueueDepth() + " / " + lane.getQueueSize() + " en attente, " + lane.getRejected() + " rejetés, " + lane.getShed() + " délestés, attente " + lane.getSojourn() + " ms, " + lane.getWaitingServers() + " serveurs en attente" + (lane.isShedding() ? " (surchargée)" : ""), false);
+		}
+		for (final RateLimiter.Scope scope : RateLimiter.Scope.values()) {
+
+			embed.addField("Limités par " + scope.NAME + " :", bot.getRateLimiter().getRejected(scope) + "", true);
+		}
+		for (final Workload workload : Workload.values()) {
+
+			embed.addField("Limite " + workload.NAME + " :", workload.LIMIT.getInFlight() + " / " + workload.LIMIT.getLimit(), true);
+		}
+		for (final Dependency dependency : Dependency.values()) {
+
+			final Bulkhead bulkhead = dependency.BULKHEAD;
+			embed.addField("Service " + dependency.NAME + " :", bulkhead.getActive() + " / " + bulkhead.getCapacity() + " appels, " + bulkhead.getRejected() + " refusés, " + bulkhead.getTimedOut() + " expirés", false);
+		}
+		embed.addField("Calculs partagés :", bot.getSingleFlight().getShared() + " / " + (bot.getSingleFlight().getComputed() + bot.getSingleFlight().getShared()), true);
+		embed.addField("Accès en cache :", bot.getAccessCache().getHits() + " / " + (bot.getAccessCache().getHits() + bot.getAccessCache().getMisses()), true);
+		embed.addField("Commandes lentes :", bot.getWatchdog().getSlow() + "", true);
+		final List<String> quarantined = bot.getWatchdog().getQuarantined();
+		embed.addField("En quarantaine :", quarantined.isEmpty() ? "Aucune" : String.join(", ", quarantined), true);
+		context.getChannel().sendMessage(embed);
+
+		return 0;
+	}
+}
@@ -1,12 +1,11 @@
 package com.torpill.fribot.commands.utility;
 
-import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.embed.EmbedBuilder;
-import org.javacord.api.entity.server.Server;
-import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
 
 /**
  * 
@@ -44,14 +43,14 @@ public class TypeCommand extends Command {
 	}
 
 	@Override
-	public int execute(DiscordBot bot, String[] args, User user, TextChannel channel, Server server) {
+	public int execute(DiscordBot bot, ParsedArguments args, CommandContext context) {
 
-		final EmbedBuilder embed = bot.defaultEmbedBuilder("Type :", "Les différents types d'arguments :", user);
+		final EmbedBuilder embed = context.embed("Type :", "Les différents types d'arguments :");
 		for (Command.ArgumentType type : Command.ArgumentType.values()) {
 
-			embed.addField(type.NAME + " :", type.DESCRIPTION + "\n" + bot.getPrefix() + "<cmd> " + type.EXAMPLE);
+			embed.addField(type.NAME + " :", type.DESCRIPTION + "\n" + context.getPrefix() + "<cmd> " + type.EXAMPLE);
 		}
-		channel.sendMessage(embed);
+		context.getChannel().sendMessage(embed);
 
 		return 0;
 	}
@@ -1,10 +1,11 @@
 package com.torpill.fribot.commands.utility;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
-import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.App;
@@ -12,6 +13,9 @@ import com.torpill.fribot.api.APIException;
 import com.torpill.fribot.api.weather.WeatherCity;
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
+import com.torpill.fribot.commands.SharedCommand;
 import com.torpill.fribot.threads.WeatherThread;
 
 /**
@@ -20,11 +24,11 @@ import com.torpill.fribot.threads.WeatherThread;
  *
  * @author torpill40
  *
- * @see com.torpill.fribot.command.Command
+ * @see com.torpill.fribot.commands.SharedCommand
  *
  */
 
-public class WeatherCommand extends Command {
+public class WeatherCommand extends SharedCommand<WeatherCity> {
 
 	/**
 	 *
@@ -48,6 +52,12 @@ public class WeatherCommand extends Command {
 		return prefix + this.getName() + " Paris\n" + prefix + this.getName() + " Berlin --query pressure wind\n" + prefix + this.getName() + " --query all --city New York";
 	}
 
+	@Override
+	public Command.Cost getCost() {
+
+		return Command.Cost.NETWORK;
+	}
+
 	@Override
 	public boolean deleteCommandUsage() {
 
@@ -55,106 +65,133 @@ public class WeatherCommand extends Command {
 	}
 
 	@Override
-	public List<Role> whiteListedRoles(final DiscordBot bot, final Server server) {
+	public List<String> rolesWhiteList() {
 
-		return bot.roles(server, "user-role");
+		return List.of("user-role");
 	}
 
 	@Override
-	public int execute(final DiscordBot bot, final String[] args, final User user, final TextChannel channel, final Server server) {
+	public CompletionStage<Integer> executeAsync(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
 
-		String cityName = null;
-		boolean temp = true, humidity = true, pressure = false, clouds = false, wind = false, rain = true, snow = false;
+		if (this.parse(args).city() == null) {
 
-		for (int i = 0; i < args.length; i += 2) {
+			context.getChannel().sendMessage(context.getUser().getMentionTag() + ", veuillez renseigner une ville : `" + context.getPrefix() + this.getName() + " Paris`.");
+			return CompletableFuture.completedFuture(2);
+		}
 
-			switch (args[i]) {
+		return super.executeAsync(bot, args, context).exceptionally(e -> {
 
-			case "%":
-			case "city":
-				if (!args[i + 1].equals("")) {
+			final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+			if (!(cause instanceof APIException)) throw new CompletionException(cause);
 
-					cityName = args[i + 1];
-				}
-				break;
-
-			case "query":
-
-				temp = false;
-				humidity = false;
-				rain = false;
-				for (final String arg : args[i + 1].split(" ")) {
-
-					switch (arg) {
-
-					case "temp":
-						temp = true;
-						break;
-
-					case "humidity":
-						humidity = true;
-						break;
-
-					case "pressure":
-						pressure = true;
-						break;
-
-					case "clouds":
-						clouds = true;
-						break;
-
-					case "wind":
-						wind = true;
-						break;
-
-					case "rain":
-						rain = true;
-						break;
-
-					case "snow":
-						snow = true;
-						break;
-
-					case "all":
-						temp = true;
-						humidity = true;
-						pressure = true;
-						clouds = true;
-						wind = true;
-						rain = true;
-						snow = true;
-						break;
-					}
-				}
-				break;
-			}
-		}
+			context.getChannel().sendMessage("```Une erreur est survenue : " + cause.getMessage() + "```");
+			return 0;
+		});
+	}
 
-		if (cityName == null) {
+	@Override
+	protected String key(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		return this.parse(args).city().trim().toLowerCase(Locale.ROOT);
+	}
 
-			channel.sendMessage(user.getMentionTag() + ", veuillez renseigner une ville : `" + bot.getPrefix() + this.getName() + " Paris`.");
-			return 2;
+	@Override
+	protected CompletionStage<WeatherCity> compute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		return App.WEATHER.getForecast(this.parse(args).city());
+	}
+
+	@Override
+	protected CompletionStage<Integer> deliver(final WeatherCity weatherCity, final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+		final Request request = this.parse(args);
+		if (weatherCity == null) {
+
+			context.getChannel().sendMessage(context.getUser().getMentionTag() + ", `" + request.city().trim() + "` n'est pas une ville disponible.");
+			return CompletableFuture.completedFuture(2);
 		}
 
-		try {
+		bot.startThread(WeatherThread.class, new WeatherThread.Params(context.getUser(), context.getChannel(), weatherCity, request.queries()));
+		return CompletableFuture.completedFuture(0);
+	}
 
-			final WeatherCity weatherCity = App.WEATHER.getForecast(cityName);
+	/**
+	 *
+	 * Lire la ville et les prévisions demandées dans les arguments.
+	 *
+	 * @param args
+	 *            : arguments passés lors de l'appel de la commande.
+	 * @return demande de prévisions
+	 */
+	private Request parse(final ParsedArguments args) {
 
-			if (weatherCity == null) {
+		final String cityName = args.get("city", args.get("%"));
+		boolean temp = true, humidity = true, pressure = false, clouds = false, wind = false, rain = true, snow = false;
 
-				channel.sendMessage(user.getMentionTag() + ", `" + cityName.trim() + "` n'est pas une ville disponible.");
-				return 2;
-			}
+		if (args.keys().contains("query")) {
+
+			temp = false;
+			humidity = false;
+			rain = false;
+			for (final String arg : args.get("query", "").split(" ")) {
+
+				switch (arg) {
+
+				case "temp":
+					temp = true;
+					break;
+
+				case "humidity":
+					humidity = true;
+					break;
+
+				case "pressure":
+					pressure = true;
+					break;
 
-			bot.startThread(WeatherThread.class, user, channel, weatherCity, new boolean[] {
-					temp, humidity, pressure, clouds, wind, rain, snow
-			});
+				case "clouds":
+					clouds = true;
+					break;
 
-		} catch (final APIException e) {
+				case "wind":
+					wind = true;
+					break;
 
-			channel.sendMessage("```Une erreur est survenue : " + e.getMessage() + "```");
+				case "rain":
+					rain = true;
+					break;
+
+				case "snow":
+					snow = true;
+					break;
+
+				case "all":
+					temp = true;
+					humidity = true;
+					pressure = true;
+					clouds = true;
+					wind = true;
+					rain = true;
+					snow = true;
+					break;
+				}
+			}
 		}
 
-		return 0;
+		return new Request(cityName, new boolean[] {
+				temp, humidity, pressure, clouds, wind, rain, snow
+		});
+	}
+
+	/**
+	 *
+	 * Demande de prévisions.
+	 *
+	 * @param city
+	 *            : nom de la ville, <code>null</code> si absent.
+	 * @param queries
+	 *            : informations à afficher.
+	 */
+	private record Request(String city, boolean[] queries) {
 	}
 }
@@ -0,0 +1,313 @@
+package com.torpill.fribot.limits;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
+
+/**
+ *
+ * Cette classe représente une limite de concurrence adaptative, ajustée selon
+ * l'algorithme AIMD (<i>Additive Increase, Multiplicative Decrease</i>). Chaque
+ * exécution terminée sous la latence cible augmente la limite d'environ une
+ * unité par fenêtre d'exécutions, chaque exécution plus lente la réduit d'un
+ * dixième. La limite converge ainsi vers la concurrence que la machine
+ * supporte, quelle que soit sa taille.<br />
+ * L'attente d'une place respecte l'échéance de l'exécution en cours. Elle peut
+ * bloquer le travailleur, pour un travail de calcul exécuté sur place, ou
+ * renvoyer une autorisation à venir, pour un appel asynchrone qui ne doit pas
+ * occuper de thread pendant son attente. Aucun moniteur n'est tenu pendant
+ * l'attente : un thread virtuel en attente libère son thread porteur.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.limits.Workload
+ * @see com.torpill.fribot.util.Deadline
+ *
+ */
+
+public class AdaptiveLimit {
+
+	private static final double DECREASE = 0.9;
+
+	private final int min, max;
+	private final long target;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition available = this.lock.newCondition();
+	private final Deque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+	private double limit;
+	private int inFlight = 0;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>AdaptiveLimit</code>.
+	 *
+	 * @param initial
+	 *            : limite initiale.
+	 * @param min
+	 *            : limite minimale.
+	 * @param max
+	 *            : limite maximale.
+	 * @param target
+	 *            : latence cible en millisecondes.
+	 */
+	public AdaptiveLimit(final int initial, final int min, final int max, final long target) {
+
+		this.min = min;
+		this.max = max;
+		this.target = TimeUnit.MILLISECONDS.toNanos(target);
+		this.limit = Math.max(min, Math.min(max, initial));
+	}
+
+	/**
+	 *
+	 * Attendre une place libre en bloquant le thread courant. La place doit être
+	 * libérée à la fin de l'exécution en fermant l'autorisation obtenue.
+	 *
+	 * @return autorisation d'exécution
+	 * @throws DeadlineException
+	 *             si l'échéance de l'exécution en cours est dépassée avant
+	 *             qu'une place se libère.
+	 */
+	public Permit acquire() {
+
+		final Deadline deadline = Deadline.current();
+		this.lock.lock();
+		try {
+
+			while (this.waiters.size() > 0 || this.inFlight >= (int) this.limit) {
+
+				deadline.verify();
+				this.available.await(Math.min(deadline.remainingMillis(), Long.MAX_VALUE / 1_000_000L), TimeUnit.MILLISECONDS);
+			}
+
+			this.inFlight++;
+			return new Permit(System.nanoTime());
+
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new DeadlineException();
+
+		} finally {
+
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * Prendre une place libre sans attendre.
+	 *
+	 * @return autorisation d'exécution, <code>null</code> si aucune place n'est
+	 *         libre
+	 */
+	public Permit tryAcquire() {
+
+		this.lock.lock();
+		try {
+
+			if (this.waiters.size() > 0 || this.inFlight >= (int) this.limit) return null;
+			this.inFlight++;
+			return new Permit(System.nanoTime());
+
+		} finally {
+
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * Demander une place libre sans bloquer le thread courant. Les demandes en
+	 * attente sont servies dans leur ordre d'arrivée, à chaque place libérée.
+	 *
+	 * @param deadline
+	 *            : échéance de l'exécution.
+	 * @return autorisation d'exécution à venir, en échec avec une
+	 *         <code>DeadlineException</code> si l'échéance est dépassée avant
+	 *         qu'une place se libère
+	 */
+	public CompletableFuture<Permit> acquireAsync(final Deadline deadline) {
+
+		final CompletableFuture<Permit> waiter = new CompletableFuture<>();
+		this.lock.lock();
+		try {
+
+			if (this.waiters.isEmpty() && this.inFlight < (int) this.limit) {
+
+				this.inFlight++;
+				waiter.complete(new Permit(System.nanoTime()));
+				return waiter;
+			}
+			if (deadline.isExpired()) {
+
+				waiter.completeExceptionally(new DeadlineException());
+				return waiter;
+			}
+			this.waiters.add(waiter);
+
+		} finally {
+
+			this.lock.unlock();
+		}
+
+		final Future<?> expiry = deadline.onExpiry(() -> {
+
+			final boolean removed;
+			this.lock.lock();
+			try {
+
+				removed = this.waiters.remove(waiter);
+				this.available.signalAll();
+
+			} finally {
+
+				this.lock.unlock();
+			}
+			if (removed) waiter.completeExceptionally(new DeadlineException());
+		});
+		waiter.whenComplete((permit, error) -> expiry.cancel(false));
+		return waiter;
+	}
+
+	private void release(final long latency) {
+
+		final List<CompletableFuture<Permit>> served = new ArrayList<>();
+		this.lock.lock();
+		try {
+
+			this.inFlight--;
+			if (latency <= this.target) this.limit = Math.min(this.max, this.limit + 1.0 / this.limit);
+			else this.limit = Math.max(this.min, this.limit * AdaptiveLimit.DECREASE);
+
+			while (!this.waiters.isEmpty() && this.inFlight < (int) this.limit) {
+
+				served.add(this.waiters.poll());
+				this.inFlight++;
+			}
+			this.available.signalAll();
+
+		} finally {
+
+			this.lock.unlock();
+		}
+
+		for (final CompletableFuture<Permit> waiter : served) {
+
+			final Permit permit = new Permit(System.nanoTime());
+			if (!waiter.complete(permit)) permit.abandon();
+		}
+	}
+
+	private void abandon() {
+
+		this.lock.lock();
+		try {
+
+			this.inFlight--;
+			this.available.signalAll();
+
+		} finally {
+
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer la limite actuelle.
+	 *
+	 * @return limite
+	 */
+	public int getLimit() {
+
+		this.lock.lock();
+		try {
+
+			return (int) this.limit;
+
+		} finally {
+
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre d'exécutions en cours.
+	 *
+	 * @return nombre d'exécutions
+	 */
+	public int getInFlight() {
+
+		this.lock.lock();
+		try {
+
+			return this.inFlight;
+
+		} finally {
+
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de demandes asynchrones en attente d'une place.
+	 *
+	 * @return nombre de demandes
+	 */
+	public int getWaiting() {
+
+		this.lock.lock();
+		try {
+
+			return this.waiters.size();
+
+		} finally {
+
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * Cette classe représente une autorisation d'exécution. Sa fermeture libère
+	 * la place et ajuste la limite selon la latence observée.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	public class Permit implements AutoCloseable {
+
+		private final long start;
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Permit(final long start) {
+
+			this.start = start;
+		}
+
+		private void abandon() {
+
+			if (this.closed.compareAndSet(false, true)) AdaptiveLimit.this.abandon();
+		}
+
+		@Override
+		public void close() {
+
+			if (this.closed.compareAndSet(false, true)) AdaptiveLimit.this.release(System.nanoTime() - this.start);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package com.torpill.fribot.limits;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
+
+/**
+ *
+ * Cette classe représente une cloison isolant un service externe : un nombre
+ * borné d'appels simultanés, en cours ou en attente, et une durée maximale par
+ * appel. Lorsque la cloison est pleine, l'appel est refusé immédiatement au
+ * lieu d'immobiliser un travailleur de plus : un service lent ne dégrade donc
+ * que les commandes qui l'utilisent.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.limits.Dependency
+ * @see com.torpill.fribot.limits.BulkheadException
+ *
+ */
+
+public class Bulkhead {
+
+	private final String name;
+	private final int capacity;
+	private final long timeout;
+	private final Semaphore slots;
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+
+	/**
+	 *
+	 * Constructeur de la classe <code>Bulkhead</code>.
+	 *
+	 * @param name
+	 *            : nom du service isolé.
+	 * @param capacity
+	 *            : nombre maximum d'appels simultanés.
+	 * @param timeout
+	 *            : durée maximale d'un appel en millisecondes.
+	 */
+	public Bulkhead(final String name, final int capacity, final long timeout) {
+
+		this.name = name;
+		this.capacity = capacity;
+		this.timeout = timeout;
+		this.slots = new Semaphore(capacity);
+	}
+
+	/**
+	 *
+	 * Entrer dans la cloison. La place doit être libérée à la fin de l'appel en
+	 * fermant l'autorisation obtenue.
+	 *
+	 * @return autorisation d'appel
+	 * @throws BulkheadException
+	 *             si la cloison est pleine.
+	 */
+	public Permit enter() {
+
+		if (!this.slots.tryAcquire()) {
+
+			this.rejected.incrementAndGet();
+			throw new BulkheadException(this.name);
+		}
+		return new Permit();
+	}
+
+	/**
+	 *
+	 * Récupérer la durée accordée à un appel : la durée maximale de la cloison,
+	 * réduite au temps restant avant l'échéance de l'exécution.
+	 *
+	 * @param deadline
+	 *            : échéance de l'exécution.
+	 * @return durée en millisecondes
+	 */
+	public long getCallTimeout(final Deadline deadline) {
+
+		return Math.max(1L, Math.min(this.timeout, deadline.remainingMillis()));
+	}
+
+	/**
+	 *
+	 * Signaler qu'un appel a dépassé sa durée maximale.
+	 *
+	 * @param deadline
+	 *            : échéance de l'exécution.
+	 * @return exception à lever, une <code>DeadlineException</code> si c'est
+	 *         l'échéance de l'exécution qui est dépassée
+	 */
+	public RuntimeException timedOut(final Deadline deadline) {
+
+		this.timedOut.incrementAndGet();
+		return deadline.isExpired() ? new DeadlineException() : new BulkheadException(this.name);
+	}
+
+	/**
+	 *
+	 * Récupérer le nom du service isolé.
+	 *
+	 * @return nom du service
+	 */
+	public String getName() {
+
+		return this.name;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre d'appels en cours.
+	 *
+	 * @return nombre d'appels
+	 */
+	public int getActive() {
+
+		return this.capacity - this.slots.availablePermits();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre maximum d'appels simultanés.
+	 *
+	 * @return nombre d'appels
+	 */
+	public int getCapacity() {
+
+		return this.capacity;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre d'appels refusés depuis le démarrage.
+	 *
+	 * @return nombre d'appels
+	 */
+	public long getRejected() {
+
+		return this.rejected.get();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre d'appels ayant dépassé leur durée maximale depuis le
+	 * démarrage.
+	 *
+	 * @return nombre d'appels
+	 */
+	public long getTimedOut() {
+
+		return this.timedOut.get();
+	}
+
+	/**
+	 *
+	 * Cette classe représente une autorisation d'appel. Sa fermeture libère la
+	 * place dans la cloison.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	public class Permit implements AutoCloseable {
+
+		private boolean closed = false;
+
+		@Override
+		public synchronized void close() {
+
+			if (this.closed) return;
+
+			this.closed = true;
+			Bulkhead.this.slots.release();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.torpill.fribot.limits;
+
+/**
+ *
+ * Exception levée lorsqu'un service externe est saturé : sa cloison est pleine
+ * ou l'appel a dépassé sa durée maximale.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.limits.Bulkhead
+ * @see java.lang.RuntimeException
+ *
+ */
+
+public class BulkheadException extends RuntimeException {
+
+	private static final long serialVersionUID = 4967305726219948521L;
+
+	public static final String UNAVAILABLE = "Service saturé : ";
+
+	private final String dependency;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>BulkheadException</code>.
+	 *
+	 * @param dependency
+	 *            : nom du service saturé.
+	 */
+	public BulkheadException(final String dependency) {
+
+		super(BulkheadException.UNAVAILABLE + dependency);
+		this.dependency = dependency;
+	}
+
+	/**
+	 *
+	 * Récupérer le nom du service saturé.
+	 *
+	 * @return nom du service
+	 */
+	public String getDependency() {
+
+		return this.dependency;
+	}
+}
@@ -0,0 +1,110 @@
+package com.torpill.fribot.limits;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Cette classe représente un contrôleur d'admission inspiré de CoDel
+ * (<i>Controlled Delay</i>). Le temps passé en file d'attente par chaque
+ * thread est mesuré à son démarrage : tant qu'il reste au-dessus de la cible
+ * pendant tout un intervalle, la file est considérée comme surchargée et les
+ * nouveaux threads sont refusés immédiatement plutôt que d'attendre. Une pointe
+ * de courte durée est absorbée par la file sans délestage.<br />
+ * La surcharge prend fin dès qu'un thread démarre sous la cible ou que la file
+ * est vide, ce qui garantit aux threads déjà admis de démarrer rapidement.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.threads.BotExecutor.Lane
+ *
+ */
+
+public class CoDel {
+
+	private final long target;
+	private final long interval;
+	private long firstAbove = 0L;
+	private boolean dropping = false;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>CoDel</code>.
+	 *
+	 * @param target
+	 *            : temps d'attente cible en millisecondes.
+	 * @param interval
+	 *            : durée en millisecondes pendant laquelle l'attente doit rester
+	 *            au-dessus de la cible avant de délester.
+	 */
+	public CoDel(final long target, final long interval) {
+
+		this.target = TimeUnit.MILLISECONDS.toNanos(target);
+		this.interval = TimeUnit.MILLISECONDS.toNanos(interval);
+	}
+
+	/**
+	 *
+	 * Signaler le démarrage d'un thread.
+	 *
+	 * @param sojourn
+	 *            : temps passé en file d'attente en nanosecondes.
+	 * @param now
+	 *            : instant du démarrage en nanosecondes.
+	 */
+	public synchronized void dequeued(final long sojourn, final long now) {
+
+		if (sojourn < this.target) {
+
+			this.firstAbove = 0L;
+			this.dropping = false;
+
+		} else if (this.firstAbove == 0L) {
+
+			this.firstAbove = now + this.interval;
+
+		} else if (now - this.firstAbove >= 0) {
+
+			this.dropping = true;
+		}
+	}
+
+	/**
+	 *
+	 * Savoir si un nouveau thread peut être admis dans la file.
+	 *
+	 * @param queued
+	 *            : nombre de threads en attente dans la file.
+	 * @return booléen, <code>false</code> si le thread doit être délesté
+	 */
+	public synchronized boolean admit(final int queued) {
+
+		if (this.dropping && queued == 0) {
+
+			this.firstAbove = 0L;
+			this.dropping = false;
+		}
+		return !this.dropping;
+	}
+
+	/**
+	 *
+	 * Savoir si la file est actuellement surchargée.
+	 *
+	 * @return booléen
+	 */
+	public synchronized boolean isDropping() {
+
+		return this.dropping;
+	}
+
+	/**
+	 *
+	 * Récupérer le temps d'attente cible.
+	 *
+	 * @return temps d'attente en millisecondes
+	 */
+	public long getTarget() {
+
+		return TimeUnit.NANOSECONDS.toMillis(this.target);
+	}
+}
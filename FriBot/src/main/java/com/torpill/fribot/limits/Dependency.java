@@ -0,0 +1,37 @@
+package com.torpill.fribot.limits;
+
+/**
+ *
+ * Cette classe énumératrice représente les services externes utilisés par les
+ * commandes. Chaque service est isolé derrière sa propre cloison.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.limits.Bulkhead
+ *
+ */
+
+public enum Dependency {
+
+	WEATHER("OpenWeatherMap", 8, 5_000L), AVATAR("avatars Discord", 16, 5_000L), FFMPEG("ffmpeg", 4, 60_000L);
+
+	public final String NAME;
+	public final Bulkhead BULKHEAD;
+
+	/**
+	 *
+	 * Constructeur de la classe énumératrice <code>Dependency</code>.
+	 *
+	 * @param name
+	 *            : nom du service.
+	 * @param capacity
+	 *            : nombre maximum d'appels simultanés.
+	 * @param timeout
+	 *            : durée maximale d'un appel en millisecondes.
+	 */
+	private Dependency(final String name, final int capacity, final long timeout) {
+
+		this.NAME = name;
+		this.BULKHEAD = new Bulkhead(name, capacity, timeout);
+	}
+}
@@ -0,0 +1,298 @@
+package com.torpill.fribot.limits;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.torpill.fribot.App;
+import com.torpill.fribot.commands.Command;
+
+/**
+ *
+ * Cette classe représente le limiteur de débit des commandes. Chaque catégorie
+ * de commande possède ses propres limites par utilisateur, par salon et par
+ * serveur, appliquées par des seaux à jetons. Un jeton est pris sans verrou,
+ * par une seule opération atomique sur l'état de son seau. Un seau plein
+ * oublié par le nettoyage refuse ensuite tout jeton : celui qui le détenait
+ * recommence avec un nouveau seau.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.limits.TokenBucket
+ * @see com.torpill.fribot.commands.Command.Category
+ *
+ */
+
+public class RateLimiter {
+
+	private static final long SWEEP_INTERVAL = 60_000_000_000L;
+	private static final Scope[] SCOPES = Scope.values();
+
+	private final Map<Command.Category, Rule[]> rules;
+	private final AtomicLong[] rejected;
+	private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+	/**
+	 *
+	 * Constructeur de la classe <code>RateLimiter</code>. Par défaut, chaque
+	 * catégorie est limitée à 5 commandes par utilisateur, 15 par salon et 60 par
+	 * serveur toutes les 10 secondes. Les commandes fun sont limitées à 3 par
+	 * utilisateur.
+	 *
+	 */
+	public RateLimiter() {
+
+		this.rules = new EnumMap<>(Command.Category.class);
+		for (final Command.Category category : Command.Category.values()) {
+
+			this.rules.put(category, new Rule[Scope.values().length]);
+			this.setLimit(category, Scope.USER, 5, 10_000L);
+			this.setLimit(category, Scope.CHANNEL, 15, 10_000L);
+			this.setLimit(category, Scope.SERVER, 60, 10_000L);
+		}
+		this.setLimit(Command.Category.FUN, Scope.USER, 3, 10_000L);
+
+		this.rejected = new AtomicLong[Scope.values().length];
+		for (int i = 0; i < this.rejected.length; i++) this.rejected[i] = new AtomicLong();
+	}
+
+	/**
+	 *
+	 * Configurer une limite.
+	 *
+	 * @param category
+	 *            : catégorie de commande limitée.
+	 * @param scope
+	 *            : portée de la limite.
+	 * @param capacity
+	 *            : nombre de commandes autorisées par période, 0 pour désactiver
+	 *            la limite.
+	 * @param period
+	 *            : période en millisecondes.
+	 *
+	 * @see com.torpill.fribot.commands.Command.Category
+	 * @see com.torpill.fribot.limits.RateLimiter.Scope
+	 */
+	public void setLimit(final Command.Category category, final Scope scope, final int capacity, final long period) {
+
+		this.rules.get(category)[scope.ordinal()] = capacity > 0 && period > 0 ? new Rule(capacity, period) : null;
+	}
+
+	/**
+	 *
+	 * Consommer un jeton pour chaque portée d'une commande. Toutes les portées sont
+	 * vérifiées avant qu'un jeton ne soit pris : une commande refusée par le salon
+	 * ou le serveur ne consomme pas le jeton de l'utilisateur.
+	 *
+	 * @param category
+	 *            : catégorie de la commande, <code>null</code> pour une commande
+	 *            inconnue.
+	 * @param user
+	 *            : ID de l'utilisateur.
+	 * @param channel
+	 *            : ID du salon.
+	 * @param server
+	 *            : ID du serveur.
+	 * @return décision du limiteur
+	 *
+	 * @see com.torpill.fribot.limits.RateLimiter.Decision
+	 */
+	public Decision tryAcquire(final Command.Category category, final long user, final long channel, final long server) {
+
+		final Rule[] rules = this.rules.get(category == null ? Command.Category.UTILITY : category);
+		this.sweep(System.nanoTime());
+
+		for (final Scope scope : RateLimiter.SCOPES) {
+
+			final Rule rule = rules[scope.ordinal()];
+			final long id = scope.id(user, channel, server);
+			if (rule != null && !rule.canAcquire(id)) return this.reject(rule, scope, id);
+		}
+
+		for (final Scope scope : RateLimiter.SCOPES) {
+
+			final Rule rule = rules[scope.ordinal()];
+			final long id = scope.id(user, channel, server);
+			if (rule == null || rule.tryAcquire(id)) continue;
+
+			for (int i = 0; i < scope.ordinal(); i++) {
+
+				if (rules[i] != null) rules[i].release(RateLimiter.SCOPES[i].id(user, channel, server));
+			}
+			return this.reject(rule, scope, id);
+		}
+
+		return Decision.ACCEPTED;
+	}
+
+	private Decision reject(final Rule rule, final Scope scope, final long id) {
+
+		this.rejected[scope.ordinal()].incrementAndGet();
+		return rule.warn(id) ? Decision.WARNED : Decision.REJECTED;
+	}
+
+	private void sweep(final long now) {
+
+		final long last = this.lastSweep.get();
+		if (now - last < RateLimiter.SWEEP_INTERVAL || !this.lastSweep.compareAndSet(last, now)) return;
+
+		int removed = 0;
+		for (final Rule[] rules : this.rules.values()) {
+
+			for (final Rule rule : rules) {
+
+				if (rule == null) continue;
+				for (final Map.Entry<Long, TokenBucket> entry : rule.buckets.entrySet()) {
+
+					if (entry.getValue().sweep(now) && rule.buckets.remove(entry.getKey(), entry.getValue())) removed++;
+				}
+			}
+		}
+
+		if (removed > 0) App.LOGGER.debug(removed + " seaux à jetons pleins oubliés.");
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de commandes refusées par une portée depuis le
+	 * démarrage.
+	 *
+	 * @param scope
+	 *            : portée de la limite.
+	 * @return nombre de commandes
+	 */
+	public long getRejected(final Scope scope) {
+
+		return this.rejected[scope.ordinal()].get();
+	}
+
+	/**
+	 *
+	 * Cette classe représente une limite : une capacité, une période et les seaux
+	 * à jetons associés à chaque ID.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	private static class Rule {
+
+		private final int capacity;
+		private final long period;
+		private final ConcurrentHashMap<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+		private Rule(final int capacity, final long period) {
+
+			this.capacity = capacity;
+			this.period = period;
+		}
+
+		private boolean canAcquire(final long id) {
+
+			final TokenBucket bucket = this.buckets.get(id);
+			return bucket == null || bucket.canAcquire();
+		}
+
+		private boolean tryAcquire(final long id) {
+
+			while (true) {
+
+				TokenBucket bucket = this.buckets.get(id);
+				if (bucket == null) {
+
+					final TokenBucket created = new TokenBucket(this.capacity, this.period);
+					bucket = this.buckets.putIfAbsent(id, created);
+					if (bucket == null) bucket = created;
+				}
+				if (bucket.tryAcquire()) return true;
+				if (!bucket.isSwept()) return false;
+
+				this.buckets.remove(id, bucket);
+			}
+		}
+
+		private void release(final long id) {
+
+			final TokenBucket bucket = this.buckets.get(id);
+			if (bucket != null) bucket.release();
+		}
+
+		private boolean warn(final long id) {
+
+			final TokenBucket bucket = this.buckets.get(id);
+			return bucket != null && bucket.warn();
+		}
+	}
+
+	/**
+	 *
+	 * Cette classe énumératrice représente les décisions du limiteur de débit.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	public enum Decision {
+
+		/**
+		 *
+		 * La commande est acceptée.
+		 */
+		ACCEPTED,
+
+		/**
+		 *
+		 * La commande est refusée et l'utilisateur doit être prévenu.
+		 */
+		WARNED,
+
+		/**
+		 *
+		 * La commande est refusée sans avertissement.
+		 */
+		REJECTED
+	}
+
+	/**
+	 *
+	 * Cette classe énumératrice représente les différentes portées d'une limite.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	public enum Scope {
+
+		USER("utilisateur"), CHANNEL("salon"), SERVER("serveur");
+
+		public final String NAME;
+
+		/**
+		 *
+		 * Constructeur de la classe énumératrice <code>Scope</code>.
+		 *
+		 * @param name
+		 *            : nom de la portée.
+		 */
+		private Scope(final String name) {
+
+			this.NAME = name;
+		}
+
+		private long id(final long user, final long channel, final long server) {
+
+			switch (this) {
+
+			case USER:
+				return user;
+
+			case CHANNEL:
+				return channel;
+
+			default:
+				return server;
+			}
+		}
+	}
+}
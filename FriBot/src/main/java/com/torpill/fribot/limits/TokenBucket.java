@@ -0,0 +1,155 @@
+package com.torpill.fribot.limits;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * Cette classe représente un seau à jetons sans verrou. L'état du seau tient
+ * dans un seul entier : la date théorique à laquelle il sera de nouveau plein
+ * (algorithme GCRA). Prendre un jeton revient à repousser cette date d'un
+ * intervalle d'émission, avec une seule opération atomique.<br />
+ * Un seau plein peut être oublié : il est alors marqué comme tel et refuse
+ * tout jeton, pour que celui qui le détient encore en prenne un nouveau.
+ *
+ * @author torpill40
+ *
+ */
+
+public class TokenBucket {
+
+	private static final long SWEPT = Long.MIN_VALUE;
+
+	private final long interval;
+	private final long period;
+	private final AtomicLong full;
+	private final AtomicBoolean warned = new AtomicBoolean();
+
+	/**
+	 *
+	 * Constructeur de la classe <code>TokenBucket</code>.
+	 *
+	 * @param capacity
+	 *            : nombre maximum de jetons dans le seau.
+	 * @param period
+	 *            : temps nécessaire pour remplir le seau vide, en millisecondes.
+	 */
+	public TokenBucket(final int capacity, final long period) {
+
+		this.period = period * 1_000_000L;
+		this.interval = this.period / capacity;
+		this.full = new AtomicLong(System.nanoTime());
+	}
+
+	/**
+	 *
+	 * Prendre un jeton dans le seau.
+	 *
+	 * @return booléen, <code>false</code> si le seau est vide ou oublié
+	 *
+	 * @see com.torpill.fribot.limits.TokenBucket#isSwept()
+	 */
+	public boolean tryAcquire() {
+
+		final long now = System.nanoTime();
+		while (true) {
+
+			final long full = this.full.get();
+			if (full == TokenBucket.SWEPT) return false;
+			final long next = Math.max(full, now) + this.interval;
+			if (next - now > this.period) return false;
+			if (this.full.compareAndSet(full, next)) {
+
+				this.warned.lazySet(false);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Savoir si un jeton peut être pris dans le seau, sans le prendre. Un seau
+	 * oublié est remplacé par un seau plein, qui accepte toujours un jeton.
+	 *
+	 * @return booléen, <code>false</code> si le seau est vide
+	 */
+	public boolean canAcquire() {
+
+		final long now = System.nanoTime();
+		final long full = this.full.get();
+		return full == TokenBucket.SWEPT || Math.max(full, now) + this.interval - now <= this.period;
+	}
+
+	/**
+	 *
+	 * Remettre dans le seau un jeton pris par {@link #tryAcquire()}, lorsque la
+	 * commande est finalement refusée par une autre limite.
+	 */
+	public void release() {
+
+		long full;
+		do {
+
+			full = this.full.get();
+			if (full == TokenBucket.SWEPT) return;
+
+		} while (!this.full.compareAndSet(full, full - this.interval));
+	}
+
+	/**
+	 *
+	 * Savoir si l'utilisateur doit être prévenu du refus. Seul le premier refus
+	 * depuis le dernier jeton pris donne lieu à un avertissement.
+	 *
+	 * @return booléen
+	 */
+	public boolean warn() {
+
+		return this.warned.compareAndSet(false, true);
+	}
+
+	/**
+	 *
+	 * Savoir si le seau est plein, et peut donc être oublié sans changer son
+	 * comportement.
+	 *
+	 * @param now
+	 *            : date actuelle en nanosecondes.
+	 * @return booléen
+	 */
+	public boolean isFull(final long now) {
+
+		final long full = this.full.get();
+		return full == TokenBucket.SWEPT || full - now <= 0;
+	}
+
+	/**
+	 *
+	 * Oublier le seau s'il est plein. Un seau oublié refuse ensuite tout jeton.
+	 *
+	 * @param now
+	 *            : date actuelle en nanosecondes.
+	 * @return booléen, <code>true</code> si le seau est oublié
+	 */
+	public boolean sweep(final long now) {
+
+		while (true) {
+
+			final long full = this.full.get();
+			if (full == TokenBucket.SWEPT) return true;
+			if (full - now > 0) return false;
+			if (this.full.compareAndSet(full, TokenBucket.SWEPT)) return true;
+		}
+	}
+
+	/**
+	 *
+	 * Savoir si le seau a été oublié.
+	 *
+	 * @return booléen
+	 */
+	public boolean isSwept() {
+
+		return this.full.get() == TokenBucket.SWEPT;
+	}
+}
@@ -0,0 +1,42 @@
+package com.torpill.fribot.limits;
+
+/**
+ *
+ * Cette classe énumératrice représente les charges de travail dont la
+ * concurrence est limitée de manière adaptative, indépendamment des voies
+ * d'exécution des commandes.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.limits.AdaptiveLimit
+ *
+ */
+
+public enum Workload {
+
+	IMAGE("image", Runtime.getRuntime().availableProcessors(), 1, 4 * Runtime.getRuntime().availableProcessors(), 2_000L), FFMPEG("ffmpeg", 2, 1, Runtime.getRuntime().availableProcessors(), 20_000L), WEATHER("météo", 4, 1, 32, 2_000L), AVATAR("avatars", 8, 2, 64, 2_000L);
+
+	public final String NAME;
+	public final AdaptiveLimit LIMIT;
+
+	/**
+	 *
+	 * Constructeur de la classe énumératrice <code>Workload</code>.
+	 *
+	 * @param name
+	 *            : nom de la charge de travail.
+	 * @param initial
+	 *            : limite de concurrence initiale.
+	 * @param min
+	 *            : limite de concurrence minimale.
+	 * @param max
+	 *            : limite de concurrence maximale.
+	 * @param target
+	 *            : latence cible en millisecondes.
+	 */
+	private Workload(final String name, final int initial, final int min, final int max, final long target) {
+
+		this.NAME = name;
+		this.LIMIT = new AdaptiveLimit(initial, min, Math.max(min, max), target);
+	}
+}
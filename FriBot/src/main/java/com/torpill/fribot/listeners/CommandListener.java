@@ -11,6 +11,7 @@ import org.javacord.api.listener.message.MessageCreateListener;
 
 import com.torpill.fribot.App;
 import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.limits.RateLimiter;
 import com.torpill.fribot.threads.CommandThread;
 
 /**
@@ -41,6 +42,13 @@ public class CommandListener extends BotListener implements MessageCreateListene
 	@Override
 	public void onMessageCreate(final MessageCreateEvent event) {
 
+		final MessageFilter filter = this.bot.getMessageFilter();
+		if (filter == null) return;
+
+		final String content = event.getMessageContent();
+		final int match = filter.match(content);
+		if (match == MessageFilter.IGNORED || this.bot.isDraining()) return;
+
 		final Optional<User> optUser = event.getMessageAuthor().asUser();
 		if (!optUser.isPresent()) return;
 		final User user = optUser.get();
@@ -49,26 +57,34 @@ public class CommandListener extends BotListener implements MessageCreateListene
 		if (!optServer.isPresent()) return;
 		final Server server = optServer.get();
 		final Message message = event.getMessage();
-		final String content = message.getContent();
 
 		if (!user.isBot()) {
 
-			if (content.startsWith(this.bot.getPrefix())) {
+			final String prefix = this.bot.getPrefix();
+			if (match == MessageFilter.COMMAND) {
 
 				App.LOGGER.debug("Commande envoyée par " + user.getDiscriminatedName() + ": " + message);
 
-				final String command = content.substring(this.bot.getPrefix().length(), content.length()).replace("\n", " ");
-				final String[] args = command.split(" ");
-				final String commandName = args[0];
+				int end = prefix.length();
+				while (end < content.length() && content.charAt(end) != ' ' && content.charAt(end) != '\n') end++;
+				final String commandName = content.substring(prefix.length(), end);
+
+				final RateLimiter.Decision decision = this.bot.getRateLimiter().tryAcquire(this.bot.categoryOf(commandName), user.getId(), channel.getId(), server.getId());
+				if (decision != RateLimiter.Decision.ACCEPTED) {
+
+					if (decision == RateLimiter.Decision.WARNED) channel.sendMessage(user.getMentionTag() + ", tu utilises les commandes trop vite : patiente quelques secondes avant de recommencer.");
+					App.LOGGER.debug("Commande '" + commandName + "' de " + user.getDiscriminatedName() + " refusée par le limiteur de débit.");
+					return;
+				}
 
-				this.bot.startThread(CommandThread.class, user, channel, message, server, commandName, args);
+				this.bot.startThread(CommandThread.class, new CommandThread.Params(user, channel, message, server, commandName, content));
 
-			} else if (content.startsWith(this.bot.bot().getMentionTag()) || content.startsWith(this.bot.bot().getNicknameMentionTag()) && !App.TEST) {
+			} else if (match == MessageFilter.MENTION || match == MessageFilter.NICKNAME_MENTION && !App.TEST) {
 
 				App.LOGGER.debug("Mention envoyée par " + user.getDiscriminatedName() + ": " + message);
 
-				channel.sendMessage(user.getMentionTag() + ", mon préfix est `" + this.bot.getPrefix() + "`. Fais `" + this.bot.getPrefix() + "help` pour la liste des commandes par catégories.");
+				channel.sendMessage(user.getMentionTag() + ", mon préfix est `" + prefix + "`. Fais `" + prefix + "help` pour la liste des commandes par catégories.");
 			}
 		}
 	}
-}
\ No newline at end of file
+}
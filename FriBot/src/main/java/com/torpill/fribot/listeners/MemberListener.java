@@ -0,0 +1,94 @@
+package com.torpill.fribot.listeners;
+
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.event.server.ServerLeaveEvent;
+import org.javacord.api.event.server.member.ServerMemberJoinEvent;
+import org.javacord.api.event.server.member.ServerMemberLeaveEvent;
+import org.javacord.api.event.user.UserChangeDiscriminatorEvent;
+import org.javacord.api.event.user.UserChangeNameEvent;
+import org.javacord.api.event.user.UserChangeNicknameEvent;
+import org.javacord.api.listener.server.ServerLeaveListener;
+import org.javacord.api.listener.server.member.ServerMemberJoinListener;
+import org.javacord.api.listener.server.member.ServerMemberLeaveListener;
+import org.javacord.api.listener.user.UserChangeDiscriminatorListener;
+import org.javacord.api.listener.user.UserChangeNameListener;
+import org.javacord.api.listener.user.UserChangeNicknameListener;
+
+import com.torpill.fribot.bot.DiscordBot;
+
+/**
+ *
+ * Cete classe représente un écouteur dédié à l'index des membres des serveurs :
+ * un membre y est ajouté lorsqu'il arrive sur un serveur, mis à jour lorsqu'il
+ * change de surnom, de pseudo ou de discriminant, et retiré lorsqu'il quitte le
+ * serveur.
+ *
+ * @author torpill40
+ *
+ * @see org.javacord.api.listener.server.member.ServerMemberJoinListener
+ * @see org.javacord.api.listener.server.member.ServerMemberLeaveListener
+ * @see org.javacord.api.listener.user.UserChangeNicknameListener
+ * @see org.javacord.api.listener.user.UserChangeNameListener
+ * @see org.javacord.api.listener.user.UserChangeDiscriminatorListener
+ * @see org.javacord.api.listener.server.ServerLeaveListener
+ * @see com.torpill.fribot.listeners.BotListener
+ * @see com.torpill.fribot.bot.MemberIndex
+ *
+ */
+
+public class MemberListener extends BotListener implements ServerMemberJoinListener, ServerMemberLeaveListener, UserChangeNicknameListener, UserChangeNameListener, UserChangeDiscriminatorListener, ServerLeaveListener {
+
+	/**
+	 *
+	 * Constructeur de la classe <code>MemberListener</code>.
+	 *
+	 * @param bot
+	 *            : bot Discord communiquant avec l'écouteur.
+	 */
+	public MemberListener(final DiscordBot bot) {
+
+		super(bot);
+	}
+
+	private void reindex(final User user) {
+
+		for (final Server server : user.getMutualServers()) this.bot.indexMember(server, user);
+	}
+
+	@Override
+	public void onServerMemberJoin(final ServerMemberJoinEvent event) {
+
+		this.bot.indexMember(event.getServer(), event.getUser());
+	}
+
+	@Override
+	public void onServerMemberLeave(final ServerMemberLeaveEvent event) {
+
+		this.bot.unindexMember(event.getServer().getId(), event.getUser().getId());
+	}
+
+	@Override
+	public void onUserChangeNickname(final UserChangeNicknameEvent event) {
+
+		this.bot.indexMember(event.getServer(), event.getUser());
+	}
+
+	@Override
+	public void onUserChangeName(final UserChangeNameEvent event) {
+
+		this.reindex(event.getUser());
+	}
+
+	@Override
+	public void onUserChangeDiscriminator(final UserChangeDiscriminatorEvent event) {
+
+		this.reindex(event.getUser());
+	}
+
+	@Override
+	public void onServerLeave(final ServerLeaveEvent event) {
+
+		this.bot.invalidateMembers(event.getServer().getId());
+	}
+}
@@ -0,0 +1,59 @@
+package com.torpill.fribot.listeners;
+
+/**
+ *
+ * Cette classe représente le filtre rapide des messages reçus par le bot. Le
+ * préfix et les mentions du bot sont calculés une seule fois, ce qui permet
+ * d'écarter un message qui ne concerne pas le bot sans aucune allocation.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.listeners.CommandListener
+ *
+ */
+
+public class MessageFilter {
+
+	public static final int IGNORED = 0;
+	public static final int COMMAND = 1;
+	public static final int MENTION = 2;
+	public static final int NICKNAME_MENTION = 3;
+
+	private final String prefix;
+	private final String mention;
+	private final String nicknameMention;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>MessageFilter</code>.
+	 *
+	 * @param prefix
+	 *            : préfix du bot.
+	 * @param id
+	 *            : ID du bot.
+	 */
+	public MessageFilter(final String prefix, final long id) {
+
+		this.prefix = prefix;
+		this.mention = "<@" + id + ">";
+		this.nicknameMention = "<@!" + id + ">";
+	}
+
+	/**
+	 *
+	 * Savoir si un message concerne le bot.
+	 *
+	 * @param content
+	 *            : contenu du message.
+	 * @return {@link #COMMAND} pour une commande, {@link #MENTION} pour une
+	 *         mention du bot, {@link #NICKNAME_MENTION} pour une mention du
+	 *         surnom du bot, {@link #IGNORED} sinon
+	 */
+	public int match(final String content) {
+
+		if (content.startsWith(this.prefix)) return MessageFilter.COMMAND;
+		if (content.startsWith(this.mention)) return MessageFilter.MENTION;
+		if (content.startsWith(this.nicknameMention)) return MessageFilter.NICKNAME_MENTION;
+		return MessageFilter.IGNORED;
+	}
+}
@@ -0,0 +1,106 @@
+package com.torpill.fribot.listeners;
+
+import org.javacord.api.event.server.ServerChangeOwnerEvent;
+import org.javacord.api.event.server.ServerLeaveEvent;
+import org.javacord.api.event.server.member.ServerMemberLeaveEvent;
+import org.javacord.api.event.server.role.RoleChangePermissionsEvent;
+import org.javacord.api.event.server.role.RoleCreateEvent;
+import org.javacord.api.event.server.role.RoleDeleteEvent;
+import org.javacord.api.event.server.role.UserRoleAddEvent;
+import org.javacord.api.event.server.role.UserRoleRemoveEvent;
+import org.javacord.api.listener.server.ServerChangeOwnerListener;
+import org.javacord.api.listener.server.ServerLeaveListener;
+import org.javacord.api.listener.server.member.ServerMemberLeaveListener;
+import org.javacord.api.listener.server.role.RoleChangePermissionsListener;
+import org.javacord.api.listener.server.role.RoleCreateListener;
+import org.javacord.api.listener.server.role.RoleDeleteListener;
+import org.javacord.api.listener.server.role.UserRoleAddListener;
+import org.javacord.api.listener.server.role.UserRoleRemoveListener;
+
+import com.torpill.fribot.bot.DiscordBot;
+
+/**
+ *
+ * Cete classe représente un écouteur dédié aux règles d'accès des commandes :
+ * les rôles résolus et les décisions d'accès d'un serveur sont oubliés lorsque
+ * ses rôles, leurs permissions ou son propriétaire changent, et ceux d'un
+ * membre lorsque ses rôles changent ou qu'il quitte le serveur.
+ *
+ * @author torpill40
+ *
+ * @see org.javacord.api.listener.server.role.RoleCreateListener
+ * @see org.javacord.api.listener.server.role.RoleDeleteListener
+ * @see org.javacord.api.listener.server.role.RoleChangePermissionsListener
+ * @see org.javacord.api.listener.server.role.UserRoleAddListener
+ * @see org.javacord.api.listener.server.role.UserRoleRemoveListener
+ * @see org.javacord.api.listener.server.ServerChangeOwnerListener
+ * @see org.javacord.api.listener.server.ServerLeaveListener
+ * @see org.javacord.api.listener.server.member.ServerMemberLeaveListener
+ * @see com.torpill.fribot.listeners.BotListener
+ * @see com.torpill.fribot.bot.PermissionPolicy
+ * @see com.torpill.fribot.bot.AccessCache
+ *
+ */
+
+public class PermissionListener extends BotListener implements RoleCreateListener, RoleDeleteListener, RoleChangePermissionsListener, UserRoleAddListener, UserRoleRemoveListener, ServerChangeOwnerListener, ServerLeaveListener, ServerMemberLeaveListener {
+
+	/**
+	 *
+	 * Constructeur de la classe <code>PermissionListener</code>.
+	 *
+	 * @param bot
+	 *            : bot Discord communiquant avec l'écouteur.
+	 */
+	public PermissionListener(final DiscordBot bot) {
+
+		super(bot);
+	}
+
+	@Override
+	public void onRoleCreate(final RoleCreateEvent event) {
+
+		this.bot.invalidatePolicies(event.getServer().getId());
+	}
+
+	@Override
+	public void onRoleDelete(final RoleDeleteEvent event) {
+
+		this.bot.invalidatePolicies(event.getServer().getId());
+	}
+
+	@Override
+	public void onRoleChangePermissions(final RoleChangePermissionsEvent event) {
+
+		this.bot.invalidatePolicies(event.getServer().getId());
+	}
+
+	@Override
+	public void onUserRoleAdd(final UserRoleAddEvent event) {
+
+		this.bot.invalidateAccess(event.getServer().getId(), event.getUser().getId());
+	}
+
+	@Override
+	public void onUserRoleRemove(final UserRoleRemoveEvent event) {
+
+		this.bot.invalidateAccess(event.getServer().getId(), event.getUser().getId());
+	}
+
+	@Override
+	public void onServerChangeOwner(final ServerChangeOwnerEvent event) {
+
+		this.bot.invalidatePolicies(event.getServer().getId());
+	}
+
+	@Override
+	public void onServerLeave(final ServerLeaveEvent event) {
+
+		this.bot.invalidatePolicies(event.getServer().getId());
+	}
+
+	@Override
+	public void onServerMemberLeave(final ServerMemberLeaveEvent event) {
+
+		this.bot.invalidateAccess(event.getServer().getId(), event.getUser().getId());
+	}
+}
@@ -0,0 +1,608 @@
+package com.torpill.fribot.threads;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.torpill.fribot.App;
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.limits.CoDel;
+
+/**
+ *
+ * Cette classe représente le moteur d'exécution des threads du bot. Chaque
+ * classe de coût possède sa propre voie d'exécution : un nombre borné de
+ * travailleurs alimentés par une file d'attente de taille limitée. Une voie
+ * saturée n'a donc aucun impact sur les autres.<br />
+ * La taille de la file est appliquée à l'admission, par le nombre de threads
+ * admis et non terminés de la voie : la file de son pool n'est pas bornée et ne
+ * rejette donc jamais un thread déjà admis.<br />
+ * En mode virtuel, chaque thread du bot est exécuté sur son propre thread
+ * virtuel, la limite de travailleurs de chaque voie restant appliquée.<br />
+ * Chaque voie mesure le temps d'attente de ses threads et déleste les nouveaux
+ * threads lorsque cette attente reste trop longue.<br />
+ * Les threads en attente dans une voie sont servis équitablement entre les
+ * serveurs, selon le temps de calcul consommé par chacun et son poids, ou
+ * selon le temps écoulé pour la voie média dont le travail est fait par des
+ * processus externes.<br />
+ * Les threads d'un même salon sont exécutés dans l'ordre, toutes voies
+ * confondues : un thread ne libère son salon qu'à la fin de son exécution,
+ * asynchrone comprise, dont la durée est bornée par son échéance.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.threads.BotTask
+ * @see com.torpill.fribot.commands.Command.Cost
+ * @see java.util.concurrent.ThreadPoolExecutor
+ *
+ */
+
+public class BotExecutor {
+
+	private static final Runnable NOTHING = () -> {};
+	private static final long QUANTUM = 10_000_000L;
+	private static final ThreadMXBean CPU = ManagementFactory.getThreadMXBean();
+
+	private final Map<Command.Cost, Lane> lanes;
+	private final SerialExecutor serial;
+	private final List<ExecutorService> services;
+	private final boolean virtual;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>BotExecutor</code>.
+	 *
+	 * @param workers
+	 *            : nombre maximum de travailleurs de chaque voie, les voies
+	 *            absentes utilisent leur valeur par défaut.
+	 * @param queueSize
+	 *            : nombre maximum de threads en attente dans chaque voie.
+	 * @param admission
+	 *            : contrôleurs d'admission de chaque voie, les voies absentes
+	 *            visent une attente d'un vingtième de la durée maximale
+	 *            d'exécution de leur classe de coût.
+	 * @param weights
+	 *            : poids de chaque serveur dans le partage des voies, les
+	 *            serveurs absents ont un poids de 1.
+	 * @param virtual
+	 *            : exécuter les threads du bot sur des threads virtuels.
+	 *
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 * @see com.torpill.fribot.limits.CoDel
+	 * @see com.torpill.fribot.threads.FairQueue
+	 */
+	public BotExecutor(final Map<Command.Cost, Integer> workers, final int queueSize, final Map<Command.Cost, CoDel> admission, final Map<Long, Integer> weights, final boolean virtual) {
+
+		this.virtual = virtual;
+		this.lanes = new EnumMap<>(Command.Cost.class);
+		this.services = new ArrayList<>();
+		this.serial = new SerialExecutor(queueSize);
+		final ExecutorService service = virtual ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Virtual #", 1).factory()) : null;
+		if (service != null) this.services.add(service);
+		for (final Command.Cost cost : Command.Cost.values()) {
+
+			final CoDel codel = admission.containsKey(cost) ? admission.get(cost) : new CoDel(cost.TIMEOUT * 50L, cost.TIMEOUT * 100L);
+			final Lane lane = new Lane(cost, workers.getOrDefault(cost, cost.WORKERS), queueSize, codel, new FairQueue<>(BotExecutor.QUANTUM, server -> weights.getOrDefault(server, 1)), service);
+			this.lanes.put(cost, lane);
+			if (service == null) this.services.add(lane.service);
+		}
+	}
+
+	/**
+	 *
+	 * Arrêter d'accepter de nouvelles tâches. Les tâches en cours et en attente
+	 * continuent leur exécution.
+	 *
+	 */
+	public void shutdown() {
+
+		this.services.forEach(ExecutorService::shutdown);
+	}
+
+	/**
+	 *
+	 * Attendre la fin de toutes les tâches après l'arrêt du moteur d'exécution.
+	 *
+	 * @param timeout
+	 *            : durée maximale d'attente en millisecondes.
+	 * @return booléen, <code>true</code> si toutes les tâches sont terminées
+	 * @throws InterruptedException
+	 */
+	public boolean awaitTermination(final long timeout) throws InterruptedException {
+
+		final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		for (final ExecutorService service : this.services) {
+
+			if (!service.awaitTermination(Math.max(0, end - System.nanoTime()), TimeUnit.NANOSECONDS)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * Interrompre les tâches encore en cours et abandonner les tâches en attente.
+	 *
+	 * @return nombre de tâches en attente abandonnées
+	 */
+	public int shutdownNow() {
+
+		int dropped = 0;
+		for (final ExecutorService service : this.services) dropped += service.shutdownNow().size();
+		return dropped;
+	}
+
+	/**
+	 *
+	 * Soumettre une tâche à la voie d'exécution correspondant à sa classe de coût.
+	 * Si la file d'attente de la voie est pleine ou surchargée, la tâche est
+	 * rejetée et l'utilisateur prévenu.<br />
+	 * Une tâche ayant une clé d'ordonnancement n'est soumise à sa voie qu'une fois
+	 * les tâches précédentes de même clé terminées, quelle que soit leur voie.
+	 *
+	 * @param task
+	 *            : tâche à exécuter.
+	 * @return booléen
+	 *
+	 * @see com.torpill.fribot.threads.BotTask#getCost()
+	 * @see com.torpill.fribot.threads.BotTask#getSerialKey()
+	 * @see com.torpill.fribot.threads.BotTask#rejected()
+	 */
+	public boolean execute(final BotTask<?> task) {
+
+		final Lane lane = this.lanes.get(task.getCost());
+		final long key = task.getSerialKey();
+		if (key == 0L) return lane.execute(task, BotExecutor.NOTHING);
+
+		if (!this.serial.execute(key, release -> lane.execute(task, release))) {
+
+			lane.rejected.incrementAndGet();
+			App.LOGGER.warn("'" + task.getName() + "' rejeté : trop de threads en attente dans le salon " + key + ".");
+			task.rejected();
+			return false;
+		}
+		return true;
+	}
+
+	private static long cpuTime() {
+
+		try {
+
+			return BotExecutor.CPU.getCurrentThreadCpuTime();
+
+		} catch (final UnsupportedOperationException e) {
+
+			return -1L;
+		}
+	}
+
+	/**
+	 *
+	 * Savoir si les threads du bot sont exécutés sur des threads virtuels.
+	 *
+	 * @return booléen
+	 */
+	public boolean isVirtual() {
+
+		return this.virtual;
+	}
+
+	/**
+	 *
+	 * Récupérer la voie d'exécution d'une classe de coût.
+	 *
+	 * @param cost
+	 *            : classe de coût.
+	 * @return voie d'exécution
+	 *
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 */
+	public Lane getLane(final Command.Cost cost) {
+
+		return this.lanes.get(cost);
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de salons ayant des threads en cours ou en attente
+	 * d'ordonnancement.
+	 *
+	 * @return nombre de salons
+	 *
+	 * @see com.torpill.fribot.threads.SerialExecutor
+	 */
+	public int getSerialChannels() {
+
+		return this.serial.getActiveKeys();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de threads en attente, toutes voies confondues.
+	 *
+	 * @return nombre de threads
+	 */
+	public int getQueueDepth() {
+
+		int depth = 0;
+		for (final Lane lane : this.lanes.values()) depth += lane.getQueueDepth();
+		return depth;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de travailleurs en cours d'exécution, toutes voies
+	 * confondues.
+	 *
+	 * @return nombre de travailleurs
+	 */
+	public int getActiveWorkers() {
+
+		int active = 0;
+		for (final Lane lane : this.lanes.values()) active += lane.getActiveWorkers();
+		return active;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de threads terminés depuis le démarrage, toutes voies
+	 * confondues.
+	 *
+	 * @return nombre de threads
+	 */
+	public long getCompleted() {
+
+		long completed = 0;
+		for (final Lane lane : this.lanes.values()) completed += lane.getCompleted();
+		return completed;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de threads rejetés depuis le démarrage, toutes voies
+	 * confondues.
+	 *
+	 * @return nombre de threads
+	 */
+	public long getRejected() {
+
+		long rejected = 0;
+		for (final Lane lane : this.lanes.values()) rejected += lane.getRejected();
+		return rejected;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de threads délestés depuis le démarrage, toutes voies
+	 * confondues.
+	 *
+	 * @return nombre de threads
+	 */
+	public long getShed() {
+
+		long shed = 0;
+		for (final Lane lane : this.lanes.values()) shed += lane.getShed();
+		return shed;
+	}
+
+	/**
+	 *
+	 * Cette classe représente une voie d'exécution, dédiée à une classe de coût.
+	 *
+	 * @author torpill40
+	 *
+	 * @see com.torpill.fribot.commands.Command.Cost
+	 *
+	 */
+
+	public static class Lane {
+
+		private final Command.Cost cost;
+		private final int workers;
+		private final int queueSize;
+		private final ExecutorService service;
+		private final ThreadPoolExecutor pool;
+		private final Semaphore permits;
+		private final CoDel codel;
+		private final FairQueue<Pending> queue;
+		private final boolean wallClock;
+		private final AtomicInteger admitted = new AtomicInteger();
+		private final AtomicLong completed = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+		private final AtomicLong shed = new AtomicLong();
+		private volatile long sojourn = 0L;
+
+		/**
+		 *
+		 * Constructeur de la classe <code>Lane</code>.
+		 *
+		 * @param cost
+		 *            : classe de coût de la voie.
+		 * @param workers
+		 *            : nombre maximum de travailleurs.
+		 * @param queueSize
+		 *            : nombre maximum de threads en attente.
+		 * @param codel
+		 *            : contrôleur d'admission.
+		 * @param queue
+		 *            : file d'attente équitable entre les serveurs.
+		 * @param virtual
+		 *            : exécuteur de threads virtuels partagé, <code>null</code> pour
+		 *            utiliser des threads système.
+		 */
+		private Lane(final Command.Cost cost, final int workers, final int queueSize, final CoDel codel, final FairQueue<Pending> queue, final ExecutorService virtual) {
+
+			this.cost = cost;
+			this.workers = workers;
+			this.queueSize = queueSize;
+			this.codel = codel;
+			this.queue = queue;
+			// Le montage vidéo est fait par des processus ffmpeg dont le temps CPU
+			// n'est pas compté pour le thread : la voie est débitée du temps écoulé.
+			this.wallClock = cost == Command.Cost.MEDIA;
+
+			if (virtual != null) {
+
+				this.pool = null;
+				this.service = virtual;
+				this.permits = new Semaphore(workers, true);
+
+			} else {
+
+				final AtomicInteger count = new AtomicInteger();
+				final String name = cost.name().charAt(0) + cost.name().substring(1).toLowerCase();
+				final ThreadFactory factory = runnable -> new Thread(runnable, name + " #" + count.incrementAndGet());
+
+				this.pool = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory, new ThreadPoolExecutor.AbortPolicy());
+				this.pool.allowCoreThreadTimeOut(true);
+				this.service = this.pool;
+				this.permits = null;
+			}
+		}
+
+		private boolean execute(final BotTask<?> task, final Runnable release) {
+
+			if (!this.codel.admit(this.getQueueDepth())) {
+
+				this.shed.incrementAndGet();
+				App.LOGGER.warn("'" + task.getName() + "' délesté par la voie " + this.cost.NAME + " : attente de " + TimeUnit.NANOSECONDS.toMillis(this.sojourn) + " ms pour une cible de " + this.codel.getTarget() + " ms.");
+				task.rejected();
+				release.run();
+				return false;
+			}
+
+			if (this.admitted.incrementAndGet() > this.workers + this.queueSize) {
+
+				this.admitted.decrementAndGet();
+				this.reject(task, release);
+				return false;
+			}
+
+			this.queue.add(task.getServerId(), new Pending(task, release, System.nanoTime()));
+			try {
+
+				this.service.execute(this::runNext);
+				return true;
+
+			} catch (final RejectedExecutionException e) {
+
+				// Le moteur est arrêté : aucun travailleur ne servira l'élément en trop,
+				// qui n'est pas forcément celui-ci si un travailleur l'a déjà retiré.
+				this.admitted.decrementAndGet();
+				final Pending orphan = this.queue.poll();
+				if (orphan != null) this.reject(orphan.task, orphan.release);
+				return false;
+			}
+		}
+
+		private void reject(final BotTask<?> task, final Runnable release) {
+
+			this.rejected.incrementAndGet();
+			App.LOGGER.warn("'" + task.getName() + "' rejeté par la voie " + this.cost.NAME + " : " + this.getQueueDepth() + " / " + this.queueSize + " en attente, " + this.getActiveWorkers() + " / " + this.workers + " actifs.");
+			task.rejected();
+			release.run();
+		}
+
+		private void runNext() {
+
+			final Thread current = Thread.currentThread();
+			final String name = current.getName();
+			try {
+
+				if (this.permits != null) this.permits.acquire();
+
+			} catch (final InterruptedException e) {
+
+				current.interrupt();
+				final Pending pending = this.queue.poll();
+				this.admitted.decrementAndGet();
+				if (pending != null) this.reject(pending.task, pending.release);
+				return;
+			}
+
+			final Pending pending = this.queue.poll();
+			if (pending == null) {
+
+				this.admitted.decrementAndGet();
+				if (this.permits != null) this.permits.release();
+				return;
+			}
+
+			final BotTask<?> task = pending.task;
+			final long now = System.nanoTime();
+			this.sojourn = now - pending.queued;
+			this.codel.dequeued(this.sojourn, now);
+
+			current.setName(task.getName() + " (" + name + ")");
+			final long cpu = this.wallClock ? -1L : BotExecutor.cpuTime();
+			CompletionStage<?> done = null;
+			try {
+
+				done = task.execute();
+
+			} finally {
+
+				final long used = cpu < 0 ? System.nanoTime() - now : BotExecutor.cpuTime() - cpu;
+				this.queue.charge(task.getServerId(), used);
+				current.setName(name);
+				this.completed.incrementAndGet();
+				if (this.permits != null) this.permits.release();
+				if (done == null) pending.release.run();
+				else done.whenComplete((result, error) -> pending.release.run());
+				this.admitted.decrementAndGet();
+			}
+		}
+
+		/**
+		 *
+		 * Récupérer la classe de coût de la voie.
+		 *
+		 * @return classe de coût
+		 */
+		public Command.Cost getCost() {
+
+			return this.cost;
+		}
+
+		/**
+		 *
+		 * Récupérer le nombre de threads en attente.
+		 *
+		 * @return nombre de threads
+		 */
+		public int getQueueDepth() {
+
+			return this.queue.size();
+		}
+
+		/**
+		 *
+		 * Récupérer la taille maximale de la file d'attente.
+		 *
+		 * @return taille de la file
+		 */
+		public int getQueueSize() {
+
+			return this.queueSize;
+		}
+
+		/**
+		 *
+		 * Récupérer le nombre de travailleurs en cours d'exécution.
+		 *
+		 * @return nombre de travailleurs
+		 */
+		public int getActiveWorkers() {
+
+			return this.pool != null ? this.pool.getActiveCount() : this.workers - this.permits.availablePermits();
+		}
+
+		/**
+		 *
+		 * Récupérer le nombre maximum de travailleurs.
+		 *
+		 * @return nombre de travailleurs
+		 */
+		public int getWorkers() {
+
+			return this.workers;
+		}
+
+		/**
+		 *
+		 * Récupérer le nombre de threads terminés depuis le démarrage.
+		 *
+		 * @return nombre de threads
+		 */
+		public long getCompleted() {
+
+			return this.completed.get();
+		}
+
+		/**
+		 *
+		 * Récupérer le nombre de threads rejetés depuis le démarrage.
+		 *
+		 * @return nombre de threads
+		 */
+		public long getRejected() {
+
+			return this.rejected.get();
+		}
+
+		/**
+		 *
+		 * Récupérer le nombre de threads délestés depuis le démarrage.
+		 *
+		 * @return nombre de threads
+		 */
+		public long getShed() {
+
+			return this.shed.get();
+		}
+
+		/**
+		 *
+		 * Récupérer le temps d'attente du dernier thread démarré.
+		 *
+		 * @return temps d'attente en millisecondes
+		 */
+		public long getSojourn() {
+
+			return TimeUnit.NANOSECONDS.toMillis(this.sojourn);
+		}
+
+		/**
+		 *
+		 * Savoir si la voie est surchargée et déleste les nouveaux threads.
+		 *
+		 * @return booléen
+		 *
+		 * @see com.torpill.fribot.limits.CoDel
+		 */
+		public boolean isShedding() {
+
+			return this.codel.isDropping();
+		}
+
+		/**
+		 *
+		 * Récupérer le nombre de serveurs ayant des threads en attente.
+		 *
+		 * @return nombre de serveurs
+		 *
+		 * @see com.torpill.fribot.threads.FairQueue
+		 */
+		public int getWaitingServers() {
+
+			return this.queue.getActiveFlows();
+		}
+	}
+
+	/**
+	 *
+	 * Tâche en attente dans une voie d'exécution.
+	 *
+	 * @param task
+	 *            : tâche à exécuter.
+	 * @param release
+	 *            : action à exécuter à la fin de la tâche.
+	 * @param queued
+	 *            : instant de la mise en attente en nanosecondes.
+	 */
+	private record Pending(BotTask<?> task, Runnable release, long queued) {
+	}
+}
@@ -0,0 +1,132 @@
+package com.torpill.fribot.threads;
+
+import java.util.concurrent.CompletionStage;
+
+import com.torpill.fribot.commands.Command;
+
+/**
+ *
+ * Cette classe représente une tâche immuable : un thread du bot et les
+ * paramètres avec lesquels il doit être exécuté.
+ *
+ * @author torpill40
+ *
+ * @param <P>
+ *            : type des paramètres du thread.
+ *
+ * @see com.torpill.fribot.threads.BotThread
+ * @see com.torpill.fribot.threads.BotExecutor
+ *
+ */
+
+public final class BotTask<P extends BotThread.Params> implements Runnable {
+
+	private final BotThread<P> thread;
+	private final P params;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>BotTask</code>.
+	 *
+	 * @param thread
+	 *            : thread à exécuter.
+	 * @param params
+	 *            : paramètres du thread.
+	 */
+	public BotTask(final BotThread<P> thread, final P params) {
+
+		this.thread = thread;
+		this.params = params;
+	}
+
+	@Override
+	public void run() {
+
+		this.execute();
+	}
+
+	/**
+	 *
+	 * Exécuter la tâche et récupérer la fin de son exécution.
+	 *
+	 * @return fin de l'exécution à venir
+	 *
+	 * @see com.torpill.fribot.threads.BotThread#execute(BotThread.Params)
+	 */
+	public CompletionStage<?> execute() {
+
+		return this.thread.execute(this.params);
+	}
+
+	/**
+	 *
+	 * Récupérer la clé d'ordonnancement de la tâche.
+	 *
+	 * @return clé d'ordonnancement, 0 si la tâche n'est pas ordonnancée
+	 *
+	 * @see com.torpill.fribot.threads.BotThread#getSerialKey(BotThread.Params)
+	 */
+	public long getSerialKey() {
+
+		return this.thread.getSerialKey(this.params);
+	}
+
+	/**
+	 *
+	 * Récupérer l'ID du serveur pour lequel la tâche est exécutée.
+	 *
+	 * @return ID du serveur, 0 en message privé
+	 *
+	 * @see com.torpill.fribot.threads.BotThread#getServerId(BotThread.Params)
+	 */
+	public long getServerId() {
+
+		return this.thread.getServerId(this.params);
+	}
+
+	/**
+	 *
+	 * Récupérer la classe de coût de la tâche.
+	 *
+	 * @return classe de coût
+	 *
+	 * @see com.torpill.fribot.threads.BotThread#getCost(BotThread.Params)
+	 */
+	public Command.Cost getCost() {
+
+		return this.thread.getCost(this.params);
+	}
+
+	/**
+	 *
+	 * Prévenir l'utilisateur que la tâche a été rejetée.
+	 *
+	 * @see com.torpill.fribot.threads.BotThread#rejected(BotThread.Params)
+	 */
+	void rejected() {
+
+		this.thread.rejected(this.params);
+	}
+
+	/**
+	 *
+	 * Récupérer le nom du thread de la tâche.
+	 *
+	 * @return nom du thread
+	 */
+	public String getName() {
+
+		return this.thread.getName();
+	}
+
+	/**
+	 *
+	 * Récupérer les paramètres de la tâche.
+	 *
+	 * @return paramètres
+	 */
+	public P getParams() {
+
+		return this.params;
+	}
+}
@@ -1,33 +1,43 @@
 package com.torpill.fribot.threads;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.user.User;
 
-import com.torpill.fribot.App;
 import com.torpill.fribot.bot.DiscordBot;
+import com.torpill.fribot.commands.Command;
 
 /**
- * 
- * Cette classe représente un thread relié a un bot Discord.
- * 
+ *
+ * Cette classe représente un thread relié a un bot Discord. Un thread est
+ * instancié une seule fois : chaque démarrage crée une tâche immuable associant
+ * le thread à ses paramètres.
+ *
  * @author torpill40
  *
+ * @param <P>
+ *            : type des paramètres du thread.
+ *
+ * @see com.torpill.fribot.threads.BotTask
+ *
  */
 
-public abstract class BotThread implements Runnable, Cloneable {
+public abstract class BotThread<P extends BotThread.Params> {
 
 	protected final DiscordBot bot;
 	private final String name;
-	protected Object[] args = null;
 
 	/**
-	 * 
+	 *
 	 * Constructeur de la classe <code>BotThread</code>.
-	 * 
+	 *
 	 * @param bot
 	 *            : bot Discord relié au thread.
 	 * @param name
 	 *            : nom du thread.
-	 * 
+	 *
 	 * @see com.torpill.fribot.bot.DiscordBot
 	 */
 	protected BotThread(final DiscordBot bot, final String name) {
@@ -36,88 +46,132 @@ public abstract class BotThread implements Runnable, Cloneable {
 		this.name = name;
 	}
 
-	@Override
-	public void run() {
-
-		this.args = null;
-	}
-
-	@Override
-	public BotThread clone() throws CloneNotSupportedException {
-
-		return (BotThread) super.clone();
-	}
-
 	/**
-	 * 
-	 * Récupérer la liste des classes des arguments nécéssaires au fonctionnement du
-	 * bot.
-	 * 
-	 * @return liste de classes
+	 *
+	 * Exécuter le thread.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
 	 */
-	protected abstract List<? extends Class<?>> args();
+	public abstract void run(final P params);
 
 	/**
-	 * 
-	 * Vérifier si les arguments passés en paramètres sont valides pour le démarrage
-	 * du thread.
-	 * 
-	 * @param args
-	 *            : arguments à tester.
-	 * @return code d'erreur
+	 *
+	 * Exécuter le thread et récupérer la fin de son exécution. Par défaut,
+	 * l'exécution se termine au retour de {@link #run(BotThread.Params)}.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
+	 * @return fin de l'exécution à venir
 	 */
-	private int checkArgs(Object... args) {
+	public CompletionStage<?> execute(final P params) {
 
-		final List<?> needed = this.args();
-		if (args.length != needed.size()) {
-
-			App.LOGGER.debug("'" + this.getName() + "' " + args.length + " arguments au lieu de " + needed.size());
-			return 1;
-		}
+		this.run(params);
+		return CompletableFuture.completedFuture(null);
+	}
 
-		for (int i = 0; i < args.length; i++) {
+	/**
+	 *
+	 * Récupérer la clé d'ordonnancement du thread. Les threads ayant la même clé
+	 * sont exécutés les uns après les autres, dans leur ordre de démarrage et
+	 * quelle que soit leur classe de coût, jusqu'à la fin de leur exécution
+	 * asynchrone. Par défaut, un thread n'est pas ordonnancé.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
+	 * @return clé d'ordonnancement, 0 si le thread n'est pas ordonnancé
+	 *
+	 * @see com.torpill.fribot.threads.SerialExecutor
+	 */
+	public long getSerialKey(final P params) {
 
-			boolean isSame = args[i].getClass() == needed.get(i);
-			boolean isAssignable = ((Class<?>) needed.get(i)).isAssignableFrom(args[i].getClass());
-			if (!isSame && !isAssignable) {
+		return 0L;
+	}
 
-				App.LOGGER.debug("'" + this.getName() + "' '" + args[i].getClass() + "' ne correspond pas au paramètre attendu '" + needed.get(i) + "'");
-				return 2;
-			}
-		}
+	/**
+	 *
+	 * Récupérer l'ID du serveur pour lequel le thread est exécuté, afin de
+	 * partager équitablement les travailleurs entre les serveurs.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
+	 * @return ID du serveur, 0 en message privé
+	 *
+	 * @see com.torpill.fribot.threads.FairQueue
+	 */
+	public long getServerId(final P params) {
 
-		return 0;
+		return params.channel().asServerTextChannel().map(channel -> channel.getServer().getId()).orElse(0L);
 	}
 
 	/**
-	 * 
-	 * Attribuer les arguments au thread avant son exécution.
-	 * 
-	 * @param args
-	 *            : arguments à attribuer.
-	 * @return code d'erreur
+	 *
+	 * Récupérer la classe de coût du thread, qui détermine la voie d'exécution sur
+	 * laquelle il est placé. Par défaut, un thread du bot attend les réactions des
+	 * membres et est donc interactif.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
+	 * @return classe de coût
+	 *
+	 * @see com.torpill.fribot.commands.Command.Cost
 	 */
-	public int setArgs(Object... args) {
+	public Command.Cost getCost(final P params) {
 
-		final int response = this.checkArgs(args);
-
-		if (response == 0) {
+		return Command.Cost.INTERACTIVE;
+	}
 
-			App.LOGGER.debug("'" + this.getName() + "' paramètre enregistré avec succès.");
-			this.args = args;
-		}
+	/**
+	 *
+	 * Prévenir l'utilisateur que le thread n'a pas pu être démarré car le bot est
+	 * trop occupé.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
+	 *
+	 * @see com.torpill.fribot.threads.BotExecutor
+	 */
+	protected void rejected(final P params) {
 
-		return response;
+		params.channel().sendMessage(params.user().getMentionTag() + ", je suis très occupé en ce moment, réessaie dans quelques instants.");
 	}
 
 	/**
-	 * 
+	 *
 	 * Récupérer le nom du thread.
-	 * 
+	 *
 	 * @return nom du thread
 	 */
 	public String getName() {
 
 		return this.name;
 	}
+
+	/**
+	 *
+	 * Cette interface représente les paramètres d'un thread : au minimum
+	 * l'utilisateur à l'origine du thread et le salon dans lequel il lui répond.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	public interface Params {
+
+		/**
+		 *
+		 * Récupérer l'utilisateur à l'origine du thread.
+		 *
+		 * @return utilisateur
+		 */
+		User user();
+
+		/**
+		 *
+		 * Récupérer le salon dans lequel le thread répond.
+		 *
+		 * @return salon textuel
+		 */
+		TextChannel channel();
+	}
 }
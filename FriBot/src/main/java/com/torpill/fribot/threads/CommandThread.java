@@ -1,6 +1,9 @@
 package com.torpill.fribot.threads;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.Message;
@@ -9,7 +12,10 @@ import org.javacord.api.entity.user.User;
 
 import com.torpill.fribot.App;
 import com.torpill.fribot.bot.DiscordBot;
-import com.torpill.fribot.util.ListBuilder;
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.limits.BulkheadException;
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
 
 /**
  *
@@ -19,7 +25,7 @@ import com.torpill.fribot.util.ListBuilder;
  *
  */
 
-public class CommandThread extends BotThread {
+public class CommandThread extends BotThread<CommandThread.Params> {
 
 	/**
 	 *
@@ -36,26 +42,119 @@ public class CommandThread extends BotThread {
 	}
 
 	@Override
-	protected List<? extends Class<?>> args() {
+	public Command.Cost getCost(final Params params) {
 
-		return ListBuilder.listOf(User.class, TextChannel.class, Message.class, Server.class, String.class, String[].class);
+		final Command.Cost cost = this.bot.getCostFor(params.commandName());
+		return cost == null ? Command.Cost.LIGHT : cost;
 	}
 
 	@Override
-	public void run() {
+	public long getSerialKey(final Params params) {
+
+		return params.channel().getId();
+	}
+
+	@Override
+	public void run(final Params params) {
+
+		this.execute(params);
+	}
+
+	@Override
+	public CompletionStage<?> execute(final Params params) {
 
 		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' démarré avec succès.");
 
-		final User user = (User) this.args[0];
-		final TextChannel channel = (TextChannel) this.args[1];
-		final Message message = (Message) this.args[2];
-		final Server server = (Server) this.args[3];
-		final String commandName = (String) this.args[4];
-		final String[] args = (String[]) this.args[5];
+		final long timeout = this.bot.getTimeoutFor(this.getCost(params));
+		final Deadline deadline = Deadline.in(timeout, TimeUnit.MILLISECONDS);
+		final Watchdog.Watch watch = this.bot.getWatchdog().start(params.commandName(), params.user().getDiscriminatedName(), timeout);
+		final CompletionStage<Integer> stage;
+		try (Deadline.Scope scope = deadline.enter()) {
+
+			stage = this.bot.execute(params.user(), params.channel(), params.message(), params.server(), params.commandName(), params.content());
+
+		} catch (final RuntimeException e) {
 
-		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' paramètres récupérés avec succès.");
+			watch.finish(this.timedOut(e));
+			this.failed(params, e);
+			return CompletableFuture.completedFuture(null);
+
+		} finally {
+
+			watch.detach();
+		}
+
+		final CompletableFuture<Integer> command = deadline.bound(stage);
+		this.bot.track(command, deadline);
+		return command.whenComplete((response, error) -> {
+
+			final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			watch.finish(this.timedOut(cause));
+			if (error != null) this.failed(params, cause);
+			else this.complete(params, response);
+		});
+	}
+
+	private boolean timedOut(final Throwable error) {
+
+		return error instanceof DeadlineException && !this.bot.isDraining();
+	}
+
+	/**
+	 *
+	 * Traiter l'échec d'une commande. Si la commande a dépassé son échéance, a
+	 * été annulée par l'arrêt du bot ou dépend d'un service saturé, l'utilisateur
+	 * est prévenu de son annulation.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
+	 * @param error
+	 *            : erreur de la commande.
+	 *
+	 * @see com.torpill.fribot.util.Deadline
+	 */
+	private void failed(final Params params, final Throwable error) {
+
+		if (error instanceof DeadlineException && this.bot.isDraining()) {
+
+			App.LOGGER.warn("La commande '" + params.commandName() + "' de " + params.user().getDiscriminatedName() + " a été annulée par l'arrêt du bot.");
+			params.channel().sendMessage(params.user().getMentionTag() + ", ta commande a été annulée car je redémarre : réessaie dans quelques instants.");
+			return;
+		}
+
+		if (error instanceof DeadlineException) {
+
+			App.LOGGER.warn("La commande '" + params.commandName() + "' de " + params.user().getDiscriminatedName() + " a dépassé son échéance et a été annulée.");
+			params.channel().sendMessage(params.user().getMentionTag() + ", ta commande a pris trop de temps et a été annulée : réessaie plus tard.");
+			return;
+		}
+
+		if (error instanceof BulkheadException) {
+
+			App.LOGGER.warn("La commande '" + params.commandName() + "' de " + params.user().getDiscriminatedName() + " a été refusée : " + error.getMessage());
+			params.channel().sendMessage(params.user().getMentionTag() + ", le service " + ((BulkheadException) error).getDependency() + " est saturé ou ne répond pas : réessaie plus tard.");
+			return;
+		}
+
+		App.LOGGER.error("Erreur lors de l'exécution de la commande '" + params.commandName() + "' : ", error);
+	}
+
+	/**
+	 *
+	 * Traiter le code d'erreur d'une commande une fois son exécution terminée.
+	 *
+	 * @param params
+	 *            : paramètres du thread.
+	 * @param response
+	 *            : code d'erreur de la commande.
+	 */
+	private void complete(final Params params, final int response) {
+
+		final User user = params.user();
+		final TextChannel channel = params.channel();
+		final Message message = params.message();
+		final String commandName = params.commandName();
 
-		final int response = this.bot.execute(user, channel, message, server, commandName, args);
 		if (response == 0) {
 
 			App.LOGGER.info(user.getDiscriminatedName() + " a utilisé la commande '" + commandName + "' : " + response);
@@ -75,12 +174,34 @@ public class CommandThread extends BotThread {
 				channel.sendMessage(user.getMentionTag() + ", tu n'as pas les permissions pour exécuter cette commande : fais `" + this.bot.getPrefix() + "help " + commandName + "` pour plus d'informations.");
 				break;
 
+			case -3:
+				channel.sendMessage(user.getMentionTag() + ", la commande `" + commandName + "` est temporairement désactivée car elle prend trop de temps : réessaie dans " + (this.bot.getWatchdog().getQuarantineRemaining(commandName) / 60_000L + 1) + " minutes.");
+				break;
+
 			case 1:
 				channel.sendMessage(user.getMentionTag() + ", tu n'as pas entré un nombre correct d'arguments : fais `" + this.bot.getPrefix() + "help " + commandName + "` pour plus d'informations.");
 				break;
 			}
 		}
+	}
 
-		super.run();
+	/**
+	 *
+	 * Paramètres d'un thread de commande.
+	 *
+	 * @param user
+	 *            : utilisateur de la commande.
+	 * @param channel
+	 *            : salon dans lequel est exécutée la commande.
+	 * @param message
+	 *            : message contenant la commande.
+	 * @param server
+	 *            : serveur dans lequel est exécutée la commande.
+	 * @param commandName
+	 *            : nom de la commande exécutée.
+	 * @param content
+	 *            : contenu du message, dont sont découpés les arguments.
+	 */
+	public record Params(User user, TextChannel channel, Message message, Server server, String commandName, String content) implements BotThread.Params {
 	}
 }
@@ -0,0 +1,256 @@
+package com.torpill.fribot.threads;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.LongToIntFunction;
+
+/**
+ *
+ * Cette classe représente une file d'attente équitable entre plusieurs flux,
+ * par exemple les serveurs Discord. Les flux actifs sont servis à tour de rôle
+ * selon l'algorithme du tourniquet à déficit (<i>Deficit Round Robin</i>) :
+ * à chaque tour, un flux reçoit un quantum proportionnel à son poids et est
+ * servi tant que son déficit reste positif.<br />
+ * Le coût d'un élément n'étant connu qu'après son exécution, le flux est
+ * débité d'une estimation au moment du retrait, puis de la différence avec le
+ * coût réel une fois l'élément terminé. Un flux ayant consommé plus que sa
+ * part garde sa dette jusqu'à ce qu'elle soit remboursée par les tours
+ * suivants : un flux endetté sans élément en attente reçoit un quantum à
+ * chaque quantum accordé à un flux actif, et est oublié une fois sa dette
+ * remboursée ou dès que la file se vide, aucun autre flux n'attendant alors.
+ *
+ * @author torpill40
+ *
+ * @param <T>
+ *            : type des éléments de la file.
+ *
+ * @see com.torpill.fribot.threads.BotExecutor.Lane
+ *
+ */
+
+public class FairQueue<T> {
+
+	private final long quantum;
+	private final LongToIntFunction weights;
+	private final Map<Long, Flow<T>> flows = new HashMap<>();
+	private final Deque<Flow<T>> active = new ArrayDeque<>();
+	private final Deque<Flow<T>> idle = new ArrayDeque<>();
+	private int size = 0;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>FairQueue</code>.
+	 *
+	 * @param quantum
+	 *            : coût accordé à un flux de poids 1 à chaque tour.
+	 * @param weights
+	 *            : poids de chaque flux.
+	 */
+	public FairQueue(final long quantum, final LongToIntFunction weights) {
+
+		this.quantum = quantum;
+		this.weights = weights;
+	}
+
+	/**
+	 *
+	 * Ajouter un élément à la fin de son flux.
+	 *
+	 * @param key
+	 *            : clé du flux.
+	 * @param item
+	 *            : élément à ajouter.
+	 */
+	public synchronized void add(final long key, final T item) {
+
+		final Flow<T> flow = this.flows.computeIfAbsent(key, k -> new Flow<>(k, this.quantum));
+		flow.items.add(item);
+		this.size++;
+		if (!flow.active) {
+
+			flow.active = true;
+			this.active.addLast(flow);
+		}
+	}
+
+	/**
+	 *
+	 * Retirer un élément qui n'a pas encore été servi.
+	 *
+	 * @param key
+	 *            : clé du flux.
+	 * @param item
+	 *            : élément à retirer.
+	 * @return booléen, <code>true</code> si l'élément était dans la file
+	 */
+	public synchronized boolean remove(final long key, final T item) {
+
+		final Flow<T> flow = this.flows.get(key);
+		if (flow == null || !flow.items.remove(item)) return false;
+
+		this.size--;
+		return true;
+	}
+
+	/**
+	 *
+	 * Retirer le prochain élément à servir et débiter son flux du coût estimé.
+	 *
+	 * @return élément, <code>null</code> si la file est vide
+	 */
+	public synchronized T poll() {
+
+		Flow<T> flow;
+		while ((flow = this.active.peekFirst()) != null) {
+
+			if (flow.items.isEmpty()) {
+
+				this.active.pollFirst();
+				flow.active = false;
+				this.retire(flow);
+				continue;
+			}
+
+			if (flow.deficit > 0) {
+
+				flow.deficit -= flow.estimate;
+				this.size--;
+				return flow.items.poll();
+			}
+
+			this.credit(flow);
+			this.active.addLast(this.active.pollFirst());
+			this.repay();
+		}
+		this.forgive();
+		return null;
+	}
+
+	/**
+	 *
+	 * Débiter un flux du coût réel d'un élément servi.
+	 *
+	 * @param key
+	 *            : clé du flux.
+	 * @param cost
+	 *            : coût réel de l'élément.
+	 */
+	public synchronized void charge(final long key, final long cost) {
+
+		final Flow<T> flow = this.flows.computeIfAbsent(key, k -> new Flow<>(k, this.quantum));
+		flow.deficit -= cost - flow.estimate;
+		flow.estimate = (flow.estimate * 3 + cost) / 4;
+		if (!flow.active) this.retire(flow);
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre d'éléments en attente.
+	 *
+	 * @return nombre d'éléments
+	 */
+	public synchronized int size() {
+
+		return this.size;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de flux ayant des éléments en attente.
+	 *
+	 * @return nombre de flux
+	 */
+	public synchronized int getActiveFlows() {
+
+		return this.active.size();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de flux suivis, actifs ou endettés.
+	 *
+	 * @return nombre de flux
+	 */
+	public synchronized int getFlows() {
+
+		return this.flows.size();
+	}
+
+	/**
+	 *
+	 * Récupérer le déficit d'un flux.
+	 *
+	 * @param key
+	 *            : clé du flux.
+	 * @return déficit, négatif si le flux a consommé plus que sa part
+	 */
+	public synchronized long getDeficit(final long key) {
+
+		final Flow<T> flow = this.flows.get(key);
+		return flow == null ? 0L : flow.deficit;
+	}
+
+	private void credit(final Flow<T> flow) {
+
+		flow.deficit += this.quantum * Math.max(1, this.weights.applyAsInt(flow.key));
+	}
+
+	private void retire(final Flow<T> flow) {
+
+		if (flow.deficit >= 0) this.flows.remove(flow.key, flow);
+		else if (!flow.idle) {
+
+			flow.idle = true;
+			this.idle.addLast(flow);
+		}
+	}
+
+	private void repay() {
+
+		final Flow<T> flow = this.idle.pollFirst();
+		if (flow == null) return;
+
+		flow.idle = false;
+		if (flow.active || this.flows.get(flow.key) != flow) return;
+
+		this.credit(flow);
+		this.retire(flow);
+	}
+
+	private void forgive() {
+
+		Flow<T> flow;
+		while ((flow = this.idle.pollFirst()) != null) {
+
+			flow.idle = false;
+			if (!flow.active) this.flows.remove(flow.key, flow);
+		}
+	}
+
+	/**
+	 *
+	 * Cette classe représente un flux de la file.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	private static class Flow<T> {
+
+		private final long key;
+		private final Queue<T> items = new ArrayDeque<>();
+		private long deficit = 0L;
+		private long estimate;
+		private boolean active = false;
+		private boolean idle = false;
+
+		private Flow(final long key, final long estimate) {
+
+			this.key = key;
+			this.estimate = estimate;
+		}
+	}
+}
@@ -17,7 +17,6 @@ import org.javacord.api.listener.message.reaction.ReactionAddListener;
 import com.torpill.fribot.App;
 import com.torpill.fribot.bot.DiscordBot;
 import com.torpill.fribot.commands.Command;
-import com.torpill.fribot.util.ListBuilder;
 import com.vdurmont.emoji.EmojiParser;
 
 /**
@@ -31,12 +30,7 @@ import com.vdurmont.emoji.EmojiParser;
  *
  */
 
-public class HelpThread extends BotThread {
-
-	private int page, numberOfPage, commandPerPage;
-	private Command.Category category;
-	private List<Command> commandList;
-	private List<String> commandNames;
+public class HelpThread extends BotThread<HelpThread.Params> {
 
 	/**
 	 *
@@ -53,35 +47,23 @@ public class HelpThread extends BotThread {
 	}
 
 	@Override
-	protected List<? extends Class<?>> args() {
-
-		return ListBuilder.listOf(User.class, TextChannel.class);
-	}
-
-	@Override
-	public void run() {
+	public void run(final Params params) {
 
 		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' démarré avec succès.");
 
-		final User user = (User) this.args[0];
-		final TextChannel channel = (TextChannel) this.args[1];
+		final User user = params.user();
+		final TextChannel channel = params.channel();
+		final Menu menu = new Menu();
 
-		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' paramètres récupérés avec succès.");
+		final EmbedBuilder embed = this.bot.defaultEmbedBuilder("Aide :", menu.category.DESCRIPTION + " :");
+		embed.setFooter("Page : " + menu.page + " / " + menu.numberOfPage, user.getAvatar());
 
-		this.commandPerPage = 6;
-		this.category = Command.Category.UTILITY;
-		this.commandList = this.bot.commandsIn(this.category);
-		this.changeCategory(this.category);
+		for (int i = 0; i < menu.commandPerPage; i++) {
 
-		final EmbedBuilder embed = this.bot.defaultEmbedBuilder("Aide :", this.category.DESCRIPTION + " :", null);
-		embed.setFooter("Page : " + this.page + " / " + this.numberOfPage, user.getAvatar());
+			final int index = i + (menu.page - 1) * menu.commandPerPage;
+			if (index < menu.commandNames.size()) {
 
-		for (int i = 0; i < this.commandPerPage; i++) {
-
-			final int index = i + (this.page - 1) * this.commandPerPage;
-			if (index < this.commandNames.size()) {
-
-				final String command = this.commandNames.get(index);
+				final String command = menu.commandNames.get(index);
 				embed.addField(command + " :", this.bot.getHelpFor(command).split("\n")[0]);
 			}
 		}
@@ -112,46 +94,46 @@ public class HelpThread extends BotThread {
 					switch (EmojiParser.parseToAliases(emoji.getMentionTag())) {
 
 					case ":arrow_right:":
-						this.next();
+						menu.next();
 						break;
 
 					case ":arrow_left:":
-						this.prev();
+						menu.prev();
 						break;
 
 					case ":one:":
-						this.changeCategory(Command.Category.UTILITY);
+						menu.changeCategory(Command.Category.UTILITY);
 						break;
 
 					case ":two:":
-						this.changeCategory(Command.Category.FUN);
+						menu.changeCategory(Command.Category.FUN);
 						break;
 
 					case ":three:":
-						this.changeCategory(Command.Category.MODERATION);
+						menu.changeCategory(Command.Category.MODERATION);
 						break;
 
 					case ":four:":
-						this.changeCategory(Command.Category.GAME);
+						menu.changeCategory(Command.Category.GAME);
 						break;
 
 					case ":five:":
-						this.changeCategory(Command.Category.TUTORIAL);
+						menu.changeCategory(Command.Category.TUTORIAL);
 						break;
 
 					default:
 						return;
 					}
 
-					final EmbedBuilder embed1 = this.bot.defaultEmbedBuilder("Aide :", this.category.DESCRIPTION + " :", null);
-					embed1.setFooter("Page : " + this.page + " / " + this.numberOfPage, user1.getAvatar());
+					final EmbedBuilder embed1 = this.bot.defaultEmbedBuilder("Aide :", menu.category.DESCRIPTION + " :");
+					embed1.setFooter("Page : " + menu.page + " / " + menu.numberOfPage, user1.getAvatar());
 
-					for (int i = 0; i < this.commandPerPage; i++) {
+					for (int i = 0; i < menu.commandPerPage; i++) {
 
-						final int index = i + (this.page - 1) * this.commandPerPage;
-						if (index < this.commandNames.size()) {
+						final int index = i + (menu.page - 1) * menu.commandPerPage;
+						if (index < menu.commandNames.size()) {
 
-							final String command = this.commandNames.get(index);
+							final String command = menu.commandNames.get(index);
 							embed1.addField(command + " :", this.bot.getHelpFor(command).split("\n")[0]);
 						}
 					}
@@ -162,71 +144,115 @@ public class HelpThread extends BotThread {
 			message.addReactionAddListener(listener);
 
 			final int time = 60; // En secondes
-			Thread.sleep(time * 1000);
+			try {
 
-			message.removeListener(ReactionAddListener.class, listener);
+				Thread.sleep(time * 1000);
+
+			} finally {
+
+				message.removeListener(ReactionAddListener.class, listener);
+			}
 
 		} catch (InterruptedException | ExecutionException e) {
 
 			e.printStackTrace();
 		}
+	}
 
-		super.run();
+	/**
+	 *
+	 * Paramètres d'un thread d'aide.
+	 *
+	 * @param user
+	 *            : utilisateur ayant demandé l'aide.
+	 * @param channel
+	 *            : salon dans lequel est envoyée l'aide.
+	 */
+	public record Params(User user, TextChannel channel) implements BotThread.Params {
 	}
 
 	/**
 	 *
-	 * Changer de categorie dans l'utilitaire d'aide.
+	 * Cette classe représente l'état de l'utilitaire d'aide propre à une
+	 * exécution du thread.
 	 *
-	 * @param category
-	 *            : nouvelle catégorie.
+	 * @author torpill40
 	 *
-	 * @see com.torpill.fribot.commands.Command.Category
 	 */
-	private void changeCategory(final Command.Category category) {
 
-		if ((this.commandList = this.bot.commandsIn(category)) == null) {
+	private class Menu {
 
-			this.commandList = this.bot.commandsIn(this.category);
-			return;
-		}
+		private int page, numberOfPage;
+		private final int commandPerPage = 6;
+		private Command.Category category = Command.Category.UTILITY;
+		private List<Command> commandList;
+		private List<String> commandNames;
 
-		this.category = category;
-		this.commandNames = new ArrayList<>();
-		for (final Command command : this.commandList) {
+		/**
+		 *
+		 * Constructeur de la classe <code>Menu</code>.
+		 *
+		 */
+		private Menu() {
 
-			if (!command.isPrivate()) this.commandNames.add(command.getName());
+			this.commandList = HelpThread.this.bot.commandsIn(this.category);
+			this.changeCategory(this.category);
 		}
-		Collections.sort(this.commandNames);
-		this.numberOfPage = Math.floorDiv(this.commandNames.size() - 1, this.commandPerPage) + 1;
-		this.page = 1;
-	}
 
-	/**
-	 *
-	 * Passer à la page suivante.
-	 *
-	 */
-	private void next() {
+		/**
+		 *
+		 * Changer de categorie dans l'utilitaire d'aide.
+		 *
+		 * @param category
+		 *            : nouvelle catégorie.
+		 *
+		 * @see com.torpill.fribot.commands.Command.Category
+		 */
+		private void changeCategory(final Command.Category category) {
+
+			if ((this.commandList = HelpThread.this.bot.commandsIn(category)) == null) {
+
+				this.commandList = HelpThread.this.bot.commandsIn(this.category);
+				return;
+			}
 
-		this.page++;
-		if (this.page > this.numberOfPage) {
+			this.category = category;
+			this.commandNames = new ArrayList<>();
+			for (final Command command : this.commandList) {
 
+				if (!command.isPrivate()) this.commandNames.add(command.getName());
+			}
+			Collections.sort(this.commandNames);
+			this.numberOfPage = Math.floorDiv(this.commandNames.size() - 1, this.commandPerPage) + 1;
 			this.page = 1;
 		}
-	}
 
-	/**
-	 *
-	 * Passer à la page précédente.
-	 *
-	 */
-	private void prev() {
+		/**
+		 *
+		 * Passer à la page suivante.
+		 *
+		 */
+		private void next() {
+
+			this.page++;
+			if (this.page > this.numberOfPage) {
+
+				this.page = 1;
+			}
+		}
 
-		this.page--;
-		if (this.page < 1) {
+		/**
+		 *
+		 * Passer à la page précédente.
+		 *
+		 */
+		private void prev() {
 
-			this.page = this.numberOfPage;
+			this.page--;
+			if (this.page < 1) {
+
+				this.page = this.numberOfPage;
+			}
 		}
 	}
 }
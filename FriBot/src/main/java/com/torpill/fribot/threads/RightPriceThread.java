@@ -1,7 +1,6 @@
 package com.torpill.fribot.threads;
 
 import java.awt.Color;
-import java.util.List;
 
 import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.embed.EmbedBuilder;
@@ -10,7 +9,6 @@ import org.javacord.api.listener.message.MessageCreateListener;
 
 import com.torpill.fribot.App;
 import com.torpill.fribot.bot.DiscordBot;
-import com.torpill.fribot.util.ListBuilder;
 
 /**
  *
@@ -22,12 +20,7 @@ import com.torpill.fribot.util.ListBuilder;
  *
  */
 
-public class RightPriceThread extends BotThread {
-
-	private int attempt = 0;
-	private boolean find = false;
-	private boolean end = false;
-	private long time = 0;
+public class RightPriceThread extends BotThread<RightPriceThread.Params> {
 
 	/**
 	 *
@@ -44,43 +37,34 @@ public class RightPriceThread extends BotThread {
 	}
 
 	@Override
-	protected List<? extends Class<?>> args() {
-
-		return ListBuilder.listOf(User.class, TextChannel.class, Integer.class, Integer.class, Integer.class);
-	}
-
-	@Override
-	public void run() {
+	public void run(final Params params) {
 
 		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' démarré avec succès.");
 
-		final User user = (User) this.args[0];
-		final TextChannel channel = (TextChannel) this.args[1];
-		final int number = (int) this.args[2];
-		final int min = (int) this.args[3];
-		final int max = (int) this.args[4];
-
-		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' paramètres récupérés avec succès.");
+		final User user = params.user();
+		final TextChannel channel = params.channel();
+		final int number = params.number();
+		final Game game = new Game();
 
-		channel.sendMessage(this.bot.defaultEmbedBuilder("Juste Prix", "Le nombre à trouver se situe entre " + min + " et " + max + ".", user));
+		channel.sendMessage(this.bot.defaultEmbedBuilder("Juste Prix", "Le nombre à trouver se situe entre " + params.min() + " et " + params.max() + ".", user));
 		final MessageCreateListener listener = event -> {
 
 			event.getMessageAuthor().asUser().ifPresent(user0 -> {
 
-				if (user0.getId() == user.getId() && !this.end) {
+				if (user0.getId() == user.getId() && !game.end) {
 
 					final String msg = event.getMessage().getContent();
 
 					try {
 
 						final int n = Integer.parseInt(msg);
-						this.time = System.currentTimeMillis();
-						this.attempt++;
-						this.find = n == number;
-						this.end = this.attempt == 15 || this.find;
-						final EmbedBuilder embed = this.bot.defaultEmbedBuilder("Juste Prix", null, null).setFooter("Essai n°" + this.attempt, user.getAvatar());
-						if (this.find) embed.setDescription("Bravo ! Tu as trouvé le nombre mystère " + number + " !").setColor(new Color(0x19BE19));
-						else if (!this.end) embed.setDescription("C'est " + (n < number ? "plus" : "moins") + " !");
+						game.time = System.currentTimeMillis();
+						game.attempt++;
+						game.find = n == number;
+						game.end = game.attempt == 15 || game.find;
+						final EmbedBuilder embed = this.bot.defaultEmbedBuilder("Juste Prix", null).setFooter("Essai n°" + game.attempt, user.getAvatar());
+						if (game.find) embed.setDescription("Bravo ! Tu as trouvé le nombre mystère " + number + " !").setColor(new Color(0x19BE19));
+						else if (!game.end) embed.setDescription("C'est " + (n < number ? "plus" : "moins") + " !");
 						else embed.setDescription("Dommage... Tu n'as pas réussi à trouver le nombre mystère " + number + " en moins de 15 essais...").setColor(new Color(0xEA3323));
 						channel.sendMessage(embed);
 
@@ -88,32 +72,66 @@ public class RightPriceThread extends BotThread {
 
 						if (msg.equalsIgnoreCase("cancel")) {
 
-							this.end = true;
+							game.end = true;
 							channel.sendMessage(this.bot.defaultEmbedBuilder("Juste Prix", "Tu as interrompue ta partie. Recommences une nouvelle partie quand tu veux !", user));
 						}
 					}
 				}
 			});
 		};
-		this.time = System.currentTimeMillis();
+		game.time = System.currentTimeMillis();
 		channel.addMessageCreateListener(listener);
 		try {
 
-			while (!this.end) {
+			while (!game.end) {
 
 				Thread.sleep(2000);
-				if (System.currentTimeMillis() > this.time + 30000) {
+				if (System.currentTimeMillis() > game.time + 30000) {
 
-					this.end = true;
+					game.end = true;
 					channel.sendMessage(this.bot.defaultEmbedBuilder("Juste Prix", "Ta partie a été interrompue car tu as mis trop de temps pour proposer un nouveau nombre. Recommences une nouvelle partie quand tu veux !", user));
 				}
 			}
 
 		} catch (final InterruptedException e) {
 
-			e.printStackTrace();
-			this.end = true;
+			game.end = true;
+			channel.sendMessage(this.bot.defaultEmbedBuilder("Juste Prix", "Ta partie a été interrompue car je redémarre. Recommences une nouvelle partie dans quelques instants !", user));
 		}
 		channel.removeListener(MessageCreateListener.class, listener);
 	}
+
+	/**
+	 *
+	 * Paramètres d'une partie de Juste Prix.
+	 *
+	 * @param user
+	 *            : joueur.
+	 * @param channel
+	 *            : salon de la partie.
+	 * @param number
+	 *            : nombre mystère.
+	 * @param min
+	 *            : borne inférieure.
+	 * @param max
+	 *            : borne supérieure.
+	 */
+	public record Params(User user, TextChannel channel, int number, int min, int max) implements BotThread.Params {
+	}
+
+	/**
+	 *
+	 * Cette classe représente l'état d'une partie de Juste Prix.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	private static class Game {
+
+		private volatile int attempt = 0;
+		private volatile boolean find = false;
+		private volatile boolean end = false;
+		private volatile long time = 0;
+	}
 }
@@ -0,0 +1,123 @@
+package com.torpill.fribot.threads;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ *
+ * Cette classe permet d'exécuter des étapes dans l'ordre pour une même clé
+ * (par exemple l'ID d'un salon), tout en laissant les étapes de clés
+ * différentes s'exécuter en parallèle. Aucun thread n'est dédié à une clé : une
+ * étape démarre son travail sur le moteur d'exécution partagé et signale sa
+ * fin, ce qui démarre l'étape suivante de la même clé.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.threads.BotExecutor
+ *
+ */
+
+public class SerialExecutor {
+
+	private final Map<Long, Chain> chains = new ConcurrentHashMap<>();
+	private final int capacity;
+
+	/**
+	 *
+	 * Constructeur de la classe <code>SerialExecutor</code>.
+	 *
+	 * @param capacity
+	 *            : nombre maximum d'étapes en attente pour une même clé.
+	 */
+	public SerialExecutor(final int capacity) {
+
+		this.capacity = capacity;
+	}
+
+	/**
+	 *
+	 * Ajouter une étape à la suite des étapes de sa clé. L'étape reçoit une action
+	 * à exécuter une seule fois lorsqu'elle est terminée, qu'elle ait réussi ou
+	 * non.
+	 *
+	 * @param key
+	 *            : clé d'ordonnancement.
+	 * @param step
+	 *            : étape à exécuter.
+	 * @return booléen, <code>false</code> si trop d'étapes sont déjà en attente
+	 *         pour cette clé
+	 */
+	public boolean execute(final long key, final Consumer<Runnable> step) {
+
+		final AtomicBoolean accepted = new AtomicBoolean();
+		final Chain chain = this.chains.compute(key, (k, current) -> {
+
+			final Chain target = current == null ? new Chain() : current;
+			if (target.size.get() < this.capacity) {
+
+				target.size.incrementAndGet();
+				target.steps.add(step);
+				accepted.set(true);
+			}
+			return target;
+		});
+
+		if (accepted.get()) this.schedule(key, chain);
+		return accepted.get();
+	}
+
+	private void schedule(final long key, final Chain chain) {
+
+		while (chain.running.compareAndSet(false, true)) {
+
+			final Consumer<Runnable> step = chain.steps.poll();
+			if (step != null) {
+
+				final AtomicBoolean released = new AtomicBoolean();
+				step.accept(() -> {
+
+					if (!released.compareAndSet(false, true)) return;
+					chain.size.decrementAndGet();
+					chain.running.set(false);
+					this.schedule(key, chain);
+				});
+				return;
+			}
+
+			chain.running.set(false);
+			this.chains.compute(key, (k, current) -> current == chain && chain.steps.isEmpty() && !chain.running.get() ? null : current);
+			if (chain.steps.isEmpty()) return;
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de clés ayant des étapes en cours ou en attente.
+	 *
+	 * @return nombre de clés
+	 */
+	public int getActiveKeys() {
+
+		return this.chains.size();
+	}
+
+	/**
+	 *
+	 * Cette classe représente la suite des étapes d'une clé.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	private static class Chain {
+
+		private final Queue<Consumer<Runnable>> steps = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean running = new AtomicBoolean();
+		private final AtomicInteger size = new AtomicInteger();
+	}
+}
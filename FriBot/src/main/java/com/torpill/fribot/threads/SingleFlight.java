@@ -0,0 +1,162 @@
+package com.torpill.fribot.threads;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
+
+/**
+ *
+ * Cette classe permet de partager un calcul entre plusieurs exécutions
+ * identiques simultanées. Tant qu'un calcul est en cours pour une clé, les
+ * demandes portant sur la même clé attendent son résultat au lieu de le
+ * recalculer. La clé est oubliée dès que le calcul se termine : aucun résultat
+ * n'est mis en cache.<br />
+ * Un calcul est borné par l'échéance de la demande qui l'a démarré. S'il échoue
+ * parce que cette échéance est dépassée, les demandes en attente dont
+ * l'échéance n'est pas dépassée relancent le calcul : la première en devient
+ * responsable, les suivantes partagent ce nouveau calcul.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.commands.SharedCommand
+ *
+ */
+
+public class SingleFlight {
+
+	private final Map<String, CompletableFuture<?>> flights = new ConcurrentHashMap<>();
+	private final AtomicLong computed = new AtomicLong();
+	private final AtomicLong shared = new AtomicLong();
+	private final AtomicLong retried = new AtomicLong();
+
+	/**
+	 *
+	 * Récupérer le résultat du calcul associé à une clé, en le démarrant si aucun
+	 * calcul n'est en cours pour cette clé. La demande est bornée par l'échéance
+	 * attachée au thread courant.
+	 *
+	 * @param <T>
+	 *            : type du résultat.
+	 * @param key
+	 *            : clé identifiant le calcul.
+	 * @param computation
+	 *            : calcul à démarrer.
+	 * @return résultat à venir
+	 *
+	 * @see com.torpill.fribot.util.Deadline#current()
+	 */
+	public <T> CompletableFuture<T> run(final String key, final Supplier<? extends CompletionStage<T>> computation) {
+
+		return this.run(key, Deadline.current(), computation);
+	}
+
+	/**
+	 *
+	 * Récupérer le résultat du calcul associé à une clé, en le démarrant si aucun
+	 * calcul n'est en cours pour cette clé.
+	 *
+	 * @param <T>
+	 *            : type du résultat.
+	 * @param key
+	 *            : clé identifiant le calcul.
+	 * @param deadline
+	 *            : échéance de la demande.
+	 * @param computation
+	 *            : calcul à démarrer.
+	 * @return résultat à venir
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> run(final String key, final Deadline deadline, final Supplier<? extends CompletionStage<T>> computation) {
+
+		final CompletableFuture<T> flight = new CompletableFuture<>();
+		final CompletableFuture<?> current = this.flights.putIfAbsent(key, flight);
+		if (current != null) {
+
+			this.shared.incrementAndGet();
+			final CompletableFuture<T> follower = new CompletableFuture<>();
+			((CompletableFuture<T>) current).whenComplete((result, error) -> {
+
+				if (error == null) follower.complete(result);
+				else if (SingleFlight.expired(error) && !deadline.isExpired()) {
+
+					this.retried.incrementAndGet();
+					try (Deadline.Scope scope = deadline.enter()) {
+
+						this.run(key, deadline, computation).whenComplete((retry, retryError) -> {
+
+							if (retryError != null) follower.completeExceptionally(retryError);
+							else follower.complete(retry);
+						});
+					}
+
+				} else follower.completeExceptionally(error);
+			});
+			return follower;
+		}
+
+		this.computed.incrementAndGet();
+		try {
+
+			computation.get().whenComplete((result, error) -> {
+
+				this.flights.remove(key, flight);
+				if (error != null) flight.completeExceptionally(error);
+				else flight.complete(result);
+			});
+
+		} catch (final RuntimeException e) {
+
+			this.flights.remove(key, flight);
+			flight.completeExceptionally(e);
+		}
+
+		return flight.copy();
+	}
+
+	private static boolean expired(final Throwable error) {
+
+		return error instanceof DeadlineException || error instanceof CompletionException && error.getCause() instanceof DeadlineException;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de calculs effectués depuis le démarrage.
+	 *
+	 * @return nombre de calculs
+	 */
+	public long getComputed() {
+
+		return this.computed.get();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de demandes ayant partagé un calcul en cours depuis le
+	 * démarrage.
+	 *
+	 * @return nombre de demandes
+	 */
+	public long getShared() {
+
+		return this.shared.get();
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre de demandes ayant relancé un calcul dont l'échéance
+	 * était dépassée depuis le démarrage.
+	 *
+	 * @return nombre de demandes
+	 */
+	public long getRetried() {
+
+		return this.retried.get();
+	}
+}
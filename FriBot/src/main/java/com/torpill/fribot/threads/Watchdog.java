@@ -0,0 +1,337 @@
+package com.torpill.fribot.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.torpill.fribot.App;
+
+/**
+ *
+ * Cette classe surveille les exécutions de commandes en cours. Une exécution
+ * dépassant une fraction de sa durée maximale est signalée dans le journal,
+ * avec la pile d'appels du travailleur qui l'exécute. Une commande dépassant
+ * plusieurs fois de suite sa durée maximale est mise en quarantaine : elle est
+ * désactivée temporairement afin de ne pas occuper tous les travailleurs.<br />
+ * Le dépassement est constaté par la surveillance elle-même dès que la durée
+ * maximale est écoulée, et le travailleur encore bloqué dans la commande est
+ * interrompu : une commande qui ne rend jamais la main est donc elle aussi
+ * comptée et mise en quarantaine.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.threads.CommandThread
+ *
+ */
+
+public class Watchdog {
+
+	private static final long PERIOD = 1_000L;
+
+	private final double slowRatio;
+	private final int strikes;
+	private final long quarantine;
+	private final Set<Watch> running = ConcurrentHashMap.newKeySet();
+	private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+
+		final Thread thread = new Thread(runnable, "Watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 *
+	 * Constructeur de la classe <code>Watchdog</code>.
+	 *
+	 * @param slowRatio
+	 *            : fraction de la durée maximale d'exécution au-delà de laquelle
+	 *            une exécution est signalée.
+	 * @param strikes
+	 *            : nombre de dépassements consécutifs avant la mise en
+	 *            quarantaine d'une commande.
+	 * @param quarantine
+	 *            : durée de la quarantaine en millisecondes.
+	 */
+	public Watchdog(final double slowRatio, final int strikes, final long quarantine) {
+
+		this.slowRatio = slowRatio;
+		this.strikes = strikes;
+		this.quarantine = quarantine;
+		this.timer.scheduleAtFixedRate(this::inspect, Watchdog.PERIOD, Watchdog.PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 *
+	 * Commencer la surveillance d'une exécution sur le thread courant.
+	 *
+	 * @param commandName
+	 *            : nom de la commande exécutée.
+	 * @param user
+	 *            : nom de l'utilisateur de la commande.
+	 * @param timeout
+	 *            : durée maximale d'exécution en millisecondes.
+	 * @return exécution surveillée
+	 */
+	public Watch start(final String commandName, final String user, final long timeout) {
+
+		final Watch watch = new Watch(commandName, user, (long) (timeout * this.slowRatio), timeout);
+		this.running.add(watch);
+		return watch;
+	}
+
+	/**
+	 *
+	 * Inspecter les exécutions en cours : signaler les exécutions lentes, compter
+	 * et interrompre celles qui ont dépassé leur durée maximale.
+	 *
+	 */
+	void inspect() {
+
+		final long now = System.nanoTime();
+		for (final Watch watch : this.running) {
+
+			final long elapsed = TimeUnit.NANOSECONDS.toMillis(now - watch.started);
+			if (elapsed >= watch.timeout && watch.expired.compareAndSet(false, true)) {
+
+				this.strike(watch.commandName);
+				watch.interrupt();
+			}
+			if (watch.flagged || elapsed < watch.threshold) continue;
+
+			watch.flagged = true;
+			this.offender(watch.commandName).slow.incrementAndGet();
+
+			final Thread worker = watch.worker;
+			final StringBuilder message = new StringBuilder("La commande '").append(watch.commandName).append("' de ").append(watch.user).append(" s'exécute depuis ").append(elapsed).append(" ms");
+			if (worker == null) {
+
+				message.append(" : en attente d'une étape asynchrone.");
+
+			} else {
+
+				message.append(" sur '").append(worker.getName()).append("' :");
+				for (final StackTraceElement element : worker.getStackTrace()) {
+
+					message.append(System.lineSeparator()).append("\tat ").append(element);
+				}
+			}
+			App.LOGGER.warn(message.toString());
+		}
+	}
+
+	private Offender offender(final String commandName) {
+
+		return this.offenders.computeIfAbsent(commandName, name -> new Offender());
+	}
+
+	private void strike(final String commandName) {
+
+		final Offender offender = this.offender(commandName);
+		synchronized (offender) {
+
+			if (++offender.strikes < this.strikes) return;
+
+			offender.strikes = 0;
+			offender.quarantined = true;
+			offender.quarantinedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.quarantine);
+		}
+		App.LOGGER.warn("La commande '" + commandName + "' a dépassé " + this.strikes + " fois de suite sa durée maximale : mise en quarantaine pour " + this.quarantine / 1000L + " s.");
+	}
+
+	/**
+	 *
+	 * Savoir si une commande est en quarantaine.
+	 *
+	 * @param commandName
+	 *            : nom de la commande.
+	 * @return booléen
+	 */
+	public boolean isQuarantined(final String commandName) {
+
+		return this.getQuarantineRemaining(commandName) > 0;
+	}
+
+	/**
+	 *
+	 * Récupérer la durée restante de la quarantaine d'une commande.
+	 *
+	 * @param commandName
+	 *            : nom de la commande.
+	 * @return durée restante en millisecondes, 0 si la commande n'est pas en
+	 *         quarantaine
+	 */
+	public long getQuarantineRemaining(final String commandName) {
+
+		final Offender offender = this.offenders.get(commandName);
+		if (offender == null) return 0L;
+
+		synchronized (offender) {
+
+			if (!offender.quarantined) return 0L;
+			final long remaining = offender.quarantinedUntil - System.nanoTime();
+			if (remaining > 0L) return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(remaining));
+
+			offender.quarantined = false;
+			return 0L;
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer les commandes actuellement en quarantaine.
+	 *
+	 * @return noms des commandes
+	 */
+	public List<String> getQuarantined() {
+
+		final List<String> quarantined = new ArrayList<>();
+		this.offenders.keySet().forEach(commandName -> {
+
+			if (this.isQuarantined(commandName)) quarantined.add(commandName);
+		});
+		return quarantined;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre d'exécutions en cours ayant été signalées comme lentes.
+	 *
+	 * @return nombre d'exécutions
+	 */
+	public int getSlow() {
+
+		int slow = 0;
+		for (final Watch watch : this.running) if (watch.flagged) slow++;
+		return slow;
+	}
+
+	/**
+	 *
+	 * Récupérer le nombre total de signalements d'une commande depuis le
+	 * démarrage.
+	 *
+	 * @param commandName
+	 *            : nom de la commande.
+	 * @return nombre de signalements
+	 */
+	public int getSlowCount(final String commandName) {
+
+		final Offender offender = this.offenders.get(commandName);
+		return offender == null ? 0 : offender.slow.get();
+	}
+
+	/**
+	 *
+	 * Arrêter la surveillance.
+	 *
+	 */
+	public void shutdown() {
+
+		this.timer.shutdownNow();
+	}
+
+	/**
+	 *
+	 * Cette classe représente une exécution surveillée.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	public class Watch {
+
+		private final String commandName, user;
+		private final long threshold, timeout;
+		private final long started = System.nanoTime();
+		private final AtomicBoolean expired = new AtomicBoolean();
+		private volatile Thread worker = Thread.currentThread();
+		private volatile boolean flagged = false;
+		private boolean interrupted = false;
+
+		private Watch(final String commandName, final String user, final long threshold, final long timeout) {
+
+			this.commandName = commandName;
+			this.user = user;
+			this.threshold = threshold;
+			this.timeout = timeout;
+		}
+
+		private synchronized void interrupt() {
+
+			if (this.worker == null) return;
+
+			App.LOGGER.warn("La commande '" + this.commandName + "' de " + this.user + " a dépassé sa durée maximale : interruption de '" + this.worker.getName() + "'.");
+			this.interrupted = true;
+			this.worker.interrupt();
+		}
+
+		/**
+		 *
+		 * Signaler que le travailleur a rendu la main : la suite de l'exécution se
+		 * déroule dans des étapes asynchrones. Une interruption de la surveillance
+		 * qui n'aurait pas été consommée par la commande est effacée, afin de ne pas
+		 * atteindre le thread suivant du travailleur.
+		 *
+		 */
+		public synchronized void detach() {
+
+			if (this.worker == Thread.currentThread() && this.interrupted) Thread.interrupted();
+			this.worker = null;
+		}
+
+		/**
+		 *
+		 * Terminer la surveillance de l'exécution. Après plusieurs dépassements
+		 * consécutifs de la durée maximale, la commande est mise en quarantaine. Un
+		 * dépassement déjà constaté par la surveillance n'est pas compté une
+		 * seconde fois.
+		 *
+		 * @param timedOut
+		 *            : <code>true</code> si l'exécution a dépassé sa durée
+		 *            maximale.
+		 */
+		public void finish(final boolean timedOut) {
+
+			if (!Watchdog.this.running.remove(this)) return;
+
+			if (timedOut) {
+
+				if (this.expired.compareAndSet(false, true)) Watchdog.this.strike(this.commandName);
+
+			} else if (!this.expired.get()) {
+
+				final Offender offender = Watchdog.this.offenders.get(this.commandName);
+				if (offender == null) return;
+
+				synchronized (offender) {
+
+					offender.strikes = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Cette classe représente les dépassements d'une commande.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	private static class Offender {
+
+		private final AtomicInteger slow = new AtomicInteger();
+		private int strikes = 0;
+		private boolean quarantined = false;
+		private long quarantinedUntil;
+	}
+}
@@ -1,6 +1,5 @@
 package com.torpill.fribot.threads;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
@@ -16,7 +15,6 @@ import com.torpill.fribot.App;
 import com.torpill.fribot.api.weather.Weather;
 import com.torpill.fribot.api.weather.WeatherCity;
 import com.torpill.fribot.bot.DiscordBot;
-import com.torpill.fribot.util.ListBuilder;
 import com.vdurmont.emoji.EmojiParser;
 
 /**
@@ -30,9 +28,7 @@ import com.vdurmont.emoji.EmojiParser;
  *
  */
 
-public class WeatherThread extends BotThread {
-
-	private int page, numberOfPage;
+public class WeatherThread extends BotThread<WeatherThread.Params> {
 
 	/**
 	 *
@@ -49,25 +45,15 @@ public class WeatherThread extends BotThread {
 	}
 
 	@Override
-	protected List<? extends Class<?>> args() {
-
-		return ListBuilder.listOf(User.class, TextChannel.class, WeatherCity.class, boolean[].class);
-	}
-
-	@Override
-	public void run() {
+	public void run(final Params params) {
 
 		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' démarré avec succès.");
 
-		final User user = (User) this.args[0];
-		final TextChannel channel = (TextChannel) this.args[1];
-		final WeatherCity weatherCity = (WeatherCity) this.args[2];
-		final boolean[] queries = (boolean[]) this.args[3];
-
-		App.LOGGER.debug("'" + Thread.currentThread().getName() + "' paramètres récupérés avec succès.");
-
-		this.page = 1;
-		this.numberOfPage = weatherCity.getWeathers().size();
+		final User user = params.user();
+		final TextChannel channel = params.channel();
+		final WeatherCity weatherCity = params.weatherCity();
+		final boolean[] queries = params.queries();
+		final Pager pager = new Pager(weatherCity.getWeathers().size());
 
 		final boolean temp = queries[0];
 		final boolean humidity = queries[1];
@@ -77,10 +63,10 @@ public class WeatherThread extends BotThread {
 		final boolean rain = queries[5];
 		final boolean snow = queries[6];
 
-		final Weather weather = weatherCity.getWeather(this.page - 1);
+		final Weather weather = weatherCity.getWeather(pager.page - 1);
 		final String description = weather.getDescription().replaceFirst(".", (weather.getDescription().charAt(0) + "").toUpperCase());
-		final EmbedBuilder embed = this.bot.defaultEmbedBuilder("Météo :", "Prévisions pour " + weatherCity.getCityName() + " (" + weatherCity.getCityCountry() + ") (" + weather.getDate() + ")", null);
-		embed.setFooter("Page : " + this.page + " / " + this.numberOfPage, user.getAvatar());
+		final EmbedBuilder embed = this.bot.defaultEmbedBuilder("Météo :", "Prévisions pour " + weatherCity.getCityName() + " (" + weatherCity.getCityCountry() + ") (" + weather.getDate() + ")");
+		embed.setFooter("Page : " + pager.page + " / " + pager.numberOfPage, user.getAvatar());
 		embed.addField("Description :", description);
 		if (temp) embed.addField("Température :", weather.getTemp() + "°C", true);
 		if (humidity) embed.addField("Humidité :", weather.getHumidity() + "%", true);
@@ -111,21 +97,21 @@ public class WeatherThread extends BotThread {
 					switch (EmojiParser.parseToAliases(emoji.getMentionTag())) {
 
 					case ":arrow_right:":
-						this.next();
+						pager.next();
 						break;
 
 					case ":arrow_left:":
-						this.prev();
+						pager.prev();
 						break;
 
 					default:
 						return;
 					}
 
-					final Weather weather1 = weatherCity.getWeather(this.page - 1);
+					final Weather weather1 = weatherCity.getWeather(pager.page - 1);
 					final String description1 = weather1.getDescription().replaceFirst(".", (weather1.getDescription().charAt(0) + "").toUpperCase());
-					final EmbedBuilder embed1 = this.bot.defaultEmbedBuilder("Météo :", "Prévisions pour " + weatherCity.getCityName() + " (" + weatherCity.getCityCountry() + ") (" + weather1.getDate() + ")", null);
-					embed1.setFooter("Page : " + this.page + " / " + this.numberOfPage, user.getAvatar());
+					final EmbedBuilder embed1 = this.bot.defaultEmbedBuilder("Météo :", "Prévisions pour " + weatherCity.getCityName() + " (" + weatherCity.getCityCountry() + ") (" + weather1.getDate() + ")");
+					embed1.setFooter("Page : " + pager.page + " / " + pager.numberOfPage, user.getAvatar());
 					embed1.addField("Description :", description1);
 					if (temp) embed1.addField("Température :", weather1.getTemp() + "°C", true);
 					if (humidity) embed1.addField("Humidité :", weather1.getHumidity() + "%", true);
@@ -141,43 +127,90 @@ public class WeatherThread extends BotThread {
 			message.addReactionAddListener(listener);
 
 			final int time = 90; // En secondes
-			Thread.sleep(time * 1000);
+			try {
+
+				Thread.sleep(time * 1000);
+
+			} finally {
 
-			message.removeListener(ReactionAddListener.class, listener);
+				message.removeListener(ReactionAddListener.class, listener);
+			}
 
 		} catch (InterruptedException | ExecutionException e) {
 
 			e.printStackTrace();
 		}
-
-		super.run();
 	}
 
 	/**
 	 *
-	 * Passer à la page suivante.
+	 * Paramètres d'un thread de prévisions météorologiques.
 	 *
+	 * @param user
+	 *            : utilisateur ayant demandé les prévisions.
+	 * @param channel
+	 *            : salon dans lequel sont envoyées les prévisions.
+	 * @param weatherCity
+	 *            : prévisions de la ville.
+	 * @param queries
+	 *            : informations à afficher (température, humidité, pression,
+	 *            nuages, vent, pluie, neige).
 	 */
-	private void next() {
-
-		this.page++;
-		if (this.page > this.numberOfPage) {
-
-			this.page = 1;
-		}
+	public record Params(User user, TextChannel channel, WeatherCity weatherCity, boolean[] queries) implements BotThread.Params {
 	}
 
 	/**
 	 *
-	 * Passer à la page précédente.
+	 * Cette classe représente la pagination des prévisions propre à une
+	 * exécution du thread.
+	 *
+	 * @author torpill40
 	 *
 	 */
-	private void prev() {
 
-		this.page--;
-		if (this.page < 1) {
+	private static class Pager {
+
+		private int page = 1;
+		private final int numberOfPage;
+
+		/**
+		 *
+		 * Constructeur de la classe <code>Pager</code>.
+		 *
+		 * @param numberOfPage
+		 *            : nombre de pages.
+		 */
+		private Pager(final int numberOfPage) {
+
+			this.numberOfPage = numberOfPage;
+		}
+
+		/**
+		 *
+		 * Passer à la page suivante.
+		 *
+		 */
+		private void next() {
+
+			this.page++;
+			if (this.page > this.numberOfPage) {
+
+				this.page = 1;
+			}
+		}
+
+		/**
+		 *
+		 * Passer à la page précédente.
+		 *
+		 */
+		private void prev() {
+
+			this.page--;
+			if (this.page < 1) {
 
-			this.page = this.numberOfPage;
+				this.page = this.numberOfPage;
+			}
 		}
 	}
 }
@@ -0,0 +1,240 @@
+package com.torpill.fribot.util;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Cette classe représente l'échéance d'une exécution de commande. Les étapes
+ * longues vérifient l'échéance de manière coopérative : une fois dépassée, la
+ * vérification lève une <code>DeadlineException</code> qui interrompt le
+ * travail en cours. Une échéance peut aussi être annulée avant son terme, par
+ * exemple lors de l'arrêt du bot.<br />
+ * L'échéance de l'exécution en cours est attachée au thread qui l'exécute, ce
+ * qui permet aux utilitaires statiques (boucles de traitement d'image, API)
+ * de la vérifier sans la recevoir en paramètre.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.util.DeadlineException
+ *
+ */
+
+public final class Deadline {
+
+	public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+	private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+	private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+
+		final Thread thread = new Thread(runnable, "Deadline");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+
+		Deadline.TIMER.setRemoveOnCancelPolicy(true);
+	}
+
+	private final long expiresAt;
+	private final Queue<RunnableScheduledFuture<?>> actions = new ConcurrentLinkedQueue<>();
+	private volatile boolean cancelled = false;
+
+	private Deadline(final long expiresAt) {
+
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 *
+	 * Créer une échéance.
+	 *
+	 * @param timeout
+	 *            : durée avant l'échéance.
+	 * @param unit
+	 *            : unité de la durée.
+	 * @return échéance
+	 */
+	public static Deadline in(final long timeout, final TimeUnit unit) {
+
+		return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+	}
+
+	/**
+	 *
+	 * Récupérer l'échéance de l'exécution en cours sur ce thread.
+	 *
+	 * @return échéance, {@link #NONE} si aucune échéance n'est attachée
+	 */
+	public static Deadline current() {
+
+		final Deadline deadline = Deadline.CURRENT.get();
+		return deadline == null ? Deadline.NONE : deadline;
+	}
+
+	/**
+	 *
+	 * Vérifier l'échéance de l'exécution en cours sur ce thread.
+	 *
+	 * @throws DeadlineException
+	 *             si l'échéance est dépassée.
+	 */
+	public static void check() {
+
+		final Deadline deadline = Deadline.CURRENT.get();
+		if (deadline != null) deadline.verify();
+	}
+
+	/**
+	 *
+	 * Attacher l'échéance au thread courant. L'échéance précédente est restaurée
+	 * à la fermeture de la portée.
+	 *
+	 * @return portée de l'échéance
+	 */
+	public Scope enter() {
+
+		final Deadline previous = Deadline.CURRENT.get();
+		Deadline.CURRENT.set(this);
+		return () -> {
+
+			if (previous == null) Deadline.CURRENT.remove();
+			else Deadline.CURRENT.set(previous);
+		};
+	}
+
+	/**
+	 *
+	 * Vérifier l'échéance.
+	 *
+	 * @throws DeadlineException
+	 *             si l'échéance est dépassée.
+	 */
+	public void verify() {
+
+		if (this.isExpired()) throw new DeadlineException();
+	}
+
+	/**
+	 *
+	 * Savoir si l'échéance est dépassée.
+	 *
+	 * @return booléen
+	 */
+	public boolean isExpired() {
+
+		return this.cancelled || this != Deadline.NONE && System.nanoTime() - this.expiresAt >= 0;
+	}
+
+	/**
+	 *
+	 * Savoir si l'échéance a été annulée avant son terme.
+	 *
+	 * @return booléen
+	 */
+	public boolean isCancelled() {
+
+		return this.cancelled;
+	}
+
+	/**
+	 *
+	 * Annuler l'échéance : elle est immédiatement considérée comme dépassée et
+	 * les actions programmées à l'échéance sont exécutées.
+	 *
+	 */
+	public void cancel() {
+
+		if (this == Deadline.NONE) return;
+
+		this.cancelled = true;
+		RunnableScheduledFuture<?> action;
+		while ((action = this.actions.poll()) != null) {
+
+			action.run();
+			Deadline.TIMER.remove(action);
+		}
+	}
+
+	/**
+	 *
+	 * Récupérer le temps restant avant l'échéance.
+	 *
+	 * @return temps restant en millisecondes, {@link Long#MAX_VALUE} sans échéance
+	 */
+	public long remainingMillis() {
+
+		if (this == Deadline.NONE) return Long.MAX_VALUE;
+		if (this.cancelled) return 0;
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(this.expiresAt - System.nanoTime()));
+	}
+
+	/**
+	 *
+	 * Exécuter une action à l'échéance ou à son annulation, par exemple pour
+	 * interrompre un processus externe. L'action est exécutée au plus une fois.
+	 *
+	 * @param action
+	 *            : action à exécuter.
+	 * @return action programmée, à annuler si le travail se termine avant
+	 *         l'échéance : elle est alors retirée du minuteur
+	 */
+	public Future<?> onExpiry(final Runnable action) {
+
+		if (this == Deadline.NONE) return CompletableFuture.completedFuture(null);
+
+		final RunnableScheduledFuture<?> scheduled = (RunnableScheduledFuture<?>) Deadline.TIMER.schedule(action, this.expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+		this.actions.removeIf(Future::isDone);
+		this.actions.add(scheduled);
+		if (this.cancelled) this.cancel();
+		return scheduled;
+	}
+
+	/**
+	 *
+	 * Borner une étape de calcul asynchrone par l'échéance. Si l'étape n'est pas
+	 * complétée à temps ou si l'échéance est annulée, elle échoue avec une
+	 * <code>DeadlineException</code>.
+	 *
+	 * @param <T>
+	 *            : type du résultat de l'étape.
+	 * @param stage
+	 *            : étape de calcul.
+	 * @return étape bornée
+	 */
+	public <T> CompletableFuture<T> bound(final CompletionStage<T> stage) {
+
+		if (this == Deadline.NONE) return stage.toCompletableFuture();
+
+		final CompletableFuture<T> bounded = new CompletableFuture<>();
+		stage.whenComplete((result, error) -> {
+
+			if (error != null) bounded.completeExceptionally(error);
+			else bounded.complete(result);
+		});
+		final Future<?> expiry = this.onExpiry(() -> bounded.completeExceptionally(new DeadlineException()));
+		bounded.whenComplete((result, error) -> expiry.cancel(false));
+		return bounded;
+	}
+
+	/**
+	 *
+	 * Cette interface représente la portée d'une échéance attachée à un thread.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	public interface Scope extends AutoCloseable {
+
+		@Override
+		void close();
+	}
+}
@@ -0,0 +1,29 @@
+package com.torpill.fribot.util;
+
+/**
+ *
+ * Exception levée lorsque l'échéance d'une exécution est dépassée.
+ *
+ * @author torpill40
+ *
+ * @see com.torpill.fribot.util.Deadline
+ * @see java.lang.RuntimeException
+ *
+ */
+
+public class DeadlineException extends RuntimeException {
+
+	private static final long serialVersionUID = -2310758946182371365L;
+
+	public static final String EXPIRED = "Échéance dépassée.";
+
+	/**
+	 *
+	 * Constructeur de la classe <code>DeadlineException</code>.
+	 *
+	 */
+	public DeadlineException() {
+
+		super(DeadlineException.EXPIRED);
+	}
+}
@@ -16,11 +16,13 @@ import com.torpill.fribot.util.math.Vector4f;
 
 /**
  *
- * Cette classe permet de manipuler des images.
+ * Cette classe permet de manipuler des images. Les parcours de pixels
+ * vérifient l'échéance de l'exécution en cours à chaque colonne.
  *
  * @author torpill40
  *
  * @see java.awt.image.BufferedImage
+ * @see com.torpill.fribot.util.Deadline
  *
  */
 public class ImageProcessor {
@@ -57,6 +59,7 @@ public class ImageProcessor {
 		final int pixels[] = ((DataBufferInt) res.getRaster().getDataBuffer()).getData();
 		for (int i = 0; i < width; i++) {
 
+			Deadline.check();
 			for (int j = 0; j < height; j++) {
 
 				final int pix = i + j * width;
@@ -130,6 +133,7 @@ public class ImageProcessor {
 		final BufferedImage res = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
 		for (int i = 0; i < source.getWidth(); i++) {
 
+			Deadline.check();
 			for (int j = 0; j < source.getHeight(); j++) {
 
 				final double[] weightsRed = new double[radius * radius];
@@ -217,6 +221,7 @@ public class ImageProcessor {
 		final int pixels[] = ((DataBufferInt) res.getRaster().getDataBuffer()).getData();
 		for (int i = 0; i < width; i++) {
 
+			Deadline.check();
 			for (int j = 0; j < height; j++) {
 
 				final int pix = i + j * width;
@@ -269,6 +274,7 @@ public class ImageProcessor {
 		final int pixels[] = ((DataBufferInt) res.getRaster().getDataBuffer()).getData();
 		for (int i = 0; i < width; i++) {
 
+			Deadline.check();
 			for (int j = 0; j < height; j++) {
 
 				final int pix = i + j * width;
@@ -425,6 +431,7 @@ public class ImageProcessor {
 		final int pixels[] = ((DataBufferInt) res.getRaster().getDataBuffer()).getData();
 		for (int i = 0; i < width; i++) {
 
+			Deadline.check();
 			for (int j = 0; j < height; j++) {
 
 				final int pix = i + j * width;
@@ -490,6 +497,7 @@ public class ImageProcessor {
 		final int pixels[] = ((DataBufferInt) res.getRaster().getDataBuffer()).getData();
 		for (int i = 0; i < width; i++) {
 
+			Deadline.check();
 			for (int j = 0; j < height; j++) {
 
 				final int pix = i + j * width;
@@ -543,6 +551,7 @@ public class ImageProcessor {
 		final int pixels[] = ((DataBufferInt) res.getRaster().getDataBuffer()).getData();
 		for (int i = 0; i < width; i++) {
 
+			Deadline.check();
 			for (int j = 0; j < height; j++) {
 
 				final int pix = i + j * width;
@@ -618,6 +627,7 @@ public class ImageProcessor {
 
 		for (float i = 0; i < width; i += accuracy) {
 
+			Deadline.check();
 			for (float j = 0; j < height; j += accuracy) {
 
 				final float wxa = (width - i) / width;
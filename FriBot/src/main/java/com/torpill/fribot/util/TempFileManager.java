@@ -1,8 +1,9 @@
 package com.torpill.fribot.util;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.torpill.fribot.App;
 
@@ -10,18 +11,22 @@ public class TempFileManager {
 
 	private final String TEMP_PATH = App.SRC + "/temp/";
 	private final File TEMP_FILE = new File(this.TEMP_PATH);
-	private final Map<Long, Map<String, File>> allTempFiles = new HashMap<>();
+	private final Map<Long, Map<String, File>> allTempFiles = new ConcurrentHashMap<>();
+	private final AtomicLong nextId = new AtomicLong(System.currentTimeMillis());
 
 	public long createInstance() {
 
-		final long id = System.currentTimeMillis();
-		this.allTempFiles.put(id, new HashMap<>());
+		final long id = this.nextId.getAndIncrement();
+		this.allTempFiles.put(id, new ConcurrentHashMap<>());
 		return id;
 	}
 
 	public void addFile(final long id, final String key, final String file) {
 
-		if (!this.TEMP_FILE.exists()) this.TEMP_FILE.mkdir();
+		synchronized (this.TEMP_FILE) {
+
+			if (!this.TEMP_FILE.exists()) this.TEMP_FILE.mkdir();
+		}
 		final File temp = new File(this.TEMP_PATH + file);
 		final Map<String, File> tempFiles = this.allTempFiles.get(id);
 		tempFiles.putIfAbsent(key, temp);
@@ -40,10 +45,26 @@ public class TempFileManager {
 
 	public void deleteAll(final long id) {
 
-		final Map<String, File> tempFiles = this.allTempFiles.get(id);
+		final Map<String, File> tempFiles = this.allTempFiles.remove(id);
+		if (tempFiles == null) return;
 		tempFiles.forEach((key, file) -> file.delete());
 		tempFiles.clear();
-		this.allTempFiles.remove(id);
-		if (this.TEMP_FILE.list().length == 0) this.TEMP_FILE.delete();
+		synchronized (this.TEMP_FILE) {
+
+			final String[] files = this.TEMP_FILE.list();
+			if (files != null && files.length == 0) this.TEMP_FILE.delete();
+		}
+	}
+
+	public int deleteAllInstances() {
+
+		int deleted = 0;
+		for (final Long id : this.allTempFiles.keySet()) {
+
+			final Map<String, File> tempFiles = this.allTempFiles.get(id);
+			if (tempFiles != null) deleted += (int) tempFiles.values().stream().filter(File::exists).count();
+			this.deleteAll(id);
+		}
+		return deleted;
 	}
 }
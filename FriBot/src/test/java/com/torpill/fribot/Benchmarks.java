@@ -0,0 +1,258 @@
+package com.torpill.fribot;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import javax.script.ScriptException;
+
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+
+import com.torpill.fribot.commands.ArgumentTokenizer;
+import com.torpill.fribot.commands.ArgumentTokenizerTest;
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.JSONTemplate;
+import com.torpill.fribot.commands.JSONTemplateTest;
+import com.torpill.fribot.commands.ParsedArguments;
+import com.torpill.fribot.listeners.MessageFilter;
+import com.torpill.fribot.threads.BotTask;
+import com.torpill.fribot.threads.CommandThread;
+
+/**
+ *
+ * Cette classe regroupe les micro-benchmarks du bot. Ils ne sont pas lancés
+ * par les tests unitaires : chaque mesure affiche le temps et le nombre
+ * d'octets alloués par opération, en comparant si possible l'ancienne
+ * implémentation à la nouvelle.<br />
+ * Lancement, depuis le dossier du projet :
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) com.torpill.fribot.Benchmarks [benchmark...]
+ * </pre>
+ *
+ * @author torpill40
+ *
+ */
+
+public class Benchmarks {
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private static final int ROUNDS = 5;
+	private static final Map<String, Runnable> BENCHMARKS = new LinkedHashMap<>();
+
+	static {
+
+		Benchmarks.BENCHMARKS.put("filter", Benchmarks::filter);
+		Benchmarks.BENCHMARKS.put("task", Benchmarks::task);
+		Benchmarks.BENCHMARKS.put("tokenizer", Benchmarks::tokenizer);
+		Benchmarks.BENCHMARKS.put("template", Benchmarks::template);
+	}
+
+	private static volatile Object sink;
+
+	/**
+	 *
+	 * Lancer les micro-benchmarks.
+	 *
+	 * @param args
+	 *            : noms des benchmarks à lancer, tous si aucun n'est donné.
+	 */
+	public static void main(final String[] args) {
+
+		final List<String> names = args.length == 0 ? List.copyOf(Benchmarks.BENCHMARKS.keySet()) : Arrays.asList(args);
+		for (final String name : names) {
+
+			final Runnable benchmark = Benchmarks.BENCHMARKS.get(name);
+			if (benchmark == null) System.err.println("Benchmark inconnu : " + name + ", parmi " + Benchmarks.BENCHMARKS.keySet() + ".");
+			else benchmark.run();
+		}
+	}
+
+	/**
+	 *
+	 * Mesurer une opération. Les premiers tours servent à chauffer le JIT, seul
+	 * le dernier est mesuré.
+	 *
+	 * @param name
+	 *            : nom de la mesure.
+	 * @param iterations
+	 *            : nombre d'opérations par tour.
+	 * @param operation
+	 *            : opération à mesurer, recevant son numéro d'itération.
+	 */
+	private static void measure(final String name, final int iterations, final IntFunction<?> operation) {
+
+		final long thread = Thread.currentThread().threadId();
+		long time = 0L, allocated = 0L;
+		for (int round = 0; round < Benchmarks.ROUNDS; round++) {
+
+			final long bytes = Benchmarks.THREADS.getThreadAllocatedBytes(thread);
+			final long start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) Benchmarks.sink = operation.apply(i);
+			time = System.nanoTime() - start;
+			allocated = Benchmarks.THREADS.getThreadAllocatedBytes(thread) - bytes;
+		}
+
+		System.out.printf("%-40s %12.1f ns/op %12.1f octets/op%n", name, (double) time / iterations, (double) allocated / iterations);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(final Class<T> type) {
+
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {
+				type
+		}, (proxy, method, args) -> null);
+	}
+
+	private static void filter() {
+
+		final MessageFilter filter = new MessageFilter("?:", 1234L);
+		final String[] messages = {
+				"salut tout le monde !", "<@1234> tu viens ?", "? pas une commande", "<:emoji:1234>", "lol"
+		};
+
+		Benchmarks.measure("MessageFilter, message ignoré", 1_000_000, i -> filter.match(messages[i % messages.length]));
+	}
+
+	private static void task() {
+
+		final User user = Benchmarks.proxy(User.class);
+		final TextChannel channel = Benchmarks.proxy(TextChannel.class);
+		final Message message = Benchmarks.proxy(Message.class);
+		final Server server = Benchmarks.proxy(Server.class);
+		final CommandThread thread = new CommandThread(null);
+		final LegacyThread legacy = new LegacyThread();
+
+		Benchmarks.measure("BotThread, clone() + setArgs", 2_000_000, i -> {
+
+			try {
+
+				final LegacyThread target = legacy.clone();
+				return target.setArgs(user, channel, message, server, "help", new String[] {
+						"help"
+				});
+
+			} catch (final CloneNotSupportedException e) {
+
+				throw new IllegalStateException(e);
+			}
+		});
+		Benchmarks.measure("BotTask, new Params + new BotTask", 2_000_000, i -> new BotTask<>(thread, new CommandThread.Params(user, channel, message, server, "help", "?:help")));
+	}
+
+	private static void tokenizer() {
+
+		final StringBuilder builder = new StringBuilder("?:cmd");
+		for (int i = 0; i < 200; i++) builder.append(" \"argument ").append(i).append(" \\\"cité\\\"\" mot");
+		final String content = builder.toString();
+
+		Benchmarks.measure("Guillemets, split + legacyQuote", 2_000, i -> ArgumentTokenizerTest.legacyQuote(ArgumentTokenizerTest.split(content)));
+		Benchmarks.measure("Guillemets, ArgumentTokenizer", 2_000, i -> new ArgumentTokenizer(content, 2).quote());
+	}
+
+	private static void template() {
+
+		final User user = (User) Proxy.newProxyInstance(User.class.getClassLoader(), new Class<?>[] {
+				User.class
+		}, (proxy, method, args) -> method.getName().equals("getMentionTag") ? "<@42>" : null);
+		final ParsedArguments none = new ParsedArguments(Command.ArgumentType.NONE, new String[0], null);
+		final ParsedArguments raw = new ParsedArguments(Command.ArgumentType.RAW, new ArgumentTokenizer("suspense Pomme de terre, escargot.", 0).raw(), null);
+		final String hello = "Hello ${user.mention}$ !", suspense = "${arg:0:*}$";
+		final JSONTemplate helloTemplate = JSONTemplate.compile(hello, "hello", Command.ArgumentType.NONE);
+		final JSONTemplate suspenseTemplate = JSONTemplate.compile(suspense, "suspense", Command.ArgumentType.RAW);
+
+		Benchmarks.measure("hello, expressions régulières", 2_000, i -> JSONTemplateTest.legacyFormat(hello, "?:", "hello", Command.ArgumentType.NONE, none, user));
+		Benchmarks.measure("hello, JSONTemplate", 1_000_000, i -> Benchmarks.render(helloTemplate, none, user));
+		Benchmarks.measure("suspense, expressions régulières", 2_000, i -> JSONTemplateTest.legacyFormat(suspense, "?:", "suspense", Command.ArgumentType.RAW, raw, user));
+		Benchmarks.measure("suspense, JSONTemplate", 1_000_000, i -> Benchmarks.render(suspenseTemplate, raw, user));
+
+		final ParsedArguments key = new ParsedArguments(Command.ArgumentType.KEY, new ArgumentTokenizer("__json Jean --status bien", 0).key(), null);
+		final JSONTemplate keyTemplate = JSONTemplate.compile("${arg:name|$[arg:%|Albert]$}$", "__json", Command.ArgumentType.KEY);
+		final JSONTemplate calcTemplate = JSONTemplate.compile("$(eval:$[arg:0:*]$)$", "calc", Command.ArgumentType.RAW);
+		final ParsedArguments calc = new ParsedArguments(Command.ArgumentType.RAW, new ArgumentTokenizer("calc 5 + 6 / 2", 0).raw(), null);
+
+		Benchmarks.measure("__json, JSONTemplate", 1_000_000, i -> Benchmarks.render(keyTemplate, key, user));
+		Benchmarks.measure("calc, JSONTemplate", 2_000, i -> Benchmarks.render(calcTemplate, calc, user));
+	}
+
+	private static String render(final JSONTemplate template, final ParsedArguments args, final User user) {
+
+		try {
+
+			return template.render("?:", args, user);
+
+		} catch (final ScriptException e) {
+
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 *
+	 * Cette classe reproduit la préparation d'un thread avant les paramètres
+	 * typés : le thread enregistré était cloné, puis ses arguments vérifiés par
+	 * réflexion avant d'être attribués.
+	 *
+	 * @author torpill40
+	 *
+	 */
+
+	private static class LegacyThread implements Cloneable {
+
+		private Object[] args = null;
+
+		private List<? extends Class<?>> args() {
+
+			return List.of(User.class, TextChannel.class, Message.class, Server.class, String.class, String[].class);
+		}
+
+		@Override
+		public LegacyThread clone() throws CloneNotSupportedException {
+
+			return (LegacyThread) super.clone();
+		}
+
+		private int checkArgs(final Object... args) {
+
+			final List<?> needed = this.args();
+			if (args.length != needed.size()) {
+
+				App.LOGGER.debug("'Command' " + args.length + " arguments au lieu de " + needed.size());
+				return 1;
+			}
+
+			for (int i = 0; i < args.length; i++) {
+
+				final boolean isSame = args[i].getClass() == needed.get(i);
+				final boolean isAssignable = ((Class<?>) needed.get(i)).isAssignableFrom(args[i].getClass());
+				if (!isSame && !isAssignable) {
+
+					App.LOGGER.debug("'Command' '" + args[i].getClass() + "' ne correspond pas au paramètre attendu '" + needed.get(i) + "'");
+					return 2;
+				}
+			}
+
+			return 0;
+		}
+
+		private int setArgs(final Object... args) {
+
+			final int response = this.checkArgs(args);
+			if (response == 0) {
+
+				App.LOGGER.debug("'Command' paramètre enregistré avec succès.");
+				this.args = args;
+			}
+
+			return response;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.torpill.fribot.bot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests du cache des décisions d'accès aux commandes.
+ *
+ * @author torpill40
+ *
+ */
+
+public class AccessCacheTest {
+
+	@Test
+	public void shouldEvaluateOncePerUserAndCommand() {
+
+		final AccessCache cache = new AccessCache();
+		final AtomicInteger evaluations = new AtomicInteger();
+
+		assertFalse(cache.isAllowed(1L, 10L, "help", () -> evaluations.incrementAndGet() < 0));
+		assertFalse(cache.isAllowed(1L, 10L, "help", () -> evaluations.incrementAndGet() < 0));
+		assertTrue(cache.isAllowed(1L, 10L, "info", () -> evaluations.incrementAndGet() > 0));
+		assertTrue(cache.isAllowed(2L, 10L, "info", () -> evaluations.incrementAndGet() > 0));
+
+		assertEquals(3, evaluations.get());
+		assertEquals(1L, cache.getHits());
+	}
+
+	@Test
+	public void shouldForgetInvalidatedDecisions() {
+
+		final AccessCache cache = new AccessCache();
+
+		cache.isAllowed(1L, 10L, "help", () -> false);
+		cache.isAllowed(1L, 20L, "help", () -> false);
+		cache.isAllowed(2L, 10L, "help", () -> false);
+
+		cache.invalidate(1L, 10L);
+		assertTrue(cache.isAllowed(1L, 10L, "help", () -> true));
+		assertFalse(cache.isAllowed(1L, 20L, "help", () -> true));
+
+		cache.invalidate(1L);
+		assertTrue(cache.isAllowed(1L, 20L, "help", () -> true));
+		assertFalse(cache.isAllowed(2L, 10L, "help", () -> true));
+
+		cache.clear();
+		assertTrue(cache.isAllowed(2L, 10L, "help", () -> true));
+	}
+
+	@Test
+	public void shouldNotKeepDecisionsInvalidatedDuringEvaluation() {
+
+		final AccessCache cache = new AccessCache();
+
+		assertFalse(cache.isAllowed(1L, 10L, "help", () -> {
+
+			cache.invalidate(1L, 10L);
+			return false;
+		}));
+		assertTrue(cache.isAllowed(1L, 10L, "help", () -> true));
+
+		assertFalse(cache.isAllowed(1L, 20L, "help", () -> {
+
+			cache.invalidate(1L);
+			return false;
+		}));
+		assertTrue(cache.isAllowed(1L, 20L, "help", () -> true));
+	}
+
+	@Test
+	public void shouldForgetLeastRecentlyUsedMembers() {
+
+		final AccessCache cache = new AccessCache(2);
+
+		cache.isAllowed(1L, 10L, "help", () -> false);
+		cache.isAllowed(1L, 20L, "help", () -> false);
+		assertFalse(cache.isAllowed(1L, 10L, "help", () -> true));
+		cache.isAllowed(1L, 30L, "help", () -> false);
+
+		assertEquals(2, cache.size());
+		assertFalse(cache.isAllowed(1L, 10L, "help", () -> true));
+		assertTrue(cache.isAllowed(1L, 20L, "help", () -> true));
+	}
+}
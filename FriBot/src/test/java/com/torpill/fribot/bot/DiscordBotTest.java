@@ -0,0 +1,164 @@
+package com.torpill.fribot.bot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.user.User;
+import org.junit.Test;
+
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.limits.CoDel;
+import com.torpill.fribot.threads.BotExecutor;
+import com.torpill.fribot.threads.Watchdog;
+import com.torpill.fribot.util.Deadline;
+
+/**
+ *
+ * Tests du drainage des commandes en cours lors de l'arrêt du bot et du
+ * rafraîchissement de son identité.
+ *
+ * @author torpill40
+ *
+ */
+
+public class DiscordBotTest {
+
+	private DiscordBot bot(final long drainTimeout) {
+
+		final Map<Command.Cost, Integer> workers = new EnumMap<>(Command.Cost.class);
+		final Map<Command.Cost, CoDel> admission = new EnumMap<>(Command.Cost.class);
+		for (final Command.Cost cost : Command.Cost.values()) {
+
+			workers.put(cost, 1);
+			admission.put(cost, new CoDel(60_000L, 60_000L));
+		}
+		return new DiscordBot("?:", Color.WHITE, "membre", "dev").executor(new BotExecutor(workers, 1, admission, Collections.emptyMap(), false)).drainTimeout(drainTimeout).watchdog(new Watchdog(0.5, 3, 60_000L));
+	}
+
+	private static User user(final long id) {
+
+		return (User) Proxy.newProxyInstance(User.class.getClassLoader(), new Class<?>[] {
+				User.class
+		}, (proxy, method, args) -> method.getName().equals("getId") ? id : null);
+	}
+
+	private static DiscordApi api(final User self, final AtomicReference<CompletableFuture<User>> owner) {
+
+		return (DiscordApi) Proxy.newProxyInstance(DiscordApi.class.getClassLoader(), new Class<?>[] {
+				DiscordApi.class
+		}, (proxy, method, args) -> {
+
+			switch (method.getName()) {
+
+			case "getOwner":
+				return owner.get();
+
+			case "getYourself":
+				return self;
+
+			default:
+				return null;
+			}
+		});
+	}
+
+	private static void awaitOwner(final DiscordBot bot, final User owner) throws InterruptedException {
+
+		final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (bot.getIdentity().getOwner() != owner && System.nanoTime() < end) Thread.sleep(5);
+	}
+
+	@Test
+	public void shouldRefreshIdentityPeriodically() throws InterruptedException {
+
+		final User self = DiscordBotTest.user(1L), first = DiscordBotTest.user(2L), second = DiscordBotTest.user(3L);
+		final AtomicReference<CompletableFuture<User>> owner = new AtomicReference<>(CompletableFuture.completedFuture(first));
+		final DiscordBot bot = this.bot(100L).identityRefresh(20L).api(DiscordBotTest.api(self, owner));
+
+		final Identity identity = bot.getIdentity();
+		assertSame(first, identity.getOwner());
+		assertSame(self, identity.getSelf());
+		assertEquals(0L, identity.getUserRole());
+
+		owner.set(CompletableFuture.completedFuture(second));
+		DiscordBotTest.awaitOwner(bot, second);
+		assertSame(second, bot.getIdentity().getOwner());
+		bot.shutdown();
+	}
+
+	@Test
+	public void shouldKeepIdentityWhenRefreshFails() {
+
+		final User self = DiscordBotTest.user(1L), first = DiscordBotTest.user(2L);
+		final AtomicReference<CompletableFuture<User>> owner = new AtomicReference<>(CompletableFuture.failedFuture(new IllegalStateException("hors ligne")));
+		final DiscordBot bot = this.bot(100L).identityRefresh(60_000L).api(DiscordBotTest.api(self, owner));
+
+		assertNull(bot.getIdentity().getOwner());
+		assertSame(self, bot.getIdentity().getSelf());
+
+		owner.set(CompletableFuture.completedFuture(first));
+		final Identity identity = bot.refreshIdentity().join();
+		assertSame(first, identity.getOwner());
+
+		owner.set(CompletableFuture.failedFuture(new IllegalStateException("hors ligne")));
+		assertSame(identity, bot.refreshIdentity().join());
+		assertSame(identity, bot.getIdentity());
+		bot.shutdown();
+	}
+
+	@Test
+	public void shouldWaitForCommandsFinishingWithinDrain() {
+
+		final DiscordBot bot = this.bot(5_000L);
+		final CompletableFuture<Integer> command = new CompletableFuture<>();
+		final Deadline deadline = Deadline.in(1, TimeUnit.MINUTES);
+		bot.track(command, deadline);
+		new Thread(() -> {
+
+			try {
+
+				Thread.sleep(100L);
+
+			} catch (final InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+			}
+			command.complete(0);
+		}).start();
+
+		final long start = System.nanoTime();
+		bot.shutdown();
+
+		assertTrue(bot.isDraining());
+		assertTrue(command.isDone());
+		assertFalse(deadline.isCancelled());
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+	}
+
+	@Test
+	public void shouldCancelCommandsLeftAfterDrain() {
+
+		final DiscordBot bot = this.bot(100L);
+		final Deadline deadline = Deadline.in(1, TimeUnit.MINUTES);
+		final CompletableFuture<Integer> command = deadline.bound(new CompletableFuture<Integer>());
+		bot.track(command, deadline);
+
+		bot.shutdown();
+
+		assertTrue(deadline.isCancelled());
+		assertTrue(command.isCompletedExceptionally());
+	}
+}
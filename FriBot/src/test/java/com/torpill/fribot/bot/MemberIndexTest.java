@@ -0,0 +1,118 @@
+package com.torpill.fribot.bot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests de l'index des membres d'un serveur.
+ *
+ * @author torpill40
+ *
+ */
+
+public class MemberIndexTest {
+
+	@Test
+	public void shouldFindMembersIgnoringCase() {
+
+		final MemberIndex index = new MemberIndex();
+		index.put(1L, "Torpill", "torpill40", "torpill40#1234");
+		index.put(2L, "torpill", "other", "other#0001");
+
+		assertArrayEquals(new long[] {
+				1L, 2L
+		}, index.findByDisplayName("TORPILL"));
+		assertArrayEquals(new long[] {
+				1L
+		}, index.findByName("Torpill40"));
+		assertArrayEquals(new long[] {
+				2L
+		}, index.findByDiscriminatedName("Other#0001"));
+		assertEquals(0, index.findByName("unknown").length);
+	}
+
+	@Test
+	public void shouldReplaceNamesOnUpdate() {
+
+		final MemberIndex index = new MemberIndex();
+		index.put(1L, "Torpill", "torpill40", "torpill40#1234");
+		index.put(1L, "Fri", "torpill40", "torpill40#1234");
+
+		assertEquals(0, index.findByDisplayName("Torpill").length);
+		assertArrayEquals(new long[] {
+				1L
+		}, index.findByDisplayName("fri"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	public void shouldForgetRemovedMembers() {
+
+		final MemberIndex index = new MemberIndex();
+		index.put(1L, "Torpill", "torpill40", "torpill40#1234");
+		index.remove(1L);
+		index.remove(1L);
+
+		assertEquals(0, index.findByDisplayName("Torpill").length);
+		assertEquals(0, index.findByDiscriminatedName("torpill40#1234").length);
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	public void shouldFindMembersByPrefix() {
+
+		final MemberIndex index = new MemberIndex();
+		index.put(1L, "Jean-Mi", "jeanmichel", "jeanmichel#0001");
+		index.put(2L, "Jeanne", "jeanne", "jeanne#0002");
+		index.put(3L, "Paul", "paul", "paul#0003");
+
+		assertArrayEquals(new long[] {
+				1L, 2L
+		}, index.findByPrefix("JEAN", 10));
+		assertArrayEquals(new long[] {
+				1L
+		}, index.findByPrefix("jean-", 10));
+		assertEquals(1, index.findByPrefix("jean", 1).length);
+		assertEquals(0, index.findByPrefix("pierre", 10).length);
+	}
+
+	@Test
+	public void shouldRankPrefixesBeforeSimilarNames() {
+
+		final MemberIndex index = new MemberIndex();
+		index.put(1L, "Jean-Mi", "jeanmichel", "jeanmichel#0001");
+		index.put(2L, "Jea", "jea", "jea#0002");
+		index.put(3L, "Jan", "jan", "jan#0003");
+		index.put(4L, "Paul", "paul", "paul#0004");
+
+		assertArrayEquals(new long[] {
+				2L, 1L
+		}, index.search("jea", 10));
+		assertEquals(1L, index.search("jeanmichal", 10)[0]);
+		assertEquals(0, index.search("xyz", 10).length);
+	}
+
+	@Test
+	public void shouldFindMembersInLargeServer() {
+
+		final Random random = new Random(40);
+		final String consonants = "bcdfghjklmnprstvz", vowels = "aeiouy";
+		final MemberIndex index = new MemberIndex();
+		final int members = 50_000;
+		for (int i = 0; i < members; i++) {
+
+			final StringBuilder name = new StringBuilder();
+			for (int j = 2 + random.nextInt(4); j > 0; j--) name.append(consonants.charAt(random.nextInt(consonants.length()))).append(vowels.charAt(random.nextInt(vowels.length())));
+			if (random.nextBoolean()) name.append(random.nextInt(100));
+			index.put(i, name.toString(), name.toString() + "_" + i, name.toString() + "_" + i + "#" + (1000 + i % 9000));
+		}
+		index.put(members, "Jean-Mi", "jeanmichel", "jeanmichel#0001");
+
+		assertEquals(members, index.search("jeanmi", 10)[0]);
+	}
+}
@@ -0,0 +1,170 @@
+package com.torpill.fribot.bot;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.entity.permission.Permissions;
+import org.javacord.api.entity.permission.Role;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.junit.Test;
+
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.commands.CommandContext;
+import com.torpill.fribot.commands.ParsedArguments;
+
+/**
+ *
+ * Tests des règles d'accès compilées des commandes.
+ *
+ * @author torpill40
+ *
+ */
+
+public class PermissionPolicyTest {
+
+	private final AtomicInteger resolved = new AtomicInteger();
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {
+				type
+		}, handler);
+	}
+
+	private static User user(final long id) {
+
+		return PermissionPolicyTest.proxy(User.class, (proxy, method, args) -> method.getName().equals("getId") ? id : null);
+	}
+
+	private Server server(final long owner, final int bitmask, final long member) {
+
+		final Role role = PermissionPolicyTest.proxy(Role.class, (proxy, method, args) -> method.getName().equals("hasUser") ? ((User) args[0]).getId() == member : null);
+		final Permissions permissions = PermissionPolicyTest.proxy(Permissions.class, (proxy, method, args) -> method.getName().equals("getAllowedBitmask") ? bitmask : null);
+		return PermissionPolicyTest.proxy(Server.class, (proxy, method, args) -> {
+
+			switch (method.getName()) {
+
+			case "getId":
+				return 1L;
+
+			case "isOwner":
+				return ((User) args[0]).getId() == owner;
+
+			case "getPermissions":
+				return permissions;
+
+			case "getRoleById":
+				this.resolved.incrementAndGet();
+				return (long) args[0] == 20L ? Optional.of(role) : Optional.empty();
+
+			default:
+				return null;
+			}
+		});
+	}
+
+	@Test
+	public void shouldResolveAliasesAndIgnoreInvalidIds() {
+
+		final PermissionPolicy policy = new PermissionPolicy(new Rules(Arrays.asList("12", "user-role", "pas-un-id", "dev-role"), null, null, null), "7", null);
+
+		assertEquals(1, policy.onWhitelist(PermissionPolicyTest.user(12L)));
+		assertEquals(1, policy.onWhitelist(PermissionPolicyTest.user(7L)));
+		assertEquals(0, policy.onWhitelist(PermissionPolicyTest.user(3L)));
+		assertEquals(-1, policy.onBlacklist(PermissionPolicyTest.user(12L)));
+	}
+
+	@Test
+	public void shouldRequireEveryPermissionEvenFromTheOwner() {
+
+		final PermissionPolicy policy = new PermissionPolicy(new Rules(null, null, null, Arrays.asList(PermissionType.MANAGE_MESSAGES, PermissionType.KICK_MEMBERS)), null, null);
+		final User owner = PermissionPolicyTest.user(1L);
+		final int both = PermissionType.MANAGE_MESSAGES.getValue() | PermissionType.KICK_MEMBERS.getValue();
+
+		assertEquals(0, policy.canUse(new CommandContext(null, owner, null, null, this.server(1L, PermissionType.MANAGE_MESSAGES.getValue(), 0L))));
+		assertEquals(1, policy.canUse(new CommandContext(null, owner, null, null, this.server(2L, both, 0L))));
+		assertEquals(-1, new PermissionPolicy(new Rules(null, null, null, null), null, null).canUse(new CommandContext(null, owner, null, null, this.server(1L, 0, 0L))));
+	}
+
+	@Test
+	public void shouldResolveRolesOnceUntilInvalidated() {
+
+		final PermissionPolicy policy = new PermissionPolicy(new Rules(null, Arrays.asList("20", "21"), null, null), null, null);
+		final Server server = this.server(0L, 0, 5L);
+
+		assertEquals(1, policy.onRoleWhitelist(PermissionPolicyTest.user(5L), server));
+		assertEquals(0, policy.onRoleWhitelist(PermissionPolicyTest.user(6L), server));
+		assertEquals(-1, policy.onRoleBlacklist(PermissionPolicyTest.user(5L), server));
+		assertEquals(2, this.resolved.get());
+
+		policy.invalidate(1L);
+		assertEquals(1, policy.onRoleWhitelist(PermissionPolicyTest.user(5L), server));
+		assertEquals(4, this.resolved.get());
+	}
+
+	private static class Rules extends Command {
+
+		private final List<String> usersWhiteList, rolesWhiteList, rolesBlackList;
+		private final List<PermissionType> permissions;
+
+		private Rules(final List<String> usersWhiteList, final List<String> rolesWhiteList, final List<String> rolesBlackList, final List<PermissionType> permissions) {
+
+			super("règles", Command.ArgumentType.NONE, Command.Category.UTILITY);
+			this.usersWhiteList = usersWhiteList;
+			this.rolesWhiteList = rolesWhiteList;
+			this.rolesBlackList = rolesBlackList;
+			this.permissions = permissions;
+		}
+
+		@Override
+		public String getHelp() {
+
+			return null;
+		}
+
+		@Override
+		public boolean deleteCommandUsage() {
+
+			return false;
+		}
+
+		@Override
+		public List<PermissionType> permissionNeeded() {
+
+			return this.permissions;
+		}
+
+		@Override
+		public List<String> usersWhiteList() {
+
+			return this.usersWhiteList;
+		}
+
+		@Override
+		public List<String> rolesWhiteList() {
+
+			return this.rolesWhiteList;
+		}
+
+		@Override
+		public List<String> rolesBlackList() {
+
+			return this.rolesBlackList;
+		}
+
+		@Override
+		public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.torpill.fribot.commands;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests du découpage des arguments, comparé à l'ancien découpage par
+ * <code>split</code>.
+ *
+ * @author torpill40
+ *
+ */
+
+public class ArgumentTokenizerTest {
+
+	private static final String PREFIX = "?:";
+
+	@Test
+	public void shouldParseEachArgumentType() {
+
+		assertArrayEquals(new String[] {
+				"cmd"
+		}, this.tokenizer("?:cmd a b").none());
+		assertArrayEquals(new String[] {
+				"a", "", "b"
+		}, this.tokenizer("?:cmd a  b\n").raw());
+		assertArrayEquals(new String[] {
+				"arg1", "arg2 \"arg3\""
+		}, this.tokenizer("?:cmd arg1 \"arg2 \\\"arg3\\\"\"").quote());
+		assertArrayEquals(new String[0], this.tokenizer("?:cmd   ").quote());
+	}
+
+	@Test
+	public void shouldMatchLegacyParsing() {
+
+		final Random random = new Random(42);
+		final char[] alphabet = {
+				'a', 'b', ' ', ' ', '"', '\\', '\n', '-'
+		};
+		for (int i = 0; i < 100_000; i++) {
+
+			final StringBuilder builder = new StringBuilder(ArgumentTokenizerTest.PREFIX + "cmd");
+			final int length = random.nextInt(16);
+			for (int j = 0; j < length; j++) builder.append(alphabet[random.nextInt(alphabet.length)]);
+			final String content = builder.toString();
+			final String[] args = ArgumentTokenizerTest.split(content);
+
+			assertArrayEquals(content, ArgumentTokenizerTest.legacyRaw(args), this.tokenizer(content).raw());
+			assertArrayEquals(content, ArgumentTokenizerTest.legacyQuote(args), this.tokenizer(content).quote());
+			assertArrayEquals(content, ArgumentTokenizerTest.legacyKey(args), this.tokenizer(content).key());
+		}
+	}
+
+	@Test
+	public void shouldMatchLegacyQuotingOnLongInput() {
+
+		final StringBuilder builder = new StringBuilder(ArgumentTokenizerTest.PREFIX + "cmd");
+		for (int i = 0; i < 200; i++) builder.append(" \"argument ").append(i).append(" \\\"cité\\\"\" mot");
+		final String content = builder.toString();
+
+		assertArrayEquals(ArgumentTokenizerTest.legacyQuote(ArgumentTokenizerTest.split(content)), this.tokenizer(content).quote());
+	}
+
+	private ArgumentTokenizer tokenizer(final String content) {
+
+		return new ArgumentTokenizer(content, ArgumentTokenizerTest.PREFIX.length());
+	}
+
+	/**
+	 *
+	 * Découper le contenu d'une commande comme l'ancien découpage.
+	 *
+	 * @param content
+	 *            : contenu du message, préfixe compris.
+	 * @return nom de la commande suivi de ses arguments
+	 */
+	public static String[] split(final String content) {
+
+		return content.substring(ArgumentTokenizerTest.PREFIX.length()).replace("\n", " ").split(" ");
+	}
+
+	private static String[] legacyRaw(final String args[]) {
+
+		final String[] raw = new String[args.length - 1];
+		for (int i = 0; i < raw.length; i++) raw[i] = args[i + 1];
+		return raw;
+	}
+
+	/**
+	 *
+	 * Regrouper les arguments entre guillemets comme l'ancien découpage.
+	 *
+	 * @param args
+	 *            : nom de la commande suivi de ses arguments.
+	 * @return arguments regroupés
+	 *
+	 * @see com.torpill.fribot.commands.ArgumentTokenizerTest#split(String)
+	 */
+	public static String[] legacyQuote(final String args[]) {
+
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 1; i < args.length; i++) builder.append(args[i] + (i == args.length - 1 ? "" : " "));
+		final char[] chrs = builder.toString().toCharArray();
+		final List<StringBuilder> builders = new ArrayList<>();
+		for (int j = 0, i = 0; j < chrs.length; j++) {
+
+			final char chr = chrs[j];
+			final char prev = j == 0 ? ' ' : chrs[j - 1];
+			final char beforePrev = j <= 1 ? ' ' : chrs[j - 2];
+			final char next = j == chrs.length - 1 ? ' ' : chrs[j + 1];
+			final boolean in = i % 2 != 0;
+
+			if (prev != '\\' && chr == '\"') {
+
+				if (i++ % 2 == 0) builders.add(0, new StringBuilder());
+
+			} else {
+
+				if (!in && (beforePrev != '\\' && prev == '\"' || chr == ' ') && next != ' ' && next != '\"') builders.add(0, new StringBuilder());
+				if (!(chr == '\\' || !in && chr == ' ')) {
+
+					if (builders.isEmpty()) builders.add(new StringBuilder());
+					builders.get(0).append(chr);
+				}
+			}
+		}
+
+		final String[] quote = new String[builders.size()];
+		for (int i = 0; i < quote.length; i++) quote[i] = builders.get(builders.size() - 1 - i).toString();
+		return quote;
+	}
+
+	private static String[] legacyKey(final String args[]) {
+
+		final Map<String, StringBuilder> builders = new HashMap<>();
+		String currentKey = "%";
+		builders.put(currentKey, new StringBuilder());
+		for (final String arg : ArgumentTokenizerTest.legacyRaw(args)) {
+
+			if (arg.startsWith("--")) builders.put(currentKey = arg.substring(2, arg.length()), new StringBuilder());
+			else builders.get(currentKey).append(arg + " ");
+		}
+
+		final String[] key = new String[builders.size() * 2];
+		int i = 0;
+		for (final String builderKey : builders.keySet()) {
+
+			key[i++] = builderKey;
+			key[i++] = builders.get(builderKey).toString().trim();
+		}
+		return key;
+	}
+}
@@ -0,0 +1,145 @@
+package com.torpill.fribot.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import com.torpill.fribot.bot.DiscordBot;
+
+/**
+ *
+ * Tests du contrat asynchrone des commandes.
+ *
+ * @author torpill40
+ *
+ */
+
+public class AsyncCommandTest {
+
+	@Test
+	public void shouldWrapSynchronousResult() throws InterruptedException, ExecutionException {
+
+		final CompletionStage<Integer> stage = new Sync(() -> 3).executeAsync(null, null, null);
+
+		assertTrue(stage.toCompletableFuture().isDone());
+		assertEquals(Integer.valueOf(3), stage.toCompletableFuture().get());
+	}
+
+	@Test
+	public void shouldWrapSynchronousFailure() {
+
+		final IllegalStateException error = new IllegalStateException("échec");
+		final CompletionStage<Integer> stage = new Sync(() -> {
+
+			throw error;
+
+		}).executeAsync(null, null, null);
+
+		assertTrue(stage.toCompletableFuture().isCompletedExceptionally());
+		try {
+
+			stage.toCompletableFuture().get();
+			fail();
+
+		} catch (final InterruptedException | ExecutionException e) {
+
+			assertSame(error, e.getCause());
+		}
+	}
+
+	@Test
+	public void shouldWaitForAsynchronousResult() {
+
+		final CompletableFuture<Integer> result = new CompletableFuture<>();
+		final Async command = new Async(result);
+		new Thread(() -> result.complete(5)).start();
+
+		assertEquals(5, command.execute(null, null, null));
+	}
+
+	@Test
+	public void shouldRethrowAsynchronousFailure() {
+
+		final IllegalArgumentException error = new IllegalArgumentException("échec");
+
+		try {
+
+			new Async(CompletableFuture.failedFuture(error)).execute(null, null, null);
+			fail();
+
+		} catch (final IllegalArgumentException e) {
+
+			assertSame(error, e);
+		}
+	}
+
+	private interface Body {
+
+		int run();
+	}
+
+	private static class Sync extends Command {
+
+		private final Body body;
+
+		private Sync(final Body body) {
+
+			super("sync", ArgumentType.NONE, Category.UTILITY);
+			this.body = body;
+		}
+
+		@Override
+		public String getHelp() {
+
+			return "";
+		}
+
+		@Override
+		public boolean deleteCommandUsage() {
+
+			return false;
+		}
+
+		@Override
+		public int execute(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+			return this.body.run();
+		}
+	}
+
+	private static class Async extends AsyncCommand {
+
+		private final CompletionStage<Integer> result;
+
+		private Async(final CompletionStage<Integer> result) {
+
+			super("async", ArgumentType.NONE, Category.UTILITY);
+			this.result = result;
+		}
+
+		@Override
+		public String getHelp() {
+
+			return "";
+		}
+
+		@Override
+		public boolean deleteCommandUsage() {
+
+			return false;
+		}
+
+		@Override
+		public CompletionStage<Integer> executeAsync(final DiscordBot bot, final ParsedArguments args, final CommandContext context) {
+
+			return this.result;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.torpill.fribot.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Color;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.javacord.api.entity.Icon;
+import org.javacord.api.entity.permission.Permissions;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.junit.Test;
+
+import com.torpill.fribot.bot.DiscordBot;
+
+/**
+ *
+ * Tests de la mémorisation des données résolues par le contexte d'une
+ * commande.
+ *
+ * @author torpill40
+ *
+ */
+
+public class CommandContextTest {
+
+	private final Map<String, Integer> calls = new ConcurrentHashMap<>();
+
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(final Class<T> type, final Map<String, Object> answers) {
+
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {
+				type
+		}, (proxy, method, args) -> {
+
+			this.calls.merge(method.getName(), 1, Integer::sum);
+			return answers.get(method.getName());
+		});
+	}
+
+	private int calls(final String method) {
+
+		return this.calls.getOrDefault(method, 0);
+	}
+
+	@Test
+	public void shouldResolveEachValueOnce() {
+
+		final Permissions permissions = this.proxy(Permissions.class, Map.of("getAllowedBitmask", 0));
+		final Icon avatar = this.proxy(Icon.class, Map.of());
+		final User user = this.proxy(User.class, Map.of("getId", 10L, "getAvatar", avatar));
+		final User member = this.proxy(User.class, Map.of("getId", 42L));
+		final Server server = this.proxy(Server.class, Map.of("getRoles", Collections.emptyList(), "getPermissions", permissions, "isOwner", false, "getMemberById", Optional.of(member)));
+		final CommandContext context = new CommandContext(new DiscordBot("?:", Color.WHITE, null, null), user, null, null, server);
+
+		for (int i = 0; i < 3; i++) {
+
+			assertEquals(Collections.emptyList(), context.getRoles());
+			assertSame(permissions, context.getPermissions());
+			assertFalse(context.isAdmin());
+			assertSame(avatar, context.getUserAvatar());
+			assertSame(member, context.getMember("42"));
+		}
+
+		assertEquals(1, this.calls("getRoles"));
+		assertEquals(1, this.calls("getPermissions"));
+		assertEquals(1, this.calls("isOwner"));
+		assertEquals(1, this.calls("getAllowedBitmask"));
+		assertEquals(1, this.calls("getAvatar"));
+		assertEquals(1, this.calls("getMemberById"));
+	}
+}
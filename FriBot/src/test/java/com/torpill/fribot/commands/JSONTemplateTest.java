@@ -0,0 +1,204 @@
+package com.torpill.fribot.commands;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.javacord.api.entity.user.User;
+import org.junit.Test;
+
+/**
+ *
+ * Tests des textes compilés des commandes JSON, comparés au remplacement par
+ * expressions régulières qu'ils remplacent.
+ *
+ * @author torpill40
+ *
+ */
+
+public class JSONTemplateTest {
+
+	private static final String HELLO = "Hello ${user.mention}$ !";
+	private static final String SUSPENSE = "${arg:0:*}$";
+
+	private final User user = (User) Proxy.newProxyInstance(User.class.getClassLoader(), new Class<?>[] {
+			User.class
+	}, (proxy, method, args) -> method.getName().equals("getMentionTag") ? "<@42>" : null);
+
+	private ParsedArguments args(final Command.ArgumentType type, final String content) {
+
+		final ArgumentTokenizer tokenizer = new ArgumentTokenizer(content, 0);
+		return new ParsedArguments(type, type == Command.ArgumentType.KEY ? tokenizer.key() : type == Command.ArgumentType.QUOTE ? tokenizer.quote() : tokenizer.raw(), null);
+	}
+
+	private String render(final String text, final Command.ArgumentType type, final ParsedArguments args) {
+
+		try {
+
+			return JSONTemplate.compile(text, "cmd", type).render("?:", args, this.user);
+
+		} catch (final ScriptException | NullPointerException | NumberFormatException | AssertionError e) {
+
+			return "```Une erreur est survenue : " + e.getMessage() + "```";
+		}
+	}
+
+	@Test
+	public void shouldMatchLegacyFormatting() {
+
+		final String[] texts = {
+				JSONTemplateTest.HELLO, JSONTemplateTest.SUSPENSE, "5...", "${bot.prefix}$${cmd.name}$ ${user.mention}$ est vraiment super sympa !", "```js\n(${arg:0:*}$) => $(eval:$[arg:0:*]$)$```", "${arg:1}$ et ${arg:*-1:*}$", "${arg:5|rien}$ $[arg:0]$", "$[inconnu]$ $ ${ }$ ${bot.prefix}", "$(eval:2 * 3)$ $(eval:'a')$", "${arg:$[arg:1]$:*|$[arg:0]$}$", "$(eval:$[arg:1:*]$|$[arg:0]$|x)$", "${arg:0:|x}$ ${arg:0::}$ ${arg:|$[arg:1]$}$"
+		};
+		final String[] contents = {
+				"calc", "calc 5 + 6 / 2", "calc Math.cos(0) * 4", "calc un deux trois", "calc 1 2:3 | 4"
+		};
+		for (final String text : texts) {
+
+			for (final String content : contents) {
+
+				final ParsedArguments args = this.args(Command.ArgumentType.RAW, content);
+				assertEquals(text + " / " + content, JSONTemplateTest.legacyFormat(text, "?:", "cmd", Command.ArgumentType.RAW, args, this.user), this.render(text, Command.ArgumentType.RAW, args));
+			}
+		}
+
+		final String keyed = "Je m'appelle ${arg:name|$[arg:%|Albert]$}$, je vais ${arg:status}$ !";
+		for (final String content : new String[] {
+				"__json --status bien", "__json Jean --status bien", "__json --name Paul --status bien", "__json Jean"
+		}) {
+
+			final ParsedArguments args = this.args(Command.ArgumentType.KEY, content);
+			assertEquals(content, JSONTemplateTest.legacyFormat(keyed, "?:", "__json", Command.ArgumentType.KEY, args, this.user), this.render(keyed, Command.ArgumentType.KEY, args));
+		}
+	}
+
+	@Test
+	public void shouldNotReinterpretArguments() {
+
+		final ParsedArguments args = this.args(Command.ArgumentType.RAW, "suspense ${user.mention}$");
+		assertEquals("${user.mention}$ <@42>", this.render("${arg:0:*}$ $(user.mention)$", Command.ArgumentType.RAW, args));
+	}
+
+	/**
+	 *
+	 * Remplacer les paramètres d'un texte par expressions régulières, comme
+	 * avant la compilation des textes.
+	 *
+	 * @param text
+	 *            : texte de la commande.
+	 * @param prefix
+	 *            : préfixe du bot.
+	 * @param name
+	 *            : nom de la commande.
+	 * @param type
+	 *            : type des arguments de la commande.
+	 * @param args
+	 *            : arguments de la commande.
+	 * @param user
+	 *            : utilisateur de la commande.
+	 * @return texte avec ses paramètres remplacés
+	 *
+	 * @see com.torpill.fribot.commands.JSONTemplate
+	 */
+	public static String legacyFormat(final String text, final String prefix, final String name, final Command.ArgumentType type, final ParsedArguments args, final User user) {
+
+		String res = text;
+		String newRes = res;
+		final Pattern[] patterns = {
+				Pattern.compile("(\\$\\[[^\\n\\r\\$]+\\]\\$)"), Pattern.compile("(\\$\\{[^\\n\\r\\$]+\\}\\$)"), Pattern.compile("(\\$\\([^\\n\\r\\$]+\\)\\$)")
+		};
+		try {
+
+			for (final Pattern pattern : patterns) {
+
+				final Matcher matcher = pattern.matcher(res);
+				while (matcher.find()) {
+
+					final int offset = newRes.length() - res.length();
+					final String start = newRes.substring(0, matcher.start() + offset);
+					final String par = newRes.substring(matcher.start() + offset, matcher.end() + offset);
+					final String end = newRes.substring(matcher.end() + offset);
+
+					newRes = start + JSONTemplateTest.legacyReplace(par, prefix, name, type, args, user) + end;
+				}
+				res = newRes;
+			}
+			return newRes;
+
+		} catch (final ScriptException | NullPointerException | NumberFormatException | AssertionError e) {
+
+			return "```Une erreur est survenue : " + e.getMessage() + "```";
+		}
+	}
+
+	private static String legacyReplace(final String par, final String prefix, final String name, final Command.ArgumentType type, final ParsedArguments args, final User user) throws ScriptException {
+
+		final String res = par.substring(2, par.length() - 2);
+		final ScriptEngine engine = new ScriptEngineManager().getEngineByName("js");
+		if (res.contains(":")) {
+
+			final String defaultVal = res.contains("|") ? res.split("\\|")[1] : null;
+			final String[] parts = res.split("\\|")[0].split(":");
+			switch (parts[0]) {
+
+			case "arg":
+				if (type == Command.ArgumentType.RAW || type == Command.ArgumentType.QUOTE) {
+
+					try {
+
+						final int resultIndex = (int) engine.eval(parts[1].replace("*", args.size() - 1 + ""));
+						if (parts.length == 2) return args.get(resultIndex);
+						return args.join(resultIndex, (int) engine.eval(parts[2].replace("*", args.size() - 1 + "")));
+
+					} catch (final IndexOutOfBoundsException e) {
+
+						if (defaultVal == null) throw new NullPointerException();
+						return defaultVal;
+					}
+
+				} else if (type == Command.ArgumentType.KEY) {
+
+					final String value = args.get(parts[1]);
+					if (value != null) return value;
+
+					if (defaultVal == null) throw new NullPointerException();
+					return defaultVal;
+
+				} else throw new NullPointerException();
+
+			case "eval":
+				try {
+
+					final Object calc = engine.eval(parts[1]);
+					if (calc instanceof Integer) return (double) (int) calc + "";
+					else if (calc instanceof Double) return (double) calc + "";
+					else throw new NumberFormatException();
+
+				} catch (final IndexOutOfBoundsException e) {
+
+					if (defaultVal == null) throw new NullPointerException();
+					return defaultVal;
+				}
+			}
+		}
+		switch (res) {
+
+		case "bot.prefix":
+			return prefix;
+
+		case "cmd.name":
+			return name;
+
+		case "user.mention":
+			return user.getMentionTag();
+
+		default:
+			return par;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.torpill.fribot.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests des arguments découpés d'une commande.
+ *
+ * @author torpill40
+ *
+ */
+
+public class ParsedArgumentsTest {
+
+	private ParsedArguments parse(final Command.ArgumentType type, final String content) {
+
+		return new ParsedArguments(type, type.parseArguments(content, 2), null);
+	}
+
+	@Test
+	public void shouldAccessKeyArgumentsByName() {
+
+		final ParsedArguments args = this.parse(Command.ArgumentType.KEY, "?:météo Paris --query temp wind --jours 3 --vide");
+
+		assertEquals("Paris", args.get("%"));
+		assertEquals("temp wind", args.get("query"));
+		assertEquals(3, args.getInt("jours", 1));
+		assertTrue(args.keys().contains("vide"));
+		assertFalse(args.has("vide"));
+		assertNull(args.get("absent"));
+		assertEquals("défaut", args.get("absent", "défaut"));
+	}
+
+	@Test
+	public void shouldAccessRawArgumentsByPosition() {
+
+		final ParsedArguments args = this.parse(Command.ArgumentType.RAW, "?:cmd 12 1.5 mot fin");
+
+		assertEquals(4, args.size());
+		assertEquals(12, args.getInt(0, 0));
+		assertEquals(1.5, args.getDouble(1, 0.0), 0.0);
+		assertEquals(7, args.getInt(2, 7));
+		assertEquals(7, args.getInt(9, 7));
+		assertEquals("1.5 mot fin", args.join(1, 3));
+		assertEquals("", args.join(3, 2));
+		assertFalse(args.has("cmd"));
+	}
+}
@@ -0,0 +1,148 @@
+package com.torpill.fribot.limits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
+
+/**
+ *
+ * Tests de l'ajustement des limites de concurrence adaptatives.
+ *
+ * @author torpill40
+ *
+ */
+
+public class AdaptiveLimitTest {
+
+	@Test
+	public void shouldGrowWhenFastAndShrinkWhenSlow() {
+
+		final AdaptiveLimit fast = new AdaptiveLimit(2, 1, 4, 60_000L);
+		for (int i = 0; i < 20; i++) fast.acquire().close();
+		assertEquals(4, fast.getLimit());
+		assertEquals(0, fast.getInFlight());
+
+		final AdaptiveLimit slow = new AdaptiveLimit(4, 1, 4, 0L);
+		for (int i = 0; i < 20; i++) slow.acquire().close();
+		assertEquals(1, slow.getLimit());
+	}
+
+	@Test
+	public void shouldIncreaseByAboutOnePerWindow() {
+
+		final AdaptiveLimit limit = new AdaptiveLimit(4, 1, 100, 60_000L);
+
+		for (int i = 0; i < 4; i++) limit.acquire().close();
+		assertEquals(4, limit.getLimit());
+		limit.acquire().close();
+		assertEquals(5, limit.getLimit());
+
+		for (int i = 0; i < 4; i++) limit.acquire().close();
+		assertEquals(5, limit.getLimit());
+		limit.acquire().close();
+		assertEquals(6, limit.getLimit());
+	}
+
+	@Test
+	public void shouldDecreaseByTenthPerSlowExecution() {
+
+		final AdaptiveLimit limit = new AdaptiveLimit(20, 2, 20, 0L);
+
+		limit.acquire().close();
+		assertEquals(18, limit.getLimit());
+		limit.acquire().close();
+		assertEquals(16, limit.getLimit());
+
+		for (int i = 0; i < 50; i++) limit.acquire().close();
+		assertEquals(2, limit.getLimit());
+	}
+
+	@Test
+	public void shouldFailFastWhenFull() {
+
+		final AdaptiveLimit limit = new AdaptiveLimit(1, 1, 1, 60_000L);
+		final AdaptiveLimit.Permit permit = limit.tryAcquire();
+
+		assertNotNull(permit);
+		assertNull(limit.tryAcquire());
+		permit.close();
+		permit.close();
+		assertEquals(0, limit.getInFlight());
+		assertNotNull(limit.tryAcquire());
+	}
+
+	@Test
+	public void shouldServeAsyncWaitersInOrderWithoutBlocking() {
+
+		final AdaptiveLimit limit = new AdaptiveLimit(1, 1, 1, 60_000L);
+		final Deadline deadline = Deadline.in(1, TimeUnit.MINUTES);
+		final AdaptiveLimit.Permit first = limit.acquireAsync(deadline).join();
+
+		final CompletableFuture<AdaptiveLimit.Permit> second = limit.acquireAsync(deadline);
+		final CompletableFuture<AdaptiveLimit.Permit> third = limit.acquireAsync(deadline);
+		assertFalse(second.isDone());
+		assertEquals(2, limit.getWaiting());
+		assertNull(limit.tryAcquire());
+
+		first.close();
+		assertTrue(second.isDone());
+		assertFalse(third.isDone());
+		assertEquals(1, limit.getInFlight());
+
+		second.join().close();
+		third.join().close();
+		assertEquals(0, limit.getInFlight());
+		assertEquals(0, limit.getWaiting());
+	}
+
+	@Test
+	public void shouldFailAsyncWaiterAtDeadline() {
+
+		final AdaptiveLimit limit = new AdaptiveLimit(1, 1, 1, 60_000L);
+		final AdaptiveLimit.Permit held = limit.tryAcquire();
+		final CompletableFuture<AdaptiveLimit.Permit> waiter = limit.acquireAsync(Deadline.in(20, TimeUnit.MILLISECONDS));
+
+		try {
+
+			waiter.join();
+			fail();
+
+		} catch (final CompletionException e) {
+
+			assertTrue(e.getCause() instanceof DeadlineException);
+		}
+		assertEquals(0, limit.getWaiting());
+
+		held.close();
+		assertEquals(0, limit.getInFlight());
+	}
+
+	@Test
+	public void shouldStopBlockingAtDeadline() {
+
+		final AdaptiveLimit limit = new AdaptiveLimit(1, 1, 1, 60_000L);
+		limit.tryAcquire();
+
+		try (Deadline.Scope scope = Deadline.in(20, TimeUnit.MILLISECONDS).enter()) {
+
+			limit.acquire();
+			fail();
+
+		} catch (final DeadlineException e) {
+
+			assertEquals(1, limit.getInFlight());
+		}
+	}
+}
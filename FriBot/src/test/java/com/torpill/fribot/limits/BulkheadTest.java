@@ -0,0 +1,75 @@
+package com.torpill.fribot.limits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
+
+/**
+ *
+ * Tests des cloisons isolant les services externes.
+ *
+ * @author torpill40
+ *
+ */
+
+public class BulkheadTest {
+
+	@Test
+	public void shouldRejectWhenFullAndReleaseOnce() {
+
+		final Bulkhead bulkhead = new Bulkhead("météo", 2, 1_000L);
+		final Bulkhead.Permit first = bulkhead.enter();
+		bulkhead.enter();
+		assertEquals(2, bulkhead.getActive());
+
+		try {
+
+			bulkhead.enter();
+			fail();
+
+		} catch (final BulkheadException e) {
+
+			assertEquals("météo", e.getDependency());
+		}
+		assertEquals(1, bulkhead.getRejected());
+
+		first.close();
+		first.close();
+		assertEquals(1, bulkhead.getActive());
+		bulkhead.enter();
+		assertEquals(2, bulkhead.getActive());
+	}
+
+	@Test
+	public void shouldBoundCallTimeoutByDeadline() {
+
+		final Bulkhead bulkhead = new Bulkhead("avatars", 1, 1_000L);
+
+		assertEquals(1_000L, bulkhead.getCallTimeout(Deadline.NONE));
+		assertEquals(1_000L, bulkhead.getCallTimeout(Deadline.in(1, TimeUnit.MINUTES)));
+		assertTrue(bulkhead.getCallTimeout(Deadline.in(200, TimeUnit.MILLISECONDS)) <= 200L);
+
+		final Deadline expired = Deadline.in(1, TimeUnit.MINUTES);
+		expired.cancel();
+		assertEquals(1L, bulkhead.getCallTimeout(expired));
+	}
+
+	@Test
+	public void shouldBlameDeadlineOrService() {
+
+		final Bulkhead bulkhead = new Bulkhead("ffmpeg", 1, 1_000L);
+		final Deadline expired = Deadline.in(1, TimeUnit.MINUTES);
+		expired.cancel();
+
+		assertTrue(bulkhead.timedOut(Deadline.in(1, TimeUnit.MINUTES)) instanceof BulkheadException);
+		assertTrue(bulkhead.timedOut(expired) instanceof DeadlineException);
+		assertEquals(2, bulkhead.getTimedOut());
+	}
+}
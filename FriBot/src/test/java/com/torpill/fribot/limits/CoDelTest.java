@@ -0,0 +1,48 @@
+package com.torpill.fribot.limits;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests du délestage des voies d'exécution surchargées.
+ *
+ * @author torpill40
+ *
+ */
+
+public class CoDelTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void shouldShedOnlyAfterSustainedDelay() {
+
+		final CoDel codel = new CoDel(100, 1000);
+
+		codel.dequeued(500 * MS, 0);
+		codel.dequeued(500 * MS, 500 * MS);
+		assertTrue(codel.admit(10));
+
+		codel.dequeued(500 * MS, 1000 * MS);
+		assertFalse(codel.admit(10));
+
+		codel.dequeued(50 * MS, 1200 * MS);
+		assertTrue(codel.admit(10));
+	}
+
+	@Test
+	public void shouldStopSheddingOnceQueueIsEmpty() {
+
+		final CoDel codel = new CoDel(100, 1000);
+
+		codel.dequeued(500 * MS, 1);
+		codel.dequeued(500 * MS, 2000 * MS);
+		assertFalse(codel.admit(3));
+		assertTrue(codel.admit(0));
+	}
+}
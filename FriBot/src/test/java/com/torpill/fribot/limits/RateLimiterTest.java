@@ -0,0 +1,71 @@
+package com.torpill.fribot.limits;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.torpill.fribot.commands.Command;
+
+/**
+ *
+ * Tests du limiteur de débit des commandes.
+ *
+ * @author torpill40
+ *
+ */
+
+public class RateLimiterTest {
+
+	private RateLimiter limiter(final int user, final int channel) {
+
+		final RateLimiter limiter = new RateLimiter();
+		for (final Command.Category category : Command.Category.values()) {
+
+			limiter.setLimit(category, RateLimiter.Scope.USER, user, 60_000L);
+			limiter.setLimit(category, RateLimiter.Scope.CHANNEL, channel, 60_000L);
+			limiter.setLimit(category, RateLimiter.Scope.SERVER, 0, 60_000L);
+		}
+		return limiter;
+	}
+
+	@Test
+	public void shouldWarnOnlyOnFirstRejection() {
+
+		final RateLimiter limiter = this.limiter(2, 10);
+
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.UTILITY, 1L, 10L, 100L));
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.UTILITY, 1L, 10L, 100L));
+		assertEquals(RateLimiter.Decision.WARNED, limiter.tryAcquire(Command.Category.UTILITY, 1L, 10L, 100L));
+		assertEquals(RateLimiter.Decision.REJECTED, limiter.tryAcquire(Command.Category.UTILITY, 1L, 10L, 100L));
+		assertEquals(2L, limiter.getRejected(RateLimiter.Scope.USER));
+
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.UTILITY, 2L, 10L, 100L));
+	}
+
+	@Test
+	public void shouldNotConsumeUserTokenWhenChannelRejects() {
+
+		final RateLimiter limiter = this.limiter(2, 1);
+
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.UTILITY, 1L, 10L, 100L));
+		assertEquals(RateLimiter.Decision.WARNED, limiter.tryAcquire(Command.Category.UTILITY, 2L, 10L, 100L));
+		for (int i = 0; i < 4; i++) assertEquals(RateLimiter.Decision.REJECTED, limiter.tryAcquire(Command.Category.UTILITY, 2L, 10L, 100L));
+		assertEquals(5L, limiter.getRejected(RateLimiter.Scope.CHANNEL));
+		assertEquals(0L, limiter.getRejected(RateLimiter.Scope.USER));
+
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.UTILITY, 2L, 11L, 100L));
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.UTILITY, 2L, 12L, 100L));
+		assertEquals(RateLimiter.Decision.WARNED, limiter.tryAcquire(Command.Category.UTILITY, 2L, 13L, 100L));
+	}
+
+	@Test
+	public void shouldApplyCategoryLimits() {
+
+		final RateLimiter limiter = this.limiter(1, 10);
+		limiter.setLimit(Command.Category.FUN, RateLimiter.Scope.USER, 0, 60_000L);
+
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.UTILITY, 1L, 10L, 100L));
+		assertEquals(RateLimiter.Decision.WARNED, limiter.tryAcquire(null, 1L, 10L, 100L));
+		assertEquals(RateLimiter.Decision.ACCEPTED, limiter.tryAcquire(Command.Category.FUN, 1L, 10L, 100L));
+	}
+}
@@ -0,0 +1,108 @@
+package com.torpill.fribot.limits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests des seaux à jetons.
+ *
+ * @author torpill40
+ *
+ */
+
+public class TokenBucketTest {
+
+	@Test
+	public void shouldEmptyAfterCapacityAndRefill() throws InterruptedException {
+
+		final TokenBucket bucket = new TokenBucket(3, 100L);
+
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.canAcquire());
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.canAcquire());
+		assertFalse(bucket.tryAcquire());
+		assertFalse(bucket.isFull(System.nanoTime()));
+
+		Thread.sleep(150L);
+		assertTrue(bucket.isFull(System.nanoTime()));
+		assertTrue(bucket.tryAcquire());
+	}
+
+	@Test
+	public void shouldGiveBackReleasedToken() {
+
+		final TokenBucket bucket = new TokenBucket(2, 60_000L);
+
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.tryAcquire());
+
+		bucket.release();
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.tryAcquire());
+	}
+
+	@Test
+	public void shouldWarnOnceUntilNextToken() {
+
+		final TokenBucket bucket = new TokenBucket(1, 60_000L);
+
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.warn());
+		assertFalse(bucket.warn());
+
+		bucket.release();
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.warn());
+	}
+
+	@Test
+	public void shouldRefuseTokensOnceSwept() throws InterruptedException {
+
+		final TokenBucket bucket = new TokenBucket(2, 50L);
+
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.sweep(System.nanoTime()));
+		assertFalse(bucket.isSwept());
+
+		Thread.sleep(80L);
+		assertTrue(bucket.sweep(System.nanoTime()));
+		assertTrue(bucket.isSwept());
+		assertTrue(bucket.isFull(System.nanoTime()));
+		assertTrue(bucket.canAcquire());
+		assertFalse(bucket.tryAcquire());
+
+		bucket.release();
+		assertTrue(bucket.isSwept());
+	}
+
+	@Test
+	public void shouldGrantExactlyCapacityUnderContention() throws InterruptedException {
+
+		final TokenBucket bucket = new TokenBucket(1_000, 60_000L);
+		final AtomicInteger acquired = new AtomicInteger();
+		final int threads = 8;
+		final CountDownLatch done = new CountDownLatch(threads);
+		for (int i = 0; i < threads; i++) {
+
+			new Thread(() -> {
+
+				for (int j = 0; j < 500; j++) if (bucket.tryAcquire()) acquired.incrementAndGet();
+				done.countDown();
+			}).start();
+		}
+
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(1_000, acquired.get());
+	}
+}
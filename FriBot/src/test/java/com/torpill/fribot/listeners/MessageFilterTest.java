@@ -0,0 +1,31 @@
+package com.torpill.fribot.listeners;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests du filtre rapide des messages.
+ *
+ * @author torpill40
+ *
+ */
+
+public class MessageFilterTest {
+
+	private static final long ID = 644166937129517056L;
+
+	private final MessageFilter filter = new MessageFilter("?:", MessageFilterTest.ID);
+
+	@Test
+	public void shouldMatchCommandsAndMentions() {
+
+		assertEquals(MessageFilter.COMMAND, this.filter.match("?:help"));
+		assertEquals(MessageFilter.MENTION, this.filter.match("<@" + MessageFilterTest.ID + "> salut"));
+		assertEquals(MessageFilter.NICKNAME_MENTION, this.filter.match("<@!" + MessageFilterTest.ID + ">"));
+		assertEquals(MessageFilter.IGNORED, this.filter.match("salut tout le monde ?:help"));
+		assertEquals(MessageFilter.IGNORED, this.filter.match("<@1234> salut"));
+		assertEquals(MessageFilter.IGNORED, this.filter.match(""));
+	}
+}
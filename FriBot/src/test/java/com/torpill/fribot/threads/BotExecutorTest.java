@@ -0,0 +1,279 @@
+package com.torpill.fribot.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.user.User;
+import org.junit.Test;
+
+import com.torpill.fribot.commands.Command;
+import com.torpill.fribot.limits.CoDel;
+
+/**
+ *
+ * Tests de la saturation et des rejets des voies d'exécution.
+ *
+ * @author torpill40
+ *
+ */
+
+public class BotExecutorTest {
+
+	private final AtomicInteger runs = new AtomicInteger();
+	private final AtomicInteger rejections = new AtomicInteger();
+
+	private BotExecutor executor(final boolean virtual) {
+
+		return this.executor(virtual, 1);
+	}
+
+	private BotExecutor executor(final boolean virtual, final int queueSize) {
+
+		final Map<Command.Cost, Integer> workers = new EnumMap<>(Command.Cost.class);
+		final Map<Command.Cost, CoDel> admission = new EnumMap<>(Command.Cost.class);
+		for (final Command.Cost cost : Command.Cost.values()) {
+
+			workers.put(cost, 1);
+			admission.put(cost, new CoDel(60_000L, 60_000L));
+		}
+		return new BotExecutor(workers, queueSize, admission, Collections.emptyMap(), virtual);
+	}
+
+	private BotTask<Gated> task(final Command.Cost cost, final CountDownLatch gate) {
+
+		return new BotTask<>(new Blocking(), new Gated(cost, gate));
+	}
+
+	private void awaitRuns(final int runs) throws InterruptedException {
+
+		final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.runs.get() < runs && System.nanoTime() < end) Thread.sleep(5);
+	}
+
+	private void saturate(final boolean virtual) throws InterruptedException {
+
+		final BotExecutor executor = this.executor(virtual);
+		for (final Command.Cost cost : Command.Cost.values()) {
+
+			this.runs.set(0);
+			this.rejections.set(0);
+			final CountDownLatch gate = new CountDownLatch(1);
+
+			assertTrue(cost.name(), executor.execute(this.task(cost, gate)));
+			assertTrue(cost.name(), executor.execute(this.task(cost, gate)));
+			assertFalse(cost.name(), executor.execute(this.task(cost, gate)));
+			assertEquals(cost.name(), 1, this.rejections.get());
+
+			gate.countDown();
+			this.awaitRuns(2);
+			assertEquals(cost.name(), 2, this.runs.get());
+			assertEquals(cost.name(), 1, executor.getLane(cost).getRejected());
+			assertTrue(cost.name(), executor.execute(this.task(cost, new CountDownLatch(0))));
+			this.awaitRuns(3);
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5_000L));
+	}
+
+	@Test
+	public void shouldRejectOnceEachLaneIsFull() throws InterruptedException {
+
+		this.saturate(false);
+	}
+
+	@Test
+	public void shouldRejectOnceEachVirtualLaneIsFull() throws InterruptedException {
+
+		this.saturate(true);
+	}
+
+	@Test
+	public void shouldRejectAfterShutdown() throws InterruptedException {
+
+		final BotExecutor executor = this.executor(false);
+		executor.shutdown();
+
+		assertFalse(executor.execute(this.task(Command.Cost.LIGHT, new CountDownLatch(0))));
+		assertEquals(1, this.rejections.get());
+		assertEquals(0, this.runs.get());
+		assertEquals(0, executor.getQueueDepth());
+	}
+
+	@Test
+	public void shouldRunOrRejectEveryTaskExactlyOnce() throws InterruptedException {
+
+		final BotExecutor executor = this.executor(false);
+		final int submitters = 8, tasks = 500;
+		final CountDownLatch done = new CountDownLatch(submitters);
+		for (int i = 0; i < submitters; i++) {
+
+			new Thread(() -> {
+
+				for (int j = 0; j < tasks; j++) executor.execute(this.task(Command.Cost.LIGHT, new CountDownLatch(0)));
+				done.countDown();
+			}).start();
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5_000L));
+
+		assertEquals(submitters * tasks, this.runs.get() + this.rejections.get());
+		assertEquals(this.runs.get(), executor.getCompleted());
+		assertEquals(0, executor.getQueueDepth());
+	}
+
+	@Test
+	public void shouldKeepChannelOrderAcrossLanesAndAsyncStages() throws InterruptedException {
+
+		final BotExecutor executor = this.executor(false, 3);
+		final CountDownLatch media = new CountDownLatch(1);
+		final CompletableFuture<Void> stage = new CompletableFuture<>();
+
+		assertTrue(executor.execute(new BotTask<>(new Channel(), new Serial(Command.Cost.MEDIA, media, null))));
+		assertTrue(executor.execute(new BotTask<>(new Channel(), new Serial(Command.Cost.LIGHT, new CountDownLatch(0), stage))));
+		assertTrue(executor.execute(new BotTask<>(new Channel(), new Serial(Command.Cost.LIGHT, new CountDownLatch(0), null))));
+		Thread.sleep(100L);
+		assertEquals(0, this.runs.get());
+
+		media.countDown();
+		this.awaitRuns(2);
+		Thread.sleep(100L);
+		assertEquals(2, this.runs.get());
+		assertEquals(1, executor.getSerialChannels());
+
+		stage.complete(null);
+		this.awaitRuns(3);
+		assertEquals(3, this.runs.get());
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5_000L));
+		assertEquals(0, executor.getSerialChannels());
+	}
+
+	private record Serial(Command.Cost cost, CountDownLatch gate, CompletableFuture<Void> stage) implements BotThread.Params {
+
+		@Override
+		public User user() {
+
+			return null;
+		}
+
+		@Override
+		public TextChannel channel() {
+
+			return null;
+		}
+	}
+
+	private class Channel extends BotThread<Serial> {
+
+		private Channel() {
+
+			super(null, "Channel");
+		}
+
+		@Override
+		public void run(final Serial params) {
+
+			try {
+
+				params.gate().await();
+
+			} catch (final InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+			}
+			BotExecutorTest.this.runs.incrementAndGet();
+		}
+
+		@Override
+		public CompletionStage<?> execute(final Serial params) {
+
+			this.run(params);
+			return params.stage() == null ? CompletableFuture.completedFuture(null) : params.stage();
+		}
+
+		@Override
+		public long getSerialKey(final Serial params) {
+
+			return 42L;
+		}
+
+		@Override
+		public long getServerId(final Serial params) {
+
+			return 1L;
+		}
+
+		@Override
+		public Command.Cost getCost(final Serial params) {
+
+			return params.cost();
+		}
+	}
+
+	private record Gated(Command.Cost cost, CountDownLatch gate) implements BotThread.Params {
+
+		@Override
+		public User user() {
+
+			return null;
+		}
+
+		@Override
+		public TextChannel channel() {
+
+			return null;
+		}
+	}
+
+	private class Blocking extends BotThread<Gated> {
+
+		private Blocking() {
+
+			super(null, "Blocking");
+		}
+
+		@Override
+		public void run(final Gated params) {
+
+			try {
+
+				params.gate().await();
+
+			} catch (final InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+			}
+			BotExecutorTest.this.runs.incrementAndGet();
+		}
+
+		@Override
+		public long getServerId(final Gated params) {
+
+			return 1L;
+		}
+
+		@Override
+		public Command.Cost getCost(final Gated params) {
+
+			return params.cost();
+		}
+
+		@Override
+		protected void rejected(final Gated params) {
+
+			BotExecutorTest.this.rejections.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.torpill.fribot.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.user.User;
+import org.junit.Test;
+
+import com.torpill.fribot.commands.Command;
+
+/**
+ *
+ * Tests des tâches associant un thread du bot à ses paramètres typés.
+ *
+ * @author torpill40
+ *
+ */
+
+public class BotTaskTest {
+
+	@Test
+	public void shouldPassOwnParamsToSharedThread() {
+
+		final Recording thread = new Recording();
+		final BotTask<Named> first = new BotTask<>(thread, new Named("premier", 1L, Command.Cost.LIGHT));
+		final BotTask<Named> second = new BotTask<>(thread, new Named("second", 2L, Command.Cost.MEDIA));
+
+		assertTrue(second.execute().toCompletableFuture().isDone());
+		first.run();
+
+		assertEquals(List.of("second", "premier"), thread.runs);
+		assertEquals(1L, first.getSerialKey());
+		assertEquals(2L, second.getSerialKey());
+		assertEquals(Command.Cost.LIGHT, first.getCost());
+		assertEquals(Command.Cost.MEDIA, second.getCost());
+		assertEquals("Recording", first.getName());
+		assertEquals("premier", first.getParams().text());
+	}
+
+	@Test
+	public void shouldRejectWithOwnParams() {
+
+		final Recording thread = new Recording();
+		final Named params = new Named("rejeté", 3L, Command.Cost.LIGHT);
+		new BotTask<>(thread, params).rejected();
+
+		assertEquals(1, thread.rejected.size());
+		assertSame(params, thread.rejected.get(0));
+		assertTrue(thread.runs.isEmpty());
+	}
+
+	private record Named(String text, long key, Command.Cost cost) implements BotThread.Params {
+
+		@Override
+		public User user() {
+
+			return null;
+		}
+
+		@Override
+		public TextChannel channel() {
+
+			return null;
+		}
+	}
+
+	private static class Recording extends BotThread<Named> {
+
+		private final List<String> runs = new ArrayList<>();
+		private final List<Named> rejected = new ArrayList<>();
+
+		private Recording() {
+
+			super(null, "Recording");
+		}
+
+		@Override
+		public void run(final Named params) {
+
+			this.runs.add(params.text());
+		}
+
+		@Override
+		public long getSerialKey(final Named params) {
+
+			return params.key();
+		}
+
+		@Override
+		public Command.Cost getCost(final Named params) {
+
+			return params.cost();
+		}
+
+		@Override
+		protected void rejected(final Named params) {
+
+			this.rejected.add(params);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.torpill.fribot.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests du partage équitable des voies d'exécution entre les serveurs.
+ *
+ * @author torpill40
+ *
+ */
+
+public class FairQueueTest {
+
+	@Test
+	public void shouldAlternateBetweenServers() {
+
+		final FairQueue<String> queue = new FairQueue<>(10, server -> 1);
+		for (int i = 0; i < 4; i++) queue.add(1L, "gros");
+		queue.add(2L, "petit");
+		queue.add(2L, "petit");
+
+		assertEquals("gros", queue.poll());
+		assertEquals("petit", queue.poll());
+		assertEquals("gros", queue.poll());
+		assertEquals("petit", queue.poll());
+		assertEquals("gros", queue.poll());
+		assertEquals("gros", queue.poll());
+		assertNull(queue.poll());
+	}
+
+	@Test
+	public void shouldMakeExpensiveServersWait() {
+
+		final FairQueue<String> queue = new FairQueue<>(10, server -> server == 2L ? 2 : 1);
+		for (int i = 0; i < 3; i++) queue.add(1L, "gros");
+		for (int i = 0; i < 3; i++) queue.add(2L, "petit");
+
+		assertEquals("gros", queue.poll());
+		queue.charge(1L, 40);
+
+		assertEquals("petit", queue.poll());
+		assertEquals("petit", queue.poll());
+		assertEquals("petit", queue.poll());
+		assertEquals("gros", queue.poll());
+	}
+
+	@Test
+	public void shouldShareCostEquallyBetweenServers() {
+
+		final FairQueue<Long> queue = new FairQueue<>(10, server -> 1);
+		for (int i = 0; i < 100; i++) {
+
+			queue.add(1L, 1L);
+			queue.add(2L, 2L);
+		}
+
+		final long[] used = new long[3];
+		for (int i = 0; i < 60; i++) {
+
+			final long server = queue.poll();
+			final long cost = server == 1L ? 30 : 10;
+			queue.charge(server, cost);
+			used[(int) server] += cost;
+		}
+		assertTrue(used[1] + " / " + used[2], Math.abs(used[1] - used[2]) <= 40);
+	}
+
+	@Test
+	public void shouldForgetServersOnceTheirDebtIsRepaid() {
+
+		final FairQueue<Long> queue = new FairQueue<>(10, server -> 1);
+		queue.add(1L, 1L);
+		for (int i = 0; i < 20; i++) queue.add(2L, 2L);
+
+		assertEquals(1L, (long) queue.poll());
+		queue.charge(1L, 100);
+		assertEquals(2, queue.getFlows());
+		assertTrue(queue.getDeficit(1L) < 0);
+
+		for (int i = 0; i < 19; i++) {
+
+			assertEquals(2L, (long) queue.poll());
+			queue.charge(2L, 10);
+		}
+		assertEquals(1, queue.getFlows());
+		assertEquals(0L, queue.getDeficit(1L));
+
+		queue.add(1L, 1L);
+		Long server;
+		while ((server = queue.poll()) != null) queue.charge(server, 100);
+		assertEquals(0, queue.size());
+		assertEquals(0, queue.getFlows());
+	}
+}
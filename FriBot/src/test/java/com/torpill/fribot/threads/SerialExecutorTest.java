@@ -0,0 +1,116 @@
+package com.torpill.fribot.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests de l'ordonnancement des étapes par clé.
+ *
+ * @author torpill40
+ *
+ */
+
+public class SerialExecutorTest {
+
+	@Test
+	public void shouldRunStepsOfSameKeyInOrder() throws InterruptedException {
+
+		final SerialExecutor serial = new SerialExecutor(1_000);
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger overlaps = new AtomicInteger();
+		final int steps = 200;
+		final CountDownLatch done = new CountDownLatch(steps);
+
+		for (int i = 0; i < steps; i++) {
+
+			final int index = i;
+			assertTrue(serial.execute(1L, release -> pool.execute(() -> {
+
+				if (running.incrementAndGet() > 1) overlaps.incrementAndGet();
+				order.add(index);
+				running.decrementAndGet();
+				release.run();
+				done.countDown();
+			})));
+		}
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		pool.shutdown();
+		assertEquals(0, overlaps.get());
+		for (int i = 0; i < steps; i++) assertEquals(Integer.valueOf(i), order.get(i));
+	}
+
+	@Test
+	public void shouldRunDifferentKeysInParallel() throws InterruptedException {
+
+		final SerialExecutor serial = new SerialExecutor(10);
+		final CountDownLatch started = new CountDownLatch(2);
+		final CountDownLatch gate = new CountDownLatch(1);
+
+		for (long key = 1L; key <= 2L; key++) {
+
+			serial.execute(key, release -> new Thread(() -> {
+
+				started.countDown();
+				try {
+
+					gate.await();
+
+				} catch (final InterruptedException e) {
+
+					Thread.currentThread().interrupt();
+				}
+				release.run();
+			}).start());
+		}
+
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertEquals(2, serial.getActiveKeys());
+		gate.countDown();
+	}
+
+	@Test
+	public void shouldRejectBeyondCapacityAndForgetIdleKeys() {
+
+		final SerialExecutor serial = new SerialExecutor(2);
+		final List<Runnable> releases = new ArrayList<>();
+		final AtomicInteger started = new AtomicInteger();
+
+		assertTrue(serial.execute(1L, release -> {
+
+			started.incrementAndGet();
+			releases.add(release);
+		}));
+		assertTrue(serial.execute(1L, release -> {
+
+			started.incrementAndGet();
+			releases.add(release);
+		}));
+		assertFalse(serial.execute(1L, release -> started.incrementAndGet()));
+		assertEquals(1, started.get());
+		assertEquals(1, serial.getActiveKeys());
+
+		releases.get(0).run();
+		releases.get(0).run();
+		assertEquals(2, started.get());
+		assertEquals(1, serial.getActiveKeys());
+
+		releases.get(1).run();
+		assertEquals(0, serial.getActiveKeys());
+	}
+}
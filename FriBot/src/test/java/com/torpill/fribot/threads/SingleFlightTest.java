@@ -0,0 +1,141 @@
+package com.torpill.fribot.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.torpill.fribot.util.Deadline;
+import com.torpill.fribot.util.DeadlineException;
+
+/**
+ *
+ * Tests du partage des calculs entre commandes identiques.
+ *
+ * @author torpill40
+ *
+ */
+
+public class SingleFlightTest {
+
+	@Test
+	public void shouldShareInFlightComputations() {
+
+		final SingleFlight singleFlight = new SingleFlight();
+		final AtomicInteger computations = new AtomicInteger();
+		final CompletableFuture<String> result = new CompletableFuture<>();
+
+		final CompletableFuture<String> first = singleFlight.run("tv:1", () -> {
+
+			computations.incrementAndGet();
+			return result;
+		});
+		final CompletableFuture<String> second = singleFlight.run("tv:1", () -> {
+
+			computations.incrementAndGet();
+			return CompletableFuture.completedFuture("autre");
+		});
+
+		result.complete("rendu");
+		assertEquals("rendu", first.join());
+		assertEquals("rendu", second.join());
+		assertEquals(1, computations.get());
+		assertEquals(1, singleFlight.getShared());
+
+		singleFlight.run("tv:1", () -> {
+
+			computations.incrementAndGet();
+			return CompletableFuture.completedFuture("nouveau");
+		}).join();
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void shouldRetryForFollowersWithTimeLeft() {
+
+		final SingleFlight singleFlight = new SingleFlight();
+		final AtomicInteger computations = new AtomicInteger();
+		final CompletableFuture<String> leaderResult = new CompletableFuture<>();
+		final CompletableFuture<String> retryResult = new CompletableFuture<>();
+		final Deadline leaderDeadline = Deadline.in(1, TimeUnit.MINUTES);
+		final Deadline[] retriedWith = new Deadline[1];
+
+		final CompletableFuture<String> leader = singleFlight.run("meteo:paris", leaderDeadline, () -> {
+
+			computations.incrementAndGet();
+			return leaderResult;
+		});
+		final CompletableFuture<String> first = singleFlight.run("meteo:paris", Deadline.in(1, TimeUnit.MINUTES), () -> {
+
+			computations.incrementAndGet();
+			retriedWith[0] = Deadline.current();
+			return retryResult;
+		});
+		final CompletableFuture<String> second = singleFlight.run("meteo:paris", Deadline.in(1, TimeUnit.MINUTES), () -> {
+
+			computations.incrementAndGet();
+			retriedWith[0] = Deadline.current();
+			return retryResult;
+		});
+
+		leaderResult.completeExceptionally(new DeadlineException());
+		assertTrue(leader.isCompletedExceptionally());
+		assertEquals(2, computations.get());
+		assertTrue(retriedWith[0] != leaderDeadline && retriedWith[0] != Deadline.NONE);
+
+		retryResult.complete("soleil");
+		assertEquals("soleil", first.join());
+		assertEquals("soleil", second.join());
+		assertEquals(2, singleFlight.getComputed());
+		assertEquals(2, singleFlight.getRetried());
+	}
+
+	@Test
+	public void shouldFailFollowerWithoutTimeLeft() {
+
+		final SingleFlight singleFlight = new SingleFlight();
+		final CompletableFuture<String> result = new CompletableFuture<>();
+		singleFlight.run("meteo:lyon", Deadline.in(1, TimeUnit.MINUTES), () -> result);
+
+		final Deadline expired = Deadline.in(1, TimeUnit.MINUTES);
+		expired.cancel();
+		final CompletableFuture<String> follower = singleFlight.run("meteo:lyon", expired, () -> CompletableFuture.completedFuture("autre"));
+
+		result.completeExceptionally(new CompletionException(new DeadlineException()));
+		this.assertFailsWith(follower, DeadlineException.class);
+		assertEquals(1, singleFlight.getComputed());
+		assertEquals(0, singleFlight.getRetried());
+	}
+
+	@Test
+	public void shouldShareOtherFailures() {
+
+		final SingleFlight singleFlight = new SingleFlight();
+		final CompletableFuture<String> result = new CompletableFuture<>();
+		singleFlight.run("meteo:nice", Deadline.in(1, TimeUnit.MINUTES), () -> result);
+		final CompletableFuture<String> follower = singleFlight.run("meteo:nice", Deadline.in(1, TimeUnit.MINUTES), () -> CompletableFuture.completedFuture("autre"));
+
+		result.completeExceptionally(new IllegalStateException());
+		this.assertFailsWith(follower, IllegalStateException.class);
+		assertEquals(0, singleFlight.getRetried());
+	}
+
+	private void assertFailsWith(final CompletableFuture<?> future, final Class<? extends Throwable> type) {
+
+		try {
+
+			future.join();
+			fail();
+
+		} catch (final CompletionException e) {
+
+			assertTrue(e.getCause().toString(), type.isInstance(e.getCause()));
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.torpill.fribot.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests de la surveillance des commandes.
+ *
+ * @author torpill40
+ *
+ */
+
+public class WatchdogTest {
+
+	@Test
+	public void shouldQuarantineAfterConsecutiveTimeouts() {
+
+		final Watchdog watchdog = new Watchdog(0.5, 2, 60_000L);
+
+		watchdog.start("lent", "Jean", 1_000L).finish(true);
+		assertFalse(watchdog.isQuarantined("lent"));
+		watchdog.start("lent", "Jean", 1_000L).finish(false);
+		watchdog.start("lent", "Jean", 1_000L).finish(true);
+		assertFalse(watchdog.isQuarantined("lent"));
+		watchdog.start("lent", "Jean", 1_000L).finish(true);
+
+		assertTrue(watchdog.isQuarantined("lent"));
+		assertTrue(watchdog.getQuarantineRemaining("lent") > 59_000L);
+		assertTrue(watchdog.getQuarantined().contains("lent"));
+		assertFalse(watchdog.isQuarantined("rapide"));
+		watchdog.shutdown();
+	}
+
+	@Test
+	public void shouldStrikeAndInterruptHungCommand() throws InterruptedException {
+
+		final Watchdog watchdog = new Watchdog(0.5, 1, 60_000L);
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicBoolean interrupted = new AtomicBoolean();
+		final AtomicBoolean cleared = new AtomicBoolean();
+		final Watchdog.Watch[] watch = new Watchdog.Watch[1];
+
+		final Thread worker = new Thread(() -> {
+
+			watch[0] = watchdog.start("bloquée", "Jean", 20L);
+			started.countDown();
+			final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (!Thread.currentThread().isInterrupted() && System.nanoTime() < end) Thread.onSpinWait();
+			interrupted.set(Thread.currentThread().isInterrupted());
+			watch[0].detach();
+			cleared.set(!Thread.currentThread().isInterrupted());
+			watch[0].finish(true);
+		});
+		worker.start();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		Thread.sleep(50L);
+		watchdog.inspect();
+		assertTrue(watchdog.isQuarantined("bloquée"));
+		assertEquals(1, watchdog.getSlowCount("bloquée"));
+
+		worker.join(5_000L);
+		assertTrue(interrupted.get());
+		assertTrue(cleared.get());
+
+		watchdog.inspect();
+		assertEquals(1, watchdog.getSlowCount("bloquée"));
+		watchdog.shutdown();
+	}
+
+	@Test
+	public void shouldNotCountTimeoutTwice() throws InterruptedException {
+
+		final Watchdog watchdog = new Watchdog(0.5, 2, 60_000L);
+		final Watchdog.Watch watch = watchdog.start("async", "Jean", 10L);
+		watch.detach();
+
+		Thread.sleep(30L);
+		watchdog.inspect();
+		watch.finish(true);
+		assertFalse(watchdog.isQuarantined("async"));
+
+		watchdog.start("async", "Jean", 1_000L).finish(true);
+		assertTrue(watchdog.isQuarantined("async"));
+		watchdog.shutdown();
+	}
+}
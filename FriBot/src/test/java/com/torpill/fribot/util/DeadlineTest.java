@@ -0,0 +1,127 @@
+package com.torpill.fribot.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests des échéances des exécutions de commande.
+ *
+ * @author torpill40
+ *
+ */
+
+public class DeadlineTest {
+
+	@Test
+	public void shouldExpireAfterTimeout() throws InterruptedException {
+
+		final Deadline deadline = Deadline.in(50, TimeUnit.MILLISECONDS);
+		assertFalse(deadline.isExpired());
+		deadline.verify();
+
+		Thread.sleep(80L);
+		assertTrue(deadline.isExpired());
+		assertFalse(deadline.isCancelled());
+		assertEquals(0L, deadline.remainingMillis());
+		try {
+
+			deadline.verify();
+			fail();
+
+		} catch (final DeadlineException e) {}
+	}
+
+	@Test
+	public void shouldAttachToCurrentThread() {
+
+		final Deadline outer = Deadline.in(1, TimeUnit.MINUTES);
+		final Deadline inner = Deadline.in(1, TimeUnit.MINUTES);
+		assertSame(Deadline.NONE, Deadline.current());
+
+		try (Deadline.Scope o = outer.enter()) {
+
+			try (Deadline.Scope i = inner.enter()) {
+
+				assertSame(inner, Deadline.current());
+				inner.cancel();
+				try {
+
+					Deadline.check();
+					fail();
+
+				} catch (final DeadlineException e) {}
+			}
+			assertSame(outer, Deadline.current());
+			Deadline.check();
+		}
+		assertSame(Deadline.NONE, Deadline.current());
+	}
+
+	@Test
+	public void shouldRunExpiryActionOnceOnCancel() throws InterruptedException {
+
+		final Deadline deadline = Deadline.in(100, TimeUnit.MILLISECONDS);
+		final AtomicInteger runs = new AtomicInteger();
+		deadline.onExpiry(runs::incrementAndGet);
+
+		deadline.cancel();
+		assertEquals(1, runs.get());
+		assertTrue(deadline.isExpired());
+
+		Thread.sleep(150L);
+		assertEquals(1, runs.get());
+
+		deadline.onExpiry(runs::incrementAndGet);
+		assertEquals(2, runs.get());
+	}
+
+	@Test
+	public void shouldNotRunCancelledExpiryAction() throws InterruptedException {
+
+		final Deadline deadline = Deadline.in(50, TimeUnit.MILLISECONDS);
+		final AtomicInteger runs = new AtomicInteger();
+		final Future<?> expiry = deadline.onExpiry(runs::incrementAndGet);
+
+		assertTrue(expiry.cancel(false));
+		Thread.sleep(100L);
+		deadline.cancel();
+		assertEquals(0, runs.get());
+	}
+
+	@Test
+	public void shouldFailBoundStageAtDeadline() throws InterruptedException {
+
+		final CompletableFuture<String> late = Deadline.in(50, TimeUnit.MILLISECONDS).bound(new CompletableFuture<>());
+		try {
+
+			late.get(1, TimeUnit.SECONDS);
+			fail();
+
+		} catch (final ExecutionException e) {
+
+			assertTrue(e.getCause() instanceof DeadlineException);
+
+		} catch (final TimeoutException e) {
+
+			fail();
+		}
+
+		final CompletableFuture<String> result = new CompletableFuture<>();
+		final CompletableFuture<String> bound = Deadline.in(1, TimeUnit.MINUTES).bound(result);
+		result.complete("ok");
+		assertEquals("ok", bound.join());
+	}
+}